@@ -1,28 +1,58 @@
 package com.literalura.literalura;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
-import com.literalura.literalura.model.Author;
+import com.google.gson.stream.MalformedJsonException;
+import com.literalura.literalura.cli.HeadlessCommands;
+import com.literalura.literalura.client.GutendexApiException;
+import com.literalura.literalura.client.GutendexClient;
+import com.literalura.literalura.client.GutendexUnavailableException;
+import com.literalura.literalura.dto.AuthorBookCount;
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.dto.BookRow;
+import com.literalura.literalura.dto.LanguageStatistics;
+import com.literalura.literalura.dto.SubjectCount;
+import com.literalura.literalura.metrics.MetricsReporter;
 import com.literalura.literalura.model.Book;
 import com.literalura.literalura.model.GutendexResponse;
-import com.literalura.literalura.repository.AuthorRepository;
-import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.model.Subject;
+import com.literalura.literalura.search.AuthorLifespanService;
+import com.literalura.literalura.search.BookFilter;
+import com.literalura.literalura.search.CatalogFacetService;
+import com.literalura.literalura.search.CatalogStatisticsService;
+import com.literalura.literalura.search.LibrarySearchService;
+import com.literalura.literalura.search.TitleSearchIndex;
+import com.literalura.literalura.service.AuthorResolver;
+import com.literalura.literalura.service.BookBatchWriter;
+import com.literalura.literalura.service.BookWriteBehindQueue;
+import com.literalura.literalura.service.CatalogQueryService;
+import com.literalura.literalura.service.DownloadCountRefreshJob;
+import com.literalura.literalura.service.DuplicateTitleGuard;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.InputMismatchException;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,36 +63,96 @@ import java.util.stream.Collectors;
 @SpringBootApplication
 public class LiterAluraApplication {
 
-    private static final String API_URL = "https://gutendex.com/books/";
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-    private final BookRepository bookRepository;
-    private final AuthorRepository authorRepository;
+    /** Posiciones de los rankings de la opción de estadísticas. */
+    private static final int RANKING_SIZE = 10;
+    private static final int SUBJECT_FACETS = 10;
+
+    private final HeadlessCommands headlessCommands;
+    private final GutendexClient gutendexClient;
+    private final ObjectProvider<CatalogQueryService> catalogQueryService;
+    private final LibrarySearchService librarySearchService;
+    private final AuthorLifespanService authorLifespanService;
+    private final CatalogFacetService catalogFacetService;
+    private final CatalogStatisticsService catalogStatisticsService;
+    private final MetricsReporter metricsReporter;
+    private final DownloadCountRefreshJob downloadCountRefreshJob;
+    private final DuplicateTitleGuard duplicateTitleGuard;
+    private final BookWriteBehindQueue bookWriteBehindQueue;
+    private final int listingPageSize;
+    private final boolean startupReport;
     private final Scanner scanner = new Scanner(System.in);
-
-    public LiterAluraApplication(BookRepository bookRepository, AuthorRepository authorRepository) {
-        this.bookRepository = bookRepository;
-        this.authorRepository = authorRepository;
+    // Si ya se encoló algún libro; hasta entonces el menú no toca la cola (ni crea JPA con el perfil "fast").
+    private boolean writeQueueUsed;
+
+    // @Lazy: con spring.main.lazy-initialization (perfil "fast") los servicios, y con ellos Hibernate,
+    // no se crean hasta la primera opción del menú que los usa. Sin ese perfil ya existen al arrancar.
+    // Los servicios @Transactional llegan como ObjectProvider: el proxy de @Lazy de una clase que ya
+    // tiene proxy de transacciones choca, con AOT, con la clase CGLIB generada en el build.
+    public LiterAluraApplication(HeadlessCommands headlessCommands, @Lazy GutendexClient gutendexClient,
+                                 ObjectProvider<CatalogQueryService> catalogQueryService,
+                                 @Lazy LibrarySearchService librarySearchService,
+                                 @Lazy AuthorLifespanService authorLifespanService,
+                                 @Lazy CatalogFacetService catalogFacetService,
+                                 @Lazy CatalogStatisticsService catalogStatisticsService,
+                                 @Lazy MetricsReporter metricsReporter,
+                                 @Lazy DownloadCountRefreshJob downloadCountRefreshJob,
+                                 @Lazy DuplicateTitleGuard duplicateTitleGuard,
+                                 @Lazy BookWriteBehindQueue bookWriteBehindQueue,
+                                 @Value("${literalura.listing.page-size:50}") int listingPageSize,
+                                 @Value("${literalura.startup.report:false}") boolean startupReport) {
+        this.headlessCommands = headlessCommands;
+        this.gutendexClient = gutendexClient;
+        this.catalogQueryService = catalogQueryService;
+        this.librarySearchService = librarySearchService;
+        this.authorLifespanService = authorLifespanService;
+        this.catalogFacetService = catalogFacetService;
+        this.catalogStatisticsService = catalogStatisticsService;
+        this.metricsReporter = metricsReporter;
+        this.downloadCountRefreshJob = downloadCountRefreshJob;
+        this.duplicateTitleGuard = duplicateTitleGuard;
+        this.bookWriteBehindQueue = bookWriteBehindQueue;
+        this.listingPageSize = listingPageSize;
+        this.startupReport = startupReport;
     }
 
     public static void main(String[] args) {
         SpringApplication.run(LiterAluraApplication.class, args);
     }
 
+    // literalura.console.enabled=false arranca sólo el contexto (benchmarks, pruebas de integración).
     @Bean
+    @ConditionalOnProperty(name = "literalura.console.enabled", havingValue = "true", matchIfMissing = true)
     public CommandLineRunner runApplication() {
         return args -> {
+            // Modos sin menú (p. ej. --ingest=<título>): se ejecutan y la aplicación termina.
+            if (headlessCommands.run(args)) {
+                return;
+            }
+
             boolean running = true;
 
             System.out.println("¡Bienvenido a LiterAlura, tu catálogo de libros!");
+            if (startupReport) {
+                // Desde que arrancó la JVM hasta el primer menú; lo lee StartupBenchmark.
+                System.out.println("Tiempo hasta el menú: " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+            }
 
             while (running) {
+                if (writeQueueUsed) {
+                    printWriteResults(bookWriteBehindQueue.pollResults());
+                }
                 System.out.println("\n--- MENÚ ---");
                 System.out.println("1. Buscar libro por título");
                 System.out.println("2. Listar libros registrados");
                 System.out.println("3. Listar autores registrados");
                 System.out.println("4. Listar autores vivos en un determinado año");
                 System.out.println("5. Listar libros por idioma");
+                System.out.println("6. Buscar en mi biblioteca");
+                System.out.println("7. Autores vivos por década");
+                System.out.println("8. Filtrar libros (idiomas, materia, descargas, autores vivos en un año)");
+                System.out.println("9. Métricas de rendimiento");
+                System.out.println("10. Actualizar descargas de los libros guardados");
+                System.out.println("11. Estadísticas del catálogo (descargas por idioma, más descargados, autores)");
                 System.out.println("0. Salir");
                 System.out.print("Elige una opción: ");
 
@@ -86,8 +176,27 @@ public class LiterAluraApplication {
                         case 5:
                             listBooksByLanguage();
                             break;
+                        case 6:
+                            searchLibrary();
+                            break;
+                        case 7:
+                            showAuthorsPerDecade();
+                            break;
+                        case 8:
+                            filterBooks();
+                            break;
+                        case 9:
+                            System.out.println(metricsReporter.report());
+                            break;
+                        case 10:
+                            refreshDownloadCounts();
+                            break;
+                        case 11:
+                            showCatalogStatistics();
+                            break;
                         case 0:
                             running = false;
+                            closeWriteQueue();
                             System.out.println("Saliendo de LiterAlura. ¡Hasta pronto!");
                             break;
                         default:
@@ -118,144 +227,102 @@ public class LiterAluraApplication {
         System.out.print("¿Deseas filtrar por idioma? (ej. es, en, fr, pt, de - dejar en blanco para todos): ");
         String languageFilter = scanner.nextLine().trim().toLowerCase(); // Leer y limpiar
 
-        String encodedTitle = searchTitle.replace(" ", "%20");
-        StringBuilder uriBuilder = new StringBuilder(API_URL + "?search=" + encodedTitle);
-
+        String languages = null;
         // Añadir filtro de idioma si se proporcionó y es válido
         if (!languageFilter.isEmpty()) {
             if (List.of("es", "en", "fr", "pt", "de").contains(languageFilter)) {
-                uriBuilder.append("&languages=").append(languageFilter);
+                languages = languageFilter;
             } else {
                 System.out.println("Advertencia: Idioma '" + languageFilter + "' no reconocido. Buscando sin filtro de idioma.");
             }
         }
 
-        URI uri = URI.create(uriBuilder.toString());
-        // System.out.println("DEBUG: URI de búsqueda: " + uri); // Depuración eliminada
-
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder().uri(uri).GET().build();
+        URI uri = gutendexClient.searchUri(searchTitle, languages);
 
         System.out.println("\nRealizando búsqueda de: '" + searchTitle + "' en Gutendex...");
 
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                String jsonResponse = response.body();
-                GutendexResponse gutendexData = gson.fromJson(jsonResponse, GutendexResponse.class);
-
-                List<Book> booksFound = gutendexData.getBooks();
-
-                if (booksFound != null && !booksFound.isEmpty()) {
-                    System.out.println("\n--- RESULTADOS ENCONTRADOS ---");
-                    for (int i = 0; i < Math.min(booksFound.size(), 10); i++) {
-                        Book currentBook = booksFound.get(i);
-                        String authorName = "Desconocido";
-                        // Utiliza el getter del autor ya asignado por Book.java (PostLoad/setter)
-                        if (currentBook.getAuthor() != null && currentBook.getAuthor().getName() != null) {
-                            authorName = currentBook.getAuthor().getName();
-                        }
-                        System.out.println((i + 1) + ". Título: " + currentBook.getTitle() + " | Autor: " + authorName + " | Idioma: " + (currentBook.getLanguages() != null && !currentBook.getLanguages().isEmpty() ? currentBook.getLanguages().get(0) : "N/A"));
+            // Parseo en flujo directamente desde la respuesta, sin pasar por un String intermedio.
+            GutendexResponse gutendexData = gutendexClient.fetchPage(uri);
+
+            List<Book> booksFound = gutendexData.getBooks();
+
+            if (booksFound != null && !booksFound.isEmpty()) {
+                System.out.println("\n--- RESULTADOS ENCONTRADOS ---");
+                for (int i = 0; i < Math.min(booksFound.size(), 10); i++) {
+                    Book currentBook = booksFound.get(i);
+                    String authorName = "Desconocido";
+                    // Utiliza el getter del autor ya asignado por Book.java (PostLoad/setter)
+                    if (currentBook.getAuthor() != null && currentBook.getAuthor().getName() != null) {
+                        authorName = currentBook.getAuthor().getName();
+                    }
+                    System.out.println((i + 1) + ". Título: " + currentBook.getTitle() + " | Autor: " + authorName + " | Idioma: " + (currentBook.getLanguages() != null && !currentBook.getLanguages().isEmpty() ? currentBook.getLanguages().get(0) : "N/A"));
+                }
+                System.out.print("Ingresa el número del libro que deseas registrar (o 0 para cancelar): ");
+
+                int selection = -1;
+                try {
+                    selection = scanner.nextInt();
+                    scanner.nextLine(); // Consumir salto de línea
+                } catch (InputMismatchException e) {
+                    System.err.println("Entrada inválida. Por favor, ingresa un número.");
+                    scanner.nextLine(); // Limpiar buffer
+                    return;
+                }
+
+                if (selection > 0 && selection <= Math.min(booksFound.size(), 10)) {
+                    Book bookToSave = booksFound.get(selection - 1); // Elige el libro seleccionado por el usuario
+
+                    // Verificar si el libro ya existe ANTES de intentar guardarlo (mismo título sin distinguir
+                    // mayúsculas, tildes ni signos). Casi siempre lo resuelve el filtro en memoria sin consultar la DB;
+                    // si otro proceso lo guarda a la vez, la escritura en segundo plano lo informa como duplicado.
+                    if (duplicateTitleGuard.exists(bookToSave.getTitle())) {
+                        System.out.println("\n--- ERROR ---");
+                        System.out.println("¡El libro '" + bookToSave.getTitle() + "' ya está registrado en la base de datos!");
+                        System.out.println("-------------\n");
+                        return; // Salir del método
                     }
-                    System.out.print("Ingresa el número del libro que deseas registrar (o 0 para cancelar): ");
-
-                    int selection = -1;
-                    try {
-                        selection = scanner.nextInt();
-                        scanner.nextLine(); // Consumir salto de línea
-                    } catch (InputMismatchException e) {
-                        System.err.println("Entrada inválida. Por favor, ingresa un número.");
-                        scanner.nextLine(); // Limpiar buffer
-                        return;
+
+                    if (AuthorResolver.UNKNOWN_AUTHOR.equals(AuthorResolver.primaryAuthorOf(bookToSave).getName())) {
+                        System.out.println("Advertencia: Libro '" + bookToSave.getTitle() + "' no tiene autores válidos en la respuesta de la API. Usando 'Desconocido'.");
                     }
 
-                    if (selection > 0 && selection <= Math.min(booksFound.size(), 10)) {
-                        Book bookToSave = booksFound.get(selection - 1); // Elige el libro seleccionado por el usuario
-
-                        // Verificar si el libro ya existe en la base de datos ANTES de intentar guardarlo
-                        if (bookRepository.existsByTitleIgnoreCase(bookToSave.getTitle())) {
-                            System.out.println("\n--- ERROR ---");
-                            System.out.println("¡El libro '" + bookToSave.getTitle() + "' ya está registrado en la base de datos!");
-                            System.out.println("-------------\n");
-                            return; // Salir del método
-                        }
-
-                        // --- INICIO DE MANEJO DE AUTORES ---
-                        // Extraemos los datos del autor principal directamente de la lista apiAuthors del libro seleccionado.
-                        // Esto asegura que usamos los datos tal cual llegaron de la API para ese libro.
-                        String authorNameForDb = "Desconocido";
-                        Integer birthYearForDb = null;
-                        Integer deathYearForDb = null;
-
-                        if (bookToSave.getApiAuthors() != null && !bookToSave.getApiAuthors().isEmpty() && bookToSave.getApiAuthors().get(0) != null) {
-                            Author primaryApiAuthor = bookToSave.getApiAuthors().get(0);
-                            if (primaryApiAuthor.getName() != null && !primaryApiAuthor.getName().trim().isEmpty()) {
-                                authorNameForDb = primaryApiAuthor.getName();
-                                birthYearForDb = primaryApiAuthor.getBirthYear();
-                                deathYearForDb = primaryApiAuthor.getDeathYear();
-                            } else {
-                                System.out.println("Advertencia: Autor de '" + bookToSave.getTitle() + "' tiene un nombre vacío/nulo en la API. Usando 'Desconocido'.");
-                            }
-                        } else {
-                            System.out.println("Advertencia: Libro '" + bookToSave.getTitle() + "' no tiene autores válidos en la respuesta de la API. Usando 'Desconocido'.");
-                        }
-
-                        System.out.println("DEBUG: Nombre del autor para la DB: " + authorNameForDb); // Debugging extra
-
-                        // Buscar el autor en la DB por su nombre.
-                        Optional<Author> existingAuthor = authorRepository.findByNameIgnoreCase(authorNameForDb);
-                        Author author;
-                        if (existingAuthor.isPresent()) {
-                            author = existingAuthor.get(); // Usar el autor ya existente
-                            System.out.println("Autor '" + authorNameForDb + "' ya existente en la base de datos.");
-                        } else {
-                            // Crear un nuevo autor con los detalles obtenidos de la API (o 'Desconocido' si no hay datos válidos)
-                            author = new Author(authorNameForDb, birthYearForDb, deathYearForDb);
-                            try {
-                                authorRepository.save(author); // Guardar el nuevo autor
-                                System.out.println("Nuevo autor '" + author.getName() + "' registrado.");
-                            } catch (DataIntegrityViolationException e) {
-                                System.err.println("Advertencia: El autor '" + author.getName() + "' ya fue insertado concurrently. Recuperando existente.");
-                                author = authorRepository.findByNameIgnoreCase(author.getName())
-                                        .orElseThrow(() -> new RuntimeException("Error al recuperar autor existente después de un conflicto."));
-                            }
-                        }
-                        // --- FIN DE MANEJO DE AUTORES ---
-
-                        bookToSave.setAuthor(author); // Asociar el autor de la DB (existente o nuevo) al libro
-                        bookRepository.save(bookToSave); // Guardar el libro
-                        System.out.println("\n--- LIBRO REGISTRADO EXITOSAMENTE ---");
-                        System.out.println(bookToSave.toString()); // El toString() del libro debe ahora mostrar el autor correcto
-                        System.out.println("-----------------------------------\n");
-
-                    } else if (selection == 0) {
-                        System.out.println("Búsqueda cancelada por el usuario.");
+                    // El autor y el libro se guardan en segundo plano: el menú vuelve sin esperar a la base de datos
+                    // y el resultado se muestra antes del siguiente menú.
+                    writeQueueUsed = true;
+                    CompletableFuture<BookWriteBehindQueue.WriteResult> saved = bookWriteBehindQueue.submit(bookToSave);
+                    if (saved.isDone()) {
+                        // Se muestra ya; se retira de los pendientes para no repetirlo antes del siguiente menú.
+                        BookWriteBehindQueue.WriteResult result = saved.join();
+                        bookWriteBehindQueue.acknowledge(result);
+                        printWriteResults(List.of(result));
                     } else {
-                        System.out.println("Selección inválida. Por favor, elige un número de la lista.");
+                        System.out.println("\n'" + bookToSave.getTitle() + "' se guardará en segundo plano.");
                     }
 
-                } else { // No hay libros encontrados
-                    System.out.println("\n--- BÚSQUEDA SIN RESULTADOS ---");
-                    System.out.println("No se encontró ningún libro con el título '" + searchTitle + "' en Gutendex.");
-                    System.out.println("-------------------------------\n");
+                } else if (selection == 0) {
+                    System.out.println("Búsqueda cancelada por el usuario.");
+                } else {
+                    System.out.println("Selección inválida. Por favor, elige un número de la lista.");
                 }
 
-            } else { // Error de status code
-                System.err.println("Error al buscar libros en la API. Código de estado: " + response.statusCode());
-                System.err.println("Cuerpo de la respuesta de error: " + response.body());
+            } else { // No hay libros encontrados
+                System.out.println("\n--- BÚSQUEDA SIN RESULTADOS ---");
+                System.out.println("No se encontró ningún libro con el título '" + searchTitle + "' en Gutendex.");
+                System.out.println("-------------------------------\n");
             }
-        } catch (DataIntegrityViolationException e) {
-            System.err.println("\n--- ERROR DE BASE DE DATOS ---");
-            System.err.println("Error al guardar: El libro '" + searchTitle + "' ya existe en la base de datos. Detalles: " + e.getMessage());
-            System.out.println("-----------------------------\n");
+        } catch (GutendexApiException e) { // Error de status code
+            System.err.println("Error al buscar libros en la API. Código de estado: " + e.getStatusCode());
+            System.err.println("Cuerpo de la respuesta de error: " + e.getResponseBody());
+        } catch (GutendexUnavailableException e) { // Cortocircuito abierto tras varios fallos
+            System.err.println(e.getMessage() + ". Inténtalo más tarde.");
+        } catch (MalformedJsonException | IllegalStateException e) {
+            System.err.println("Error al parsear la respuesta JSON de la API. Posiblemente el formato no es el esperado: " + e.getMessage());
         } catch (IOException e) {
             System.err.println("Error de I/O al comunicarse con la API: " + e.getMessage());
         } catch (InterruptedException e) {
             System.err.println("La operación de red fue interrumpida: " + e.getMessage());
             Thread.currentThread().interrupt();
-        } catch (JsonSyntaxException e) {
-            System.err.println("Error al parsear la respuesta JSON de la API. Posiblemente el formato no es el esperado: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Ocurrió un error inesperado durante la búsqueda/guardado: " + e.getMessage());
             e.printStackTrace();
@@ -263,15 +330,101 @@ public class LiterAluraApplication {
     }
 
     /**
-     * Lista todos los libros que están registrados en la base de datos.
+     * Muestra el resultado de los libros que terminó de guardar la escritura en segundo plano.
+     */
+    private static void printWriteResults(List<BookWriteBehindQueue.WriteResult> results) {
+        for (BookWriteBehindQueue.WriteResult result : results) {
+            if (result.outcome() == BookBatchWriter.Outcome.SAVED) {
+                System.out.println("\n--- LIBRO REGISTRADO EXITOSAMENTE ---");
+                System.out.println(result.book());
+                System.out.println("-----------------------------------\n");
+            } else {
+                System.out.println(result);
+            }
+        }
+    }
+
+    /**
+     * Al salir: espera a que se guarden los libros que aún están en la cola de escritura.
+     */
+    private void closeWriteQueue() throws InterruptedException {
+        if (!writeQueueUsed) {
+            return;
+        }
+        int pending = bookWriteBehindQueue.pending();
+        if (pending > 0) {
+            System.out.println("Guardando " + pending + " libro(s) pendiente(s)...");
+        }
+        printWriteResults(bookWriteBehindQueue.close());
+    }
+
+    /**
+     * Actualiza las descargas de los libros guardados con los valores actuales de Gutendex
+     * (o termina una actualización interrumpida).
+     */
+    private void refreshDownloadCounts() {
+        System.out.println("\nActualizando las descargas con Gutendex...");
+        try {
+            System.out.println(downloadCountRefreshJob.run());
+        } catch (IllegalStateException e) { // Ya hay una actualización periódica en curso
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Actualización interrumpida: " + e.getMessage()
+                    + ". La próxima vez continuará desde el último bloque guardado.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("La actualización fue interrumpida.");
+        }
+    }
+
+    /**
+     * Muestra las descargas por idioma, los libros más descargados (de todos o de un idioma)
+     * y los autores con más libros. Todo sale de las estadísticas en memoria, sin recorrer la tabla.
+     */
+    private void showCatalogStatistics() {
+        LanguageStatistics totals = catalogStatisticsService.totals();
+        if (totals.books() == 0) {
+            System.out.println("\nNo hay libros registrados en la base de datos.");
+            return;
+        }
+        System.out.println("\n--- DESCARGAS POR IDIOMA ---");
+        System.out.printf("%-8s %8s %14s %12s%n", "Idioma", "Libros", "Descargas", "Media");
+        for (LanguageStatistics language : catalogStatisticsService.byLanguage()) {
+            System.out.printf("%-8s %8d %14d %12.1f%n", language.language().toUpperCase(), language.books(),
+                    language.downloads(), language.averageDownloads());
+        }
+        System.out.printf("%-8s %8d %14d %12.1f%n", "Total", totals.books(), totals.downloads(), totals.averageDownloads());
+
+        System.out.print("\nIdioma para el ranking de descargas (ej. es, en - dejar en blanco para todos): ");
+        String language = scanner.nextLine().trim().toLowerCase();
+        List<BookRow> top = catalogStatisticsService.mostDownloaded(language.isEmpty() ? null : language, RANKING_SIZE);
+        System.out.println("\n--- LOS MÁS DESCARGADOS" + (language.isEmpty() ? "" : " EN " + language.toUpperCase()) + " ---");
+        if (top.isEmpty()) {
+            System.out.println("No hay libros registrados en ese idioma.");
+        }
+        for (int i = 0; i < top.size(); i++) {
+            BookRow book = top.get(i);
+            System.out.printf("%2d. %s | Autor: %s | Descargas: %d%n", i + 1, book.title(),
+                    book.authorName() != null ? book.authorName() : "Desconocido",
+                    book.downloadCount() != null ? book.downloadCount() : 0);
+        }
+
+        System.out.println("\n--- AUTORES CON MÁS LIBROS ---");
+        List<AuthorBookCount> authors = catalogStatisticsService.topAuthors(RANKING_SIZE);
+        for (int i = 0; i < authors.size(); i++) {
+            System.out.printf("%2d. %s: %d libros%n", i + 1, authors.get(i).author().name(), authors.get(i).books());
+        }
+        System.out.println("------------------------------\n");
+    }
+
+    /**
+     * Lista todos los libros registrados en la base de datos, página a página.
      */
     private void listRegisteredBooks() {
-        List<Book> books = bookRepository.findAll();
-        if (books.isEmpty()) {
+        boolean found = printPages(catalogQueryService.getObject()::listBooks, "\n--- LIBROS REGISTRADOS ---");
+        if (!found) {
             System.out.println("\nNo hay libros registrados en la base de datos.");
         } else {
-            System.out.println("\n--- LIBROS REGISTRADOS ---");
-            books.forEach(System.out::println);
             System.out.println("------------------------\n");
         }
     }
@@ -280,15 +433,10 @@ public class LiterAluraApplication {
      * Lista todos los autores registrados en la base de datos, excluyendo los autores "Desconocido".
      */
     private void listRegisteredAuthors() {
-        List<Author> authors = authorRepository.findAllByOrderByNameAsc().stream()
-                .filter(author -> !author.getName().equalsIgnoreCase("Desconocido"))
-                .collect(Collectors.toList());
-
-        if (authors.isEmpty()) {
+        boolean found = printPages(catalogQueryService.getObject()::listAuthors, "\n--- AUTORES REGISTRADOS ---");
+        if (!found) {
             System.out.println("\nNo hay autores registrados (o todos son 'Desconocido').");
         } else {
-            System.out.println("\n--- AUTORES REGISTRADOS ---");
-            authors.forEach(author -> System.out.println(author.toString())); // Usar toString() del Author
             System.out.println("---------------------------\n");
         }
     }
@@ -302,11 +450,8 @@ public class LiterAluraApplication {
             int year = scanner.nextInt();
             scanner.nextLine();
 
-            List<Author> authors = authorRepository.findAuthorsAliveInYear(year);
-            authors = authors.stream()
-                    .filter(author -> !author.getName().equalsIgnoreCase("Desconocido"))
-                    .collect(Collectors.toList());
-
+            // Consulta resuelta por el índice de periodos de vida, sin recorrer la tabla de autores.
+            List<AuthorSummary> authors = authorLifespanService.aliveIn(year);
             if (authors.isEmpty()) {
                 System.out.println("\nNo se encontraron autores vivos en el año " + year + " (excluyendo 'Desconocido').");
             } else {
@@ -320,26 +465,224 @@ public class LiterAluraApplication {
         }
     }
 
+    /**
+     * Muestra cuántos autores registrados vivieron en cada década de un rango de años.
+     */
+    private void showAuthorsPerDecade() {
+        try {
+            System.out.print("Año inicial: ");
+            int from = scanner.nextInt();
+            System.out.print("Año final: ");
+            int to = scanner.nextInt();
+            scanner.nextLine();
+            if (from > to || to - from > 5000) {
+                System.out.println("Rango no válido. El año inicial debe ser menor que el final (máximo 5000 años).");
+                return;
+            }
+
+            SortedMap<Integer, Integer> histogram = authorLifespanService.decadeHistogram(from, to);
+            int max = histogram.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            System.out.println("\n--- AUTORES VIVOS POR DÉCADA (" + from + " - " + to + ") ---");
+            histogram.forEach((decade, count) -> {
+                int bar = max == 0 ? 0 : (int) Math.round(40.0 * count / max);
+                System.out.printf("%6ds | %-40s %d%n", decade, "#".repeat(bar), count);
+            });
+            System.out.println("----------------------------------------\n");
+        } catch (InputMismatchException e) {
+            System.err.println("Entrada inválida. Por favor, ingresa un número para el año.");
+            scanner.nextLine();
+        }
+    }
+
     /**
      * Lista los libros registrados en la base de datos por un idioma específico.
+     * Los idiomas disponibles y sus conteos salen del índice de bitmaps, no de una lista fija.
      */
     private void listBooksByLanguage() {
-        System.out.println("\nIdiomas disponibles (ej. ES, EN, FR, PT, DE): ");
-        System.out.print("Ingresa el código de idioma: ");
-        String language = scanner.nextLine().toLowerCase();
-
-        if (!List.of("es", "en", "fr", "pt", "de").contains(language)) {
-            System.out.println("Idioma no válido. Por favor, ingresa ES, EN, FR, PT o DE.");
+        Map<String, Integer> breakdown = catalogFacetService.languageBreakdown();
+        if (breakdown.isEmpty()) {
+            System.out.println("\nNo hay libros registrados en la base de datos.");
+            return;
+        }
+        System.out.println("\nIdiomas disponibles: " + breakdown.entrySet().stream()
+                .map(entry -> entry.getKey().toUpperCase() + " (" + entry.getValue() + ")")
+                .collect(Collectors.joining(", ")));
+        System.out.print("Ingresa el código de idioma (o varios separados por coma): ");
+        Set<String> languages = parseLanguages(scanner.nextLine());
+
+        if (languages.isEmpty() || !breakdown.keySet().containsAll(languages)) {
+            System.out.println("Idioma no válido. Por favor, elige uno de los idiomas disponibles.");
             return;
         }
 
-        List<Book> books = bookRepository.findByLanguagesContaining(language);
-        if (books.isEmpty()) {
-            System.out.println("\nNo se encontraron libros en " + language.toUpperCase() + " en la base de datos.");
+        String label = String.join(", ", languages).toUpperCase();
+        RoaringBitmap ids = catalogFacetService.matching(BookFilter.ANY.withLanguages(languages, false));
+        if (!printBooks(ids, "\n--- LIBROS EN IDIOMA " + label + " (" + ids.getCardinality() + ") ---")) {
+            System.out.println("\nNo se encontraron libros en " + label + " en la base de datos.");
         } else {
-            System.out.println("\n--- LIBROS EN IDIOMA " + language.toUpperCase() + " ---");
-            books.forEach(System.out::println);
             System.out.println("------------------------------------\n");
         }
     }
+
+    /**
+     * Filtro combinado: idiomas, materia, rango de descargas y autores vivos en un año, resuelto con
+     * operaciones entre bitmaps. Muestra el conteo, el desglose por idioma, las materias más frecuentes
+     * y los libros.
+     */
+    private void filterBooks() {
+        try {
+            System.out.print("Idiomas separados por coma (vacío = todos): ");
+            Set<String> languages = parseLanguages(scanner.nextLine());
+            System.out.print("¿Exigir todos los idiomas a la vez? (s/N): ");
+            boolean allLanguages = scanner.nextLine().trim().equalsIgnoreCase("s");
+            System.out.print("Materia (texto o parte; vacío = cualquiera): ");
+            String subjectText = scanner.nextLine().trim();
+            Subject subject = null;
+            if (!subjectText.isEmpty()) {
+                subject = chooseSubject(subjectText);
+                if (subject == null) {
+                    return;
+                }
+            }
+            System.out.print("Descargas mínimas (vacío = sin mínimo): ");
+            Integer minDownloads = parseOptionalInt(scanner.nextLine());
+            System.out.print("Descargas máximas (vacío = sin máximo): ");
+            Integer maxDownloads = parseOptionalInt(scanner.nextLine());
+            System.out.print("Sólo autores vivos en el año (vacío = cualquiera): ");
+            Integer aliveIn = parseOptionalInt(scanner.nextLine());
+
+            BookFilter filter = BookFilter.ANY
+                    .withLanguages(languages.isEmpty() ? null : languages, allLanguages)
+                    .withDownloads(minDownloads, maxDownloads)
+                    .withAuthorsAliveIn(aliveIn)
+                    .withSubjectIds(subject != null ? Set.of(subject.getId()) : null);
+
+            long start = System.nanoTime();
+            RoaringBitmap ids = catalogFacetService.matching(filter);
+            Map<String, Integer> breakdown = catalogFacetService.languageBreakdown(filter);
+            List<SubjectCount> subjects = catalogFacetService.subjectBreakdown(filter, SUBJECT_FACETS);
+            long micros = (System.nanoTime() - start) / 1_000;
+
+            System.out.println("\nLibros que cumplen el filtro: " + ids.getCardinality() + " (" + micros + " µs)");
+            breakdown.forEach((language, count) -> System.out.println("  " + language.toUpperCase() + ": " + count));
+            if (!subjects.isEmpty()) {
+                System.out.println("Materias más frecuentes:");
+                subjects.forEach(count -> System.out.println("  " + count.name() + ": " + count.books()));
+            }
+            if (printBooks(ids, "\n--- LIBROS FILTRADOS ---")) {
+                System.out.println("------------------------\n");
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Entrada inválida. Por favor, ingresa un número o deja el campo vacío.");
+        }
+    }
+
+    /**
+     * Materia del diccionario para el filtro: la que se llama exactamente así (sin distinguir mayúsculas)
+     * o la única que contiene el texto. Si hay varias, las muestra para que se afine la búsqueda.
+     * @return La materia elegida, o null si no hay una sola.
+     */
+    private Subject chooseSubject(String text) {
+        List<Subject> candidates = catalogFacetService.findSubjects(text);
+        for (Subject candidate : candidates) {
+            if (candidate.getName().equalsIgnoreCase(text)) {
+                return candidate;
+            }
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        if (candidates.isEmpty()) {
+            System.out.println("No hay materias registradas que contengan '" + text + "'.");
+        } else {
+            System.out.println("Hay " + candidates.size() + " materias que contienen '" + text + "'; escribe una de ellas:");
+            candidates.stream().limit(SUBJECT_FACETS).forEach(candidate -> System.out.println("  " + candidate.getName()));
+        }
+        return null;
+    }
+
+    private static Set<String> parseLanguages(String input) {
+        Set<String> languages = new LinkedHashSet<>();
+        for (String language : input.split(",")) {
+            if (!language.isBlank()) {
+                languages.add(language.trim().toLowerCase());
+            }
+        }
+        return languages;
+    }
+
+    private static Integer parseOptionalInt(String input) {
+        return input.isBlank() ? null : Integer.valueOf(input.trim());
+    }
+
+    /**
+     * Imprime los libros de un bitmap de IDs, cargándolos página a página.
+     * @return true si se imprimió al menos un libro.
+     */
+    private boolean printBooks(RoaringBitmap ids, String header) {
+        if (ids.isEmpty()) {
+            return false;
+        }
+        System.out.println(header);
+        List<Integer> page = new ArrayList<>(listingPageSize);
+        for (PeekableIntIterator it = ids.getIntIterator(); it.hasNext(); ) {
+            page.add(it.next());
+            if (page.size() == listingPageSize || !it.hasNext()) {
+                catalogQueryService.getObject().summariesOf(page).forEach(System.out::println);
+                page.clear();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca por título entre los libros ya registrados, usando el índice de trigramas en memoria
+     * (tolera tildes y erratas y ordena por relevancia).
+     */
+    private void searchLibrary() {
+        System.out.print("Ingresa el título (o parte) a buscar en tu biblioteca: ");
+        String query = scanner.nextLine();
+        if (query.isBlank()) {
+            System.out.println("La búsqueda no puede estar vacía.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<TitleSearchIndex.Hit> hits = librarySearchService.search(query, 10);
+        long micros = (System.nanoTime() - start) / 1_000;
+        if (hits.isEmpty()) {
+            System.out.println("\nNo se encontraron libros parecidos a '" + query + "' en tu biblioteca.");
+            return;
+        }
+        System.out.println("\n--- RESULTADOS EN TU BIBLIOTECA (" + micros + " µs) ---");
+        for (int i = 0; i < hits.size(); i++) {
+            TitleSearchIndex.Hit hit = hits.get(i);
+            System.out.println((i + 1) + ". " + hit.title() + " | ID: " + hit.bookId() + " | Descargas: " + hit.downloadCount());
+        }
+        System.out.println("-----------------------------------\n");
+    }
+
+    /**
+     * Imprime todas las páginas de una consulta, de una en una, para que la memoria usada
+     * no dependa del tamaño de la biblioteca.
+     * @param query Consulta paginada.
+     * @param header Cabecera a imprimir antes del primer elemento.
+     * @return true si se imprimió al menos un elemento.
+     */
+    private <T> boolean printPages(Function<Pageable, Slice<T>> query, String header) {
+        Pageable pageable = PageRequest.of(0, listingPageSize);
+        boolean found = false;
+        while (true) {
+            Slice<T> page = query.apply(pageable);
+            if (page.hasContent() && !found) {
+                System.out.println(header);
+                found = true;
+            }
+            page.forEach(System.out::println);
+            if (!page.hasNext()) {
+                return found;
+            }
+            pageable = page.nextPageable();
+        }
+    }
 }
@@ -0,0 +1,272 @@
+package com.literalura.literalura.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.literalura.literalura.dto.LanguageStatistics;
+import com.literalura.literalura.dto.SubjectCount;
+import com.literalura.literalura.search.BookFilter;
+import com.literalura.literalura.search.CatalogFacetService;
+import com.literalura.literalura.search.CatalogStatisticsService;
+import com.literalura.literalura.service.CatalogQueryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * API REST de lectura del catálogo (perfil {@code api}).
+ * <p>
+ * Los listados se paginan por clave: cada respuesta es {@code {"items": [...], "next": <id>}} y la
+ * página siguiente se pide con {@code ?after=<next>}; {@code next} es null en la última. El coste de
+ * una página no depende de su posición, a diferencia de {@code OFFSET}.
+ * <p>
+ * Todas las respuestas llevan una ETag fuerte basada en {@link CatalogVersion} y {@code Cache-Control: max-age}.
+ * Una petición con {@code If-None-Match} igual a la versión actual recibe un 304 sin consultar la base
+ * de datos.
+ * <p>
+ * La compresión gzip se hace aquí y no con {@code server.compression}: Tomcat no comprime respuestas
+ * con ETag fuerte (la misma ETag no puede nombrar dos cuerpos distintos). Cada codificación tiene su
+ * propia ETag ({@code "<versión>"} o {@code "<versión>-gzip"}) y la respuesta lleva {@code Vary: Accept-Encoding}.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication
+public class CatalogApiController {
+
+    private final CatalogQueryService catalogQueryService;
+    private final CatalogFacetService catalogFacetService;
+    private final CatalogStatisticsService catalogStatisticsService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int gzipMinSize;
+    private final CacheControl cacheControl;
+
+    public CatalogApiController(CatalogQueryService catalogQueryService, CatalogFacetService catalogFacetService,
+                                CatalogStatisticsService catalogStatisticsService, CatalogVersion catalogVersion, ObjectMapper objectMapper,
+                                @Value("${literalura.api.default-page-size:50}") int defaultPageSize,
+                                @Value("${literalura.api.max-page-size:500}") int maxPageSize,
+                                @Value("${literalura.api.gzip-min-size:1024}") int gzipMinSize,
+                                @Value("${literalura.api.max-age:30s}") Duration maxAge) {
+        this.catalogQueryService = catalogQueryService;
+        this.catalogFacetService = catalogFacetService;
+        this.catalogStatisticsService = catalogStatisticsService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.gzipMinSize = gzipMinSize;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    /**
+     * Libros ordenados por ID, opcionalmente de un idioma ({@code ?language=es}).
+     */
+    @GetMapping("/books")
+    public ResponseEntity<byte[]> books(@RequestParam(defaultValue = "0") int after,
+                                        @RequestParam(required = false) Integer limit,
+                                        @RequestParam(required = false) String language,
+                                        WebRequest request) {
+        int size = pageSize(limit);
+        return cached(request, () -> language == null || language.isBlank()
+                ? catalogQueryService.listBooksAfter(after, size)
+                : catalogQueryService.listBooksByLanguageAfter(language.trim().toLowerCase(Locale.ROOT), after, size));
+    }
+
+    /**
+     * Un libro por ID (404 si no existe).
+     */
+    @GetMapping("/books/{id}")
+    public ResponseEntity<byte[]> book(@PathVariable int id, WebRequest request) {
+        return cached(request, () -> catalogQueryService.findBook(id).orElse(null));
+    }
+
+    /**
+     * Autores (sin "Desconocido") ordenados por ID.
+     */
+    @GetMapping("/authors")
+    public ResponseEntity<byte[]> authors(@RequestParam(defaultValue = "0") long after,
+                                          @RequestParam(required = false) Integer limit,
+                                          WebRequest request) {
+        int size = pageSize(limit);
+        return cached(request, () -> catalogQueryService.listAuthorsAfter(after, size));
+    }
+
+    /**
+     * Autores vivos en un año ({@code ?year=1850}), ordenados por ID.
+     */
+    @GetMapping("/authors/alive")
+    public ResponseEntity<byte[]> authorsAlive(@RequestParam int year,
+                                               @RequestParam(defaultValue = "0") long after,
+                                               @RequestParam(required = false) Integer limit,
+                                               WebRequest request) {
+        int size = pageSize(limit);
+        return cached(request, () -> catalogQueryService.listAuthorsAliveInYearAfter(year, after, size));
+    }
+
+    /**
+     * Número de libros por idioma, de mayor a menor (filtros disponibles para {@code /books?language=}).
+     */
+    @GetMapping("/languages")
+    public ResponseEntity<byte[]> languages(WebRequest request) {
+        return cached(request, catalogFacetService::languageBreakdown);
+    }
+
+    /**
+     * Facetas por materia: número de libros, desglose por idioma y las materias más frecuentes entre los libros
+     * de un idioma ({@code ?language=en}) y con unas materias ({@code ?subject=12&subject=40}, IDs del
+     * diccionario que deben tener todas). Los IDs de la respuesta sirven para afinar la siguiente petición.
+     */
+    @GetMapping("/subjects")
+    public ResponseEntity<byte[]> subjects(@RequestParam(required = false) String language,
+                                           @RequestParam(required = false) List<Integer> subject,
+                                           @RequestParam(defaultValue = "20") int limit,
+                                           WebRequest request) {
+        BookFilter filter = BookFilter.ANY
+                .withLanguages(language == null || language.isBlank() ? null
+                        : Set.of(language.trim().toLowerCase(Locale.ROOT)), false)
+                .withSubjectIds(subject == null || subject.isEmpty() ? null : Set.copyOf(subject));
+        int size = pageSize(limit);
+        return cached(request, () -> new SubjectFacets(catalogFacetService.count(filter),
+                catalogFacetService.languageBreakdown(filter), catalogFacetService.subjectBreakdown(filter, size)));
+    }
+
+    /**
+     * Libros y descargas (total y media) de todo el catálogo y por idioma.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<byte[]> statistics(WebRequest request) {
+        return cached(request, () -> new CatalogStatistics(catalogStatisticsService.totals(),
+                catalogStatisticsService.byLanguage()));
+    }
+
+    /**
+     * Los libros más descargados, de todo el catálogo o de un idioma ({@code ?language=es}).
+     */
+    @GetMapping("/stats/top-books")
+    public ResponseEntity<byte[]> topBooks(@RequestParam(required = false) String language,
+                                           @RequestParam(defaultValue = "10") int limit,
+                                           WebRequest request) {
+        return cached(request, () -> catalogStatisticsService.mostDownloaded(
+                language == null || language.isBlank() ? null : language, limit));
+    }
+
+    /**
+     * Los autores con más libros registrados.
+     */
+    @GetMapping("/stats/top-authors")
+    public ResponseEntity<byte[]> topAuthors(@RequestParam(defaultValue = "10") int limit, WebRequest request) {
+        return cached(request, () -> catalogStatisticsService.topAuthors(limit));
+    }
+
+    /**
+     * Número de libros registrados de un autor.
+     */
+    @GetMapping("/authors/{id}/book-count")
+    public ResponseEntity<byte[]> authorBookCount(@PathVariable long id, WebRequest request) {
+        return cached(request, () -> new AuthorBooks(id, catalogStatisticsService.booksBy(id)));
+    }
+
+    /** Cuerpo de {@code /stats}. */
+    public record CatalogStatistics(LanguageStatistics total, List<LanguageStatistics> languages) {
+    }
+
+    /** Cuerpo de {@code /subjects}. */
+    public record SubjectFacets(int books, Map<String, Integer> languages, List<SubjectCount> subjects) {
+    }
+
+    /** Cuerpo de {@code /authors/{id}/book-count}. */
+    public record AuthorBooks(long authorId, int books) {
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    /**
+     * Responde 304 si el cliente ya tiene la versión actual; si no, calcula el cuerpo (404 si es null),
+     * lo serializa y lo comprime si el cliente acepta gzip.
+     */
+    private ResponseEntity<byte[]> cached(WebRequest request, Supplier<?> body) {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = catalogVersion.etag(gzip ? "gzip" : null);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        Object value = body.get();
+        if (value == null) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] json = toJson(value);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl).eTag(etag).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // El umbral depende sólo del cuerpo, así que la misma ETag siempre nombra los mismos bytes.
+        if (gzip && json.length >= gzipMinSize) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip(json));
+        }
+        return response.body(json);
+    }
+
+    /**
+     * Indica si {@code Accept-Encoding} admite gzip (no lo admite {@code gzip;q=0}).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && parameter.substring(2).trim().matches("0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,53 @@
+package com.literalura.literalura.api;
+
+import com.literalura.literalura.event.AuthorSavedEvent;
+import com.literalura.literalura.event.BookSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo para las ETag de la API: cambia con cada escritura confirmada en este proceso
+ * (libros, autores, cargas masivas y actualizaciones de descargas).
+ * <p>
+ * Incluye el instante de arranque, de modo que una ETag de una ejecución anterior nunca coincide
+ * aunque el contador vuelva a empezar. Las escrituras de otros procesos no cambian la versión;
+ * el {@code max-age} de {@code Cache-Control} limita cuánto puede tardar en verse un cambio así.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String startedAt = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * ETag fuerte (entre comillas) de la versión actual.
+     * @param variant Sufijo de la representación (p. ej. {@code "gzip"}), o null.
+     */
+    public String etag(String variant) {
+        return "\"" + startedAt + "-" + changes.get() + (variant != null ? "-" + variant : "") + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorSaved(AuthorSavedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        changes.incrementAndGet();
+    }
+}
@@ -0,0 +1,233 @@
+package com.literalura.literalura.catalog;
+
+import com.google.gson.stream.JsonWriter;
+import com.literalura.literalura.dto.BookExportRow;
+import com.literalura.literalura.repository.BookRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta el catálogo guardado a CSV o JSON Lines, opcionalmente comprimido con gzip.
+ * <p>
+ * Las filas llegan de {@link BookRepository#streamExportRows()} (un cursor en el servidor, dentro de una
+ * transacción de sólo lectura) y se escriben una a una en un búfer de {@value #BUFFER_SIZE} bytes:
+ * ni la consulta ni el archivo se tienen enteros en memoria, así que la memoria usada no depende
+ * del número de libros.
+ */
+@Service
+public class CatalogExporter {
+
+    static final int BUFFER_SIZE = 1 << 16;
+    static final String CSV_HEADER = "id,title,author,birth_year,death_year,languages,download_count";
+
+    /** Formato del archivo exportado. */
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Formato según la extensión del archivo ({@code .jsonl}, {@code .ndjson}; el resto, CSV),
+         * sin contar un {@code .gz} final.
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
+            }
+            return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSONL : CSV;
+        }
+
+        /**
+         * @return El formato con ese nombre ({@code csv}, {@code jsonl}), sin distinguir mayúsculas.
+         * @throws IllegalArgumentException Si no existe.
+         */
+        public static Format named(String name) {
+            return Format.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /** Resumen de una exportación terminada. */
+    public record ExportReport(Path file, Format format, boolean gzip, int books, long bytes, long elapsedMillis) {
+        @Override
+        public String toString() {
+            double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+            return "Archivo: " + file + " (" + format.name().toLowerCase(Locale.ROOT) + (gzip ? ", gzip" : "") + ")"
+                    + " | Libros: " + books
+                    + " | Tamaño: " + String.format("%.1f MB", bytes / (1024.0 * 1024.0))
+                    + " | Tiempo: " + String.format("%.1f s", seconds)
+                    + " | Ritmo: " + String.format("%.0f libros/s", books / seconds);
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CatalogExporter(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        // El cursor de PostgreSQL sólo se usa dentro de una transacción (sin autocommit).
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Exporta todos los libros a {@code file} (lo reemplaza si existe). Se escribe en un archivo {@code .tmp}
+     * al lado y se mueve al terminar, así una exportación que falla a medias no deja el archivo anterior vacío.
+     * @param format Formato, o {@code null} para deducirlo de la extensión.
+     * @param gzip Si se comprime; también se comprime si el archivo termina en {@code .gz}.
+     */
+    public ExportReport export(Path file, Format format, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        Format effectiveFormat = format != null ? format : Format.of(file);
+        boolean compress = gzip || file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        int books;
+        try (OutputStream out = Files.newOutputStream(temporary);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     compress ? new GZIPOutputStream(out, BUFFER_SIZE) : out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            RowWriter rows = effectiveFormat == Format.CSV ? new CsvRowWriter(writer) : new JsonLinesRowWriter(writer);
+            try {
+                books = transactionTemplate.execute(status -> {
+                    try (Stream<BookExportRow> stream = bookRepository.streamExportRows()) {
+                        int count = 0;
+                        for (Iterator<BookExportRow> it = stream.iterator(); it.hasNext(); count++) {
+                            rows.write(it.next());
+                        }
+                        return count;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ExportReport(file, effectiveFormat, compress, books, Files.size(absolute),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Escribe una fila en el formato del archivo. */
+    private interface RowWriter {
+        void write(BookExportRow row) throws IOException;
+    }
+
+    /**
+     * CSV según RFC 4180: los campos con coma, comillas o saltos de línea van entre comillas (dobladas dentro).
+     * Los idiomas van en un solo campo, separados por coma.
+     */
+    static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) throws IOException {
+            this.out = out;
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+
+        @Override
+        public void write(BookExportRow row) throws IOException {
+            number(row.id());
+            out.write(',');
+            text(row.title());
+            out.write(',');
+            text(row.authorName());
+            out.write(',');
+            number(row.birthYear());
+            out.write(',');
+            number(row.deathYear());
+            out.write(',');
+            text(row.languages());
+            out.write(',');
+            number(row.downloadCount());
+            out.write('\n');
+        }
+
+        private void number(Integer value) throws IOException {
+            if (value != null) {
+                out.write(Integer.toString(value));
+            }
+        }
+
+        private void text(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    /**
+     * Un objeto JSON por línea. Los idiomas van como array; los valores desconocidos, como {@code null}.
+     */
+    static final class JsonLinesRowWriter implements RowWriter {
+        private final Writer out;
+        private final JsonWriter json;
+
+        JsonLinesRowWriter(Writer out) {
+            this.out = out;
+            this.json = new JsonWriter(out);
+            // Varios valores de primer nivel en el mismo flujo; el salto de línea se escribe aparte.
+            this.json.setLenient(true);
+        }
+
+        @Override
+        public void write(BookExportRow row) throws IOException {
+            json.beginObject();
+            json.name("id").value(row.id());
+            json.name("title").value(row.title());
+            json.name("author").value(row.authorName());
+            json.name("birthYear").value(row.birthYear());
+            json.name("deathYear").value(row.deathYear());
+            json.name("languages").beginArray();
+            if (row.languages() != null) {
+                for (String language : row.languages().split(",")) {
+                    json.value(language);
+                }
+            }
+            json.endArray();
+            json.name("downloadCount").value(row.downloadCount());
+            json.endObject();
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.literalura.literalura.catalog;
+
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.repository.CatalogBulkWriter;
+import com.literalura.literalura.service.BookBatchWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Carga del catálogo de Project Gutenberg desde archivos locales, sin pasar por la API:
+ * <ul>
+ *     <li>{@code pg_catalog.csv} (o {@code .csv.gz}): el catálogo completo en un archivo. No trae descargas.</li>
+ *     <li>Un directorio con los RDF de metadatos ya descomprimidos ({@code rdf-files.tar.bz2}): trae descargas.</li>
+ *     <li>Un único archivo {@code .rdf}.</li>
+ * </ul>
+ * Un hilo lee y convierte los registros mientras el llamador guarda los lotes con {@link CatalogBulkWriter}
+ * (COPY + fusión en una sentencia), unidos por una cola acotada: la memoria usada no depende del tamaño del catálogo.
+ */
+@Service
+public class OfflineCatalogLoader {
+
+    private static final List<Book> END_OF_BOOKS = new ArrayList<>();
+
+    private final CatalogBulkWriter bulkWriter;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    public OfflineCatalogLoader(CatalogBulkWriter bulkWriter,
+                                @Value("${literalura.ingestion.queue-capacity:8}") int queueCapacity,
+                                @Value("${literalura.bulk.batch-size:5000}") int batchSize) {
+        this.bulkWriter = bulkWriter;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Resumen de una carga terminada.
+     */
+    public record LoadReport(int books, int skipped, int saved, int duplicates, int rejected, long elapsedMillis) {
+        @Override
+        public String toString() {
+            double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+            return "Libros leídos: " + books + " | Omitidos (no son texto): " + skipped + " | Guardados: " + saved
+                    + " | Duplicados: " + duplicates + " | Rechazados: " + rejected
+                    + " | Tiempo: " + String.format("%.1f s", seconds)
+                    + " | Ritmo: " + String.format("%.1f libros/s", books / seconds);
+        }
+    }
+
+    /** Recorre una fuente entregando los libros uno a uno. */
+    private interface BookSource {
+        /** @return El siguiente libro, o null al terminar. */
+        Book next() throws IOException;
+
+        int skipped();
+    }
+
+    /**
+     * Carga el catálogo y bloquea hasta terminar.
+     * @param source Archivo CSV, archivo RDF o directorio de RDF.
+     * @return El resumen de la carga.
+     */
+    public LoadReport load(Path source) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<List<Book>> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<int[]> reading = reader.submit(() -> read(source, parsed));
+
+            BookBatchWriter.BatchResult totals = BookBatchWriter.BatchResult.EMPTY;
+            for (List<Book> books; (books = parsed.take()) != END_OF_BOOKS; ) {
+                totals = totals.plus(bulkWriter.write(books));
+            }
+            int[] counts = reading.get();
+            return new LoadReport(counts[0], counts[1], totals.saved(), totals.duplicates(),
+                    totals.rejected(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("La carga del catálogo terminó con un error inesperado", e.getCause());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    /**
+     * Etapa de lectura: agrupa los libros en lotes de {@code batchSize}.
+     * @return Libros leídos y registros omitidos.
+     */
+    private int[] read(Path source, BlockingQueue<List<Book>> parsed) throws IOException, InterruptedException {
+        int books = 0;
+        int skipped = 0;
+        try (SourceHandle handle = open(source)) {
+            List<Book> batch = new ArrayList<>(batchSize);
+            for (Book book; (book = handle.source.next()) != null; ) {
+                books++;
+                batch.add(book);
+                if (batch.size() == batchSize) {
+                    parsed.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+                if (books % 10_000 == 0) {
+                    System.out.println("Carga del catálogo: " + books + " libros leídos.");
+                }
+            }
+            if (!batch.isEmpty()) {
+                parsed.put(batch);
+            }
+            skipped = handle.source.skipped();
+        } finally {
+            parsed.put(END_OF_BOOKS);
+        }
+        return new int[]{books, skipped};
+    }
+
+    /** Fuente abierta más lo que haya que cerrar al terminar. */
+    private record SourceHandle(BookSource source, AutoCloseable resource) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            try {
+                resource.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static SourceHandle open(Path source) throws IOException {
+        String name = source.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (Files.isDirectory(source) || name.endsWith(".rdf")) {
+            return rdfFiles(source);
+        }
+        InputStream in = Files.newInputStream(source);
+        if (name.endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        PgCatalogCsvReader csv = new PgCatalogCsvReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16));
+        return new SourceHandle(new BookSource() {
+            @Override
+            public Book next() throws IOException {
+                return csv.next();
+            }
+
+            @Override
+            public int skipped() {
+                return csv.skipped();
+            }
+        }, csv);
+    }
+
+    /**
+     * Recorre un archivo RDF o un directorio de RDF (en cualquier profundidad) sin listar antes
+     * todos los archivos. Un archivo ilegible se avisa y se omite, sin detener la carga.
+     */
+    private static SourceHandle rdfFiles(Path source) throws IOException {
+        PgRdfReader rdf = new PgRdfReader();
+        Stream<Path> files = Files.walk(source)
+                .filter(path -> path.getFileName().toString().endsWith(".rdf") && Files.isRegularFile(path));
+        Iterator<Path> paths = files.iterator();
+        return new SourceHandle(new BookSource() {
+            private int skipped;
+
+            @Override
+            public Book next() {
+                while (paths.hasNext()) {
+                    Path path = paths.next();
+                    try (InputStream in = Files.newInputStream(path)) {
+                        Book book = rdf.read(in);
+                        if (book != null) {
+                            return book;
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Advertencia: No se pudo leer " + path + ": " + e.getMessage());
+                    }
+                    skipped++;
+                }
+                return null;
+            }
+
+            @Override
+            public int skipped() {
+                return skipped;
+            }
+        }, files);
+    }
+}
@@ -0,0 +1,233 @@
+package com.literalura.literalura.catalog;
+
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lector en flujo de {@code pg_catalog.csv}, el catálogo completo de Project Gutenberg
+ * ({@code https://www.gutenberg.org/cache/epub/feeds/pg_catalog.csv}).
+ * <p>
+ * Columnas: {@code Text#, Type, Issued, Title, Language, Authors, Subjects, LoCC, Bookshelves}.
+ * Los campos siguen RFC 4180: pueden ir entre comillas, con comas, comillas dobladas y saltos de
+ * línea dentro (muchos títulos ocupan varias líneas). Se leen con una pequeña máquina de estados
+ * carácter a carácter, sin cargar el archivo en memoria. Sólo se devuelven las entradas de tipo
+ * {@code Text}; el CSV no trae descargas, así que {@code downloadCount} queda en 0.
+ */
+public class PgCatalogCsvReader implements Closeable {
+
+    // "Apellido, Nombre, 1797-1851", "Homero, 751? BCE-651? BCE", "Anónimo, -1850", "Autor, 1800-".
+    private static final Pattern LIFESPAN = Pattern.compile(
+            "^(.*?),\\s*(?:(\\d{1,4})\\??(\\s*BCE)?)?\\s*-\\s*(?:(\\d{1,4})\\??(\\s*BCE)?)?$");
+    // "Autor, active 1600", "Autor, fl. 1200".
+    private static final Pattern ACTIVE = Pattern.compile("^(.*?),\\s*(?:active|fl\\.)\\s.*$");
+    private static final Pattern ROLE = Pattern.compile("\\s*\\[[^\\]]*]\\s*$");
+
+    private final Reader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final StringBuilder field = new StringBuilder();
+    private int skipped;
+
+    /**
+     * @param reader El CSV. Lo cierra {@link #close()}.
+     */
+    public PgCatalogCsvReader(Reader reader) throws IOException {
+        this.reader = reader.markSupported() ? reader : new BufferedReader(reader, 1 << 16);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("El catálogo CSV está vacío");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            // El primer campo puede llevar la marca de orden de bytes de UTF-8.
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("text#", "title")) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Falta la columna '" + required + "' en el catálogo CSV");
+            }
+        }
+    }
+
+    /**
+     * Siguiente libro del catálogo.
+     * @return El libro, o null al llegar al final.
+     */
+    public Book next() throws IOException {
+        List<String> record;
+        while ((record = readRecord()) != null) {
+            String type = column(record, "type");
+            Integer id = parseInt(column(record, "text#"));
+            String title = column(record, "title");
+            if (id == null || title == null || title.isBlank() || (type != null && !type.equalsIgnoreCase("Text"))) {
+                skipped++;
+                continue;
+            }
+            return new Book(id, title.strip(), parseAuthors(column(record, "authors")),
+                    parseSubjects(column(record, "subjects")), parseLanguages(column(record, "language")), 0);
+        }
+        return null;
+    }
+
+    /** Registros omitidos hasta ahora (no son texto o les falta el ID o el título). */
+    public int skipped() {
+        return skipped;
+    }
+
+    /**
+     * Lee un registro completo.
+     * @return Los campos, o null al llegar al final.
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean started = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            started = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!started) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String column(List<String> record, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    /**
+     * Autores de la columna {@code Authors}, separados por {@code ;}. Los que llevan un papel entre
+     * corchetes (editor, traductor, ilustrador...) van detrás de los autores propiamente dichos,
+     * para que el autor principal sea el primero de la lista.
+     */
+    public static List<Author> parseAuthors(String value) {
+        List<Author> authors = new ArrayList<>();
+        List<Author> contributors = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return authors;
+        }
+        for (String entry : value.split(";")) {
+            Matcher role = ROLE.matcher(entry);
+            boolean contributor = role.find();
+            Author author = parseAuthor(contributor ? entry.substring(0, role.start()) : entry);
+            if (author != null) {
+                (contributor ? contributors : authors).add(author);
+            }
+        }
+        authors.addAll(contributors);
+        return authors;
+    }
+
+    /**
+     * Interpreta un autor con sus años de vida al final ({@code "Shelley, Mary Wollstonecraft, 1797-1851"}).
+     * Los años antes de Cristo se devuelven negativos, como en Gutendex.
+     * @return El autor, o null si la entrada está vacía.
+     */
+    public static Author parseAuthor(String entry) {
+        String text = entry.strip();
+        if (text.isEmpty()) {
+            return null;
+        }
+        Matcher lifespan = LIFESPAN.matcher(text);
+        if (lifespan.matches()) {
+            return new Author(lifespan.group(1).strip(), year(lifespan.group(2), lifespan.group(3)),
+                    year(lifespan.group(4), lifespan.group(5)));
+        }
+        Matcher active = ACTIVE.matcher(text);
+        return new Author(active.matches() ? active.group(1).strip() : text, null, null);
+    }
+
+    /**
+     * Códigos de idioma de la columna {@code Language} ({@code "en"} o {@code "en; fr"}).
+     */
+    public static List<String> parseLanguages(String value) {
+        List<String> languages = new ArrayList<>();
+        if (value != null) {
+            for (String language : value.split("[;,]")) {
+                String code = language.strip().toLowerCase(Locale.ROOT);
+                if (!code.isEmpty() && !languages.contains(code)) {
+                    languages.add(code);
+                }
+            }
+        }
+        return languages;
+    }
+
+    /**
+     * Materias de la columna {@code Subjects}, separadas por {@code "; "}
+     * ({@code "Science fiction; Monsters -- Fiction"}).
+     */
+    public static List<String> parseSubjects(String value) {
+        List<String> subjects = new ArrayList<>();
+        if (value != null) {
+            for (String subject : value.split(";\\s+")) {
+                String name = subject.strip();
+                if (!name.isEmpty() && !subjects.contains(name)) {
+                    subjects.add(name);
+                }
+            }
+        }
+        return subjects;
+    }
+
+    private static Integer year(String digits, String bce) {
+        if (digits == null) {
+            return null;
+        }
+        int year = Integer.parseInt(digits);
+        return bce != null ? -year : year;
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
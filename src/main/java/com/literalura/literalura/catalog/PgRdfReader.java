@@ -0,0 +1,170 @@
+package com.literalura.literalura.catalog;
+
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lector de los archivos RDF/XML de metadatos de Project Gutenberg ({@code cache/epub/N/pgN.rdf},
+ * del archivo {@code rdf-files.tar.bz2}). Usa StAX, así que cada archivo se recorre en flujo.
+ * A diferencia del CSV, el RDF trae el número de descargas. De las materias ({@code dcterms:subject}) sólo
+ * se toman los encabezados LCSH, como hace Gutendex; las clases LCC se ignoran.
+ * <p>
+ * Es inmutable y seguro para usarse desde varios hilos.
+ */
+public class PgRdfReader {
+
+    private static final String RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    private static final String DCTERMS = "http://purl.org/dc/terms/";
+    private static final String PGTERMS = "http://www.gutenberg.org/2009/pgterms/";
+    private static final String DCAM = "http://purl.org/dc/dcam/";
+
+    private final XMLInputFactory factory;
+
+    public PgRdfReader() {
+        factory = XMLInputFactory.newFactory();
+        // Los RDF no necesitan DTD ni entidades externas: se desactivan (también por seguridad).
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Lee un libro. No cierra el flujo.
+     * @return El libro, o null si el archivo no describe un texto (audio, imágenes...) o le falta el ID o el título.
+     */
+    public Book read(InputStream in) throws IOException {
+        try {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            try {
+                return readEbook(xml);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("RDF mal formado: " + e.getMessage(), e);
+        }
+    }
+
+    private Book readEbook(XMLStreamReader xml) throws XMLStreamException {
+        Integer id = null;
+        String title = null;
+        String type = null;
+        Integer downloads = null;
+        List<String> languages = new ArrayList<>();
+        List<String> subjects = new ArrayList<>();
+        List<Author> authors = new ArrayList<>();
+
+        // Propiedad del ebook dentro de la que estamos (dcterms:language, dcterms:type...),
+        // porque rdf:value aparece en varias de ellas.
+        String property = null;
+        int propertyDepth = 0;
+        int depth = 0;
+        Author agent = null;
+        // Valor y vocabulario (dcam:memberOf) de la materia en curso; se decide al cerrar dcterms:subject.
+        String subjectValue = null;
+        String subjectScheme = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == propertyDepth) {
+                    if ("creator".equals(property) && agent != null) {
+                        authors.add(agent);
+                        agent = null;
+                    } else if ("subject".equals(property)) {
+                        if (subjectValue != null && !subjectValue.isEmpty() && !subjects.contains(subjectValue)
+                                && (subjectScheme == null || subjectScheme.endsWith("/LCSH"))) {
+                            subjects.add(subjectValue);
+                        }
+                        subjectValue = null;
+                        subjectScheme = null;
+                    }
+                    property = null;
+                    propertyDepth = 0;
+                }
+                depth--;
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            depth++;
+            String namespace = xml.getNamespaceURI();
+            String name = xml.getLocalName();
+
+            if (PGTERMS.equals(namespace) && "ebook".equals(name)) {
+                id = parseEbookId(xml.getAttributeValue(RDF, "about"));
+            } else if (property == null && DCTERMS.equals(namespace)
+                    && ("title".equals(name) || "creator".equals(name) || "language".equals(name) || "type".equals(name)
+                    || "subject".equals(name))) {
+                property = name;
+                propertyDepth = depth;
+                if ("title".equals(name) && title == null) {
+                    title = xml.getElementText().strip();
+                    depth--;
+                    property = null;
+                    propertyDepth = 0;
+                }
+            } else if (property == null && PGTERMS.equals(namespace) && "downloads".equals(name)) {
+                downloads = parseInt(xml.getElementText());
+                depth--;
+            } else if ("creator".equals(property) && PGTERMS.equals(namespace)) {
+                if ("agent".equals(name)) {
+                    agent = new Author(null, null, null);
+                } else if (agent != null && ("name".equals(name) || "birthdate".equals(name) || "deathdate".equals(name))) {
+                    String text = xml.getElementText().strip();
+                    depth--;
+                    switch (name) {
+                        case "name" -> agent.setName(text);
+                        case "birthdate" -> agent.setBirthYear(parseInt(text));
+                        default -> agent.setDeathYear(parseInt(text));
+                    }
+                }
+            } else if ("subject".equals(property) && DCAM.equals(namespace) && "memberOf".equals(name)) {
+                subjectScheme = xml.getAttributeValue(RDF, "resource");
+            } else if (RDF.equals(namespace) && "value".equals(name)
+                    && ("language".equals(property) || "type".equals(property) || "subject".equals(property))) {
+                String text = xml.getElementText().strip();
+                depth--;
+                if ("subject".equals(property)) {
+                    subjectValue = text;
+                } else if ("language".equals(property)) {
+                    String code = text.toLowerCase(Locale.ROOT);
+                    if (!code.isEmpty() && !languages.contains(code)) {
+                        languages.add(code);
+                    }
+                } else {
+                    type = text;
+                }
+            }
+        }
+
+        authors.removeIf(author -> author.getName() == null || author.getName().isBlank());
+        if (id == null || title == null || title.isEmpty() || (type != null && !type.equalsIgnoreCase("Text"))) {
+            return null;
+        }
+        return new Book(id, title, authors, subjects, languages, downloads != null ? downloads : 0);
+    }
+
+    private static Integer parseEbookId(String about) {
+        // rdf:about="ebooks/84"
+        return about == null ? null : parseInt(about.substring(about.lastIndexOf('/') + 1));
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
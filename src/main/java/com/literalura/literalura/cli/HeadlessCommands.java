@@ -0,0 +1,261 @@
+package com.literalura.literalura.cli;
+
+import com.literalura.literalura.catalog.CatalogExporter;
+import com.literalura.literalura.catalog.OfflineCatalogLoader;
+import com.literalura.literalura.dto.LanguageStatistics;
+import com.literalura.literalura.metrics.MetricsReporter;
+import com.literalura.literalura.service.CatalogIngestionService;
+import com.literalura.literalura.service.DownloadCountRefreshJob;
+import com.literalura.literalura.service.TitleListImporter;
+import com.literalura.literalura.snapshot.CatalogSnapshot;
+import com.literalura.literalura.snapshot.CatalogSnapshotWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Modos de ejecución sin menú, seleccionados por argumentos de línea de comandos.
+ * Si ningún argumento corresponde a un modo sin menú, la aplicación muestra el menú interactivo.
+ * <p>
+ * Modos disponibles:
+ * <ul>
+ *     <li>{@code --ingest=<título>}: ingesta todas las páginas de una búsqueda en Gutendex.</li>
+ *     <li>{@code --ingest-all}: ingesta el catálogo completo de Gutendex.</li>
+ *     <li>{@code --import-titles=<archivo>}: importa una lista de títulos ({@code -} lee la entrada estándar).</li>
+ *     <li>{@code --load-catalog=<ruta>}: carga el catálogo de Project Gutenberg desde {@code pg_catalog.csv}
+ *     o un directorio de RDF, sin usar la API.</li>
+ *     <li>{@code --refresh-downloads}: actualiza las descargas de los libros guardados (continúa una
+ *     actualización interrumpida).</li>
+ *     <li>{@code --snapshot-export=<archivo>}: exporta el catálogo a una instantánea columnar.</li>
+ *     <li>{@code --snapshot-stats=<archivo>}: estadísticas del catálogo calculadas sobre una instantánea,
+ *     sin consultar la base de datos.</li>
+ *     <li>{@code --export=<archivo>}: exporta los libros guardados a CSV o JSON Lines.</li>
+ * </ul>
+ * Opciones de la ingesta: {@code --languages=es,en} y {@code --max-pages=N}.
+ * Opción de la importación: {@code --parallelism=N} (búsquedas simultáneas).
+ * Opción de las estadísticas de la instantánea: {@code --year=N} (autores vivos en ese año).
+ * Opciones de la exportación: {@code --format=csv|jsonl} (por defecto, según la extensión) y {@code --gzip}
+ * (también si el archivo termina en {@code .gz}).
+ */
+@Component
+public class HeadlessCommands {
+
+    private final CatalogIngestionService catalogIngestionService;
+    private final TitleListImporter titleListImporter;
+    private final OfflineCatalogLoader offlineCatalogLoader;
+    private final DownloadCountRefreshJob downloadCountRefreshJob;
+    private final MetricsReporter metricsReporter;
+    private final CatalogSnapshotWriter catalogSnapshotWriter;
+    private final CatalogExporter catalogExporter;
+    private final int importParallelism;
+
+    // @Lazy: comprobar los argumentos no crea los servicios; sólo el modo elegido los usa.
+    public HeadlessCommands(@Lazy CatalogIngestionService catalogIngestionService, @Lazy TitleListImporter titleListImporter,
+                            @Lazy OfflineCatalogLoader offlineCatalogLoader,
+                            @Lazy DownloadCountRefreshJob downloadCountRefreshJob, @Lazy MetricsReporter metricsReporter,
+                            @Lazy CatalogSnapshotWriter catalogSnapshotWriter, @Lazy CatalogExporter catalogExporter,
+                            @Value("${literalura.import.parallelism:4}") int importParallelism) {
+        this.catalogIngestionService = catalogIngestionService;
+        this.titleListImporter = titleListImporter;
+        this.offlineCatalogLoader = offlineCatalogLoader;
+        this.downloadCountRefreshJob = downloadCountRefreshJob;
+        this.metricsReporter = metricsReporter;
+        this.catalogSnapshotWriter = catalogSnapshotWriter;
+        this.catalogExporter = catalogExporter;
+        this.importParallelism = importParallelism;
+    }
+
+    /**
+     * Ejecuta el modo sin menú indicado por los argumentos, si lo hay.
+     * @param args Los argumentos de línea de comandos.
+     * @return true si se ejecutó un modo sin menú, false si debe mostrarse el menú interactivo.
+     */
+    public boolean run(String... args) throws InterruptedException {
+        ApplicationArguments arguments = new DefaultApplicationArguments(args);
+
+        if (arguments.containsOption("ingest") || arguments.containsOption("ingest-all")) {
+            String search = arguments.containsOption("ingest-all") ? null : option(arguments, "ingest", null);
+            CatalogIngestionService.IngestionRequest request = new CatalogIngestionService.IngestionRequest(
+                    search, option(arguments, "languages", null), intOption(arguments, "max-pages", 0));
+
+            System.out.println("Iniciando ingesta " + (search == null ? "del catálogo completo" : "de '" + search + "'") + "...");
+            CatalogIngestionService.IngestionReport report = catalogIngestionService.ingest(request);
+            System.out.println("\n--- INGESTA FINALIZADA ---");
+            System.out.println(report);
+            System.out.println("--------------------------");
+            // Dónde se fue el tiempo: red, parseo o base de datos.
+            System.out.println(metricsReporter.report());
+            return true;
+        }
+
+        if (arguments.containsOption("import-titles")) {
+            String source = option(arguments, "import-titles", "-");
+            int parallelism = intOption(arguments, "parallelism", importParallelism);
+            System.out.println("Importando títulos desde " + ("-".equals(source) ? "la entrada estándar" : "'" + source + "'")
+                    + " (" + parallelism + " búsquedas simultáneas)...");
+            TitleListImporter.ImportReport report;
+            try (BufferedReader titles = "-".equals(source)
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8)) {
+                report = titleListImporter.importTitles(titles, parallelism);
+            } catch (IOException e) {
+                System.err.println("Error al leer la lista de títulos '" + source + "': " + e.getMessage());
+                return true;
+            }
+            System.out.println("\n--- IMPORTACIÓN FINALIZADA ---");
+            System.out.println(report);
+            System.out.println("------------------------------");
+            System.out.println(metricsReporter.report());
+            return true;
+        }
+
+        if (arguments.containsOption("load-catalog")) {
+            String source = option(arguments, "load-catalog", null);
+            if (source == null) {
+                System.err.println("Indica el archivo o directorio del catálogo: --load-catalog=<ruta>");
+                return true;
+            }
+            System.out.println("Cargando el catálogo de Project Gutenberg desde '" + source + "'...");
+            OfflineCatalogLoader.LoadReport report;
+            try {
+                report = offlineCatalogLoader.load(Path.of(source));
+            } catch (IOException e) {
+                System.err.println("Error al leer el catálogo '" + source + "': " + e.getMessage());
+                return true;
+            }
+            System.out.println("\n--- CARGA FINALIZADA ---");
+            System.out.println(report);
+            System.out.println("------------------------");
+            System.out.println(metricsReporter.report());
+            return true;
+        }
+
+        if (arguments.containsOption("refresh-downloads")) {
+            System.out.println("Actualizando las descargas de los libros guardados...");
+            DownloadCountRefreshJob.RefreshReport report;
+            try {
+                report = downloadCountRefreshJob.run();
+            } catch (IOException e) {
+                System.err.println("Actualización interrumpida: " + e.getMessage()
+                        + ". Vuelve a ejecutarla para continuar desde el último bloque guardado.");
+                return true;
+            }
+            System.out.println("\n--- ACTUALIZACIÓN FINALIZADA ---");
+            System.out.println(report);
+            System.out.println("-------------------------------");
+            System.out.println(metricsReporter.report());
+            return true;
+        }
+
+        if (arguments.containsOption("snapshot-export")) {
+            String target = option(arguments, "snapshot-export", null);
+            if (target == null) {
+                System.err.println("Indica el archivo de la instantánea: --snapshot-export=<archivo>");
+                return true;
+            }
+            System.out.println("Exportando el catálogo a '" + target + "'...");
+            CatalogSnapshotWriter.ExportReport report;
+            try {
+                report = catalogSnapshotWriter.export(Path.of(target));
+            } catch (IOException e) {
+                System.err.println("Error al escribir la instantánea '" + target + "': " + e.getMessage());
+                return true;
+            }
+            System.out.println("\n--- EXPORTACIÓN FINALIZADA ---");
+            System.out.println(report);
+            System.out.println("------------------------------");
+            return true;
+        }
+
+        if (arguments.containsOption("snapshot-stats")) {
+            String source = option(arguments, "snapshot-stats", null);
+            if (source == null) {
+                System.err.println("Indica el archivo de la instantánea: --snapshot-stats=<archivo>");
+                return true;
+            }
+            long start = System.nanoTime();
+            CatalogSnapshot snapshot;
+            try {
+                snapshot = CatalogSnapshot.open(Path.of(source));
+            } catch (IOException e) {
+                System.err.println("Error al abrir la instantánea '" + source + "': " + e.getMessage());
+                return true;
+            }
+            long opened = System.nanoTime();
+            System.out.println(snapshot + " | Apertura: " + (opened - start) / 1_000 + " µs");
+
+            System.out.println("\n--- DESCARGAS POR IDIOMA ---");
+            for (LanguageStatistics statistics : snapshot.languageTotals()) {
+                System.out.printf("%-6s %8d libros %12d descargas (media %.1f)%n", statistics.language(),
+                        statistics.books(), statistics.downloads(), statistics.averageDownloads());
+            }
+            System.out.println("\n--- DISTRIBUCIÓN DE DESCARGAS ---");
+            System.out.println(snapshot.downloadDistribution());
+            System.out.println("\n--- AUTORES ---");
+            System.out.println(snapshot.lifespans());
+            if (arguments.containsOption("year")) {
+                int year = intOption(arguments, "year", 0);
+                System.out.println("Autores vivos en " + year + ": " + snapshot.authorsAliveIn(year));
+            }
+            System.out.println("--------------------------------");
+            System.out.println("Consultas: " + (System.nanoTime() - opened) / 1_000_000 + " ms");
+            return true;
+        }
+
+        if (arguments.containsOption("export")) {
+            String target = option(arguments, "export", null);
+            if (target == null) {
+                System.err.println("Indica el archivo de destino: --export=<archivo>");
+                return true;
+            }
+            CatalogExporter.Format format = null;
+            String formatName = option(arguments, "format", null);
+            if (formatName != null) {
+                try {
+                    format = CatalogExporter.Format.named(formatName);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Formato no válido: '" + formatName + "'. Usa --format=csv o --format=jsonl.");
+                    return true;
+                }
+            }
+            System.out.println("Exportando los libros guardados a '" + target + "'...");
+            CatalogExporter.ExportReport report;
+            try {
+                report = catalogExporter.export(Path.of(target), format, arguments.containsOption("gzip"));
+            } catch (IOException e) {
+                System.err.println("Error al escribir '" + target + "': " + e.getMessage());
+                return true;
+            }
+            System.out.println("\n--- EXPORTACIÓN FINALIZADA ---");
+            System.out.println(report);
+            System.out.println("------------------------------");
+            return true;
+        }
+        return false;
+    }
+
+    static String option(ApplicationArguments arguments, String name, String defaultValue) {
+        List<String> values = arguments.getOptionValues(name);
+        return values == null || values.isEmpty() || values.get(0).isBlank() ? defaultValue : values.get(0);
+    }
+
+    static int intOption(ApplicationArguments arguments, String name, int defaultValue) {
+        String value = option(arguments, name, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Advertencia: Valor no numérico para --" + name + " ('" + value + "'). Usando " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.literalura.literalura.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador de peticiones por cubeta de fichas (token bucket) cuyo ritmo se adapta a la API:
+ * cada respuesta correcta lo sube un poco (unas {@code +1 petición/s} por segundo de éxito) y cada
+ * 429 lo reduce a la mitad y detiene las peticiones durante el {@code Retry-After} indicado.
+ * Así converge al máximo ritmo que el servidor tolera sin llegar a bloquear al cliente.
+ * Es seguro entre hilos.
+ */
+public class AdaptiveRateLimiter {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double burst;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long pausedUntil;
+
+    /**
+     * @param initialRate Peticiones por segundo al empezar (0 o menos = sin límite).
+     * @param minRate Ritmo mínimo al que se puede bajar tras sucesivos 429.
+     * @param maxRate Ritmo máximo al que se puede subir.
+     * @param burst Fichas acumulables: peticiones que pueden salir seguidas tras un periodo inactivo.
+     */
+    public AdaptiveRateLimiter(double initialRate, double minRate, double maxRate, int burst) {
+        this.minRate = Math.min(minRate, initialRate);
+        this.maxRate = Math.max(maxRate, initialRate);
+        this.burst = Math.max(1, burst);
+        this.rate = initialRate;
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Limitador que no limita.
+     */
+    public static AdaptiveRateLimiter unlimited() {
+        return new AdaptiveRateLimiter(0, 0, 0, 1);
+    }
+
+    /**
+     * Espera hasta poder enviar una petición.
+     */
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait == 0) {
+            return;
+        }
+        waiting.incrementAndGet();
+        try {
+            while (wait > 0) {
+                // El ritmo puede cambiar mientras se espera: se vuelve a comprobar en tramos cortos.
+                TimeUnit.NANOSECONDS.sleep(Math.min(wait, TimeUnit.MILLISECONDS.toNanos(100)));
+                wait = reserve();
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Toma una ficha si la hay.
+     * @return 0 si se tomó, o los nanosegundos que faltan para que haya una.
+     */
+    private synchronized long reserve() {
+        if (rate <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (now < pausedUntil) {
+            return pausedUntil - now;
+        }
+        tokens = Math.min(burst, tokens + (now - lastRefill) * rate / 1e9);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) ((1 - tokens) * 1e9 / rate));
+    }
+
+    /**
+     * La petición fue aceptada: aumento aditivo del ritmo.
+     */
+    public synchronized void onSuccess() {
+        if (rate > 0) {
+            rate = Math.min(maxRate, rate + 1 / rate);
+        }
+    }
+
+    /**
+     * La API respondió 429: reducción multiplicativa del ritmo y pausa de todas las peticiones.
+     * @param retryAfter Pausa pedida por el servidor (puede ser {@link Duration#ZERO}).
+     */
+    public synchronized void onThrottle(Duration retryAfter) {
+        if (rate <= 0) {
+            return;
+        }
+        rate = Math.max(minRate, rate / 2);
+        tokens = 0;
+        long now = System.nanoTime();
+        lastRefill = now;
+        pausedUntil = Math.max(pausedUntil, now + retryAfter.toNanos());
+    }
+
+    /** Peticiones por segundo permitidas ahora mismo (0 = sin límite). */
+    public synchronized double rate() {
+        return rate;
+    }
+
+    /** Hilos esperando una ficha. */
+    public int waiting() {
+        return waiting.get();
+    }
+}
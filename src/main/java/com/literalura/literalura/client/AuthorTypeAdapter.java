@@ -0,0 +1,50 @@
+package com.literalura.literalura.client;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.literalura.literalura.model.Author;
+
+import java.io.IOException;
+
+/**
+ * Adaptador de Gson para los autores de Gutendex.
+ * Lee sólo los campos que guardamos (nombre, año de nacimiento y de fallecimiento)
+ * sin reflexión; cualquier otro campo se salta sin materializarlo.
+ */
+public class AuthorTypeAdapter extends TypeAdapter<Author> {
+
+    @Override
+    public Author read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Author author = new Author();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> author.setName(JsonValues.nextStringOrNull(in));
+                case "birth_year" -> author.setBirthYear(JsonValues.nextIntegerOrNull(in));
+                case "death_year" -> author.setDeathYear(JsonValues.nextIntegerOrNull(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return author;
+    }
+
+    @Override
+    public void write(JsonWriter out, Author author) throws IOException {
+        if (author == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(author.getName());
+        out.name("birth_year").value(author.getBirthYear());
+        out.name("death_year").value(author.getDeathYear());
+        out.endObject();
+    }
+}
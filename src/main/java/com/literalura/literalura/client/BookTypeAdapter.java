@@ -0,0 +1,91 @@
+package com.literalura.literalura.client;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptador de Gson para los libros de Gutendex.
+ * Sólo materializa lo que persistimos (ID, título, autores, materias, idiomas y descargas).
+ * Los campos voluminosos que nunca guardamos ({@code formats}, {@code summaries},
+ * {@code bookshelves}, {@code translators}...) se saltan en el flujo.
+ */
+public class BookTypeAdapter extends TypeAdapter<Book> {
+
+    private final AuthorTypeAdapter authorAdapter;
+
+    public BookTypeAdapter(AuthorTypeAdapter authorAdapter) {
+        this.authorAdapter = authorAdapter;
+    }
+
+    @Override
+    public Book read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Book book = new Book();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> book.setId(JsonValues.nextIntegerOrNull(in));
+                case "title" -> book.setTitle(JsonValues.nextStringOrNull(in));
+                case "authors" -> book.setApiAuthors(readAuthors(in));
+                case "subjects" -> book.setSubjects(JsonValues.nextStringListOrNull(in));
+                case "languages" -> book.setLanguages(JsonValues.nextStringListOrNull(in));
+                case "download_count" -> book.setDownloadCount(JsonValues.nextIntegerOrNull(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return book;
+    }
+
+    private List<Author> readAuthors(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Author> authors = new ArrayList<>(1);
+        in.beginArray();
+        while (in.hasNext()) {
+            authors.add(authorAdapter.read(in));
+        }
+        in.endArray();
+        return authors;
+    }
+
+    @Override
+    public void write(JsonWriter out, Book book) throws IOException {
+        if (book == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(book.getId());
+        out.name("title").value(book.getTitle());
+        out.name("authors");
+        if (book.getApiAuthors() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (Author author : book.getApiAuthors()) {
+                authorAdapter.write(out, author);
+            }
+            out.endArray();
+        }
+        out.name("subjects");
+        JsonValues.writeStringList(out, book.getSubjects());
+        out.name("languages");
+        JsonValues.writeStringList(out, book.getLanguages());
+        out.name("download_count").value(book.getDownloadCount());
+        out.endObject();
+    }
+}
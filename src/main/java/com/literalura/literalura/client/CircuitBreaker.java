@@ -0,0 +1,96 @@
+package com.literalura.literalura.client;
+
+import java.time.Duration;
+
+/**
+ * Cortocircuito para la API: tras {@code failureThreshold} fallos seguidos (errores de red o 5xx)
+ * se abre y rechaza las peticiones al instante durante {@code openDuration}, en lugar de seguir
+ * castigando a un servidor caído. Pasado ese tiempo deja pasar una única petición de prueba
+ * (semiabierto): si sale bien se cierra, si falla vuelve a abrirse; si el servidor sólo pide que se espere
+ * (429), la prueba no cuenta y la siguiente petición puede volver a probar. Es seguro entre hilos.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trialStartedAt;
+    private boolean trialInProgress;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Cortocircuito que nunca se abre.
+     */
+    public static CircuitBreaker disabled() {
+        return new CircuitBreaker(Integer.MAX_VALUE, Duration.ZERO);
+    }
+
+    /**
+     * Pide permiso para enviar una petición.
+     * @throws GutendexUnavailableException si el circuito está abierto.
+     */
+    public synchronized void acquirePermission() throws GutendexUnavailableException {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            long remaining = openedAt + openNanos - now;
+            if (remaining > 0) {
+                throw new GutendexUnavailableException(Duration.ofNanos(remaining));
+            }
+            state = State.HALF_OPEN;
+            startTrial(now);
+        } else if (state == State.HALF_OPEN) {
+            // Ya hay una petición de prueba en curso; si no contestó en todo un periodo, se permite otra.
+            if (trialInProgress && now - trialStartedAt < openNanos) {
+                throw new GutendexUnavailableException(Duration.ofNanos(trialStartedAt + openNanos - now));
+            }
+            startTrial(now);
+        }
+    }
+
+    private void startTrial(long now) {
+        trialStartedAt = now;
+        trialInProgress = true;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInProgress = false;
+    }
+
+    /**
+     * Registra una respuesta 429: no es ni éxito ni fallo del servidor, pero si era la petición de prueba
+     * libera su turno para que el reintento pueda enviarse en lugar de esperar a que pase todo un periodo.
+     */
+    public synchronized void onThrottled() {
+        trialInProgress = false;
+    }
+
+    /**
+     * Registra un fallo.
+     * @return true si este fallo abrió el circuito.
+     */
+    public synchronized boolean onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInProgress = false;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
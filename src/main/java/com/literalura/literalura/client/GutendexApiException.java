@@ -0,0 +1,26 @@
+package com.literalura.literalura.client;
+
+import java.io.IOException;
+
+/**
+ * La API de Gutendex respondió con un código de estado distinto de 200.
+ */
+public class GutendexApiException extends IOException {
+
+    private final int statusCode;
+    private final String responseBody;
+
+    public GutendexApiException(int statusCode, String responseBody) {
+        super("Código de estado: " + statusCode);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
@@ -0,0 +1,389 @@
+package com.literalura.literalura.client;
+
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.GutendexResponse;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente compartido de la API Gutendex.
+ * Mantiene un único {@link HttpClient} para toda la aplicación, de modo que las conexiones
+ * (y el handshake TLS) se reutilizan entre peticiones, y prefiere HTTP/2 cuando el servidor lo admite.
+ * Las peticiones independientes (páginas o consultas {@code ids=}) pueden lanzarse en paralelo
+ * con un límite de concurrencia configurable.
+ */
+@Component
+public class GutendexClient {
+
+    /** Gutendex devuelve como máximo 32 resultados por página. */
+    public static final int PAGE_SIZE = 32;
+
+    private final HttpClient httpClient;
+    private final GutendexJsonParser parser;
+    private final GutendexResponseCache cache;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final Semaphore concurrency;
+    private final ExecutorService executor;
+    private final CatalogMetrics metrics;
+    private final GutendexResilience resilience;
+
+    public GutendexClient(GutendexJsonParser parser, GutendexResponseCache cache, String baseUrl,
+                          Duration connectTimeout, Duration requestTimeout, int maxConcurrency) {
+        this(parser, cache, baseUrl, connectTimeout, requestTimeout, maxConcurrency, CatalogMetrics.standalone());
+    }
+
+    public GutendexClient(GutendexJsonParser parser, GutendexResponseCache cache, String baseUrl,
+                          Duration connectTimeout, Duration requestTimeout, int maxConcurrency, CatalogMetrics metrics) {
+        this(parser, cache, baseUrl, connectTimeout, requestTimeout, maxConcurrency, metrics,
+                GutendexResilience.disabled(metrics));
+    }
+
+    @Autowired
+    public GutendexClient(GutendexJsonParser parser, GutendexResponseCache cache,
+                          @Value("${gutendex.base-url:https://gutendex.com/books/}") String baseUrl,
+                          @Value("${gutendex.connect-timeout:5s}") Duration connectTimeout,
+                          @Value("${gutendex.request-timeout:30s}") Duration requestTimeout,
+                          @Value("${gutendex.max-concurrency:8}") int maxConcurrency,
+                          CatalogMetrics metrics, GutendexResilience resilience) {
+        this.metrics = metrics;
+        this.resilience = resilience;
+        this.parser = parser;
+        this.cache = cache;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.requestTimeout = requestTimeout;
+        this.concurrency = new Semaphore(maxConcurrency);
+        this.executor = newRequestExecutor(maxConcurrency);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        metrics.gauge("literalura.gutendex.queue", () -> concurrency.getQueueLength() + resilience.waiting());
+    }
+
+    /**
+     * Ejecutor para las peticiones en paralelo. Usa hilos virtuales cuando la JVM los ofrece (Java 21+);
+     * en Java 17 recurre a un pool de hilos de plataforma del tamaño del límite de concurrencia.
+     */
+    private static ExecutorService newRequestExecutor(int maxConcurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+                Thread thread = new Thread(runnable, "gutendex-client");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * URI de búsqueda por texto, con filtro de idiomas opcional.
+     * @param search Texto a buscar en títulos y autores (puede ser {@code null} para todo el catálogo).
+     * @param languages Códigos de idioma separados por coma (puede ser {@code null} o vacío).
+     */
+    public URI searchUri(String search, String languages) {
+        StringBuilder uri = new StringBuilder(baseUrl);
+        String separator = "?";
+        if (search != null && !search.isBlank()) {
+            uri.append(separator).append("search=").append(encode(search.trim()));
+            separator = "&";
+        }
+        if (languages != null && !languages.isBlank()) {
+            uri.append(separator).append("languages=").append(encode(languages.trim()));
+        }
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * URI de consulta por IDs de Gutendex ({@code ?ids=1,2,3}).
+     */
+    public URI idsUri(Collection<Integer> ids) {
+        return URI.create(baseUrl + "?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Devuelve la URI de la página indicada de la misma consulta que {@code uri}.
+     */
+    public static URI pageUri(URI uri, int page) {
+        String query = uri.getRawQuery();
+        List<String> params = new ArrayList<>();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (!param.isEmpty() && !param.startsWith("page=")) {
+                    params.add(param);
+                }
+            }
+        }
+        params.add("page=" + page);
+        String base = uri.toString();
+        int queryStart = base.indexOf('?');
+        return URI.create((queryStart >= 0 ? base.substring(0, queryStart) : base) + "?" + String.join("&", params));
+    }
+
+    private HttpRequest.Builder newRequest(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET();
+    }
+
+    /**
+     * Abre la respuesta de una petición GET. El llamador debe cerrar el flujo devuelto.
+     * No pasa por la caché: se usa para descargas masivas que sólo se leen una vez.
+     * La petición ocupa un hueco de concurrencia hasta que el cuerpo se lee entero o se cierra.
+     * @throws GutendexApiException si la API responde con un estado distinto de 200.
+     */
+    public InputStream open(URI uri) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(newRequest(uri).build(),
+                HttpResponse.BodyHandlers.ofInputStream(), true);
+        InputStream body = releasingPermit(response.body());
+        if (response.statusCode() != 200) {
+            try (InputStream errorBody = body) {
+                throw new GutendexApiException(response.statusCode(),
+                        new String(errorBody.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return metrics.countingBytes(body);
+    }
+
+    /**
+     * Devuelve el hueco de concurrencia de una respuesta en flujo al llegar al final del cuerpo o al cerrarlo.
+     */
+    private InputStream releasingPermit(InputStream body) {
+        return new FilterInputStream(body) {
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    release();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n < 0) {
+                    release();
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release();
+                }
+            }
+
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    concurrency.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * Envía una petición a través de la política de resiliencia: espera turno en el limitador,
+     * reintenta los 429/5xx y errores de red con espera exponencial, y falla al instante si el
+     * cortocircuito está abierto. Registra la latencia (hasta recibir las cabeceras) y el código
+     * de estado de cada intento. Las esperas entre intentos no ocupan hueco de concurrencia.
+     * @param holdPermit Si la respuesta definitiva se devuelve con su hueco de concurrencia ocupado, para
+     *                   cuerpos que se leen en flujo; el llamador debe liberarlo al terminar de leerlo.
+     */
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, boolean holdPermit)
+            throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            resilience.beforeRequest();
+            // Si se va a reintentar, el cuerpo de error se descarta sin leerlo entero en memoria.
+            HttpResponse.BodyHandler<T> attemptHandler = attempt < resilience.maxAttempts()
+                    ? info -> GutendexResilience.isRetryable(info.statusCode())
+                            ? HttpResponse.BodySubscribers.replacing(null) : handler.apply(info)
+                    : handler;
+            Duration delay;
+            boolean keepPermit = false;
+            concurrency.acquire();
+            Timer.Sample sample = metrics.start();
+            try {
+                HttpResponse<T> response = httpClient.send(request, attemptHandler);
+                metrics.httpRequest(sample, response.statusCode());
+                delay = resilience.afterResponse(response.statusCode(),
+                        response.headers().firstValue("Retry-After").orElse(null), attempt);
+                if (delay == null) {
+                    keepPermit = holdPermit;
+                    return response;
+                }
+            } catch (IOException e) {
+                metrics.httpRequest(sample, -1);
+                delay = resilience.afterError(attempt);
+                if (delay == null) {
+                    throw e;
+                }
+            } finally {
+                if (!keepPermit) {
+                    concurrency.release();
+                }
+            }
+            Thread.sleep(delay.toMillis());
+        }
+    }
+
+    /**
+     * Descarga y parsea una página completa, pasando por la caché de respuestas.
+     * Una entrada vigente se sirve sin red; una caducada con {@code ETag}/{@code Last-Modified}
+     * se revalida con una petición condicional y, si el servidor responde 304, se reutiliza.
+     */
+    public GutendexResponse fetchPage(URI uri) throws IOException, InterruptedException {
+        if (!cache.isEnabled()) {
+            return parser.parse(open(uri));
+        }
+        GutendexResponseCache.CachedResponse cached = cache.get(uri);
+        if (cached != null && cache.isFresh(cached)) {
+            return parser.parse(new ByteArrayInputStream(cached.body()));
+        }
+
+        HttpRequest.Builder request = newRequest(uri);
+        if (cached != null) {
+            if (cached.etag() != null) {
+                request.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                request.header("If-Modified-Since", cached.lastModified());
+            }
+        }
+        HttpResponse<byte[]> response = send(request.build(), HttpResponse.BodyHandlers.ofByteArray(), false);
+        metrics.bytesReceived(response.body().length);
+
+        if (response.statusCode() == 304 && cached != null) {
+            return parser.parse(new ByteArrayInputStream(cache.revalidated(cached).body()));
+        }
+        if (response.statusCode() != 200) {
+            throw new GutendexApiException(response.statusCode(), new String(response.body(), StandardCharsets.UTF_8));
+        }
+        GutendexResponse page = parser.parse(new ByteArrayInputStream(response.body()));
+        // Sólo se guarda lo que se pudo parsear.
+        cache.put(uri, response.body(),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+        return page;
+    }
+
+    /**
+     * Descarga una página entregando los libros uno a uno a {@code sink}.
+     * @return Los metadatos de la página (conteo y enlaces).
+     */
+    public GutendexResponse streamPage(URI uri, Consumer<Book> sink) throws IOException, InterruptedException {
+        return parser.stream(open(uri), sink);
+    }
+
+    /**
+     * Abre una respuesta en el ejecutor de peticiones, sin bloquear al llamador.
+     */
+    public CompletableFuture<InputStream> openAsync(URI uri) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return open(uri);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Descarga y parsea una página en el ejecutor de peticiones (sin caché).
+     */
+    public CompletableFuture<GutendexResponse> fetchPageAsync(URI uri) {
+        return openAsync(uri).thenApply(body -> {
+            try {
+                return parser.parse(body);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Obtiene los libros con los IDs indicados, en peticiones {@code ids=} de hasta
+     * {@link #PAGE_SIZE} IDs lanzadas en paralelo.
+     * @param ids Los IDs de Gutendex a consultar.
+     * @return Los libros encontrados (los IDs inexistentes se omiten).
+     */
+    public List<Book> fetchByIds(List<Integer> ids) throws IOException, InterruptedException {
+        List<CompletableFuture<GutendexResponse>> requests = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += PAGE_SIZE) {
+            requests.add(fetchPageAsync(idsUri(ids.subList(from, Math.min(from + PAGE_SIZE, ids.size())))));
+        }
+        List<Book> books = new ArrayList<>(ids.size());
+        for (CompletableFuture<GutendexResponse> request : requests) {
+            books.addAll(join(request).getBooks());
+        }
+        return books;
+    }
+
+    /**
+     * Espera el resultado de una petición asíncrona, desenvolviendo sus excepciones.
+     */
+    public static <T> T join(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof InterruptedException interrupted) {
+                throw interrupted;
+            }
+            throw e;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.literalura.literalura.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.GutendexResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Parser en flujo de las respuestas de Gutendex.
+ * Lee directamente del {@link InputStream} de la respuesta HTTP con un {@link JsonReader},
+ * sin cargar el cuerpo completo en un {@code String} y sin reflexión, usando los adaptadores
+ * dedicados de {@link GutendexResponse}, {@link Book} y {@link Author}.
+ * Es inmutable y seguro para usarse desde varios hilos.
+ */
+@Component
+public class GutendexJsonParser {
+
+    private final GutendexResponseTypeAdapter responseAdapter;
+    private final Gson gson;
+    private final CatalogMetrics metrics;
+
+    public GutendexJsonParser() {
+        this(CatalogMetrics.standalone());
+    }
+
+    @Autowired
+    public GutendexJsonParser(CatalogMetrics metrics) {
+        this.metrics = metrics;
+        AuthorTypeAdapter authorAdapter = new AuthorTypeAdapter();
+        BookTypeAdapter bookAdapter = new BookTypeAdapter(authorAdapter);
+        this.responseAdapter = new GutendexResponseTypeAdapter(bookAdapter);
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(Author.class, authorAdapter)
+                .registerTypeAdapter(Book.class, bookAdapter)
+                .registerTypeAdapter(GutendexResponse.class, responseAdapter)
+                .create();
+    }
+
+    /**
+     * Lee una página completa. Cierra el flujo al terminar.
+     * @param body El cuerpo de la respuesta HTTP.
+     * @return La página con sus libros.
+     */
+    public GutendexResponse parse(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        try (JsonReader reader = newReader(body)) {
+            return responseAdapter.read(reader);
+        } finally {
+            metrics.pageParsed(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Lee una página entregando los libros uno a uno. Cierra el flujo al terminar.
+     * @param body El cuerpo de la respuesta HTTP.
+     * @param sink Receptor de cada libro leído.
+     * @return Los metadatos de la página (conteo y enlaces {@code next}/{@code previous}).
+     */
+    public GutendexResponse stream(InputStream body, Consumer<Book> sink) throws IOException {
+        long start = System.nanoTime();
+        try (JsonReader reader = newReader(body)) {
+            return responseAdapter.stream(reader, sink);
+        } finally {
+            metrics.pageParsed(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Instancia de Gson con los adaptadores registrados, para quien necesite la API clásica de Gson.
+     */
+    public Gson gson() {
+        return gson;
+    }
+
+    private static JsonReader newReader(InputStream body) {
+        return new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
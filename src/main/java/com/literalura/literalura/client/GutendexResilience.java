@@ -0,0 +1,183 @@
+package com.literalura.literalura.client;
+
+import com.literalura.literalura.metrics.CatalogMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de resiliencia de {@link GutendexClient}: limitador de ritmo adaptativo
+ * ({@link AdaptiveRateLimiter}), reintentos con espera exponencial y jitter completo, y
+ * cortocircuito ({@link CircuitBreaker}). Todas las peticiones del cliente son GET idempotentes,
+ * así que cualquiera puede reintentarse.
+ * <ul>
+ *     <li>429: baja el ritmo, respeta {@code Retry-After} y reintenta. No cuenta como fallo del servidor.</li>
+ *     <li>500, 502, 503, 504 y errores de red: cuentan como fallo y se reintentan.</li>
+ *     <li>Cualquier otra respuesta es definitiva.</li>
+ * </ul>
+ */
+@Component
+public class GutendexResilience {
+
+    private final AdaptiveRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final CatalogMetrics metrics;
+
+    @Autowired
+    public GutendexResilience(@Value("${gutendex.rate-limit.initial:5}") double initialRate,
+                              @Value("${gutendex.rate-limit.min:0.2}") double minRate,
+                              @Value("${gutendex.rate-limit.max:20}") double maxRate,
+                              @Value("${gutendex.rate-limit.burst:8}") int burst,
+                              @Value("${gutendex.retry.max-attempts:4}") int maxAttempts,
+                              @Value("${gutendex.retry.base-delay:500ms}") Duration baseDelay,
+                              @Value("${gutendex.retry.max-delay:30s}") Duration maxDelay,
+                              @Value("${gutendex.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${gutendex.circuit.open-duration:30s}") Duration openDuration,
+                              CatalogMetrics metrics) {
+        this(new AdaptiveRateLimiter(initialRate, minRate, maxRate, burst),
+                new CircuitBreaker(failureThreshold, openDuration), maxAttempts, baseDelay, maxDelay, metrics);
+    }
+
+    public GutendexResilience(AdaptiveRateLimiter rateLimiter, CircuitBreaker circuitBreaker, int maxAttempts,
+                              Duration baseDelay, Duration maxDelay, CatalogMetrics metrics) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.metrics = metrics;
+        metrics.gauge("literalura.gutendex.rate", rateLimiter::rate);
+        metrics.gauge("literalura.gutendex.circuit", () -> circuitBreaker.state().ordinal());
+    }
+
+    /**
+     * Sin límite de ritmo, sin reintentos y sin cortocircuito: cada petición se envía una vez tal cual.
+     */
+    public static GutendexResilience disabled(CatalogMetrics metrics) {
+        return new GutendexResilience(AdaptiveRateLimiter.unlimited(), CircuitBreaker.disabled(), 1,
+                Duration.ZERO, Duration.ZERO, metrics);
+    }
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /** Hilos esperando turno en el limitador. */
+    public int waiting() {
+        return rateLimiter.waiting();
+    }
+
+    /**
+     * Espera turno para enviar una petición.
+     * @throws GutendexUnavailableException si el cortocircuito está abierto.
+     */
+    public void beforeRequest() throws IOException, InterruptedException {
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (GutendexUnavailableException e) {
+            metrics.circuitRejected();
+            throw e;
+        }
+        rateLimiter.acquire();
+    }
+
+    /**
+     * Indica si una respuesta con este estado debe reintentarse.
+     */
+    public static boolean isRetryable(int status) {
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Registra una respuesta y decide si hay que reintentar.
+     * @param status Código de estado.
+     * @param retryAfter Cabecera {@code Retry-After} (puede ser null).
+     * @param attempt Número del intento que acaba de terminar (empezando en 1).
+     * @return La espera antes de reintentar, o null si la respuesta es definitiva.
+     */
+    public Duration afterResponse(int status, String retryAfter, int attempt) {
+        Duration requested = parseRetryAfter(retryAfter);
+        if (status == 429) {
+            metrics.throttled();
+            rateLimiter.onThrottle(cap(requested));
+            circuitBreaker.onThrottled();
+        } else if (status >= 500) {
+            recordFailure();
+        } else {
+            rateLimiter.onSuccess();
+            circuitBreaker.onSuccess();
+        }
+        if (!isRetryable(status) || attempt >= maxAttempts) {
+            return null;
+        }
+        metrics.retried(String.valueOf(status));
+        return cap(max(backoff(attempt), requested));
+    }
+
+    /**
+     * Registra un error de red y decide si hay que reintentar.
+     * @return La espera antes de reintentar, o null si no quedan intentos.
+     */
+    public Duration afterError(int attempt) {
+        recordFailure();
+        if (attempt >= maxAttempts) {
+            return null;
+        }
+        metrics.retried("IO_ERROR");
+        return backoff(attempt);
+    }
+
+    private void recordFailure() {
+        if (circuitBreaker.onFailure()) {
+            System.err.println("Advertencia: La API de Gutendex falla repetidamente. Se pausan las peticiones.");
+        }
+    }
+
+    /**
+     * Espera exponencial con jitter completo: un valor al azar entre 0 y {@code base * 2^(intento-1)},
+     * acotado por {@code maxDelay}. El azar evita que los hilos que fallaron a la vez reintenten a la vez.
+     */
+    Duration backoff(int attempt) {
+        long ceiling = cap(baseDelay.multipliedBy(1L << Math.min(attempt - 1, 20))).toMillis();
+        return Duration.ofMillis(ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * Interpreta {@code Retry-After} en segundos o como fecha HTTP.
+     * @return La espera pedida, o {@link Duration#ZERO} si no hay cabecera o no se entiende.
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException ignored) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    private Duration cap(Duration delay) {
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
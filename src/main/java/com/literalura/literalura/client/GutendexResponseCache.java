@@ -0,0 +1,401 @@
+package com.literalura.literalura.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Caché de respuestas de Gutendex en dos niveles:
+ * <ul>
+ *     <li>Memoria: LRU acotada por número de entradas.</li>
+ *     <li>Disco: un fichero por consulta, que sobrevive a los reinicios de la aplicación.</li>
+ * </ul>
+ * Las entradas se identifican por la URI normalizada (parámetros ordenados, búsqueda en minúsculas,
+ * idiomas ordenados) y caducan tras un TTL. Una entrada caducada que trae {@code ETag} o
+ * {@code Last-Modified} no se descarta: sirve para revalidar con una petición condicional.
+ */
+@Component
+public class GutendexResponseCache {
+
+    private static final int DISK_FORMAT_VERSION = 1;
+
+    /**
+     * Respuesta almacenada.
+     * @param key URI normalizada.
+     * @param body Cuerpo JSON de la respuesta.
+     * @param etag Cabecera {@code ETag} (puede ser {@code null}).
+     * @param lastModified Cabecera {@code Last-Modified} (puede ser {@code null}).
+     * @param storedAtMillis Momento en que se descargó o revalidó por última vez.
+     */
+    public record CachedResponse(String key, byte[] body, String etag, String lastModified, long storedAtMillis) {
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Path directory;
+    private final Clock clock;
+    private final LinkedHashMap<String, CachedResponse> memory;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+
+    @Autowired
+    public GutendexResponseCache(@Value("${gutendex.cache.enabled:true}") boolean enabled,
+                                 @Value("${gutendex.cache.memory-entries:256}") int memoryEntries,
+                                 @Value("${gutendex.cache.ttl:10m}") Duration ttl,
+                                 @Value("${gutendex.cache.directory:}") String directory) {
+        this(enabled, memoryEntries, ttl, directory == null || directory.isBlank() ? null : Path.of(directory),
+                Clock.systemUTC());
+    }
+
+    GutendexResponseCache(boolean enabled, int memoryEntries, Duration ttl, Path directory, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.directory = directory;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > memoryEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        if (enabled && directory != null) {
+            try {
+                Files.createDirectories(directory);
+                purgeExpiredFromDisk();
+            } catch (IOException e) {
+                System.err.println("Advertencia: No se pudo preparar la caché en disco (" + directory + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Caché deshabilitada: nunca devuelve entradas ni guarda nada.
+     */
+    public static GutendexResponseCache disabled() {
+        return new GutendexResponseCache(false, 0, Duration.ZERO, null, Clock.systemUTC());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Busca una respuesta, primero en memoria y después en disco.
+     * Puede devolver entradas caducadas si tienen validadores; usar {@link #isFresh(CachedResponse)}.
+     * @return La entrada, o {@code null} si no hay ninguna utilizable.
+     */
+    public CachedResponse get(URI uri) {
+        if (!enabled) {
+            return null;
+        }
+        String key = normalizeKey(uri);
+        CachedResponse cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            return usable(cached, memoryHits);
+        }
+        cached = readFromDisk(key);
+        if (cached != null) {
+            synchronized (memory) {
+                memory.put(key, cached);
+            }
+            return usable(cached, diskHits);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cuenta el acceso como acierto sólo si la entrada está vigente. Una entrada caducada
+     * cuenta como fallo, pero se devuelve si permite una revalidación condicional.
+     */
+    private CachedResponse usable(CachedResponse cached, AtomicLong hits) {
+        if (isFresh(cached)) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        return cached.hasValidators() ? cached : null;
+    }
+
+    public boolean isFresh(CachedResponse cached) {
+        return clock.millis() - cached.storedAtMillis() < ttl.toMillis();
+    }
+
+    /**
+     * Guarda una respuesta recién descargada en ambos niveles.
+     */
+    public CachedResponse put(URI uri, byte[] body, String etag, String lastModified) {
+        CachedResponse cached = new CachedResponse(normalizeKey(uri), body, etag, lastModified, clock.millis());
+        store(cached);
+        return cached;
+    }
+
+    /**
+     * Marca como vigente una entrada que el servidor confirmó sin cambios (304 Not Modified).
+     */
+    public CachedResponse revalidated(CachedResponse cached) {
+        revalidations.incrementAndGet();
+        CachedResponse refreshed = new CachedResponse(cached.key(), cached.body(), cached.etag(),
+                cached.lastModified(), clock.millis());
+        store(refreshed);
+        return refreshed;
+    }
+
+    private void store(CachedResponse cached) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(cached.key(), cached);
+        }
+        writeToDisk(cached);
+    }
+
+    /**
+     * Vacía ambos niveles.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.toString().endsWith(".cache")).forEach(GutendexResponseCache::deleteQuietly);
+            } catch (IOException e) {
+                System.err.println("Advertencia: No se pudo vaciar la caché en disco: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public int getMemorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Caché Gutendex: aciertos en memoria=" + memoryHits + ", aciertos en disco=" + diskHits
+                + ", fallos=" + misses + ", expulsiones=" + evictions + ", revalidaciones=" + revalidations;
+    }
+
+    /**
+     * Normaliza una URI de consulta para que peticiones equivalentes compartan entrada:
+     * esquema y host en minúsculas, parámetros ordenados, texto de búsqueda en minúsculas
+     * con espacios colapsados e idiomas ordenados.
+     */
+    public static String normalizeKey(URI uri) {
+        Map<String, String> params = new TreeMap<>();
+        String rawQuery = uri.getRawQuery();
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                if (param.isEmpty()) {
+                    continue;
+                }
+                int eq = param.indexOf('=');
+                String name = URLDecoder.decode(eq < 0 ? param : param.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8);
+                switch (name) {
+                    case "search" -> value = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+                    case "languages" -> {
+                        String[] codes = value.toLowerCase(Locale.ROOT).split(",");
+                        Arrays.sort(codes);
+                        value = String.join(",", codes);
+                    }
+                    case "page" -> {
+                        if ("1".equals(value)) {
+                            continue; // La página 1 es la misma consulta sin 'page'.
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                if (!value.isEmpty()) {
+                    params.put(name, value);
+                }
+            }
+        }
+        StringBuilder key = new StringBuilder()
+                .append(uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT)).append("://")
+                .append(uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT))
+                .append(uri.getPort() < 0 ? "" : ":" + uri.getPort())
+                .append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+        String separator = "?";
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            key.append(separator).append(param.getKey()).append('=')
+                    .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+            separator = "&";
+        }
+        return key.toString();
+    }
+
+    // --- Nivel en disco ---
+
+    private Path fileFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + ".cache");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private CachedResponse readFromDisk(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            CachedResponse cached = readEntry(in);
+            // Protección frente a colisiones de hash o ficheros de otra versión.
+            return cached != null && cached.key().equals(key) ? cached : null;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    private void writeToDisk(CachedResponse cached) {
+        if (directory == null) {
+            return;
+        }
+        Path file = fileFor(cached.key());
+        try {
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writeEntry(out, cached);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Advertencia: No se pudo guardar la respuesta en la caché en disco: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Borra del disco las entradas caducadas que no pueden revalidarse.
+     */
+    private void purgeExpiredFromDisk() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.toString().endsWith(".cache")).forEach(file -> {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    CachedResponse cached = readEntry(in);
+                    if (cached == null || (!isFresh(cached) && !cached.hasValidators())) {
+                        deleteQuietly(file);
+                    }
+                } catch (IOException e) {
+                    deleteQuietly(file);
+                }
+            });
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, CachedResponse cached) throws IOException {
+        out.writeInt(DISK_FORMAT_VERSION);
+        out.writeUTF(cached.key());
+        writeNullableUtf(out, cached.etag());
+        writeNullableUtf(out, cached.lastModified());
+        out.writeLong(cached.storedAtMillis());
+        out.writeInt(cached.body().length);
+        out.write(cached.body());
+    }
+
+    private static CachedResponse readEntry(DataInputStream in) throws IOException {
+        if (in.readInt() != DISK_FORMAT_VERSION) {
+            return null;
+        }
+        String key = in.readUTF();
+        String etag = readNullableUtf(in);
+        String lastModified = readNullableUtf(in);
+        long storedAt = in.readLong();
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new CachedResponse(key, body, etag, lastModified, storedAt);
+    }
+
+    private static void writeNullableUtf(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUtf(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Se reintentará en la próxima purga.
+        }
+    }
+}
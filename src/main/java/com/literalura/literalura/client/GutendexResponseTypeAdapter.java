@@ -0,0 +1,97 @@
+package com.literalura.literalura.client;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.GutendexResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Adaptador de Gson para la respuesta paginada de Gutendex.
+ * Además de {@link #read(JsonReader)}, ofrece {@link #stream(JsonReader, Consumer)},
+ * que entrega los libros uno a uno a medida que se leen en lugar de acumularlos en una lista.
+ */
+public class GutendexResponseTypeAdapter extends TypeAdapter<GutendexResponse> {
+
+    private final BookTypeAdapter bookAdapter;
+
+    public GutendexResponseTypeAdapter(BookTypeAdapter bookAdapter) {
+        this.bookAdapter = bookAdapter;
+    }
+
+    @Override
+    public GutendexResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Book> books = new ArrayList<>(32);
+        GutendexResponse response = stream(in, books::add);
+        response.setBooks(books);
+        return response;
+    }
+
+    /**
+     * Lee una página entregando cada libro a {@code sink} en cuanto se termina de leer.
+     * @param in El lector posicionado al inicio del objeto de respuesta.
+     * @param sink Receptor de los libros de la página.
+     * @return Los metadatos de la página (conteo y enlaces); la lista de libros queda vacía.
+     */
+    public GutendexResponse stream(JsonReader in, Consumer<Book> sink) throws IOException {
+        GutendexResponse response = new GutendexResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "count" -> response.setCount(JsonValues.nextIntegerOrNull(in));
+                case "next" -> response.setNext(JsonValues.nextStringOrNull(in));
+                case "previous" -> response.setPrevious(JsonValues.nextStringOrNull(in));
+                case "results" -> {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            Book book = bookAdapter.read(in);
+                            if (book != null) {
+                                sink.accept(book);
+                            }
+                        }
+                        in.endArray();
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return response;
+    }
+
+    @Override
+    public void write(JsonWriter out, GutendexResponse response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("count").value(response.getCount());
+        out.name("next").value(response.getNext());
+        out.name("previous").value(response.getPrevious());
+        out.name("results");
+        if (response.getBooks() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (Book book : response.getBooks()) {
+                bookAdapter.write(out, book);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+}
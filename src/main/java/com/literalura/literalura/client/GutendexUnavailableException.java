@@ -0,0 +1,22 @@
+package com.literalura.literalura.client;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * La petición no se envió porque el cortocircuito de la API está abierto tras varios fallos seguidos.
+ */
+public class GutendexUnavailableException extends IOException {
+
+    private final Duration retryIn;
+
+    public GutendexUnavailableException(Duration retryIn) {
+        super("La API de Gutendex no está respondiendo; se volverá a intentar en "
+                + Math.max(1, retryIn.toSeconds()) + " s");
+        this.retryIn = retryIn;
+    }
+
+    public Duration getRetryIn() {
+        return retryIn;
+    }
+}
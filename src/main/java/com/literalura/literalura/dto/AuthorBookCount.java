@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Un autor y el número de libros suyos registrados.
+ */
+public record AuthorBookCount(AuthorSummary author, int books) {
+}
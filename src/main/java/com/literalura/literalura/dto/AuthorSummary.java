@@ -0,0 +1,21 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Proyección de lectura de un autor: sólo las columnas de la tabla {@code authors},
+ * sin cargar su colección de libros.
+ */
+public record AuthorSummary(Long id, String name, Integer birthYear, Integer deathYear) {
+
+    // Mismo formato que Author.toString()
+    @Override
+    public String toString() {
+        StringBuilder info = new StringBuilder("  - Nombre: " + name);
+        if (birthYear != null) {
+            info.append(", Nacimiento: ").append(birthYear);
+        }
+        if (deathYear != null) {
+            info.append(", Fallecimiento: ").append(deathYear);
+        }
+        return info.toString();
+    }
+}
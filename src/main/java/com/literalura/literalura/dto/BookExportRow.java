@@ -0,0 +1,9 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Fila de la exportación del catálogo: un libro con su autor y sus idiomas.
+ * @param languages Códigos de idioma separados por coma, o {@code null} si no tiene.
+ */
+public record BookExportRow(Integer id, String title, String authorName, Integer birthYear, Integer deathYear,
+                            String languages, Integer downloadCount) {
+}
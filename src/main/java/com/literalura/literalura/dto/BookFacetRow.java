@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Columnas de un libro que usan los índices en memoria (sin título ni idiomas).
+ */
+public record BookFacetRow(Integer id, Long authorId, Integer downloadCount) {
+}
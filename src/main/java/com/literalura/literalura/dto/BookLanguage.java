@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Par (libro, idioma) de la tabla {@code book_languages}.
+ */
+public record BookLanguage(Integer bookId, String language) {
+}
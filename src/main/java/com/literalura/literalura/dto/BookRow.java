@@ -0,0 +1,8 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Fila plana de un libro con el nombre de su autor, obtenida con una sola consulta
+ * (libro + autor) sin inicializar asociaciones.
+ */
+public record BookRow(Integer id, String title, String authorName, Integer downloadCount) {
+}
@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Par (libro, materia) de la tabla {@code book_subjects}.
+ */
+public record BookSubject(Integer bookId, Integer subjectId) {
+}
@@ -0,0 +1,24 @@
+package com.literalura.literalura.dto;
+
+import java.util.List;
+
+/**
+ * Proyección de lectura de un libro con su autor e idiomas, lista para mostrar.
+ */
+public record BookSummary(Integer id, String title, String authorName, List<String> languages, Integer downloadCount) {
+
+    // Mismo formato que Book.toString()
+    @Override
+    public String toString() {
+        String author = authorName != null ? authorName : "Desconocido";
+        String langs = (languages != null && !languages.isEmpty())
+                ? String.join(", ", languages) : "N/A";
+
+        return "\n📖 Libro\n" +
+                "   ID: " + id + "\n" +
+                "   Título: " + title + "\n" +
+                "   Autor: " + author + "\n" +
+                "   Idiomas: " + langs + "\n" +
+                "   Descargas: " + (downloadCount != null ? downloadCount : "N/A") + "\n";
+    }
+}
@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Estadísticas de descargas de un idioma, o de todo el catálogo si {@code language} es null.
+ */
+public record LanguageStatistics(String language, int books, long downloads, double averageDownloads) {
+}
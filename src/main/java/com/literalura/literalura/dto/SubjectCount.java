@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * Materia con el número de libros que la tienen (faceta por materia).
+ */
+public record SubjectCount(Integer id, String name, int books) {
+}
@@ -0,0 +1,7 @@
+package com.literalura.literalura.dto;
+
+/**
+ * ID de un libro y la huella de su título (ver {@link com.literalura.literalura.model.TitleFingerprint}).
+ */
+public record TitleFingerprintRow(Integer id, String fingerprint) {
+}
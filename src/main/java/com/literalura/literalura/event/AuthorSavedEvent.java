@@ -0,0 +1,11 @@
+package com.literalura.literalura.event;
+
+/**
+ * Evento publicado cuando se inserta un autor nuevo en la base de datos.
+ * @param id ID del autor.
+ * @param name Nombre del autor.
+ * @param birthYear Año de nacimiento (puede ser null).
+ * @param deathYear Año de fallecimiento (puede ser null).
+ */
+public record AuthorSavedEvent(Long id, String name, Integer birthYear, Integer deathYear) {
+}
@@ -0,0 +1,18 @@
+package com.literalura.literalura.event;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evento publicado cada vez que se inserta o actualiza un libro en la base de datos.
+ * Lo consumen los índices en memoria para mantenerse al día sin volver a leer la tabla.
+ * @param id ID del libro.
+ * @param title Título del libro.
+ * @param authorId ID del autor (null si aún no tiene).
+ * @param languages Idiomas del libro (vacío si no estaban cargados).
+ * @param downloadCount Número de descargas.
+ * @param subjectIds IDs de las materias del libro (vacío si no estaban cargadas).
+ */
+public record BookSavedEvent(Integer id, String title, Long authorId, List<String> languages, Integer downloadCount,
+                             Set<Integer> subjectIds) {
+}
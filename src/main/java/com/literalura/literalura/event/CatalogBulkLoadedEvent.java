@@ -0,0 +1,15 @@
+package com.literalura.literalura.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado tras una escritura masiva que no pasa por JPA (y, por tanto, no publica
+ * {@link BookSavedEvent} ni {@link AuthorSavedEvent} por cada fila). Los índices en memoria
+ * deben descartarse y volver a cargarse.
+ * @param books Libros insertados.
+ * @param authors Autores insertados.
+ * @param titleFingerprints Huellas de título de todos los libros del lote, insertados o descartados como
+ * duplicados (para el filtro de {@link com.literalura.literalura.service.DuplicateTitleGuard}).
+ */
+public record CatalogBulkLoadedEvent(int books, int authors, List<String> titleFingerprints) {
+}
@@ -0,0 +1,14 @@
+package com.literalura.literalura.event;
+
+import com.literalura.literalura.dto.BookFacetRow;
+
+import java.util.List;
+
+/**
+ * Evento publicado cuando se actualizan las descargas de varios libros con un {@code UPDATE}
+ * por lotes (sin JPA, por lo que no hay {@link BookSavedEvent} por fila). Sólo cambian las
+ * descargas: los índices en memoria pueden actualizarse libro a libro sin recargarse.
+ * @param books Libros cambiados, con sus descargas nuevas.
+ */
+public record DownloadCountsChangedEvent(List<BookFacetRow> books) {
+}
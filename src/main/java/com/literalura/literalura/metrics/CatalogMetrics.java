@@ -0,0 +1,209 @@
+package com.literalura.literalura.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de las rutas críticas (descarga, parseo, resolución de autores y persistencia),
+ * registradas en Micrometer. Todos los medidores empiezan por {@code literalura.} y los
+ * temporizadores publican p50 y p99 calculados en los últimos {@value #WINDOW_MINUTES} minutos.
+ * <ul>
+ *     <li>{@code literalura.gutendex.http}: latencia hasta las cabeceras, por código de estado.</li>
+ *     <li>{@code literalura.gutendex.bytes}: bytes recibidos por respuesta.</li>
+ *     <li>{@code literalura.gutendex.throttled}, {@code literalura.gutendex.retries} y
+ *     {@code literalura.gutendex.circuit.rejected}: respuestas 429, reintentos y peticiones rechazadas
+ *     por el cortocircuito.</li>
+ *     <li>{@code literalura.gutendex.queue}, {@code literalura.gutendex.rate} y {@code literalura.gutendex.circuit}:
+ *     peticiones esperando turno, ritmo permitido (peticiones/s) y estado del cortocircuito
+ *     (0 cerrado, 1 semiabierto, 2 abierto).</li>
+ *     <li>{@code literalura.gutendex.parse}: parseo de una página (incluye la lectura en flujo).</li>
+ *     <li>{@code literalura.authors.cache} y {@code literalura.subjects.cache}: aciertos y fallos de las cachés
+ *     de autores y de materias.</li>
+ *     <li>{@code literalura.cache.entities.hit-ratio} y {@code literalura.cache.queries.hit-ratio}: fracción de
+ *     aciertos de la caché de segundo nivel y de la de consultas de Hibernate.</li>
+ *     <li>{@code literalura.persist.batch} y {@code literalura.persist.bulk}: escrituras por lotes (JPA) y
+ *     masivas (COPY).</li>
+ *     <li>{@code literalura.persist.queue}: libros del menú esperando la escritura en segundo plano.</li>
+ *     <li>{@code literalura.persist.books}: libros guardados, duplicados y rechazados.</li>
+ * </ul>
+ */
+@Component
+public class CatalogMetrics {
+
+    static final int WINDOW_MINUTES = 10;
+
+    private final MeterRegistry registry;
+
+    public CatalogMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Métricas en un registro propio en memoria, para usar las clases fuera de Spring (tests, benchmarks).
+     */
+    public static CatalogMetrics standalone() {
+        return new CatalogMetrics(new SimpleMeterRegistry());
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Registra una respuesta HTTP de Gutendex.
+     * @param status Código de estado, o -1 si la petición falló sin respuesta.
+     */
+    public void httpRequest(Timer.Sample sample, int status) {
+        sample.stop(timer("literalura.gutendex.http", "status", status < 0 ? "IO_ERROR" : String.valueOf(status)));
+    }
+
+    public void bytesReceived(long bytes) {
+        DistributionSummary.builder("literalura.gutendex.bytes")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.99)
+                .distributionStatisticExpiry(Duration.ofMinutes(WINDOW_MINUTES))
+                .register(registry)
+                .record(bytes);
+    }
+
+    /**
+     * Envuelve el cuerpo de una respuesta para contar sus bytes; se registran al cerrarlo.
+     */
+    public InputStream countingBytes(InputStream body) {
+        return new FilterInputStream(body) {
+            private long count;
+            private boolean closed;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    count += n;
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    bytesReceived(count);
+                }
+                super.close();
+            }
+        };
+    }
+
+    public void throttled() {
+        Counter.builder("literalura.gutendex.throttled").register(registry).increment();
+    }
+
+    /**
+     * Registra un reintento.
+     * @param reason Código de estado que lo provocó, o {@code IO_ERROR}.
+     */
+    public void retried(String reason) {
+        Counter.builder("literalura.gutendex.retries").tag("reason", reason).register(registry).increment();
+    }
+
+    public void circuitRejected() {
+        Counter.builder("literalura.gutendex.circuit.rejected").register(registry).increment();
+    }
+
+    /**
+     * Registra un medidor de valor instantáneo (si ya existe uno con ese nombre, se conserva el existente).
+     */
+    public void gauge(String name, Supplier<Number> value) {
+        Gauge.builder(name, value).register(registry);
+    }
+
+    public void pageParsed(long nanos) {
+        timer("literalura.gutendex.parse").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void authorCache(int hits, int misses) {
+        if (hits > 0) {
+            Counter.builder("literalura.authors.cache").tag("result", "hit").register(registry).increment(hits);
+        }
+        if (misses > 0) {
+            Counter.builder("literalura.authors.cache").tag("result", "miss").register(registry).increment(misses);
+        }
+    }
+
+    public void subjectCache(int hits, int misses) {
+        if (hits > 0) {
+            Counter.builder("literalura.subjects.cache").tag("result", "hit").register(registry).increment(hits);
+        }
+        if (misses > 0) {
+            Counter.builder("literalura.subjects.cache").tag("result", "miss").register(registry).increment(misses);
+        }
+    }
+
+    public void batchWritten(Timer.Sample sample, int saved, int duplicates, int rejected) {
+        sample.stop(timer("literalura.persist.batch"));
+        booksCounter("saved").increment(saved);
+        booksCounter("duplicate").increment(duplicates);
+        booksCounter("rejected").increment(rejected);
+    }
+
+    public void bulkWritten(Timer.Sample sample, int saved, int duplicates, int rejected) {
+        sample.stop(timer("literalura.persist.bulk"));
+        booksCounter("saved").increment(saved);
+        booksCounter("duplicate").increment(duplicates);
+        booksCounter("rejected").increment(rejected);
+    }
+
+    public void downloadsRefreshed(Timer.Sample sample, int checked, int changed) {
+        sample.stop(timer("literalura.refresh.chunk"));
+        Counter.builder("literalura.refresh.books").tag("outcome", "checked").register(registry).increment(checked);
+        Counter.builder("literalura.refresh.books").tag("outcome", "changed").register(registry).increment(changed);
+    }
+
+    /**
+     * Comprobaciones de títulos duplicados por resultado: descartadas por el filtro de Bloom
+     * ({@code bloom-negative}) o resueltas en la base de datos ({@code db-found}, {@code db-absent}:
+     * este último son los falsos positivos del filtro, o consultas antes de cargarlo).
+     */
+    public void titleChecks(String outcome, int count) {
+        if (count > 0) {
+            Counter.builder("literalura.dedup.checks").tag("outcome", outcome).register(registry).increment(count);
+        }
+    }
+
+    private Counter booksCounter(String outcome) {
+        return Counter.builder("literalura.persist.books").tag("outcome", outcome).register(registry);
+    }
+
+    private Timer timer(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .distributionStatisticExpiry(Duration.ofMinutes(WINDOW_MINUTES))
+                .register(registry);
+    }
+}
@@ -0,0 +1,194 @@
+package com.literalura.literalura.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Informe en texto de las métricas de {@link CatalogMetrics} (p50/p99 por etapa) y de las
+ * estadísticas de Hibernate (consultas, sentencias, cargas de entidades y colecciones, aciertos de las cachés).
+ * <p>
+ * Se muestra bajo demanda (menú, fin de una ingesta) y, si {@code literalura.metrics.log-enabled=true},
+ * también periódicamente mientras haya actividad. El informe periódico usa un hilo daemon propio
+ * para no impedir que la aplicación termine.
+ */
+@Component
+public class MetricsReporter {
+
+    private final MeterRegistry registry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean logEnabled;
+    private final Duration logInterval;
+    private ScheduledExecutorService scheduler;
+    private double lastActivity = -1;
+
+    public MetricsReporter(MeterRegistry registry, EntityManagerFactory entityManagerFactory,
+                           @Value("${literalura.metrics.log-enabled:false}") boolean logEnabled,
+                           @Value("${literalura.metrics.log-interval:60s}") Duration logInterval) {
+        this.registry = registry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.logEnabled = logEnabled;
+        this.logInterval = logInterval;
+    }
+
+    @PostConstruct
+    void startPeriodicLog() {
+        if (!logEnabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = logInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::logIfActive, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopPeriodicLog() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void logIfActive() {
+        double activity = registry.find("literalura.gutendex.http").timers().stream().mapToDouble(Timer::count).sum()
+                + registry.find("literalura.persist.books").counters().stream().mapToDouble(Counter::count).sum();
+        if (activity != lastActivity) {
+            lastActivity = activity;
+            System.out.println(report());
+        }
+    }
+
+    /**
+     * Construye el informe completo.
+     */
+    public String report() {
+        StringBuilder out = new StringBuilder("\n--- MÉTRICAS (p50/p99 de los últimos ")
+                .append(CatalogMetrics.WINDOW_MINUTES).append(" min) ---\n");
+        out.append(String.format(Locale.ROOT, "%-44s %8s %10s %10s %10s %10s%n", "Etapa", "n", "media", "p50", "p99", "máx"));
+
+        List<Meter> meters = registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("literalura."))
+                .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName()).thenComparing(MetricsReporter::tags))
+                .toList();
+        for (Meter meter : meters) {
+            String label = meter.getId().getName() + tags(meter);
+            if (meter instanceof Timer timer) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                out.append(String.format(Locale.ROOT, "%-44s %8d %10s %10s %10s %10s%n", label, snapshot.count(),
+                        millis(snapshot.mean(TimeUnit.MILLISECONDS)),
+                        millis(percentile(snapshot, 0.5, TimeUnit.MILLISECONDS)),
+                        millis(percentile(snapshot, 0.99, TimeUnit.MILLISECONDS)),
+                        millis(snapshot.max(TimeUnit.MILLISECONDS))));
+            } else if (meter instanceof DistributionSummary summary) {
+                HistogramSnapshot snapshot = summary.takeSnapshot();
+                out.append(String.format(Locale.ROOT, "%-44s %8d %10s %10s %10s %10s%n", label, snapshot.count(),
+                        kilobytes(snapshot.mean()), kilobytes(percentile(snapshot, 0.5, null)),
+                        kilobytes(percentile(snapshot, 0.99, null)), kilobytes(snapshot.max())));
+            } else if (meter instanceof Counter counter) {
+                out.append(String.format(Locale.ROOT, "%-44s %8.0f%n", label, counter.count()));
+            } else if (meter instanceof Gauge gauge) {
+                out.append(String.format(Locale.ROOT, "%-44s %8s %10.1f%n", label, "ahora", gauge.value()));
+            }
+        }
+
+        double hits = counterValue("literalura.authors.cache", "hit");
+        double misses = counterValue("literalura.authors.cache", "miss");
+        if (hits + misses > 0) {
+            out.append(String.format(Locale.ROOT, "Tasa de aciertos de la caché de autores: %.1f %%%n", 100 * hits / (hits + misses)));
+        }
+        appendHibernateStatistics(out);
+        return out.append("----------------------------------------\n").toString();
+    }
+
+    private void appendHibernateStatistics(StringBuilder out) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            out.append("\nEstadísticas de Hibernate desactivadas (hibernate.generate_statistics=false).\n");
+            return;
+        }
+        out.append("\n--- HIBERNATE ---\n")
+                .append("Sentencias preparadas: ").append(statistics.getPrepareStatementCount())
+                .append(" | Consultas JPQL/SQL: ").append(statistics.getQueryExecutionCount())
+                .append(" | Transacciones: ").append(statistics.getTransactionCount()).append('\n')
+                .append("Entidades cargadas: ").append(statistics.getEntityLoadCount())
+                .append(" (por asociación: ").append(statistics.getEntityFetchCount()).append(')')
+                .append(" | Colecciones cargadas: ").append(statistics.getCollectionLoadCount())
+                .append(" (por asociación: ").append(statistics.getCollectionFetchCount()).append(")\n")
+                .append("Entidades insertadas: ").append(statistics.getEntityInsertCount())
+                .append(" | Flushes: ").append(statistics.getFlushCount()).append('\n');
+        out.append("Caché de segundo nivel: ").append(statistics.getSecondLevelCacheHitCount()).append(" aciertos, ")
+                .append(statistics.getSecondLevelCacheMissCount()).append(" fallos")
+                .append(percent(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()))
+                .append(" | Caché de consultas: ").append(statistics.getQueryCacheHitCount()).append(" aciertos, ")
+                .append(statistics.getQueryCacheMissCount()).append(" fallos")
+                .append(percent(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount())).append('\n');
+        if (statistics.getQueryExecutionMaxTime() > 0) {
+            out.append("Consulta más lenta: ").append(statistics.getQueryExecutionMaxTime()).append(" ms → ")
+                    .append(statistics.getQueryExecutionMaxTimeQueryString()).append('\n');
+        }
+        // Cada carga perezosa individual es una consulta extra: si superan a las consultas explícitas,
+        // probablemente hay un patrón N+1.
+        long lazyFetches = statistics.getEntityFetchCount() + statistics.getCollectionFetchCount();
+        if (lazyFetches > Math.max(10, statistics.getQueryExecutionCount())) {
+            out.append("AVISO: ").append(lazyFetches).append(" cargas perezosas frente a ")
+                    .append(statistics.getQueryExecutionCount()).append(" consultas: posible patrón N+1.\n");
+        }
+    }
+
+    private static String percent(long hits, long misses) {
+        return hits + misses == 0 ? "" : String.format(Locale.ROOT, " (%.1f %%)", 100.0 * hits / (hits + misses));
+    }
+
+    private double counterValue(String name, String result) {
+        Counter counter = registry.find(name).tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static String tags(Meter meter) {
+        List<Tag> tags = meter.getId().getTags();
+        return tags.isEmpty() ? "" : tags.stream().map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(",", " [", "]"));
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile, TimeUnit unit) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return unit == null ? value.value() : value.value(unit);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static String millis(double value) {
+        return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%.1f ms", value);
+    }
+
+    private static String kilobytes(double value) {
+        return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%.1f KB", value / 1024);
+    }
+}
@@ -2,6 +2,8 @@ package com.literalura.literalura.model;
 
 import com.google.gson.annotations.SerializedName;
 import jakarta.persistence.*; // Importaciones para JPA
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 import java.util.Objects; // Para equals y hashCode
 
@@ -11,6 +13,8 @@ import java.util.Objects; // Para equals y hashCode
  */
 @Entity // Anotación clave: marca esta clase como una entidad JPA, mapeada a una tabla en la DB.
 @Table(name = "authors") // Define el nombre de la tabla en la base de datos.
+@Cacheable // En la caché de segundo nivel: los autores casi nunca cambian una vez guardados.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 public class Author {
     @Id // Marca este campo como la clave primaria de la tabla.
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Genera automáticamente el ID para nuevos autores.
@@ -27,9 +31,10 @@ public class Author {
 
     // Relación One-to-Many: Un autor puede tener muchos libros.
     // 'mappedBy' indica que la relación es gestionada por el campo 'author' en la entidad Book.
-    // 'FetchType.EAGER' carga los libros del autor inmediatamente (puede ser ineficiente para muchos libros).
+    // 'FetchType.LAZY': los libros sólo se cargan si se accede a ellos dentro de una transacción;
+    // los listados usan proyecciones (AuthorSummary) y nunca recorren esta colección.
     // 'CascadeType.ALL' propaga operaciones (persistencia, eliminación) a los libros asociados.
-    @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Book> books; // Lista de libros asociados a este autor.
 
     // Constructor vacío: Necesario para JPA y Gson.
@@ -2,14 +2,23 @@ package com.literalura.literalura.model;
 
 import com.google.gson.annotations.SerializedName;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Entidad JPA que representa un libro.
  * Se alimenta con datos de la API Gutendex y se persiste en PostgreSQL.
+ * Está en la caché de segundo nivel (región {@code books} de hibernate-cache.conf).
  */
 @Entity
 @Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@EntityListeners(BookEntityListener.class)
 public class Book {
 
     @Id
@@ -18,8 +27,16 @@ public class Book {
     @Column(unique = true, nullable = false)
     private String title;
 
+    // Huella del título (minúsculas, sin tildes ni signos, ver TitleFingerprint) con índice único:
+    // impide duplicados que sólo difieren en mayúsculas o puntuación. Se calcula al guardar; las filas
+    // anteriores a la columna la tienen a null hasta que DuplicateTitleGuard la rellena al arrancar.
+    @Column(name = "title_fingerprint", unique = true, length = TitleFingerprint.MAX_LENGTH)
+    private String titleFingerprint;
+
     // Relación muchos-a-uno: varios libros pueden tener un mismo autor.
-    @ManyToOne(cascade = CascadeType.PERSIST)
+    // Sin cascada: el autor siempre se resuelve (y se inserta si falta) antes de guardar el libro.
+    // LAZY: los listados leen el nombre del autor con un JOIN en la proyección, no con la entidad.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private Author author;
 
@@ -29,15 +46,33 @@ public class Book {
     private List<Author> apiAuthors;
 
     // Idiomas (guardados en tabla separada book_languages).
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "book_languages", joinColumns = @JoinColumn(name = "book_id"))
+    // LAZY + BatchSize: si se recorren varios libros, los idiomas se cargan en bloques, no uno a uno.
+    // Índices: por libro (carga de idiomas de una página) y por idioma (listado por idioma).
+    // En caché junto con el libro: casi nunca cambian.
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-languages")
+    @CollectionTable(name = "book_languages", joinColumns = @JoinColumn(name = "book_id"),
+            indexes = {
+                    @Index(name = "idx_book_languages_book_id", columnList = "book_id"),
+                    @Index(name = "idx_book_languages_language", columnList = "language, book_id")
+            })
     @Column(name = "language")
     private List<String> languages;
 
-    // Materias o categorías (solo de la API, no se persisten en DB).
+    // Materias o categorías tal como llegan de la API. Se guardan como IDs del diccionario de materias
+    // (ver subjectIds); el texto no se vuelve a cargar desde la base de datos.
     @Transient
     private List<String> subjects;
 
+    // Materias guardadas: IDs de la tabla subjects en book_subjects (clave primaria book_id, subject_id).
+    // Fuera de la caché de segundo nivel: sólo las leen los índices de facetas, por rangos de ID.
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @CollectionTable(name = "book_subjects", joinColumns = @JoinColumn(name = "book_id"))
+    @Column(name = "subject_id")
+    private Set<Integer> subjectIds = new LinkedHashSet<>();
+
     @SerializedName("download_count")
     @Column(name = "download_count")
     private Integer downloadCount;
@@ -62,8 +97,10 @@ public class Book {
     public Author getAuthor() { return author; }
     public List<Author> getApiAuthors() { return apiAuthors; }
     public List<String> getSubjects() { return subjects; }
+    public Set<Integer> getSubjectIds() { return subjectIds; }
     public List<String> getLanguages() { return languages; }
     public Integer getDownloadCount() { return downloadCount; }
+    public String getTitleFingerprint() { return titleFingerprint; }
 
     // --- Setters ---
     public void setId(Integer id) { this.id = id; }
@@ -71,9 +108,17 @@ public class Book {
     public void setAuthor(Author author) { this.author = author; }
     public void setApiAuthors(List<Author> apiAuthors) { this.apiAuthors = apiAuthors; }
     public void setSubjects(List<String> subjects) { this.subjects = subjects; }
+    public void setSubjectIds(Set<Integer> subjectIds) { this.subjectIds = subjectIds; }
     public void setLanguages(List<String> languages) { this.languages = languages; }
     public void setDownloadCount(Integer downloadCount) { this.downloadCount = downloadCount; }
 
+    // La huella se recalcula siempre a partir del título: no tiene setter.
+    @PrePersist
+    @PreUpdate
+    void computeTitleFingerprint() {
+        this.titleFingerprint = TitleFingerprint.of(title);
+    }
+
     // Representación de texto
     @Override
     public String toString() {
@@ -0,0 +1,36 @@
+package com.literalura.literalura.model;
+
+import com.literalura.literalura.event.BookSavedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listener JPA de {@link Book}: publica un {@link BookSavedEvent} tras cada INSERT o UPDATE.
+ * Hibernate lo instancia a través del contenedor de beans de Spring, que inyecta el publicador.
+ */
+public class BookEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void bookSaved(Book book) {
+        // getId() de un proxy no lo inicializa; idiomas y materias sólo se copian si ya están cargados.
+        Long authorId = book.getAuthor() != null ? book.getAuthor().getId() : null;
+        List<String> languages = book.getLanguages() != null && Hibernate.isInitialized(book.getLanguages())
+                ? List.copyOf(book.getLanguages()) : List.of();
+        Set<Integer> subjectIds = book.getSubjectIds() != null && Hibernate.isInitialized(book.getSubjectIds())
+                ? Set.copyOf(book.getSubjectIds()) : Set.of();
+        eventPublisher.publishEvent(new BookSavedEvent(book.getId(), book.getTitle(), authorId, languages,
+                book.getDownloadCount(), subjectIds));
+    }
+}
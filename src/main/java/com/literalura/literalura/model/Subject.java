@@ -0,0 +1,39 @@
+package com.literalura.literalura.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Entrada del diccionario de materias (tabla {@code subjects}).
+ * Cada texto de materia se guarda una sola vez; los libros la referencian por ID
+ * desde {@code book_subjects} (ver {@link Book#getSubjectIds()}).
+ */
+@Entity
+@Table(name = "subjects")
+public class Subject {
+
+    /** Longitud máxima del nombre de una materia (las más largas se descartan al guardar). */
+    public static final int MAX_NAME_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(unique = true, nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+
+    // Constructor vacío para JPA
+    public Subject() {}
+
+    public Subject(Integer id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Integer getId() { return id; }
+    public String getName() { return name; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
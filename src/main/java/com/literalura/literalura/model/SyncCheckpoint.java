@@ -0,0 +1,57 @@
+package com.literalura.literalura.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Marca de avance de un proceso de sincronización que recorre los libros por ID.
+ * Guarda el último ID procesado y confirmado: si el proceso se interrumpe, la siguiente
+ * ejecución continúa a partir de ahí en lugar de empezar de nuevo.
+ */
+@Entity
+@Table(name = "sync_checkpoints")
+public class SyncCheckpoint {
+
+    @Id
+    private String name; // Nombre del proceso, p. ej. "download-counts"
+
+    // Último ID de libro procesado; 0 si no hay ninguna ejecución a medias.
+    @Column(name = "last_id", nullable = false)
+    private Integer lastId;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Constructor vacío para JPA
+    public SyncCheckpoint() {}
+
+    public SyncCheckpoint(String name, Integer lastId) {
+        this.name = name;
+        this.lastId = lastId;
+        this.updatedAt = Instant.now();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getLastId() {
+        return lastId;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Avanza la marca y actualiza la fecha.
+     */
+    public void advanceTo(Integer lastId) {
+        this.lastId = lastId;
+        this.updatedAt = Instant.now();
+    }
+}
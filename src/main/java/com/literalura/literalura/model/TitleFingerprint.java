@@ -0,0 +1,66 @@
+package com.literalura.literalura.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Huella normalizada de un título, usada para detectar libros duplicados.
+ * <p>
+ * Dos títulos tienen la misma huella si sólo difieren en mayúsculas, tildes, espacios o signos
+ * de puntuación: {@code "Don Quijote"}, {@code "DON  QUIJOTE."} y {@code "Don Quíjote"} → {@code "don quijote"}.
+ * Se guarda en {@code books.title_fingerprint} con un índice único, que es lo que impide de verdad
+ * los duplicados aunque escriban varios procesos a la vez.
+ * <p>
+ * Una huella más larga que la columna no se recorta (dos títulos con el mismo principio serían el mismo
+ * libro): se guarda el principio seguido de {@code #} y el SHA-256 de la huella completa.
+ */
+public final class TitleFingerprint {
+
+    /** Longitud de la columna {@code title_fingerprint}. */
+    public static final int MAX_LENGTH = 255;
+
+    // '#' más 64 dígitos hexadecimales.
+    private static final int HASH_SUFFIX_LENGTH = 65;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TitleFingerprint() {
+    }
+
+    /**
+     * Calcula la huella de un título.
+     * @return La huella, o null si el título es null.
+     */
+    public static String of(String title) {
+        if (title == null) {
+            return null;
+        }
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("");
+        // NFC recompone lo que NFD separó sin ser tildes (p. ej. sílabas coreanas).
+        String folded = SEPARATORS.matcher(Normalizer.normalize(withoutMarks, Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        if (folded.isEmpty()) {
+            // Títulos sólo con signos: se comparan tal cual, sin distinguir mayúsculas.
+            folded = title.strip().toLowerCase(Locale.ROOT);
+        }
+        return folded.length() > MAX_LENGTH
+                ? folded.substring(0, MAX_LENGTH - HASH_SUFFIX_LENGTH) + "#" + sha256(folded)
+                : folded;
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las JVM deben incluir SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.literalura.literalura.repository;
 
+import com.literalura.literalura.dto.AuthorSummary;
 import com.literalura.literalura.model.Author; // Importa la clase Author
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository; // Importa JpaRepository
 import org.springframework.data.jpa.repository.Query; // Para consultas JPQL personalizadas
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository; // Anotación @Repository
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +18,8 @@ import java.util.Optional;
  * Interfaz de repositorio para la entidad Author.
  * Extiende JpaRepository para obtener métodos CRUD y paginación.
  * El primer parámetro es la entidad (Author) y el segundo es el tipo de su ID (Long).
+ * Las consultas marcadas como cacheables ({@code HINT_CACHEABLE}) se responden desde la caché de
+ * consultas de Hibernate mientras la tabla no cambie; los recorridos completos no lo son para no llenarla.
  */
 @Repository // Indica a Spring que esta interfaz es un componente de repositorio.
 public interface AuthorRepository extends JpaRepository<Author, Long> {
@@ -20,6 +29,7 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
      * @param name El nombre del autor a buscar.
      * @return Un Optional que contiene el autor si se encuentra, o un Optional vacío.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Author> findByNameIgnoreCase(String name);
 
     /**
@@ -31,6 +41,7 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
      * @param year El año de referencia.
      * @return Una lista de autores vivos en el año especificado, ordenados por nombre.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Author a WHERE a.birthYear <= :year AND (a.deathYear >= :year OR a.deathYear IS NULL) ORDER BY a.name")
     List<Author> findAuthorsAliveInYear(Integer year);
 
@@ -38,6 +49,68 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
      * Lista todos los autores registrados, ordenados alfabéticamente por nombre.
      * @return Una lista de todos los autores.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Author> findAllByOrderByNameAsc();
 
+    /**
+     * Busca en una sola consulta los autores cuyos nombres normalizados (sin espacios en los extremos
+     * y en minúsculas) están en el conjunto dado. Lo usa la resolución de autores por lotes.
+     * @param normalizedNames Nombres ya normalizados.
+     * @return Los autores encontrados, ordenados por ID.
+     */
+    @Query("SELECT a FROM Author a WHERE lower(trim(a.name)) IN :normalizedNames ORDER BY a.id")
+    List<Author> findByNormalizedNameIn(Collection<String> normalizedNames);
+
+    /**
+     * Página de autores ordenados por nombre, excluyendo "Desconocido", como proyección
+     * (no se cargan las colecciones de libros).
+     * @param pageable Página solicitada.
+     * @return Los autores de la página.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear) "
+            + "FROM Author a WHERE lower(a.name) <> 'desconocido' ORDER BY a.name, a.id")
+    Slice<AuthorSummary> findSummariesExcludingUnknown(Pageable pageable);
+
+    /**
+     * Página de autores vivos en un año, excluyendo "Desconocido" en la propia consulta.
+     * @param year El año de referencia.
+     * @param pageable Página solicitada.
+     * @return Los autores de la página, ordenados por nombre.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear) "
+            + "FROM Author a WHERE a.birthYear <= :year AND (a.deathYear >= :year OR a.deathYear IS NULL) "
+            + "AND lower(a.name) <> 'desconocido' ORDER BY a.name, a.id")
+    Slice<AuthorSummary> findSummariesAliveInYear(Integer year, Pageable pageable);
+
+    /**
+     * Página de todos los autores como proyección, ordenados por ID.
+     * La usan los índices en memoria para cargarse sin materializar entidades.
+     * @param pageable Página solicitada.
+     * @return Los autores de la página.
+     */
+    @Query("SELECT new com.literalura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear) "
+            + "FROM Author a ORDER BY a.id")
+    Slice<AuthorSummary> findSummariesBy(Pageable pageable);
+
+    /**
+     * Página por clave de autores (API), excluyendo "Desconocido": usa la clave primaria en lugar de OFFSET.
+     * @param afterId Último ID de la página anterior (0 para empezar).
+     * @param pageable Tamaño de la página (se usa sólo el límite).
+     * @return Los autores de la página, ordenados por ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear) "
+            + "FROM Author a WHERE a.id > :afterId AND lower(a.name) <> 'desconocido' ORDER BY a.id")
+    List<AuthorSummary> findSummariesAfter(Long afterId, Pageable pageable);
+
+    /**
+     * Autores de un conjunto de IDs como proyección (p. ej. los de un ranking).
+     * @param ids Los IDs de los autores.
+     * @return Los autores encontrados, ordenados por ID.
+     */
+    @Query("SELECT new com.literalura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear) "
+            + "FROM Author a WHERE a.id IN :ids ORDER BY a.id")
+    List<AuthorSummary> findSummariesByIdIn(Collection<Long> ids);
 }
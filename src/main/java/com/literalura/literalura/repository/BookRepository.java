@@ -1,16 +1,32 @@
 package com.literalura.literalura.repository;
 
+import com.literalura.literalura.dto.BookExportRow;
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.dto.BookLanguage;
+import com.literalura.literalura.dto.BookRow;
+import com.literalura.literalura.dto.BookSubject;
+import com.literalura.literalura.dto.TitleFingerprintRow;
 import com.literalura.literalura.model.Book; // Importa la clase Book
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository; // Importa JpaRepository
+import org.springframework.data.jpa.repository.Query; // Para consultas JPQL personalizadas
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository; // Anotación @Repository
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional; // Para manejar la posibilidad de no encontrar un libro
+import java.util.stream.Stream;
 
 /**
  * Interfaz de repositorio para la entidad Book.
  * Extiende JpaRepository para obtener métodos CRUD (Crear, Leer, Actualizar, Borrar)
  * y paginación sin escribir código.
  * El primer parámetro es la entidad (Book) y el segundo es el tipo de su ID (Integer).
+ * Las consultas de los listados (menú y API) están marcadas como cacheables ({@code HINT_CACHEABLE}):
+ * repetir una página no vuelve a PostgreSQL mientras no cambien las tablas que lee.
  */
 @Repository // Indica a Spring que esta interfaz es un componente de repositorio.
 public interface BookRepository extends JpaRepository<Book, Integer> {
@@ -38,13 +54,165 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
      * @param language El código de idioma (ej. "es", "en", "fr", "pt").
      * @return Una lista de libros que están en el idioma especificado.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Book> findByLanguagesContaining(String language);
 
     /**
-     * Verifica si existe un libro con un título específico, ignorando mayúsculas y minúsculas.
-     * Este método puede ser útil para la validación de duplicados de forma más eficiente.
-     * @param title El título del libro a verificar.
-     * @return true si existe un libro con ese título, false en caso contrario.
+     * Verifica si existe un libro con la huella de título indicada (usa el índice único de la huella).
+     * Normalmente se llama a través de {@link com.literalura.literalura.service.DuplicateTitleGuard}.
+     * @param titleFingerprint La huella, calculada con {@link com.literalura.literalura.model.TitleFingerprint#of}.
+     * @return true si existe un libro con esa huella, false en caso contrario.
      */
-    boolean existsByTitleIgnoreCase(String title);
+    boolean existsByTitleFingerprint(String titleFingerprint);
+
+    /**
+     * Devuelve, de entre los IDs de Gutendex indicados, los que ya están registrados.
+     * Se usa en la ingesta masiva para descartar duplicados de un lote con una sola consulta.
+     * @param ids Los IDs de Gutendex a comprobar.
+     * @return Los IDs que ya existen en la base de datos.
+     */
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Integer> findExistingIds(Collection<Integer> ids);
+
+    /**
+     * Devuelve las huellas de título del conjunto indicado que ya están registradas.
+     * @param fingerprints Huellas a comprobar.
+     * @return Las huellas que ya existen en la base de datos.
+     */
+    @Query("SELECT b.titleFingerprint FROM Book b WHERE b.titleFingerprint IN :fingerprints")
+    List<String> findExistingFingerprints(Collection<String> fingerprints);
+
+    /**
+     * Página de libros con el nombre de su autor, en una sola consulta y sin cargar entidades.
+     * Al devolver un {@link Slice} no se ejecuta una consulta de conteo adicional.
+     * @param pageable Página solicitada.
+     * @return Las filas de la página, ordenadas por ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.BookRow(b.id, b.title, a.name, b.downloadCount) "
+            + "FROM Book b LEFT JOIN b.author a ORDER BY b.id")
+    Slice<BookRow> findRowsBy(Pageable pageable);
+
+    /**
+     * Página de libros en un idioma, con el nombre de su autor.
+     * @param language El código de idioma.
+     * @param pageable Página solicitada.
+     * @return Las filas de la página, ordenadas por ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.BookRow(b.id, b.title, a.name, b.downloadCount) "
+            + "FROM Book b JOIN b.languages l LEFT JOIN b.author a WHERE l = :language ORDER BY b.id")
+    Slice<BookRow> findRowsByLanguage(String language, Pageable pageable);
+
+    /**
+     * Idiomas de un conjunto de libros, en una sola consulta (evita una consulta por libro).
+     * @param bookIds Los IDs de los libros.
+     * @return Los pares (libro, idioma).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.BookLanguage(b.id, l) FROM Book b JOIN b.languages l WHERE b.id IN :bookIds")
+    List<BookLanguage> findLanguagesByBookIds(Collection<Integer> bookIds);
+
+    /**
+     * Idiomas de los libros con ID en {@code (afterId, lastId]}, para los recorridos por clave que cargan
+     * los índices en memoria. No es cacheable: cada rango se lee una vez y sólo llenaría la caché de consultas.
+     * @param afterId Último ID de la página anterior.
+     * @param lastId Último ID de la página actual.
+     * @return Los pares (libro, idioma).
+     */
+    @Query("SELECT new com.literalura.literalura.dto.BookLanguage(b.id, l) FROM Book b JOIN b.languages l "
+            + "WHERE b.id > :afterId AND b.id <= :lastId")
+    List<BookLanguage> findLanguagesInRange(Integer afterId, Integer lastId);
+
+    /**
+     * Materias (IDs del diccionario) de los libros con ID en {@code (afterId, lastId]}; lee sólo la clave
+     * primaria de {@code book_subjects}. Como {@link #findLanguagesInRange}, no es cacheable.
+     * @param afterId Último ID de la página anterior.
+     * @param lastId Último ID de la página actual.
+     * @return Los pares (libro, materia).
+     */
+    @Query("SELECT new com.literalura.literalura.dto.BookSubject(b.id, s) FROM Book b JOIN b.subjectIds s "
+            + "WHERE b.id > :afterId AND b.id <= :lastId")
+    List<BookSubject> findSubjectsInRange(Integer afterId, Integer lastId);
+
+    /**
+     * Filas de libros (con el nombre del autor) para un conjunto de IDs, ordenadas por ID.
+     * @param ids Los IDs de los libros.
+     * @return Las filas encontradas.
+     */
+    @Query("SELECT new com.literalura.literalura.dto.BookRow(b.id, b.title, a.name, b.downloadCount) "
+            + "FROM Book b LEFT JOIN b.author a WHERE b.id IN :ids ORDER BY b.id")
+    List<BookRow> findRowsByIdIn(Collection<Integer> ids);
+
+    /**
+     * Recorrido por clave (keyset) de los libros con ID mayor que {@code afterId}: cada página
+     * usa el índice de la clave primaria en lugar de saltarse filas con OFFSET.
+     * @param afterId Último ID de la página anterior (0 para empezar).
+     * @param pageable Tamaño de la página (se usa sólo el límite).
+     * @return Las filas de la página, ordenadas por ID.
+     */
+    @Query("SELECT new com.literalura.literalura.dto.BookFacetRow(b.id, b.author.id, b.downloadCount) "
+            + "FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<BookFacetRow> findFacetRowsAfter(Integer afterId, Pageable pageable);
+
+    /**
+     * Recorrido por clave de las huellas de título registradas (carga del filtro de duplicados).
+     * @param afterId Último ID de la página anterior (0 para empezar).
+     * @param pageable Tamaño de la página (se usa sólo el límite).
+     * @return Las huellas de la página, ordenadas por ID.
+     */
+    @Query("SELECT new com.literalura.literalura.dto.TitleFingerprintRow(b.id, b.titleFingerprint) "
+            + "FROM Book b WHERE b.id > :afterId AND b.titleFingerprint IS NOT NULL ORDER BY b.id")
+    List<TitleFingerprintRow> findFingerprintsAfter(Integer afterId, Pageable pageable);
+
+    /**
+     * Recorrido por clave de los libros guardados antes de existir la huella de título.
+     * @param afterId Último ID de la página anterior (0 para empezar).
+     * @param pageable Tamaño de la página (se usa sólo el límite).
+     * @return Las filas de la página, ordenadas por ID.
+     */
+    @Query("SELECT new com.literalura.literalura.dto.BookRow(b.id, b.title, a.name, b.downloadCount) "
+            + "FROM Book b LEFT JOIN b.author a WHERE b.id > :afterId AND b.titleFingerprint IS NULL ORDER BY b.id")
+    List<BookRow> findRowsWithoutFingerprintAfter(Integer afterId, Pageable pageable);
+
+    /**
+     * Página por clave de libros con el nombre de su autor (API): usa la clave primaria en lugar de OFFSET,
+     * así que cualquier página cuesta lo mismo que la primera.
+     * @param afterId Último ID de la página anterior (0 para empezar).
+     * @param pageable Tamaño de la página (se usa sólo el límite).
+     * @return Las filas de la página, ordenadas por ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.BookRow(b.id, b.title, a.name, b.downloadCount) "
+            + "FROM Book b LEFT JOIN b.author a WHERE b.id > :afterId ORDER BY b.id")
+    List<BookRow> findRowsAfter(Integer afterId, Pageable pageable);
+
+    /**
+     * Página por clave de libros en un idioma (recorre el índice {@code (language, book_id)}).
+     * @param language El código de idioma.
+     * @param afterId Último ID de la página anterior (0 para empezar).
+     * @param pageable Tamaño de la página (se usa sólo el límite).
+     * @return Las filas de la página, ordenadas por ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.literalura.literalura.dto.BookRow(b.id, b.title, a.name, b.downloadCount) "
+            + "FROM Book b JOIN b.languages l LEFT JOIN b.author a WHERE l = :language AND b.id > :afterId ORDER BY b.id")
+    List<BookRow> findRowsByLanguageAfter(String language, Integer afterId, Pageable pageable);
+
+    /**
+     * Todos los libros con su autor e idiomas (agregados en una columna), ordenados por ID, para exportar
+     * el catálogo. Con {@code HINT_FETCH_SIZE} PostgreSQL abre un cursor en el servidor y devuelve las filas
+     * en bloques, así que la memoria no depende del tamaño del catálogo: debe consumirse dentro de una
+     * transacción y cerrarse (try-with-resources). No es cacheable ni carga entidades.
+     * @return Las filas del catálogo.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.literalura.literalura.dto.BookExportRow(b.id, b.title, a.name, a.birthYear, a.deathYear, "
+            + "listagg(l, ',') WITHIN GROUP (ORDER BY l), b.downloadCount) "
+            + "FROM Book b LEFT JOIN b.author a LEFT JOIN b.languages l "
+            + "GROUP BY b.id, b.title, a.name, a.birthYear, a.deathYear, b.downloadCount ORDER BY b.id")
+    Stream<BookExportRow> streamExportRows();
 }
@@ -0,0 +1,315 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.TitleFingerprint;
+import com.literalura.literalura.service.AuthorResolver;
+import com.literalura.literalura.service.BookBatchWriter;
+import com.literalura.literalura.service.SubjectDictionary;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritura masiva de libros, autores, idiomas y materias sin pasar por JPA.
+ * <p>
+ * Cada lote se vuelca con {@code COPY ... FROM STDIN} del driver de PostgreSQL a una tabla temporal
+ * y se fusiona con {@code books}, {@code authors}, {@code book_languages}, {@code subjects} y
+ * {@code book_subjects} con cuatro sentencias. La primera separa en otra tabla temporal los libros que se van a
+ * insertar, descartando los duplicados dentro del lote y contra la base de datos por ID y por huella de
+ * título ({@link TitleFingerprint}, con índice único). La segunda inserta los autores que faltan, comparando
+ * por nombre normalizado como {@link AuthorResolver}; al ir aparte, un autor que otra transacción inserte a la
+ * vez ya es visible en las siguientes. La tercera hace lo mismo con las materias, como {@link SubjectDictionary}:
+ * cada texto distinto del lote que no está en el diccionario se inserta una vez. La cuarta inserta libros,
+ * idiomas y materias (CTE con {@code INSERT ... ON CONFLICT DO NOTHING}) y enlaza cada libro con el ID de su
+ * autor y de sus materias.
+ * <p>
+ * Si la conexión no es del driver de PostgreSQL (por ejemplo, detrás de un proxy que no permite
+ * {@code unwrap}), la tabla temporal se llena con un {@code INSERT} por lotes JDBC; la fusión es la misma.
+ * Como no se publican {@link com.literalura.literalura.event.BookSavedEvent} por fila, al confirmar se
+ * publica un {@link CatalogBulkLoadedEvent}.
+ */
+@Repository
+public class CatalogBulkWriter {
+
+    /** Longitud de {@code books.title} y {@code authors.name}: lo que no cabe se rechaza antes del COPY. */
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE staging_books (
+                ord int NOT NULL,
+                id int NOT NULL,
+                title text NOT NULL,
+                fingerprint text NOT NULL,
+                author_name text NOT NULL,
+                birth_year int,
+                death_year int,
+                download_count int,
+                languages text,
+                subjects text
+            ) ON COMMIT DROP""";
+
+    private static final String COLUMNS = "ord, id, title, fingerprint, author_name, birth_year, death_year, download_count, languages, subjects";
+
+    // Libros del lote que se van a insertar: uno por ID y por huella, sin los que ya están en la base de datos.
+    private static final String SELECT_FRESH = """
+            CREATE TEMP TABLE fresh_books ON COMMIT DROP AS
+            WITH chosen AS (
+                SELECT DISTINCT ON (fingerprint) *
+                FROM (SELECT DISTINCT ON (id) * FROM staging_books ORDER BY id, ord) by_id
+                ORDER BY fingerprint, ord
+            )
+            SELECT c.* FROM chosen c
+            WHERE NOT EXISTS (SELECT 1 FROM books b WHERE b.id = c.id)
+              AND NOT EXISTS (SELECT 1 FROM books b WHERE b.title_fingerprint = c.fingerprint)""";
+
+    // Autores que faltan, por nombre normalizado como AuthorResolver.normalize (usa uk_authors_name_normalized).
+    // Va en su propia sentencia: si otra transacción inserta el mismo autor a la vez, ON CONFLICT espera a que
+    // confirme, y la sentencia siguiente ya lo ve.
+    private static final String INSERT_AUTHORS = """
+            INSERT INTO authors (name, birth_year, death_year)
+            SELECT DISTINCT ON (lower(trim(f.author_name))) f.author_name, f.birth_year, f.death_year
+            FROM fresh_books f
+            WHERE NOT EXISTS (SELECT 1 FROM authors a WHERE lower(trim(a.name)) = lower(trim(f.author_name)))
+            ORDER BY lower(trim(f.author_name)), f.ord
+            ON CONFLICT DO NOTHING""";
+
+    // Materias que faltan en el diccionario; como los autores, aparte para ver las que otra transacción inserte a la vez.
+    private static final String INSERT_SUBJECTS = """
+            INSERT INTO subjects (name)
+            SELECT DISTINCT s.name
+            FROM fresh_books f
+            CROSS JOIN LATERAL unnest(string_to_array(f.subjects, chr(31))) AS s(name)
+            WHERE s.name <> '' AND NOT EXISTS (SELECT 1 FROM subjects x WHERE x.name = s.name)
+            ON CONFLICT (name) DO NOTHING""";
+
+    private static final String MERGE = """
+            WITH author_ids AS (
+                SELECT DISTINCT ON (lower(trim(a.name))) lower(trim(a.name)) AS key, a.id
+                FROM authors a
+                WHERE lower(trim(a.name)) IN (SELECT lower(trim(author_name)) FROM fresh_books)
+                ORDER BY lower(trim(a.name)), a.id
+            ), new_books AS (
+                INSERT INTO books (id, title, title_fingerprint, author_id, download_count)
+                SELECT f.id, f.title, f.fingerprint, ai.id, f.download_count
+                FROM fresh_books f JOIN author_ids ai ON ai.key = lower(trim(f.author_name))
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            ), new_languages AS (
+                INSERT INTO book_languages (book_id, language)
+                SELECT nb.id, l.language
+                FROM new_books nb
+                JOIN fresh_books f ON f.id = nb.id
+                CROSS JOIN LATERAL unnest(string_to_array(f.languages, ',')) AS l(language)
+                RETURNING 1
+            ), new_book_subjects AS (
+                INSERT INTO book_subjects (book_id, subject_id)
+                SELECT DISTINCT nb.id, x.id
+                FROM new_books nb
+                JOIN fresh_books f ON f.id = nb.id
+                CROSS JOIN LATERAL unnest(string_to_array(f.subjects, chr(31))) AS s(name)
+                JOIN subjects x ON x.name = s.name
+                ON CONFLICT DO NOTHING
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM new_books) AS books,
+                   (SELECT count(*) FROM fresh_books f
+                    WHERE lower(trim(f.author_name)) NOT IN (SELECT key FROM author_ids)) AS without_author""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogMetrics metrics;
+
+    public CatalogBulkWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher, CatalogMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+    }
+
+    /** Fila preparada para la tabla temporal. */
+    private record StagedBook(int ord, Book book, String fingerprint, Author author, String languages,
+                              String subjects) {
+    }
+
+    /**
+     * Escribe un lote de libros en una transacción.
+     * @param books Libros con sus autores tal como llegaron de la fuente (API, CSV o RDF).
+     * @return Libros guardados, duplicados (en el lote o ya existentes) y rechazados (sin ID, sin título
+     * o con textos demasiado largos).
+     */
+    public BookBatchWriter.BatchResult write(List<Book> books) {
+        if (books.isEmpty()) {
+            return BookBatchWriter.BatchResult.EMPTY;
+        }
+        Timer.Sample sample = metrics.start();
+        List<StagedBook> staged = new ArrayList<>(books.size());
+        int rejected = 0;
+        for (Book book : books) {
+            Author author = AuthorResolver.primaryAuthorOf(book);
+            if (book.getId() == null || book.getTitle() == null || book.getTitle().isBlank()
+                    || book.getTitle().length() > MAX_TEXT_LENGTH || author.getName().length() > MAX_TEXT_LENGTH) {
+                rejected++;
+            } else {
+                staged.add(new StagedBook(staged.size(), book, TitleFingerprint.of(book.getTitle()), author,
+                        joinLanguages(book.getLanguages()),
+                        String.join(String.valueOf(SubjectDictionary.SEPARATOR), SubjectDictionary.clean(book.getSubjects()))));
+            }
+        }
+
+        Map<String, Object> merged = staged.isEmpty() ? Map.of("books", 0L)
+                : transactionTemplate.execute(status -> {
+                    jdbcTemplate.execute(CREATE_STAGING);
+                    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                        stage(connection, staged);
+                        return null;
+                    });
+                    jdbcTemplate.execute(SELECT_FRESH);
+                    int authors = jdbcTemplate.update(INSERT_AUTHORS);
+                    jdbcTemplate.update(INSERT_SUBJECTS);
+                    Map<String, Object> counts = jdbcTemplate.queryForMap(MERGE);
+                    // No debería pasar (los autores se insertaron en la sentencia anterior), pero un libro sin autor
+                    // no puede contarse como duplicado: se deshace el lote.
+                    if (((Number) counts.get("without_author")).intValue() > 0) {
+                        throw new IllegalStateException(counts.get("without_author")
+                                + " libros del lote se quedaron sin autor; no se guarda el lote");
+                    }
+                    eventPublisher.publishEvent(new CatalogBulkLoadedEvent(
+                            ((Number) counts.get("books")).intValue(), authors,
+                            staged.stream().map(StagedBook::fingerprint).toList()));
+                    return counts;
+                });
+
+        int saved = ((Number) merged.get("books")).intValue();
+        BookBatchWriter.BatchResult result = new BookBatchWriter.BatchResult(saved, staged.size() - saved, rejected);
+        metrics.bulkWritten(sample, result.saved(), result.duplicates(), result.rejected());
+        return result;
+    }
+
+    private static void stage(Connection connection, List<StagedBook> staged) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            copy(connection.unwrap(PGConnection.class), staged);
+        } else {
+            insertBatch(connection, staged);
+        }
+    }
+
+    /**
+     * Vuelca las filas con COPY en formato de texto, en bloques de 64 KB.
+     */
+    private static void copy(PGConnection connection, List<StagedBook> staged) throws SQLException {
+        CopyIn copy = connection.getCopyAPI().copyIn("COPY staging_books (" + COLUMNS + ") FROM STDIN");
+        try {
+            StringBuilder buffer = new StringBuilder(1 << 16);
+            for (StagedBook row : staged) {
+                buffer.append(row.ord()).append('\t').append(row.book().getId()).append('\t');
+                appendText(buffer, row.book().getTitle().strip());
+                buffer.append('\t');
+                appendText(buffer, row.fingerprint());
+                buffer.append('\t');
+                appendText(buffer, row.author().getName());
+                buffer.append('\t');
+                appendNullable(buffer, row.author().getBirthYear());
+                buffer.append('\t');
+                appendNullable(buffer, row.author().getDeathYear());
+                buffer.append('\t');
+                appendNullable(buffer, row.book().getDownloadCount());
+                buffer.append('\t');
+                appendText(buffer, row.languages());
+                buffer.append('\t');
+                appendText(buffer, row.subjects());
+                buffer.append('\n');
+                if (buffer.length() >= (1 << 16)) {
+                    flush(copy, buffer);
+                }
+            }
+            flush(copy, buffer);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Escapa un valor para el formato de texto de COPY (barra invertida, tabulador y saltos de línea).
+     */
+    private static void appendText(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+
+    private static void appendNullable(StringBuilder buffer, Integer value) {
+        buffer.append(value == null ? "\\N" : value.toString());
+    }
+
+    /**
+     * Alternativa sin COPY: INSERT por lotes JDBC en la tabla temporal.
+     */
+    private static void insertBatch(Connection connection, List<StagedBook> staged) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO staging_books (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (StagedBook row : staged) {
+                insert.setInt(1, row.ord());
+                insert.setInt(2, row.book().getId());
+                insert.setString(3, row.book().getTitle().strip());
+                insert.setString(4, row.fingerprint());
+                insert.setString(5, row.author().getName());
+                insert.setObject(6, row.author().getBirthYear(), Types.INTEGER);
+                insert.setObject(7, row.author().getDeathYear(), Types.INTEGER);
+                insert.setObject(8, row.book().getDownloadCount(), Types.INTEGER);
+                insert.setString(9, row.languages());
+                insert.setString(10, row.subjects());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static String joinLanguages(List<String> languages) {
+        if (languages == null) {
+            return "";
+        }
+        List<String> codes = new ArrayList<>(languages.size());
+        for (String language : languages) {
+            if (language != null && !language.isBlank() && language.indexOf(',') < 0) {
+                codes.add(language.strip());
+            }
+        }
+        return String.join(",", codes);
+    }
+}
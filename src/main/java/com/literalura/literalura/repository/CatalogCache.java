@@ -0,0 +1,96 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.event.AuthorSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Book;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalidación y métricas de la caché de segundo nivel y de consultas de Hibernate.
+ * <p>
+ * Hibernate invalida por sí mismo lo que se escribe con JPA (guardar un libro desde el menú, la
+ * ingesta por lotes), pero no ve las escrituras hechas con JDBC: el alta de autores
+ * ({@code INSERT ... ON CONFLICT}), la carga masiva con COPY, la actualización de descargas y el
+ * relleno de huellas de título. Tras confirmarse cada una se vacían las regiones afectadas:
+ * siempre la caché de consultas y, si cambiaron filas existentes, esas entidades.
+ * <p>
+ * Lo que escriba otro proceso no se detecta; lo acota la caducidad de cada región (hibernate-cache.conf).
+ */
+@Component
+public class CatalogCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CatalogMetrics metrics;
+
+    public CatalogCache(EntityManagerFactory entityManagerFactory, CatalogMetrics metrics) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.metrics = metrics;
+    }
+
+    // Se resuelve en cada uso: con el arranque de JPA en segundo plano (perfil "fast") crear este bean
+    // no debe esperar a que Hibernate termine.
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        metrics.gauge("literalura.cache.entities.hit-ratio", () -> {
+            Statistics statistics = sessionFactory().getStatistics();
+            return ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+        });
+        metrics.gauge("literalura.cache.queries.hit-ratio", () -> {
+            Statistics statistics = sessionFactory().getStatistics();
+            return ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        });
+    }
+
+    /**
+     * Fracción de aciertos (0 a 1), o NaN si aún no hubo accesos o las estadísticas están desactivadas.
+     */
+    static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    /** Autores nuevos: cambian los listados de autores. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorSaved(AuthorSavedEvent event) {
+        evictQueries();
+    }
+
+    /** Carga masiva: sólo inserta filas nuevas, así que las entidades en caché siguen siendo válidas. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        evictQueries();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        Cache cache = sessionFactory().getCache();
+        for (BookFacetRow book : event.books()) {
+            cache.evictEntityData(Book.class, book.id());
+        }
+        evictQueries();
+    }
+
+    /**
+     * Vacía la región de libros tras modificarlos con JDBC fuera de los casos anteriores.
+     */
+    public void evictBooks() {
+        sessionFactory().getCache().evictEntityData(Book.class);
+        evictQueries();
+    }
+
+    private void evictQueries() {
+        sessionFactory().getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,28 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.model.Subject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio del diccionario de materias.
+ */
+@Repository
+public interface SubjectRepository extends JpaRepository<Subject, Integer> {
+
+    /**
+     * Busca en una sola consulta las materias con esos nombres exactos. Lo usa la resolución por lotes.
+     * @param names Nombres de las materias.
+     * @return Las materias encontradas.
+     */
+    List<Subject> findByNameIn(Collection<String> names);
+
+    /**
+     * Materias cuyo nombre contiene el texto dado, sin distinguir mayúsculas (menú de filtros).
+     * @param text Parte del nombre.
+     * @return Las materias encontradas, ordenadas por nombre.
+     */
+    List<Subject> findByNameContainingIgnoreCaseOrderByNameAsc(String text);
+}
@@ -0,0 +1,12 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.model.SyncCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de las marcas de avance de los procesos de sincronización, por nombre de proceso.
+ */
+@Repository
+public interface SyncCheckpointRepository extends JpaRepository<SyncCheckpoint, String> {
+}
@@ -0,0 +1,265 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.dto.AuthorSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los periodos de vida de los autores, para responder
+ * "autores vivos en un año" (o en un rango de años) sin recorrer la tabla {@code authors}.
+ * <p>
+ * Un autor está vivo en el año {@code y} si {@code nacimiento <= y} y
+ * ({@code fallecimiento >= y} o no tiene fallecimiento), igual que la consulta JPQL.
+ * Los autores sin año de nacimiento no se indexan (la consulta tampoco los devuelve).
+ * <ul>
+ *     <li>Listados: los intervalos cerrados se guardan en un {@link TreeMap} por año de nacimiento.
+ *     Como nadie vive más de {@value #MAX_REGULAR_LIFESPAN} años, sólo hay que mirar los nacidos
+ *     en {@code [desde - MAX_REGULAR_LIFESPAN, hasta]}. Los intervalos más largos (datos erróneos)
+ *     se guardan aparte y se recorren siempre, y los abiertos tienen su propio mapa.</li>
+ *     <li>Conteos e histogramas: dos árboles de Fenwick por año (nacimientos y fallecimientos), de modo
+ *     que {@code vivos(desde, hasta) = nacidos(<= hasta) - fallecidos(< desde)} en O(log n).</li>
+ * </ul>
+ * Los años fuera de [{@value #MIN_YEAR}, {@value #MAX_YEAR}] se ajustan a esos límites en los conteos.
+ * Es seguro entre hilos.
+ */
+public class AuthorLifespanIndex {
+
+    static final int MIN_YEAR = -4000;
+    static final int MAX_YEAR = 2200;
+    static final int MAX_REGULAR_LIFESPAN = 130;
+
+    private static final Comparator<AuthorSummary> BY_NAME = Comparator
+            .comparing(AuthorSummary::name)
+            .thenComparing(AuthorSummary::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, AuthorSummary> byId = new HashMap<>();
+    private final TreeMap<Integer, List<AuthorSummary>> closedByBirth = new TreeMap<>();
+    private final TreeMap<Integer, List<AuthorSummary>> openByBirth = new TreeMap<>();
+    private final List<AuthorSummary> longLived = new ArrayList<>();
+    private final FenwickTree births = new FenwickTree(MAX_YEAR - MIN_YEAR + 1);
+    private final FenwickTree closedDeaths = new FenwickTree(MAX_YEAR - MIN_YEAR + 1);
+
+    /**
+     * Añade o reemplaza un autor (idempotente por ID).
+     * @return true si el autor quedó indexado (tiene un periodo de vida válido).
+     */
+    public boolean index(AuthorSummary author) {
+        lock.writeLock().lock();
+        try {
+            AuthorSummary previous = byId.remove(author.id());
+            if (previous != null) {
+                unlink(previous);
+            }
+            if (!isIndexable(author)) {
+                return false;
+            }
+            byId.put(author.id(), author);
+            link(author);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un autor del índice.
+     * @return true si estaba indexado.
+     */
+    public boolean remove(long authorId) {
+        lock.writeLock().lock();
+        try {
+            AuthorSummary previous = byId.remove(authorId);
+            if (previous == null) {
+                return false;
+            }
+            unlink(previous);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Autores vivos en un año, ordenados por nombre.
+     */
+    public List<AuthorSummary> aliveIn(int year) {
+        return aliveBetween(year, year);
+    }
+
+    /**
+     * Autores vivos en algún momento del rango {@code [from, to]}, ordenados por nombre.
+     */
+    public List<AuthorSummary> aliveBetween(int from, int to) {
+        List<AuthorSummary> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (List<AuthorSummary> bucket : closedByBirth.subMap(from - MAX_REGULAR_LIFESPAN, true, to, true).values()) {
+                for (AuthorSummary author : bucket) {
+                    if (author.deathYear() >= from) {
+                        result.add(author);
+                    }
+                }
+            }
+            for (AuthorSummary author : longLived) {
+                if (author.birthYear() <= to && author.deathYear() >= from) {
+                    result.add(author);
+                }
+            }
+            for (List<AuthorSummary> bucket : openByBirth.headMap(to, true).values()) {
+                result.addAll(bucket);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(BY_NAME);
+        return result;
+    }
+
+    /**
+     * Número de autores vivos en un año, sin materializar la lista.
+     */
+    public int countAlive(int year) {
+        return countAliveBetween(year, year);
+    }
+
+    /**
+     * Número de autores vivos en algún momento del rango {@code [from, to]}.
+     */
+    public int countAliveBetween(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return births.prefixSum(slot(to)) - (from <= MIN_YEAR ? 0 : closedDeaths.prefixSum(slot(from - 1)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Histograma de autores vivos por década: para cada década {@code d} del rango, cuántos
+     * autores vivieron algún año de {@code [d, d + 9]}.
+     * @param from Primer año (se redondea hacia abajo a su década).
+     * @param to Último año (incluido).
+     * @return Mapa ordenado de inicio de década a número de autores.
+     */
+    public SortedMap<Integer, Integer> decadeHistogram(int from, int to) {
+        SortedMap<Integer, Integer> histogram = new TreeMap<>();
+        for (int decade = Math.floorDiv(from, 10) * 10; decade <= to; decade += 10) {
+            histogram.put(decade, countAliveBetween(decade, decade + 9));
+        }
+        return histogram;
+    }
+
+    /**
+     * Número de autores indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (AuthorSummary author : new ArrayList<>(byId.values())) {
+                unlink(author);
+            }
+            byId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isIndexable(AuthorSummary author) {
+        // Un fallecimiento anterior al nacimiento nunca cumple la condición de "vivo".
+        return author.birthYear() != null
+                && (author.deathYear() == null || author.deathYear() >= author.birthYear());
+    }
+
+    private void link(AuthorSummary author) {
+        births.add(slot(author.birthYear()), 1);
+        if (author.deathYear() == null) {
+            openByBirth.computeIfAbsent(author.birthYear(), year -> new ArrayList<>()).add(author);
+            return;
+        }
+        closedDeaths.add(slot(author.deathYear()), 1);
+        if (author.deathYear() - author.birthYear() > MAX_REGULAR_LIFESPAN) {
+            longLived.add(author);
+        } else {
+            closedByBirth.computeIfAbsent(author.birthYear(), year -> new ArrayList<>()).add(author);
+        }
+    }
+
+    private void unlink(AuthorSummary author) {
+        births.add(slot(author.birthYear()), -1);
+        if (author.deathYear() == null) {
+            removeFrom(openByBirth, author);
+            return;
+        }
+        closedDeaths.add(slot(author.deathYear()), -1);
+        if (author.deathYear() - author.birthYear() > MAX_REGULAR_LIFESPAN) {
+            longLived.removeIf(candidate -> candidate.id().equals(author.id()));
+        } else {
+            removeFrom(closedByBirth, author);
+        }
+    }
+
+    private static void removeFrom(NavigableMap<Integer, List<AuthorSummary>> map, AuthorSummary author) {
+        List<AuthorSummary> bucket = map.get(author.birthYear());
+        if (bucket != null) {
+            bucket.removeIf(candidate -> candidate.id().equals(author.id()));
+            if (bucket.isEmpty()) {
+                map.remove(author.birthYear());
+            }
+        }
+    }
+
+    private static int slot(int year) {
+        return Math.max(MIN_YEAR, Math.min(MAX_YEAR, year)) - MIN_YEAR;
+    }
+
+    /**
+     * Árbol de Fenwick (Binary Indexed Tree) de enteros: suma de prefijos y actualización en O(log n).
+     */
+    private static final class FenwickTree {
+        private final int[] tree;
+
+        FenwickTree(int size) {
+            this.tree = new int[size + 1];
+        }
+
+        void add(int index, int delta) {
+            for (int i = index + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /** Suma de las posiciones {@code [0, index]}. */
+        int prefixSum(int index) {
+            int sum = 0;
+            for (int i = index + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.event.AuthorSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.repository.AuthorRepository;
+import com.literalura.literalura.service.AuthorResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Consultas de "autores vivos" sobre un {@link AuthorLifespanIndex} en memoria.
+ * <p>
+ * El índice se carga desde la base de datos en la primera consulta y se mantiene al día con
+ * cada {@link AuthorSavedEvent} confirmado. El autor "Desconocido" nunca se indexa.
+ */
+@Service
+public class AuthorLifespanService {
+
+    private final AuthorRepository authorRepository;
+    private final int warmupPageSize;
+    private final AuthorLifespanIndex index = new AuthorLifespanIndex();
+    private volatile boolean warmed;
+
+    public AuthorLifespanService(AuthorRepository authorRepository,
+                                 @Value("${literalura.search.warmup-page-size:1000}") int warmupPageSize) {
+        this.authorRepository = authorRepository;
+        this.warmupPageSize = warmupPageSize;
+    }
+
+    /**
+     * Autores vivos en un año, ordenados por nombre.
+     */
+    public List<AuthorSummary> aliveIn(int year) {
+        ensureWarm();
+        return index.aliveIn(year);
+    }
+
+    /**
+     * Autores vivos en algún año del rango {@code [from, to]}, ordenados por nombre.
+     */
+    public List<AuthorSummary> aliveBetween(int from, int to) {
+        ensureWarm();
+        return index.aliveBetween(from, to);
+    }
+
+    /**
+     * Número de autores vivos en un año.
+     */
+    public int countAlive(int year) {
+        ensureWarm();
+        return index.countAlive(year);
+    }
+
+    /**
+     * Histograma de autores vivos por década en el rango {@code [from, to]}.
+     */
+    public SortedMap<Integer, Integer> decadeHistogram(int from, int to) {
+        ensureWarm();
+        return index.decadeHistogram(from, to);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorSaved(AuthorSavedEvent event) {
+        index(new AuthorSummary(event.id(), event.name(), event.birthYear(), event.deathYear()));
+    }
+
+    /**
+     * Tras una carga masiva el índice se descarta entero: es más barato recargarlo que aplicar
+     * los cambios fila a fila.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Descarta el índice para que se vuelva a cargar en la próxima consulta.
+     */
+    public synchronized void invalidate() {
+        warmed = false;
+        index.clear();
+    }
+
+    private void index(AuthorSummary author) {
+        if (author.id() != null && author.name() != null
+                && !author.name().equalsIgnoreCase(AuthorResolver.UNKNOWN_AUTHOR)) {
+            index.index(author);
+        }
+    }
+
+    private void ensureWarm() {
+        if (warmed) {
+            return;
+        }
+        synchronized (this) {
+            if (warmed) {
+                return;
+            }
+            Pageable pageable = PageRequest.of(0, warmupPageSize);
+            while (true) {
+                Slice<AuthorSummary> page = authorRepository.findSummariesBy(pageable);
+                page.forEach(this::index);
+                if (!page.hasNext()) {
+                    break;
+                }
+                pageable = page.nextPageable();
+            }
+            warmed = true;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.literalura.literalura.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas, en memoria.
+ * <p>
+ * {@link #mightContain} nunca da falsos negativos: si devuelve false, la cadena no se añadió.
+ * Si devuelve true puede ser un falso positivo, con una probabilidad cercana a la indicada al
+ * crearlo mientras no se superen los elementos esperados. Los {@code k} índices de cada cadena
+ * se derivan de dos hashes de 64 bits (doble hashing de Kirsch–Mitzenmacher).
+ * <p>
+ * Es seguro entre hilos sin bloqueos: los bits se activan con operaciones atómicas y nunca se borran.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Crea un filtro dimensionado para {@code expectedInsertions} elementos.
+     * @param expectedInsertions Elementos esperados (al menos 1).
+     * @param falsePositiveRate Probabilidad de falso positivo deseada, entre 0 y 1 (exclusivos).
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("La probabilidad de falso positivo debe estar entre 0 y 1: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    /**
+     * Añade una cadena.
+     */
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            // Si el bit ya estaba activo no hace falta escribir.
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false si la cadena seguro que no se añadió; true si pudo añadirse.
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Número de llamadas a {@link #put} (con repeticiones). */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /** Tamaño del filtro en bits. */
+    public long bitSize() {
+        return bitCount;
+    }
+
+    /** FNV-1a de 64 bits sobre los caracteres, seguido de una mezcla final para repartir los bits. */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /** Mezcla final de MurmurHash3 (fmix64). */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
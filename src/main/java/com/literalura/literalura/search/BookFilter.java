@@ -0,0 +1,41 @@
+package com.literalura.literalura.search;
+
+import java.util.Set;
+
+/**
+ * Filtro combinado sobre los libros de la biblioteca. Las dimensiones se combinan con AND;
+ * dentro de los idiomas se puede pedir cualquiera (OR) o todos (AND). Un campo null no filtra.
+ * @param languages Códigos de idioma en minúsculas.
+ * @param allLanguages true para exigir todos los idiomas, false para cualquiera de ellos.
+ * @param authorIds IDs de autor admitidos (OR entre ellos).
+ * @param minDownloads Descargas mínimas (incluidas).
+ * @param maxDownloads Descargas máximas (incluidas).
+ * @param authorsAliveIn Sólo libros de autores vivos en este año.
+ * @param subjectIds IDs de materias del diccionario que el libro debe tener todas (AND entre ellas).
+ */
+public record BookFilter(Set<String> languages, boolean allLanguages, Set<Long> authorIds,
+                         Integer minDownloads, Integer maxDownloads, Integer authorsAliveIn, Set<Integer> subjectIds) {
+
+    /** Filtro que admite todos los libros. */
+    public static final BookFilter ANY = new BookFilter(null, false, null, null, null, null, null);
+
+    public BookFilter withLanguages(Set<String> languages, boolean all) {
+        return new BookFilter(languages, all, authorIds, minDownloads, maxDownloads, authorsAliveIn, subjectIds);
+    }
+
+    public BookFilter withAuthorIds(Set<Long> authorIds) {
+        return new BookFilter(languages, allLanguages, authorIds, minDownloads, maxDownloads, authorsAliveIn, subjectIds);
+    }
+
+    public BookFilter withDownloads(Integer min, Integer max) {
+        return new BookFilter(languages, allLanguages, authorIds, min, max, authorsAliveIn, subjectIds);
+    }
+
+    public BookFilter withAuthorsAliveIn(Integer year) {
+        return new BookFilter(languages, allLanguages, authorIds, minDownloads, maxDownloads, year, subjectIds);
+    }
+
+    public BookFilter withSubjectIds(Set<Integer> subjectIds) {
+        return new BookFilter(languages, allLanguages, authorIds, minDownloads, maxDownloads, authorsAliveIn, subjectIds);
+    }
+}
@@ -0,0 +1,332 @@
+package com.literalura.literalura.search;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de bitmaps comprimidos (Roaring) sobre los libros de la biblioteca:
+ * idioma → libros, autor → libros, materia → libros (por ID del diccionario de materias) y descargas → libros.
+ * <p>
+ * Los filtros combinados se resuelven con operaciones AND/OR entre bitmaps, y los conteos
+ * con cardinalidades, sin tocar la base de datos ni cargar entidades. Los idiomas y las materias no están
+ * predefinidos: aparece cualquier valor presente en los datos.
+ * Las actualizaciones son incrementales e idempotentes por ID de libro. Es seguro entre hilos.
+ */
+public class CatalogBitmapIndex {
+
+    /** Lo que el índice recuerda de cada libro, para poder reemplazarlo. */
+    private record Entry(Long authorId, List<String> languages, Set<Integer> subjectIds, int downloads) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byLanguage = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byAuthor = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> bySubject = new HashMap<>();
+    private final TreeMap<Integer, RoaringBitmap> byDownloads = new TreeMap<>();
+
+    /**
+     * Añade o reemplaza un libro sin materias.
+     * @see #index(int, Long, Collection, Set, Integer)
+     */
+    public void index(int bookId, Long authorId, Collection<String> languages, Integer downloadCount) {
+        index(bookId, authorId, languages, Set.of(), downloadCount);
+    }
+
+    /**
+     * Añade o reemplaza un libro.
+     * @param bookId ID del libro.
+     * @param authorId ID del autor (puede ser null).
+     * @param languages Códigos de idioma del libro.
+     * @param subjectIds IDs de sus materias en el diccionario.
+     * @param downloadCount Descargas (null cuenta como 0).
+     */
+    public void index(int bookId, Long authorId, Collection<String> languages, Set<Integer> subjectIds,
+                      Integer downloadCount) {
+        List<String> normalized = new ArrayList<>(languages == null ? 0 : languages.size());
+        if (languages != null) {
+            for (String language : languages) {
+                if (language != null && !language.isBlank()) {
+                    normalized.add(language.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        Entry entry = new Entry(authorId, normalized, subjectIds == null ? Set.of() : Set.copyOf(subjectIds),
+                downloadCount != null ? downloadCount : 0);
+
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(bookId, entry);
+            if (previous != null) {
+                unlink(bookId, previous);
+            }
+            link(bookId, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Idiomas con los que se indexó un libro, o null si no está indexado.
+     */
+    public List<String> languagesOf(int bookId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(bookId);
+            return entry == null ? null : entry.languages();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Materias con las que se indexó un libro, o null si no está indexado.
+     */
+    public Set<Integer> subjectsOf(int bookId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(bookId);
+            return entry == null ? null : entry.subjectIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un libro del índice.
+     * @return true si estaba indexado.
+     */
+    public boolean remove(int bookId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(bookId);
+            if (previous == null) {
+                return false;
+            }
+            unlink(bookId, previous);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los libros que cumplen el filtro ({@link BookFilter#authorsAliveIn()} se ignora aquí:
+     * debe traducirse antes a {@link BookFilter#authorIds()}).
+     * @return Un bitmap nuevo, que el llamador puede modificar.
+     */
+    public RoaringBitmap matching(BookFilter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = all.clone();
+            if (filter.languages() != null) {
+                List<RoaringBitmap> bitmaps = new ArrayList<>();
+                for (String language : filter.languages()) {
+                    RoaringBitmap bitmap = byLanguage.get(language.toLowerCase(Locale.ROOT));
+                    if (bitmap != null) {
+                        bitmaps.add(bitmap);
+                    } else if (filter.allLanguages()) {
+                        return new RoaringBitmap();
+                    }
+                }
+                result.and(combine(bitmaps, filter.allLanguages()));
+            }
+            if (filter.authorIds() != null) {
+                List<RoaringBitmap> bitmaps = new ArrayList<>();
+                for (Long authorId : filter.authorIds()) {
+                    RoaringBitmap bitmap = byAuthor.get(authorId);
+                    if (bitmap != null) {
+                        bitmaps.add(bitmap);
+                    }
+                }
+                result.and(combine(bitmaps, false));
+            }
+            if (filter.subjectIds() != null) {
+                for (Integer subjectId : filter.subjectIds()) {
+                    RoaringBitmap bitmap = bySubject.get(subjectId);
+                    if (bitmap == null) {
+                        return new RoaringBitmap();
+                    }
+                    result.and(bitmap);
+                }
+            }
+            if (filter.minDownloads() != null || filter.maxDownloads() != null) {
+                int min = filter.minDownloads() != null ? filter.minDownloads() : Integer.MIN_VALUE;
+                int max = filter.maxDownloads() != null ? filter.maxDownloads() : Integer.MAX_VALUE;
+                if (min > max) {
+                    return new RoaringBitmap();
+                }
+                result.and(combine(new ArrayList<>(byDownloads.subMap(min, true, max, true).values()), false));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de libros que cumplen el filtro.
+     */
+    public int count(BookFilter filter) {
+        return matching(filter).getCardinality();
+    }
+
+    /**
+     * Número de libros por idioma en todo el catálogo (de mayor a menor).
+     */
+    public Map<String, Integer> languageBreakdown() {
+        return languageBreakdown(null);
+    }
+
+    /**
+     * Número de libros por idioma dentro de un subconjunto (de mayor a menor).
+     * @param within Libros a considerar, o null para todo el catálogo.
+     */
+    public Map<String, Integer> languageBreakdown(RoaringBitmap within) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, RoaringBitmap> language : byLanguage.entrySet()) {
+                int count = within == null
+                        ? language.getValue().getCardinality()
+                        : RoaringBitmap.andCardinality(language.getValue(), within);
+                if (count > 0) {
+                    counts.add(Map.entry(language.getKey(), count));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> breakdown = new LinkedHashMap<>();
+        counts.forEach(count -> breakdown.put(count.getKey(), count.getValue()));
+        return breakdown;
+    }
+
+    /**
+     * Las {@code limit} materias con más libros dentro de un subconjunto (de mayor a menor; a igualdad,
+     * por ID). Recorre una vez los bitmaps de materia y conserva sólo las {@code limit} mejores en un montículo.
+     * @param within Libros a considerar, o null para todo el catálogo.
+     * @return Un mapa de ID de materia a número de libros.
+     */
+    public Map<Integer, Integer> subjectBreakdown(RoaringBitmap within, int limit) {
+        if (limit <= 0) {
+            return Map.of();
+        }
+        // Montículo de mínimos: en la cima, la peor de las materias conservadas.
+        Comparator<int[]> order = Comparator.<int[]>comparingInt(count -> count[1])
+                .thenComparing(count -> count[0], Comparator.reverseOrder());
+        PriorityQueue<int[]> top = new PriorityQueue<>(limit + 1, order);
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Integer, RoaringBitmap> subject : bySubject.entrySet()) {
+                int count = within == null
+                        ? subject.getValue().getCardinality()
+                        : RoaringBitmap.andCardinality(subject.getValue(), within);
+                if (count > 0) {
+                    top.add(new int[]{subject.getKey(), count});
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<int[]> counts = new ArrayList<>(top);
+        counts.sort(order.reversed());
+        Map<Integer, Integer> breakdown = new LinkedHashMap<>();
+        counts.forEach(count -> breakdown.put(count[0], count[1]));
+        return breakdown;
+    }
+
+    /**
+     * Número de libros indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            all.clear();
+            byLanguage.clear();
+            byAuthor.clear();
+            bySubject.clear();
+            byDownloads.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static RoaringBitmap combine(List<RoaringBitmap> bitmaps, boolean and) {
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        RoaringBitmap[] array = bitmaps.toArray(RoaringBitmap[]::new);
+        return and ? FastAggregation.and(array) : FastAggregation.or(array);
+    }
+
+    private void link(int bookId, Entry entry) {
+        all.add(bookId);
+        for (String language : entry.languages()) {
+            byLanguage.computeIfAbsent(language, key -> new RoaringBitmap()).add(bookId);
+        }
+        if (entry.authorId() != null) {
+            byAuthor.computeIfAbsent(entry.authorId(), key -> new RoaringBitmap()).add(bookId);
+        }
+        for (Integer subjectId : entry.subjectIds()) {
+            bySubject.computeIfAbsent(subjectId, key -> new RoaringBitmap()).add(bookId);
+        }
+        byDownloads.computeIfAbsent(entry.downloads(), key -> new RoaringBitmap()).add(bookId);
+    }
+
+    private void unlink(int bookId, Entry entry) {
+        all.remove(bookId);
+        for (String language : entry.languages()) {
+            removeFrom(byLanguage, language, bookId);
+        }
+        if (entry.authorId() != null) {
+            removeFrom(byAuthor, entry.authorId(), bookId);
+        }
+        for (Integer subjectId : entry.subjectIds()) {
+            removeFrom(bySubject, subjectId, bookId);
+        }
+        removeFrom(byDownloads, entry.downloads(), bookId);
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> map, K key, int bookId) {
+        RoaringBitmap bitmap = map.get(key);
+        if (bitmap != null) {
+            bitmap.remove(bookId);
+            if (bitmap.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
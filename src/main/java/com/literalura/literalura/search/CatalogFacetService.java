@@ -0,0 +1,201 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.dto.BookLanguage;
+import com.literalura.literalura.dto.BookSubject;
+import com.literalura.literalura.dto.SubjectCount;
+import com.literalura.literalura.event.BookSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import com.literalura.literalura.model.Subject;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.repository.SubjectRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filtros combinados y conteos por idioma y por materia sobre un {@link CatalogBitmapIndex} en memoria.
+ * <p>
+ * El índice se carga desde la base de datos en la primera consulta (recorrido por clave, tres
+ * consultas por página) y se mantiene con cada {@link BookSavedEvent} confirmado. El filtro
+ * "autores vivos en un año" se traduce a IDs de autor con {@link AuthorLifespanService}. Las materias
+ * se indexan por su ID en el diccionario; los nombres sólo se leen para las que se muestran.
+ */
+@Service
+public class CatalogFacetService {
+
+    private final BookRepository bookRepository;
+    private final SubjectRepository subjectRepository;
+    private final AuthorLifespanService authorLifespanService;
+    private final int warmupPageSize;
+    private final CatalogBitmapIndex index = new CatalogBitmapIndex();
+    private volatile boolean warmed;
+
+    public CatalogFacetService(BookRepository bookRepository, SubjectRepository subjectRepository,
+                               AuthorLifespanService authorLifespanService,
+                               @Value("${literalura.search.warmup-page-size:1000}") int warmupPageSize) {
+        this.bookRepository = bookRepository;
+        this.subjectRepository = subjectRepository;
+        this.authorLifespanService = authorLifespanService;
+        this.warmupPageSize = warmupPageSize;
+    }
+
+    /**
+     * IDs de los libros que cumplen el filtro, en orden ascendente.
+     */
+    public RoaringBitmap matching(BookFilter filter) {
+        ensureWarm();
+        return index.matching(resolve(filter));
+    }
+
+    /**
+     * Número de libros que cumplen el filtro.
+     */
+    public int count(BookFilter filter) {
+        return matching(filter).getCardinality();
+    }
+
+    /**
+     * Libros por idioma en todo el catálogo, de mayor a menor.
+     */
+    public Map<String, Integer> languageBreakdown() {
+        ensureWarm();
+        return index.languageBreakdown();
+    }
+
+    /**
+     * Libros por idioma entre los que cumplen el filtro, de mayor a menor.
+     */
+    public Map<String, Integer> languageBreakdown(BookFilter filter) {
+        return index.languageBreakdown(matching(filter));
+    }
+
+    /**
+     * Las {@code limit} materias con más libros entre los que cumplen el filtro, de mayor a menor.
+     */
+    public List<SubjectCount> subjectBreakdown(BookFilter filter, int limit) {
+        Map<Integer, Integer> counts = index.subjectBreakdown(matching(filter), limit);
+        Map<Integer, String> names = new HashMap<>();
+        for (Subject subject : subjectRepository.findAllById(counts.keySet())) {
+            names.put(subject.getId(), subject.getName());
+        }
+        List<SubjectCount> breakdown = new ArrayList<>(counts.size());
+        counts.forEach((id, books) -> breakdown.add(new SubjectCount(id, names.get(id), books)));
+        return breakdown;
+    }
+
+    /**
+     * Materias del diccionario cuyo nombre contiene el texto dado (sin distinguir mayúsculas), por nombre.
+     */
+    public List<Subject> findSubjects(String text) {
+        return subjectRepository.findByNameContainingIgnoreCaseOrderByNameAsc(text);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        List<String> languages = event.languages();
+        if (languages.isEmpty()) {
+            // Una actualización sin los idiomas cargados no los borra del índice.
+            List<String> known = index.languagesOf(event.id());
+            languages = known != null ? known : languages;
+        }
+        Set<Integer> subjectIds = event.subjectIds();
+        if (subjectIds.isEmpty()) {
+            // Lo mismo con las materias.
+            Set<Integer> known = index.subjectsOf(event.id());
+            subjectIds = known != null ? known : subjectIds;
+        }
+        index.index(event.id(), event.authorId(), languages, subjectIds, event.downloadCount());
+    }
+
+    /**
+     * Reindexa los libros cuyas descargas cambiaron, conservando sus idiomas, sus materias y su autor.
+     * Si el índice aún no está cargado no hace nada: la carga inicial leerá los valores nuevos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        for (BookFacetRow book : event.books()) {
+            List<String> languages = index.languagesOf(book.id());
+            if (languages != null) {
+                index.index(book.id(), book.authorId(), languages, index.subjectsOf(book.id()), book.downloadCount());
+            }
+        }
+    }
+
+    /**
+     * Tras una carga masiva el índice se descarta entero: es más barato recargarlo que aplicar
+     * los cambios fila a fila.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Descarta el índice para que se vuelva a cargar en la próxima consulta.
+     */
+    public synchronized void invalidate() {
+        warmed = false;
+        index.clear();
+    }
+
+    private BookFilter resolve(BookFilter filter) {
+        if (filter.authorsAliveIn() == null) {
+            return filter;
+        }
+        Set<Long> alive = new HashSet<>();
+        for (AuthorSummary author : authorLifespanService.aliveIn(filter.authorsAliveIn())) {
+            if (filter.authorIds() == null || filter.authorIds().contains(author.id())) {
+                alive.add(author.id());
+            }
+        }
+        return filter.withAuthorIds(alive).withAuthorsAliveIn(null);
+    }
+
+    private void ensureWarm() {
+        if (warmed) {
+            return;
+        }
+        synchronized (this) {
+            if (warmed) {
+                return;
+            }
+            int afterId = 0;
+            while (true) {
+                List<BookFacetRow> rows = bookRepository.findFacetRowsAfter(afterId, PageRequest.of(0, warmupPageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int lastId = rows.get(rows.size() - 1).id();
+                Map<Integer, List<String>> languages = new HashMap<>();
+                for (BookLanguage pair : bookRepository.findLanguagesInRange(afterId, lastId)) {
+                    languages.computeIfAbsent(pair.bookId(), id -> new ArrayList<>(2)).add(pair.language());
+                }
+                Map<Integer, Set<Integer>> subjects = new HashMap<>();
+                for (BookSubject pair : bookRepository.findSubjectsInRange(afterId, lastId)) {
+                    subjects.computeIfAbsent(pair.bookId(), id -> new HashSet<>()).add(pair.subjectId());
+                }
+                for (BookFacetRow row : rows) {
+                    index.index(row.id(), row.authorId(), languages.getOrDefault(row.id(), List.of()),
+                            subjects.getOrDefault(row.id(), Set.of()), row.downloadCount());
+                }
+                afterId = lastId;
+            }
+            warmed = true;
+        }
+    }
+}
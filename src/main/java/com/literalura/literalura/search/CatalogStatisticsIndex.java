@@ -0,0 +1,288 @@
+package com.literalura.literalura.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Estadísticas del catálogo mantenidas de forma incremental: por idioma (libros, descargas totales
+ * y media, y los más descargados) y por autor (número de libros y autores con más libros).
+ * <p>
+ * Cada libro se indexa al guardarse; las consultas no recorren el catálogo: los totales son
+ * contadores y los rankings guardan sólo los {@code topSize} primeros ({@link TopRanking}). Un
+ * ranking que queda obsoleto (bajó o salió uno de sus libros) se reconstruye en la siguiente consulta.
+ * Las actualizaciones son idempotentes por ID de libro. Es seguro entre hilos.
+ */
+public class CatalogStatisticsIndex {
+
+    /** Lo que el índice recuerda de cada libro, para poder restar su aportación al reemplazarlo. */
+    private record Entry(Long authorId, List<String> languages, int downloads) {
+    }
+
+    /** Totales y ranking de un grupo de libros (un idioma o todo el catálogo). */
+    private final class Group {
+        int books;
+        long downloads;
+        final TopRanking top = new TopRanking(topSize);
+    }
+
+    /** Totales de un idioma (o de todo el catálogo si {@code language} es null). */
+    public record LanguageTotals(String language, int books, long downloads) {
+        public double averageDownloads() {
+            return books == 0 ? 0 : (double) downloads / books;
+        }
+    }
+
+    /** Posición en un ranking: ID del libro o autor y su valor (descargas o libros). */
+    public record Ranked(long id, long value) {
+    }
+
+    private final int topSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Group all;
+    private final Map<String, Group> byLanguage = new HashMap<>();
+    private final Map<Long, Integer> booksByAuthor = new HashMap<>();
+    private final TopRanking topAuthors;
+
+    /**
+     * @param topSize Posiciones que se guardan de cada ranking (lo más que se puede pedir).
+     */
+    public CatalogStatisticsIndex(int topSize) {
+        this.topSize = topSize;
+        this.all = new Group();
+        this.topAuthors = new TopRanking(topSize);
+    }
+
+    /**
+     * Añade o reemplaza un libro.
+     * @param languages Idiomas del libro (se normalizan a minúsculas).
+     * @param downloadCount Descargas (null cuenta como 0).
+     */
+    public void index(int bookId, Long authorId, Collection<String> languages, Integer downloadCount) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String language : languages) {
+            if (language != null && !language.isBlank()) {
+                normalized.add(language.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        Entry entry = new Entry(authorId, List.copyOf(normalized), downloadCount != null ? downloadCount : 0);
+
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(bookId, entry);
+            apply(bookId, previous, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Idiomas con los que está indexado un libro, o null si no está.
+     */
+    public List<String> languagesOf(int bookId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(bookId);
+            return entry == null ? null : entry.languages();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(int bookId, Entry previous, Entry current) {
+        Long oldDownloads = previous == null ? null : (long) previous.downloads();
+        long newDownloads = current.downloads();
+
+        if (previous == null) {
+            all.books++;
+        }
+        all.downloads += newDownloads - (previous == null ? 0 : previous.downloads());
+        all.top.update(bookId, oldDownloads, newDownloads, all.books);
+
+        Set<String> oldLanguages = previous == null ? Set.of() : new HashSet<>(previous.languages());
+        for (String language : oldLanguages) {
+            if (!current.languages().contains(language)) {
+                Group group = byLanguage.get(language);
+                group.books--;
+                group.downloads -= previous.downloads();
+                group.top.update(bookId, oldDownloads, null, group.books);
+                if (group.books == 0) {
+                    byLanguage.remove(language);
+                }
+            }
+        }
+        for (String language : current.languages()) {
+            Group group = byLanguage.computeIfAbsent(language, key -> new Group());
+            boolean had = oldLanguages.contains(language);
+            if (!had) {
+                group.books++;
+            }
+            group.downloads += newDownloads - (had ? previous.downloads() : 0);
+            group.top.update(bookId, had ? oldDownloads : null, newDownloads, group.books);
+        }
+
+        Long oldAuthor = previous == null ? null : previous.authorId();
+        if (oldAuthor != null && !oldAuthor.equals(current.authorId())) {
+            int remaining = booksByAuthor.merge(oldAuthor, -1, Integer::sum);
+            if (remaining == 0) {
+                booksByAuthor.remove(oldAuthor);
+            }
+            topAuthors.update(oldAuthor, remaining + 1L, remaining == 0 ? null : (long) remaining, booksByAuthor.size());
+        }
+        if (current.authorId() != null && !current.authorId().equals(oldAuthor)) {
+            int books = booksByAuthor.merge(current.authorId(), 1, Integer::sum);
+            topAuthors.update(current.authorId(), books == 1 ? null : books - 1L, (long) books, booksByAuthor.size());
+        }
+    }
+
+    /**
+     * Totales de todo el catálogo.
+     */
+    public LanguageTotals totals() {
+        lock.readLock().lock();
+        try {
+            return new LanguageTotals(null, all.books, all.downloads);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Totales por idioma, de más a menos libros.
+     */
+    public List<LanguageTotals> languageTotals() {
+        lock.readLock().lock();
+        try {
+            List<LanguageTotals> totals = new ArrayList<>(byLanguage.size());
+            byLanguage.forEach((language, group) -> totals.add(new LanguageTotals(language, group.books, group.downloads)));
+            totals.sort(Comparator.comparingInt(LanguageTotals::books).reversed().thenComparing(LanguageTotals::language));
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los libros más descargados, de un idioma o de todo el catálogo.
+     * @param language Código de idioma, o null para todo el catálogo.
+     * @param limit Posiciones pedidas (como mucho el {@code topSize} del índice).
+     */
+    public List<Ranked> topBooks(String language, int limit) {
+        String key = language == null ? null : language.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Group group = key == null ? all : byLanguage.get(key);
+            if (group == null) {
+                return List.of();
+            }
+            if (!group.top.isStale()) {
+                return ranked(group.top.first(limit));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            Group group = key == null ? all : byLanguage.get(key);
+            if (group == null) {
+                return List.of();
+            }
+            if (group.top.isStale()) {
+                List<TopRanking.Entry> books = new ArrayList<>(group.books);
+                entries.forEach((id, entry) -> {
+                    if (key == null || entry.languages().contains(key)) {
+                        books.add(new TopRanking.Entry(id, entry.downloads()));
+                    }
+                });
+                group.top.rebuild(books);
+            }
+            return ranked(group.top.first(limit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de libros de un autor.
+     */
+    public int booksBy(long authorId) {
+        lock.readLock().lock();
+        try {
+            return booksByAuthor.getOrDefault(authorId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los autores con más libros.
+     * @param limit Posiciones pedidas (como mucho el {@code topSize} del índice).
+     */
+    public List<Ranked> topAuthors(int limit) {
+        lock.readLock().lock();
+        try {
+            if (!topAuthors.isStale()) {
+                return ranked(topAuthors.first(limit));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (topAuthors.isStale()) {
+                List<TopRanking.Entry> authors = new ArrayList<>(booksByAuthor.size());
+                booksByAuthor.forEach((id, books) -> authors.add(new TopRanking.Entry(id, books)));
+                topAuthors.rebuild(authors);
+            }
+            return ranked(topAuthors.first(limit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<Ranked> ranked(List<TopRanking.Entry> entries) {
+        return entries.stream().map(entry -> new Ranked(entry.key(), entry.value())).toList();
+    }
+
+    /** Libros indexados. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            all.books = 0;
+            all.downloads = 0;
+            all.top.rebuild(List.of());
+            byLanguage.clear();
+            booksByAuthor.clear();
+            topAuthors.rebuild(List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int topSize() {
+        return topSize;
+    }
+}
@@ -0,0 +1,202 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.dto.AuthorBookCount;
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.dto.BookLanguage;
+import com.literalura.literalura.dto.BookRow;
+import com.literalura.literalura.dto.LanguageStatistics;
+import com.literalura.literalura.event.BookSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import com.literalura.literalura.repository.AuthorRepository;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.search.CatalogStatisticsIndex.LanguageTotals;
+import com.literalura.literalura.search.CatalogStatisticsIndex.Ranked;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Estadísticas del catálogo (descargas por idioma, libros más descargados, autores con más libros)
+ * sobre un {@link CatalogStatisticsIndex} en memoria.
+ * <p>
+ * El índice se carga desde la base de datos en la primera consulta (recorrido por clave, como
+ * {@link CatalogFacetService}) y se mantiene con los mismos eventos que el resto de índices: cada
+ * {@link BookSavedEvent} y {@link DownloadCountsChangedEvent} confirmados lo actualizan, y una carga
+ * masiva lo descarta. Los totales no consultan la base de datos; los rankings, una consulta para
+ * los títulos o nombres de sus (como mucho {@code literalura.stats.top-size}) posiciones.
+ */
+@Service
+public class CatalogStatisticsService {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final int warmupPageSize;
+    private final CatalogStatisticsIndex index;
+    private volatile boolean warmed;
+
+    public CatalogStatisticsService(BookRepository bookRepository, AuthorRepository authorRepository,
+                                    @Value("${literalura.stats.top-size:100}") int topSize,
+                                    @Value("${literalura.search.warmup-page-size:1000}") int warmupPageSize) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.warmupPageSize = warmupPageSize;
+        this.index = new CatalogStatisticsIndex(topSize);
+    }
+
+    /**
+     * Libros y descargas de todo el catálogo.
+     */
+    public LanguageStatistics totals() {
+        ensureWarm();
+        return statistics(index.totals());
+    }
+
+    /**
+     * Libros y descargas (total y media) por idioma, de más a menos libros.
+     */
+    public List<LanguageStatistics> byLanguage() {
+        ensureWarm();
+        return index.languageTotals().stream().map(CatalogStatisticsService::statistics).toList();
+    }
+
+    /**
+     * Los libros más descargados, de mayor a menor.
+     * @param language Código de idioma, o null para todo el catálogo.
+     * @param limit Posiciones pedidas (como mucho {@code literalura.stats.top-size}).
+     */
+    public List<BookRow> mostDownloaded(String language, int limit) {
+        ensureWarm();
+        List<Ranked> ranking = index.topBooks(language, clamp(limit));
+        if (ranking.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, BookRow> rows = bookRepository.findRowsByIdIn(ranking.stream().map(ranked -> (int) ranked.id()).toList())
+                .stream().collect(Collectors.toMap(BookRow::id, Function.identity()));
+        List<BookRow> result = new ArrayList<>(ranking.size());
+        for (Ranked ranked : ranking) {
+            BookRow row = rows.get((int) ranked.id());
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Los autores con más libros registrados (sin "Desconocido"), de mayor a menor.
+     * @param limit Posiciones pedidas (como mucho {@code literalura.stats.top-size} - 1).
+     */
+    public List<AuthorBookCount> topAuthors(int limit) {
+        ensureWarm();
+        // Una posición de más por si "Desconocido" está entre ellos (sin sumar a limit: puede ser Integer.MAX_VALUE).
+        int size = Math.min(clamp(limit), index.topSize() - 1) + 1;
+        List<Ranked> ranking = index.topAuthors(size);
+        if (ranking.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, AuthorSummary> authors = authorRepository.findSummariesByIdIn(ranking.stream().map(Ranked::id).toList())
+                .stream().collect(Collectors.toMap(AuthorSummary::id, Function.identity()));
+        List<AuthorBookCount> result = new ArrayList<>(ranking.size());
+        for (Ranked ranked : ranking) {
+            AuthorSummary author = authors.get(ranked.id());
+            if (author != null && !author.name().equalsIgnoreCase("desconocido") && result.size() < Math.min(limit, size)) {
+                result.add(new AuthorBookCount(author, (int) ranked.value()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Número de libros registrados de un autor.
+     */
+    public int booksBy(long authorId) {
+        ensureWarm();
+        return index.booksBy(authorId);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, index.topSize()));
+    }
+
+    private static LanguageStatistics statistics(LanguageTotals totals) {
+        return new LanguageStatistics(totals.language(), totals.books(), totals.downloads(), totals.averageDownloads());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        List<String> languages = event.languages();
+        if (languages.isEmpty()) {
+            // Una actualización sin los idiomas cargados no los borra de las estadísticas.
+            List<String> known = index.languagesOf(event.id());
+            languages = known != null ? known : languages;
+        }
+        index.index(event.id(), event.authorId(), languages, event.downloadCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        for (BookFacetRow book : event.books()) {
+            List<String> languages = index.languagesOf(book.id());
+            if (languages != null) {
+                index.index(book.id(), book.authorId(), languages, book.downloadCount());
+            }
+        }
+    }
+
+    /**
+     * Tras una carga masiva las estadísticas se descartan y se recalculan en la próxima consulta.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Descarta el índice para que se vuelva a cargar en la próxima consulta.
+     */
+    public synchronized void invalidate() {
+        warmed = false;
+        index.clear();
+    }
+
+    private void ensureWarm() {
+        if (warmed) {
+            return;
+        }
+        synchronized (this) {
+            if (warmed) {
+                return;
+            }
+            int afterId = 0;
+            while (true) {
+                List<BookFacetRow> rows = bookRepository.findFacetRowsAfter(afterId, PageRequest.of(0, warmupPageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int lastId = rows.get(rows.size() - 1).id();
+                Map<Integer, List<String>> languages = new HashMap<>();
+                for (BookLanguage pair : bookRepository.findLanguagesInRange(afterId, lastId)) {
+                    languages.computeIfAbsent(pair.bookId(), id -> new ArrayList<>(2)).add(pair.language());
+                }
+                for (BookFacetRow row : rows) {
+                    index.index(row.id(), row.authorId(), languages.getOrDefault(row.id(), List.of()), row.downloadCount());
+                }
+                afterId = lastId;
+            }
+            warmed = true;
+        }
+    }
+}
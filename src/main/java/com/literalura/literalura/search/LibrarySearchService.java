@@ -0,0 +1,116 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.dto.BookRow;
+import com.literalura.literalura.event.BookSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import com.literalura.literalura.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Búsqueda por título en la biblioteca local ("buscar en mi biblioteca").
+ * <p>
+ * Mantiene un {@link TitleSearchIndex} en memoria: se carga desde la base de datos la primera
+ * vez que se busca (por páginas, sin cargar entidades) y después se actualiza con cada
+ * {@link BookSavedEvent} cuando la transacción que guardó el libro confirma.
+ */
+@Service
+public class LibrarySearchService {
+
+    private final BookRepository bookRepository;
+    private final int warmupPageSize;
+    private final TitleSearchIndex index = new TitleSearchIndex();
+    private volatile boolean warmed;
+
+    public LibrarySearchService(BookRepository bookRepository,
+                                @Value("${literalura.search.warmup-page-size:1000}") int warmupPageSize) {
+        this.bookRepository = bookRepository;
+        this.warmupPageSize = warmupPageSize;
+    }
+
+    /**
+     * Busca libros de la biblioteca local por título, tolerando tildes y erratas menores.
+     * @param query Texto a buscar.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados ordenados por relevancia.
+     */
+    public List<TitleSearchIndex.Hit> search(String query, int limit) {
+        ensureWarm();
+        return index.search(query, limit);
+    }
+
+    /**
+     * Actualiza el índice con un libro recién guardado. Si no hay transacción (por ejemplo,
+     * en una escritura fuera de un contexto transaccional) se aplica de inmediato.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        // Se indexa aunque el índice aún no esté cargado: la carga inicial es idempotente por ID.
+        if (event.id() != null) {
+            index.index(event.id(), event.title(), event.downloadCount());
+        }
+    }
+
+    /**
+     * Actualiza las descargas de los libros ya indexados. Los que aún no lo están se leerán
+     * con sus descargas nuevas en la carga inicial.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        for (BookFacetRow book : event.books()) {
+            index.updateDownloads(book.id(), book.downloadCount() != null ? book.downloadCount() : 0);
+        }
+    }
+
+    /**
+     * Tras una carga masiva el índice se descarta entero: es más barato recargarlo que aplicar
+     * los cambios fila a fila.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Descarta el índice para que se vuelva a cargar en la próxima búsqueda
+     * (tras escrituras masivas que no pasan por JPA).
+     */
+    public synchronized void invalidate() {
+        warmed = false;
+        index.clear();
+    }
+
+    private void ensureWarm() {
+        if (warmed) {
+            return;
+        }
+        synchronized (this) {
+            if (warmed) {
+                return;
+            }
+            long start = System.nanoTime();
+            Pageable pageable = PageRequest.of(0, warmupPageSize);
+            while (true) {
+                Slice<BookRow> page = bookRepository.findRowsBy(pageable);
+                for (BookRow row : page) {
+                    index.index(row.id(), row.title(), row.downloadCount());
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                pageable = page.nextPageable();
+            }
+            warmed = true;
+            System.out.println("Índice de búsqueda cargado: " + index.size() + " libros en "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        }
+    }
+}
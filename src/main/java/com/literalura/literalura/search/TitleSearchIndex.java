@@ -0,0 +1,306 @@
+package com.literalura.literalura.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas sobre los títulos del catálogo local, en memoria.
+ * <p>
+ * Cada título se normaliza (minúsculas, sin tildes ni signos) y se parte en trigramas por
+ * palabra ({@code "$don$"} → {@code $do, don, on$}). Cada trigrama apunta a la lista de
+ * documentos que lo contienen. Una búsqueda sólo recorre las listas de los trigramas de la
+ * consulta, por lo que no depende del número total de libros como un {@code LIKE '%x%'}.
+ * <p>
+ * La puntuación combina la cobertura de la consulta (trigramas de la consulta presentes en el
+ * título), la similitud de Dice (penaliza títulos mucho más largos) y un extra si el título
+ * contiene la consulta literalmente. Con ello se toleran erratas ("quixote" → "quijote") y
+ * los aciertos exactos quedan arriba. A igual puntuación gana el libro con más descargas.
+ * <p>
+ * Las actualizaciones son incrementales e idempotentes por ID de libro. Es seguro entre hilos.
+ */
+public class TitleSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Fracción mínima de los trigramas de la consulta que debe tener un título para ser candidato. */
+    private static final double MIN_COVERAGE = 0.5;
+
+    /**
+     * Resultado de una búsqueda.
+     */
+    public record Hit(int bookId, String title, int downloadCount, double score) {
+    }
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score)
+            .thenComparingInt(Hit::downloadCount)
+            .thenComparing(Comparator.comparingInt(Hit::bookId).reversed());
+
+    /**
+     * Lista de ordinales de documento, siempre creciente porque los ordinales se asignan en orden.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Integer> ordinalByBookId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    // Datos por ordinal de documento (estructura de arrays para recorrerlos sin objetos intermedios).
+    private int[] bookIds = new int[1024];
+    private String[] titles = new String[1024];
+    private String[] normalizedTitles = new String[1024];
+    private int[] downloadCounts = new int[1024];
+    private int[] gramCounts = new int[1024];
+    private int size;
+
+    /**
+     * Añade o actualiza un libro. Si el título no cambió sólo se actualizan las descargas.
+     * @param bookId ID del libro.
+     * @param title Título del libro.
+     * @param downloadCount Número de descargas (puede ser null).
+     */
+    public void index(int bookId, String title, Integer downloadCount) {
+        if (title == null || title.isBlank()) {
+            return;
+        }
+        String normalized = normalize(title);
+        int downloads = downloadCount != null ? downloadCount : 0;
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalByBookId.get(bookId);
+            if (existing != null) {
+                if (normalizedTitles[existing].equals(normalized)) {
+                    titles[existing] = title;
+                    downloadCounts[existing] = downloads;
+                    return;
+                }
+                deleted.set(existing);
+            }
+            Set<String> grams = trigrams(normalized);
+            int ordinal = append(bookId, title, normalized, downloads, grams.size());
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+            }
+            ordinalByBookId.put(bookId, ordinal);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza sólo las descargas de un libro ya indexado.
+     * @return true si el libro estaba indexado.
+     */
+    public boolean updateDownloads(int bookId, int downloadCount) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByBookId.get(bookId);
+            if (ordinal == null) {
+                return false;
+            }
+            downloadCounts[ordinal] = downloadCount;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un libro del índice.
+     * @return true si el libro estaba indexado.
+     */
+    public boolean remove(int bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByBookId.remove(bookId);
+            if (ordinal == null) {
+                return false;
+            }
+            deleted.set(ordinal);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los títulos más parecidos a la consulta.
+     * @param query Texto libre (palabras del título, con o sin tildes, con erratas menores).
+     * @param limit Número máximo de resultados.
+     * @return Los resultados ordenados de mayor a menor puntuación.
+     */
+    public List<Hit> search(String query, int limit) {
+        String normalizedQuery = query == null ? "" : normalize(query);
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryGrams = trigrams(normalizedQuery);
+        int minShared = Math.max(1, (int) Math.ceil(queryGrams.size() * MIN_COVERAGE));
+
+        lock.readLock().lock();
+        try {
+            int[] shared = new int[size];
+            for (String gram : queryGrams) {
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    for (int i = 0; i < list.size; i++) {
+                        shared[list.ordinals[i]]++;
+                    }
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                int common = shared[ordinal];
+                if (common < minShared || deleted.get(ordinal)) {
+                    continue;
+                }
+                double coverage = (double) common / queryGrams.size();
+                double dice = 2.0 * common / (queryGrams.size() + gramCounts[ordinal]);
+                double score = 0.7 * coverage + 0.3 * dice;
+                if (normalizedTitles[ordinal].contains(normalizedQuery)) {
+                    score += normalizedTitles[ordinal].equals(normalizedQuery) ? 1.0 : 0.5;
+                }
+                best.add(new Hit(bookIds[ordinal], titles[ordinal], downloadCounts[ordinal], score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de libros indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByBookId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinalByBookId.clear();
+            deleted.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza un texto para indexarlo: sin tildes, en minúsculas y con las palabras
+     * separadas por un único espacio.
+     */
+    public static String normalize(String text) {
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Trigramas de un texto normalizado, palabra a palabra y con {@code $} como borde.
+     */
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "$" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private int append(int bookId, String title, String normalized, int downloads, int grams) {
+        if (size == bookIds.length) {
+            int capacity = size * 2;
+            bookIds = Arrays.copyOf(bookIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            normalizedTitles = Arrays.copyOf(normalizedTitles, capacity);
+            downloadCounts = Arrays.copyOf(downloadCounts, capacity);
+            gramCounts = Arrays.copyOf(gramCounts, capacity);
+        }
+        bookIds[size] = bookId;
+        titles[size] = title;
+        normalizedTitles[size] = normalized;
+        downloadCounts[size] = downloads;
+        gramCounts[size] = grams;
+        return size++;
+    }
+
+    /**
+     * Los documentos borrados o reemplazados siguen en las listas hasta que ocupan
+     * más de la mitad del índice; entonces se reconstruye con los documentos vivos.
+     */
+    private void compactIfNeeded() {
+        int dead = deleted.cardinality();
+        if (dead < 1024 || dead < size / 2) {
+            return;
+        }
+        int[] oldIds = Arrays.copyOf(bookIds, size);
+        String[] oldTitles = Arrays.copyOf(titles, size);
+        int[] oldDownloads = Arrays.copyOf(downloadCounts, size);
+        BitSet oldDeleted = (BitSet) deleted.clone();
+        int oldSize = size;
+
+        postings.clear();
+        ordinalByBookId.clear();
+        deleted.clear();
+        size = 0;
+        for (int ordinal = 0; ordinal < oldSize; ordinal++) {
+            if (!oldDeleted.get(ordinal)) {
+                String normalized = normalize(oldTitles[ordinal]);
+                Set<String> grams = trigrams(normalized);
+                int fresh = append(oldIds[ordinal], oldTitles[ordinal], normalized, oldDownloads[ordinal], grams.size());
+                for (String gram : grams) {
+                    postings.computeIfAbsent(gram, g -> new Postings()).add(fresh);
+                }
+                ordinalByBookId.put(oldIds[ordinal], fresh);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.literalura.literalura.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Los {@code capacity} elementos con mayor valor de un conjunto que cambia, sin guardar el resto.
+ * <p>
+ * Añadir o subir un valor cuesta O(log capacity). Si baja o sale un elemento del top mientras hay
+ * otros fuera, no se sabe cuál ocupa su lugar: el ranking queda marcado como obsoleto y su dueño
+ * debe reconstruirlo ({@link #rebuild}) antes de leerlo. Con las descargas, que casi siempre suben,
+ * eso es raro. No es seguro entre hilos.
+ */
+final class TopRanking {
+
+    /** Un elemento del ranking: clave (ID de libro o autor) y valor (descargas, libros). */
+    record Entry(long key, long value) {
+    }
+
+    // De mayor a menor valor; a igual valor, menor clave primero (orden estable).
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::value).reversed()
+            .thenComparingLong(Entry::key);
+
+    private final int capacity;
+    private final TreeSet<Entry> top = new TreeSet<>(ORDER);
+    private boolean stale;
+
+    TopRanking(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity debe ser positiva: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Registra el cambio de valor de un elemento.
+     * @param oldValue Valor anterior, o null si es nuevo.
+     * @param newValue Valor nuevo, o null si deja de pertenecer al conjunto.
+     * @param population Elementos del conjunto tras el cambio.
+     */
+    void update(long key, Long oldValue, Long newValue, int population) {
+        boolean wasInTop = oldValue != null && top.remove(new Entry(key, oldValue));
+        if (wasInTop && population > top.size() + (newValue == null ? 0 : 1)
+                && (newValue == null || newValue < oldValue)) {
+            // Quizá otro de fuera del top lo supera ahora.
+            stale = true;
+        }
+        if (newValue != null) {
+            offer(new Entry(key, newValue));
+        }
+    }
+
+    private void offer(Entry entry) {
+        if (top.size() < capacity) {
+            top.add(entry);
+        } else if (ORDER.compare(entry, top.last()) < 0) {
+            top.add(entry);
+            top.pollLast();
+        }
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Vuelve a calcular el ranking a partir de todos los elementos del conjunto.
+     */
+    void rebuild(Iterable<Entry> all) {
+        top.clear();
+        for (Entry entry : all) {
+            offer(entry);
+        }
+        stale = false;
+    }
+
+    /**
+     * Los {@code limit} primeros (como mucho {@code capacity}), de mayor a menor.
+     */
+    List<Entry> first(int limit) {
+        List<Entry> result = new ArrayList<>(Math.min(limit, top.size()));
+        for (Entry entry : top) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
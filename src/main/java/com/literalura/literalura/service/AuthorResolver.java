@@ -0,0 +1,229 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.event.AuthorSavedEvent;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.repository.AuthorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resuelve los autores que llegan de la API contra la tabla {@code authors}.
+ * <p>
+ * Un lote completo de autores se resuelve con, como mucho, tres sentencias:
+ * una consulta {@code IN} por nombre normalizado, un único
+ * {@code INSERT ... ON CONFLICT DO NOTHING RETURNING} para los que faltan y,
+ * sólo si otro proceso insertó alguno a la vez, una segunda consulta {@code IN}. El conflicto lo detecta
+ * el índice único sobre el nombre normalizado ({@code uk_authors_name_normalized}), así que dos escritores
+ * con el mismo nombre escrito de distinta forma no crean dos autores.
+ * Delante hay una caché LRU acotada por nombre normalizado, de modo que los autores
+ * frecuentes no generan ninguna consulta. Es seguro compartirlo entre hilos de ingesta
+ * y entre varias instancias de la aplicación: los conflictos los resuelve la base de datos.
+ * Por cada autor insertado se publica un {@link AuthorSavedEvent}.
+ */
+@Service
+public class AuthorResolver {
+
+    public static final String UNKNOWN_AUTHOR = "Desconocido";
+
+    private final AuthorRepository authorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogMetrics metrics;
+    private final LinkedHashMap<String, Author> cache;
+
+    public AuthorResolver(AuthorRepository authorRepository, JdbcTemplate jdbcTemplate,
+                          ApplicationEventPublisher eventPublisher, CatalogMetrics metrics,
+                          @Value("${literalura.authors.cache-size:10000}") int cacheSize) {
+        this.authorRepository = authorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Author> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Clave de búsqueda de un autor: nombre sin espacios en los extremos y en minúsculas.
+     */
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Obtiene el autor principal de un libro tal cual llegó de la API,
+     * o un autor "Desconocido" si la API no trae un autor con nombre válido.
+     */
+    public static Author primaryAuthorOf(Book book) {
+        List<Author> apiAuthors = book.getApiAuthors();
+        if (apiAuthors != null && !apiAuthors.isEmpty() && apiAuthors.get(0) != null) {
+            Author primary = apiAuthors.get(0);
+            if (primary.getName() != null && !primary.getName().trim().isEmpty()) {
+                return new Author(primary.getName().trim(), primary.getBirthYear(), primary.getDeathYear());
+            }
+        }
+        return new Author(UNKNOWN_AUTHOR, null, null);
+    }
+
+    /**
+     * Resuelve un único autor (buscándolo o insertándolo).
+     * @param apiAuthor Autor con los datos de la API.
+     * @return El autor persistido, con ID.
+     */
+    @Transactional
+    public Author resolve(Author apiAuthor) {
+        return resolveAll(List.of(apiAuthor)).get(normalize(apiAuthor.getName()));
+    }
+
+    /**
+     * Resuelve un lote de autores. Los que no existen se insertan con los años de nacimiento
+     * y fallecimiento del primero que aparezca con ese nombre.
+     * @param apiAuthors Autores con los datos de la API (nombres no vacíos).
+     * @return Un mapa de nombre normalizado a autor persistido (con ID, sin la colección de libros).
+     */
+    @Transactional
+    public Map<String, Author> resolveAll(Collection<Author> apiAuthors) {
+        Map<String, Author> requested = new LinkedHashMap<>();
+        for (Author author : apiAuthors) {
+            requested.putIfAbsent(normalize(author.getName()), author);
+        }
+
+        Map<String, Author> resolved = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (String key : requested.keySet()) {
+                Author cached = cache.get(key);
+                if (cached != null) {
+                    resolved.put(key, cached);
+                } else {
+                    missing.add(key);
+                }
+            }
+        }
+        metrics.authorCache(resolved.size(), missing.size());
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        Map<String, Author> found = new HashMap<>();
+        addAll(found, authorRepository.findByNormalizedNameIn(missing));
+
+        List<Author> toInsert = new ArrayList<>();
+        for (String key : missing) {
+            if (!found.containsKey(key)) {
+                toInsert.add(requested.get(key));
+            }
+        }
+        if (!toInsert.isEmpty()) {
+            List<Author> inserted = insertMissing(toInsert);
+            addAll(found, inserted);
+            for (Author author : inserted) {
+                eventPublisher.publishEvent(new AuthorSavedEvent(author.getId(), author.getName(),
+                        author.getBirthYear(), author.getDeathYear()));
+            }
+            // Lo que no devolvió RETURNING lo insertó otra transacción en paralelo.
+            List<String> conflicted = new ArrayList<>();
+            for (Author author : toInsert) {
+                if (!found.containsKey(normalize(author.getName()))) {
+                    conflicted.add(normalize(author.getName()));
+                }
+            }
+            if (!conflicted.isEmpty()) {
+                addAll(found, authorRepository.findByNormalizedNameIn(conflicted));
+            }
+        }
+
+        resolved.putAll(found);
+        cacheAfterCommit(found);
+        return resolved;
+    }
+
+    /**
+     * Inserta varios autores en una sola sentencia multi-fila.
+     * @return Los autores efectivamente insertados (los que ya existían no se devuelven).
+     */
+    private List<Author> insertMissing(List<Author> authors) {
+        StringBuilder sql = new StringBuilder("INSERT INTO authors (name, birth_year, death_year) VALUES ");
+        List<Object> args = new ArrayList<>(authors.size() * 3);
+        for (int i = 0; i < authors.size(); i++) {
+            Author author = authors.get(i);
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args.add(author.getName().trim());
+            args.add(author.getBirthYear());
+            args.add(author.getDeathYear());
+        }
+        // Sin columna de conflicto: vale tanto el índice único del nombre exacto como el del normalizado.
+        sql.append(" ON CONFLICT DO NOTHING RETURNING id, name, birth_year, death_year");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Author inserted = new Author(rs.getString("name"),
+                    (Integer) rs.getObject("birth_year"), (Integer) rs.getObject("death_year"));
+            inserted.setId(rs.getLong("id"));
+            return inserted;
+        }, args.toArray());
+    }
+
+    /**
+     * Añade copias desconectadas de los autores al mapa (si un nombre aparece con distintas
+     * mayúsculas se conserva el de menor ID).
+     */
+    private static void addAll(Map<String, Author> target, List<Author> authors) {
+        for (Author author : authors) {
+            Author copy = new Author(author.getName(), author.getBirthYear(), author.getDeathYear());
+            copy.setId(author.getId());
+            target.putIfAbsent(normalize(author.getName()), copy);
+        }
+    }
+
+    /**
+     * Las entradas nuevas sólo pasan a la caché cuando la transacción confirma; así un rollback
+     * no deja en la caché IDs de autores que no llegaron a existir.
+     */
+    private void cacheAfterCommit(Map<String, Author> authors) {
+        if (authors.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putInCache(authors);
+                }
+            });
+        } else {
+            putInCache(authors);
+        }
+    }
+
+    private void putInCache(Map<String, Author> authors) {
+        synchronized (cache) {
+            cache.putAll(authors);
+        }
+    }
+
+    /**
+     * Vacía la caché (por ejemplo, tras una carga masiva que reescribe la tabla de autores).
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.TitleFingerprint;
+import com.literalura.literalura.repository.BookRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Etapa de persistencia de la ingesta masiva.
+ * Guarda lotes de libros en una sola transacción, descartando duplicados con dos consultas
+ * por lote (IDs y huellas de título) en lugar de una por libro; la de huellas sólo incluye las que
+ * el filtro de {@link DuplicateTitleGuard} no descarta. Los INSERT se agrupan mediante
+ * el JDBC batching de Hibernate ({@code hibernate.jdbc.batch_size}). Las materias de todo el lote
+ * se traducen a IDs del diccionario de una vez ({@link SubjectDictionary}).
+ */
+@Component
+public class BookBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BookRepository bookRepository;
+    private final AuthorResolver authorResolver;
+    private final SubjectDictionary subjectDictionary;
+    private final DuplicateTitleGuard duplicateTitleGuard;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogMetrics metrics;
+
+    public BookBatchWriter(BookRepository bookRepository, AuthorResolver authorResolver,
+                           SubjectDictionary subjectDictionary, DuplicateTitleGuard duplicateTitleGuard,
+                           PlatformTransactionManager transactionManager, CatalogMetrics metrics) {
+        this.bookRepository = bookRepository;
+        this.authorResolver = authorResolver;
+        this.subjectDictionary = subjectDictionary;
+        this.duplicateTitleGuard = duplicateTitleGuard;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Resultado de escribir un lote: libros guardados, duplicados descartados y libros rechazados.
+     */
+    public record BatchResult(int saved, int duplicates, int rejected) {
+        public static final BatchResult EMPTY = new BatchResult(0, 0, 0);
+
+        public BatchResult plus(BatchResult other) {
+            return new BatchResult(saved + other.saved, duplicates + other.duplicates, rejected + other.rejected);
+        }
+    }
+
+    /**
+     * Qué pasó con cada libro de un lote.
+     * {@code REJECTED}: le falta el ID o el título. {@code FAILED}: la base de datos lo rechazó
+     * incluso guardándolo solo.
+     */
+    public enum Outcome {
+        SAVED, DUPLICATE, REJECTED, FAILED
+    }
+
+    /**
+     * Guarda un lote de libros recibidos de la API.
+     * Si la transacción del lote falla (por ejemplo, otro proceso insertó el mismo título),
+     * se reintenta libro a libro para aislar los registros problemáticos.
+     * @param books Los libros a guardar.
+     * @return El resumen del lote.
+     */
+    public BatchResult write(List<Book> books) {
+        int saved = 0;
+        int duplicates = 0;
+        int rejected = 0;
+        for (Outcome outcome : writeEach(books)) {
+            switch (outcome) {
+                case SAVED -> saved++;
+                case DUPLICATE -> duplicates++;
+                case REJECTED, FAILED -> rejected++;
+            }
+        }
+        return new BatchResult(saved, duplicates, rejected);
+    }
+
+    /**
+     * Como {@link #write}, pero devuelve el resultado de cada libro.
+     * @return Un resultado por libro, en el mismo orden que {@code books}.
+     */
+    public List<Outcome> writeEach(List<Book> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        Timer.Sample sample = metrics.start();
+        List<Outcome> outcomes = writeInTransactions(books);
+        metrics.batchWritten(sample, count(outcomes, Outcome.SAVED), count(outcomes, Outcome.DUPLICATE),
+                count(outcomes, Outcome.REJECTED) + count(outcomes, Outcome.FAILED));
+        return outcomes;
+    }
+
+    private static int count(List<Outcome> outcomes, Outcome wanted) {
+        int count = 0;
+        for (Outcome outcome : outcomes) {
+            if (outcome == wanted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Outcome> writeInTransactions(List<Book> books) {
+        try {
+            return transactionTemplate.execute(status -> persistBatch(books));
+        } catch (DataAccessException e) {
+            System.err.println("Advertencia: El lote de " + books.size() + " libros falló (" + e.getMessage()
+                    + "). Reintentando libro a libro.");
+            List<Outcome> outcomes = new ArrayList<>(books.size());
+            for (Book book : books) {
+                try {
+                    outcomes.add(transactionTemplate.execute(status -> persistBatch(List.of(book))).get(0));
+                } catch (DataAccessException single) {
+                    outcomes.add(Outcome.FAILED);
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    private List<Outcome> persistBatch(List<Book> books) {
+        Outcome[] outcomes = new Outcome[books.size()];
+
+        // Deduplicar dentro del propio lote por ID y por huella del título.
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        Set<Integer> seenIds = new HashSet<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            if (book.getId() == null || book.getTitle() == null || book.getTitle().isBlank()) {
+                outcomes[i] = Outcome.REJECTED;
+            } else if (!seenIds.add(book.getId()) || candidates.putIfAbsent(TitleFingerprint.of(book.getTitle()), i) != null) {
+                outcomes[i] = Outcome.DUPLICATE;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Arrays.asList(outcomes);
+        }
+
+        // Dos consultas por lote (como mucho) para descartar lo que ya está en la base de datos.
+        Set<Integer> existingIds = new HashSet<>(bookRepository.findExistingIds(
+                candidates.values().stream().map(i -> books.get(i).getId()).toList()));
+        Set<String> existingTitles = duplicateTitleGuard.existingFingerprints(candidates.keySet());
+
+        List<Book> toSave = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> entry : candidates.entrySet()) {
+            int i = entry.getValue();
+            if (existingIds.contains(books.get(i).getId()) || existingTitles.contains(entry.getKey())) {
+                outcomes[i] = Outcome.DUPLICATE;
+            } else {
+                outcomes[i] = Outcome.SAVED;
+                toSave.add(books.get(i));
+            }
+        }
+
+        // Todos los autores del lote se resuelven de una vez (caché + una consulta + un INSERT).
+        List<Author> apiAuthors = toSave.stream().map(AuthorResolver::primaryAuthorOf).toList();
+        Map<String, Author> authors = authorResolver.resolveAll(apiAuthors);
+        // Igual con las materias: el texto se guarda una vez en subjects y el libro sólo enlaza los IDs.
+        Map<String, Integer> subjects = subjectDictionary.resolveAll(toSave.stream()
+                .flatMap(book -> SubjectDictionary.clean(book.getSubjects()).stream()).toList());
+        for (int i = 0; i < toSave.size(); i++) {
+            Book book = toSave.get(i);
+            book.setAuthor(authors.get(AuthorResolver.normalize(apiAuthors.get(i).getName())));
+            Set<Integer> subjectIds = new LinkedHashSet<>();
+            for (String subject : SubjectDictionary.clean(book.getSubjects())) {
+                subjectIds.add(subjects.get(subject));
+            }
+            book.setSubjectIds(subjectIds);
+            entityManager.persist(book);
+        }
+        return Arrays.asList(outcomes);
+    }
+}
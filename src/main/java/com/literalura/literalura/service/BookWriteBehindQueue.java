@@ -0,0 +1,187 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.TitleFingerprint;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Escritura diferida de los libros elegidos en el menú (opción 1).
+ * <p>
+ * {@link #submit} valida el libro y lo deja en una cola acotada de {@code literalura.write-behind.capacity}
+ * libros; un hilo propio los guarda después con {@link BookBatchWriter}, agrupando en una transacción
+ * todo lo que se haya acumulado (hasta {@code literalura.write-behind.batch-size} libros). Así el menú
+ * vuelve en cuanto el libro está en la cola, sin esperar a la base de datos.
+ * <p>
+ * Si la cola se llena, {@link #submit} espera a que haya hueco (contrapresión). El resultado de cada
+ * libro se completa en el futuro que devuelve {@link #submit} y queda además en {@link #pollResults()}
+ * para mostrarlo en el menú, salvo que se retire antes con {@link #acknowledge}. {@link #close()} deja de aceptar libros y espera a que se guarden los
+ * pendientes; se llama al salir (opción 0) y al cerrar el contexto.
+ */
+@Service
+public class BookWriteBehindQueue {
+
+    // Marcador de fin para el hilo de escritura (se compara por identidad).
+    private static final PendingWrite END = new PendingWrite(null, null, null);
+
+    /**
+     * Resultado de guardar un libro.
+     * @param error Motivo del fallo, o {@code null}.
+     */
+    public record WriteResult(Book book, BookBatchWriter.Outcome outcome, String error) {
+        @Override
+        public String toString() {
+            return switch (outcome) {
+                case SAVED -> "Libro registrado: '" + book.getTitle() + "' (autor: "
+                        + (book.getAuthor() != null ? book.getAuthor().getName() : "Desconocido") + ")";
+                case DUPLICATE -> "¡El libro '" + book.getTitle() + "' ya está registrado en la base de datos!";
+                case REJECTED -> "Libro no válido (sin ID o sin título): '" + book.getTitle() + "'";
+                case FAILED -> "Error al guardar '" + book.getTitle() + "'"
+                        + (error != null ? ": " + error : "");
+            };
+        }
+    }
+
+    private record PendingWrite(Book book, String fingerprint, CompletableFuture<WriteResult> result) {
+    }
+
+    private final BookBatchWriter bookBatchWriter;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    // Huellas de los libros en cola: el mismo título elegido dos veces se descarta sin esperar a la base de datos.
+    private final Set<String> pendingFingerprints = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<WriteResult> results = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private boolean closed;
+
+    public BookWriteBehindQueue(BookBatchWriter bookBatchWriter, CatalogMetrics metrics,
+                                @Value("${literalura.write-behind.capacity:64}") int capacity,
+                                @Value("${literalura.write-behind.batch-size:32}") int batchSize) {
+        this.bookBatchWriter = bookBatchWriter;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        metrics.gauge("literalura.persist.queue", queue::size);
+        this.worker = new Thread(this::drain, "book-write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Pone un libro en la cola de escritura. Bloquea sólo si la cola está llena.
+     * @return El resultado de guardarlo. Ya está completo si el libro no es válido o ya estaba en la cola.
+     * @throws IllegalStateException Si la cola ya se cerró.
+     */
+    public synchronized CompletableFuture<WriteResult> submit(Book book) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("La cola de escritura está cerrada");
+        }
+        if (book.getId() == null || book.getTitle() == null || book.getTitle().isBlank()) {
+            return CompletableFuture.completedFuture(new WriteResult(book, BookBatchWriter.Outcome.REJECTED, null));
+        }
+        String fingerprint = TitleFingerprint.of(book.getTitle());
+        if (!pendingFingerprints.add(fingerprint)) {
+            return CompletableFuture.completedFuture(new WriteResult(book, BookBatchWriter.Outcome.DUPLICATE, null));
+        }
+        PendingWrite write = new PendingWrite(book, fingerprint, new CompletableFuture<>());
+        if (!queue.offer(write)) {
+            System.out.println("La cola de escritura está llena: esperando a la base de datos...");
+            queue.put(write);
+        }
+        return write.result();
+    }
+
+    /** Libros en cola o guardándose. */
+    public int pending() {
+        return pendingFingerprints.size();
+    }
+
+    /**
+     * Resultados terminados desde la llamada anterior, en el orden en que se guardaron.
+     */
+    public List<WriteResult> pollResults() {
+        List<WriteResult> finished = new ArrayList<>();
+        for (WriteResult result; (result = results.poll()) != null; ) {
+            finished.add(result);
+        }
+        return finished;
+    }
+
+    /**
+     * Retira un resultado que ya se mostró por su futuro, para que {@link #pollResults()} no lo repita.
+     * Los resultados se añaden antes de completar el futuro, así que uno ya completado se encuentra siempre.
+     */
+    public void acknowledge(WriteResult result) {
+        results.removeIf(pending -> pending == result);
+    }
+
+    /**
+     * Deja de aceptar libros y espera a que se guarden todos los pendientes.
+     * @return Los resultados que aún no se habían recogido con {@link #pollResults()}.
+     */
+    @PreDestroy
+    public List<WriteResult> close() throws InterruptedException {
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                queue.put(END);
+            }
+        }
+        worker.join();
+        return pollResults();
+    }
+
+    /**
+     * Hilo de escritura: toma el primer libro de la cola, añade los que ya estén esperando y los guarda juntos.
+     */
+    private void drain() {
+        List<PendingWrite> group = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                group.add(queue.take());
+                queue.drainTo(group, batchSize - 1);
+                boolean end = group.remove(END);
+                if (!group.isEmpty()) {
+                    flush(group);
+                }
+                group.clear();
+                if (end) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Cierre forzado: lo que quede en la cola no se guarda.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<PendingWrite> group) {
+        List<Book> books = group.stream().map(PendingWrite::book).toList();
+        List<BookBatchWriter.Outcome> outcomes = null;
+        String error = null;
+        try {
+            outcomes = bookBatchWriter.writeEach(books);
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+        }
+        for (int i = 0; i < group.size(); i++) {
+            PendingWrite write = group.get(i);
+            WriteResult result = outcomes != null
+                    ? new WriteResult(write.book(), outcomes.get(i), null)
+                    : new WriteResult(write.book(), BookBatchWriter.Outcome.FAILED, error);
+            pendingFingerprints.remove(write.fingerprint());
+            results.add(result);
+            write.result().complete(result);
+        }
+    }
+}
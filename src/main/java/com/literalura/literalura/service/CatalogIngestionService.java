@@ -0,0 +1,315 @@
+package com.literalura.literalura.service;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
+import com.literalura.literalura.client.GutendexApiException;
+import com.literalura.literalura.client.GutendexClient;
+import com.literalura.literalura.client.GutendexJsonParser;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.GutendexResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ingesta masiva del catálogo de Gutendex sin interacción por consola.
+ * Recorre todas las páginas de una búsqueda (o del catálogo completo) con tres etapas
+ * conectadas por colas acotadas:
+ * <ol>
+ *     <li>Descarga: pide las páginas a la API con {@link GutendexClient}, varias a la vez.</li>
+ *     <li>Parseo: lee el JSON en flujo desde la respuesta HTTP. Con la primera página calcula
+ *     las URIs de las restantes; si no puede, sigue los enlaces {@code next} uno a uno.</li>
+ *     <li>Persistencia: agrupa los libros y los guarda por lotes con {@link BookBatchWriter}.</li>
+ * </ol>
+ * Las colas acotadas hacen de contrapresión: si la base de datos va más lenta que la red,
+ * la descarga se detiene en lugar de acumular páginas en memoria.
+ */
+@Service
+public class CatalogIngestionService {
+
+    // Marcadores de fin de flujo para cada cola (se comparan por identidad).
+    private static final URI END_OF_PAGES = URI.create("literalura:end");
+    private static final FetchedPage END_OF_FETCH = new FetchedPage(END_OF_PAGES, null);
+    private static final List<Book> END_OF_BOOKS = new ArrayList<>();
+
+    private final GutendexClient gutendexClient;
+    private final GutendexJsonParser parser;
+    private final BookBatchWriter bookBatchWriter;
+    private final int queueCapacity;
+    private final int commitSize;
+
+    public CatalogIngestionService(GutendexClient gutendexClient, GutendexJsonParser parser,
+                                   BookBatchWriter bookBatchWriter,
+                                   @Value("${literalura.ingestion.queue-capacity:8}") int queueCapacity,
+                                   @Value("${literalura.ingestion.commit-size:256}") int commitSize) {
+        this.gutendexClient = gutendexClient;
+        this.parser = parser;
+        this.bookBatchWriter = bookBatchWriter;
+        this.queueCapacity = queueCapacity;
+        this.commitSize = commitSize;
+    }
+
+    /**
+     * Parámetros de una ingesta.
+     * @param search Texto a buscar, o {@code null} para recorrer el catálogo completo.
+     * @param languages Códigos de idioma separados por coma, o {@code null} para todos.
+     * @param maxPages Número máximo de páginas a recorrer (0 = sin límite).
+     */
+    public record IngestionRequest(String search, String languages, int maxPages) {
+    }
+
+    /**
+     * Resumen de una ingesta terminada.
+     */
+    public record IngestionReport(int pages, int saved, int duplicates, int rejected, boolean completed,
+                                  long elapsedMillis) {
+        @Override
+        public String toString() {
+            double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+            return "Páginas: " + pages + " | Guardados: " + saved + " | Duplicados: " + duplicates
+                    + " | Rechazados: " + rejected + " | Tiempo: " + String.format("%.1f s", seconds)
+                    + " | Ritmo: " + String.format("%.1f libros/s", saved / seconds)
+                    + (completed ? "" : " | INCOMPLETA (revisa los errores)");
+        }
+    }
+
+    private record FetchedPage(URI uri, InputStream body) {
+    }
+
+    /**
+     * Ejecuta la ingesta y bloquea hasta que termina.
+     * @param request Los parámetros de la ingesta.
+     * @return El resumen de la ejecución.
+     */
+    public IngestionReport ingest(IngestionRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        // La cola de URIs no se acota: sólo guarda direcciones. Lo que se acota son las páginas
+        // descargadas pendientes de parsear y los libros pendientes de guardar.
+        BlockingQueue<URI> pending = new LinkedBlockingQueue<>();
+        BlockingQueue<FetchedPage> fetched = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<Book>> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+
+        ExecutorService stages = Executors.newFixedThreadPool(2);
+        try {
+            pending.put(gutendexClient.searchUri(request.search(), request.languages()));
+            stages.submit(() -> fetchPages(pending, fetched, failed, aborted));
+            Future<Integer> parseStage = stages.submit(() -> parsePages(fetched, pending, parsed, request.maxPages(), failed, aborted));
+
+            BookBatchWriter.BatchResult totals = persistBooks(parsed);
+
+            int pages = parseStage.get();
+            return new IngestionReport(pages, totals.saved(), totals.duplicates(), totals.rejected(),
+                    !failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("La ingesta terminó con un error inesperado", e.getCause());
+        } finally {
+            aborted.set(true);
+            stages.shutdownNow();
+            closePending(fetched);
+        }
+    }
+
+    /**
+     * Etapa de descarga: toma URIs de {@code pending} hasta recibir el marcador de fin y
+     * las pide en paralelo. Las descargas en vuelo más las páginas en cola nunca superan
+     * {@code 2 * queueCapacity}.
+     */
+    private Void fetchPages(BlockingQueue<URI> pending, BlockingQueue<FetchedPage> fetched,
+                            AtomicBoolean failed, AtomicBoolean aborted) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(queueCapacity);
+        List<CompletableFuture<Void>> downloads = new ArrayList<>();
+        try {
+            while (!failed.get()) {
+                URI uri = pending.take();
+                if (uri == END_OF_PAGES) {
+                    break;
+                }
+                inFlight.acquire();
+                downloads.add(gutendexClient.openAsync(uri)
+                        .thenAccept(body -> {
+                            try {
+                                deliver(fetched, new FetchedPage(uri, body), aborted);
+                            } catch (InterruptedException e) {
+                                close(body);
+                                Thread.currentThread().interrupt();
+                            }
+                        })
+                        .whenComplete((ignored, error) -> {
+                            inFlight.release();
+                            if (error != null) {
+                                reportFetchError(uri, error);
+                                failed.set(true);
+                                // El bucle puede estar esperando en pending.take() una URI que ya no llegará
+                                // (la primera página, o la siguiente en modo 'next').
+                                pending.offer(END_OF_PAGES);
+                            }
+                        }));
+            }
+            // Esperar a que terminen todas las descargas antes de cerrar la etapa.
+            CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new))
+                    .exceptionally(error -> null)
+                    .join();
+            return null;
+        } finally {
+            handOff(fetched, END_OF_FETCH, aborted);
+        }
+    }
+
+    /**
+     * Entrega una página descargada a la etapa de parseo. Si la ingesta se abortó y nadie la va a leer,
+     * cierra la respuesta para liberar la conexión (y su hueco de concurrencia en {@link GutendexClient}).
+     */
+    private static void deliver(BlockingQueue<FetchedPage> fetched, FetchedPage page, AtomicBoolean aborted)
+            throws InterruptedException {
+        // Si se abortó justo después de encolarla, el vaciado final puede haber pasado ya: se retira aquí.
+        if (!handOff(fetched, page, aborted) || (aborted.get() && fetched.remove(page))) {
+            close(page.body());
+        }
+    }
+
+    private static void close(InputStream body) {
+        if (body != null) {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // La conexión se descarta igualmente.
+            }
+        }
+    }
+
+    private static void reportFetchError(URI uri, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof GutendexApiException api) {
+            System.err.println("Error al descargar " + uri + ". Código de estado: " + api.getStatusCode());
+        } else {
+            System.err.println("Error de I/O al comunicarse con la API (" + uri + "): " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Etapa de parseo: convierte cada página en una lista de libros y planifica las páginas siguientes.
+     * @return El número de páginas procesadas.
+     */
+    private int parsePages(BlockingQueue<FetchedPage> fetched, BlockingQueue<URI> pending,
+                           BlockingQueue<List<Book>> parsed, int maxPages,
+                           AtomicBoolean failed, AtomicBoolean aborted) throws InterruptedException {
+        int pages = 0;
+        int expectedPages = 0;
+        boolean pendingClosed = false;
+        try {
+            while (true) {
+                FetchedPage page = fetched.take();
+                if (page == END_OF_FETCH) {
+                    return pages;
+                }
+                List<Book> books = new ArrayList<>(GutendexClient.PAGE_SIZE);
+                GutendexResponse response = parser.stream(page.body(), books::add);
+                pages++;
+                if (!books.isEmpty()) {
+                    handOff(parsed, books, aborted);
+                }
+
+                if (pages == 1 && response.getNext() != null && response.getNext().contains("page=")
+                        && response.getCount() != null && !books.isEmpty()) {
+                    // Con el total de la primera página se pueden pedir todas las restantes a la vez.
+                    int totalPages = (response.getCount() + books.size() - 1) / books.size();
+                    expectedPages = maxPages > 0 ? Math.min(totalPages, maxPages) : totalPages;
+                    for (int next = 2; next <= expectedPages; next++) {
+                        pending.put(GutendexClient.pageUri(page.uri(), next));
+                    }
+                    pendingClosed = true;
+                    pending.put(END_OF_PAGES);
+                } else if (!pendingClosed) {
+                    // Sin paginación numerada conocida: seguir el enlace 'next'.
+                    String next = response.getNext();
+                    if (next == null || (maxPages > 0 && pages >= maxPages)) {
+                        pendingClosed = true;
+                        pending.put(END_OF_PAGES);
+                    } else {
+                        pending.put(URI.create(next));
+                    }
+                }
+                if (pages % 10 == 0) {
+                    System.out.println("Ingesta: " + pages + " páginas procesadas"
+                            + (expectedPages > 0 ? " de " + expectedPages : "") + ".");
+                }
+            }
+        } catch (JsonParseException | MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            System.err.println("Error al parsear la respuesta JSON de la API: " + e.getMessage());
+            failed.set(true);
+            return pages;
+        } catch (IOException e) {
+            System.err.println("Error de I/O al leer la respuesta de la API: " + e.getMessage());
+            failed.set(true);
+            return pages;
+        } finally {
+            if (!pendingClosed) {
+                // Desbloquear la descarga si esta etapa termina antes de tiempo.
+                pending.clear();
+                pending.offer(END_OF_PAGES);
+            }
+            closePending(fetched);
+            handOff(parsed, END_OF_BOOKS, aborted);
+        }
+    }
+
+    /** Cierra las respuestas descargadas que ya no se van a leer. */
+    private static void closePending(BlockingQueue<FetchedPage> fetched) {
+        for (FetchedPage page; (page = fetched.poll()) != null; ) {
+            close(page.body());
+        }
+    }
+
+    /**
+     * Entrega un elemento a la siguiente etapa respetando la capacidad de la cola,
+     * pero sin quedarse bloqueado para siempre si la ingesta se abortó.
+     * @return false si no se entregó porque la ingesta se abortó.
+     */
+    private static <T> boolean handOff(BlockingQueue<T> queue, T item, AtomicBoolean aborted) throws InterruptedException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (aborted.get()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Etapa de persistencia: acumula libros hasta {@code commitSize} y los escribe por lotes.
+     */
+    private BookBatchWriter.BatchResult persistBooks(BlockingQueue<List<Book>> parsed) throws InterruptedException {
+        BookBatchWriter.BatchResult totals = BookBatchWriter.BatchResult.EMPTY;
+        List<Book> buffer = new ArrayList<>(commitSize);
+        while (true) {
+            List<Book> books = parsed.take();
+            if (books == END_OF_BOOKS) {
+                break;
+            }
+            buffer.addAll(books);
+            if (buffer.size() >= commitSize) {
+                totals = totals.plus(bookBatchWriter.write(buffer));
+                buffer = new ArrayList<>(commitSize);
+            }
+        }
+        return totals.plus(bookBatchWriter.write(buffer));
+    }
+}
@@ -0,0 +1,174 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.dto.BookLanguage;
+import com.literalura.literalura.dto.BookRow;
+import com.literalura.literalura.dto.BookSummary;
+import com.literalura.literalura.repository.AuthorRepository;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.search.AuthorLifespanService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Consultas de lectura para los listados del catálogo.
+ * <p>
+ * Todas devuelven proyecciones paginadas ({@link Slice}) en lugar de entidades, con un número
+ * de consultas fijo por página: una para las filas (libro + autor con un JOIN) y, en el caso
+ * de los libros, otra para los idiomas de toda la página. Así el coste no crece con el tamaño
+ * de la biblioteca ni dispara una consulta por libro o por autor.
+ * <p>
+ * Los métodos {@code ...After} (API) paginan por clave: reciben el último ID de la página anterior
+ * y devuelven un {@link KeysetPage}, de modo que la página 1000 cuesta lo mismo que la primera.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogQueryService {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final AuthorLifespanService authorLifespanService;
+
+    public CatalogQueryService(BookRepository bookRepository, AuthorRepository authorRepository,
+                               AuthorLifespanService authorLifespanService) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.authorLifespanService = authorLifespanService;
+    }
+
+    /**
+     * Página de una paginación por clave.
+     * @param items Elementos de la página.
+     * @param next Clave para pedir la página siguiente, o null si es la última.
+     */
+    public record KeysetPage<T, K>(List<T> items, K next) {
+    }
+
+    /**
+     * Página de libros registrados, ordenados por ID.
+     */
+    public Slice<BookSummary> listBooks(Pageable pageable) {
+        return withLanguages(bookRepository.findRowsBy(pageable));
+    }
+
+    /**
+     * Página de libros disponibles en un idioma, ordenados por ID.
+     * @param language Código de idioma en minúsculas (ej. "es").
+     */
+    public Slice<BookSummary> listBooksByLanguage(String language, Pageable pageable) {
+        return withLanguages(bookRepository.findRowsByLanguage(language, pageable));
+    }
+
+    /**
+     * Página de autores registrados (sin "Desconocido"), ordenados por nombre.
+     */
+    public Slice<AuthorSummary> listAuthors(Pageable pageable) {
+        return authorRepository.findSummariesExcludingUnknown(pageable);
+    }
+
+    /**
+     * Página de autores vivos en un año (sin "Desconocido"), ordenados por nombre.
+     */
+    public Slice<AuthorSummary> listAuthorsAliveInYear(int year, Pageable pageable) {
+        return authorRepository.findSummariesAliveInYear(year, pageable);
+    }
+
+    /**
+     * Libros con ID mayor que {@code afterId}, ordenados por ID.
+     */
+    public KeysetPage<BookSummary, Integer> listBooksAfter(int afterId, int limit) {
+        return bookPage(bookRepository.findRowsAfter(afterId, PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Libros en un idioma con ID mayor que {@code afterId}, ordenados por ID.
+     * @param language Código de idioma en minúsculas (ej. "es").
+     */
+    public KeysetPage<BookSummary, Integer> listBooksByLanguageAfter(String language, int afterId, int limit) {
+        return bookPage(bookRepository.findRowsByLanguageAfter(language, afterId, PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Un libro por ID.
+     */
+    public Optional<BookSummary> findBook(int id) {
+        return summariesOf(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Autores (sin "Desconocido") con ID mayor que {@code afterId}, ordenados por ID.
+     */
+    public KeysetPage<AuthorSummary, Long> listAuthorsAfter(long afterId, int limit) {
+        return page(authorRepository.findSummariesAfter(afterId, PageRequest.of(0, limit + 1)), limit, AuthorSummary::id);
+    }
+
+    /**
+     * Autores vivos en un año con ID mayor que {@code afterId}, ordenados por ID. Se resuelve con el
+     * índice en memoria de {@link AuthorLifespanService}: el coste depende de los autores vivos en ese
+     * año, no del tamaño de la tabla.
+     */
+    public KeysetPage<AuthorSummary, Long> listAuthorsAliveInYearAfter(int year, long afterId, int limit) {
+        List<AuthorSummary> alive = authorLifespanService.aliveIn(year).stream()
+                .filter(author -> author.id() > afterId)
+                .sorted(Comparator.comparing(AuthorSummary::id))
+                .limit(limit + 1L)
+                .toList();
+        return page(alive, limit, AuthorSummary::id);
+    }
+
+    /**
+     * Resúmenes de un conjunto de libros (por ejemplo, una página de un filtro de bitmaps),
+     * con dos consultas en total.
+     * @param ids IDs de los libros.
+     * @return Los libros encontrados, ordenados por ID.
+     */
+    public List<BookSummary> summariesOf(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withLanguages(new SliceImpl<>(bookRepository.findRowsByIdIn(ids))).getContent();
+    }
+
+    /**
+     * Recorta una consulta de {@code limit + 1} filas a {@code limit}: la fila de más sólo indica que hay otra página.
+     */
+    private static <T, K> KeysetPage<T, K> page(List<T> rows, int limit, Function<T, K> key) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(List.copyOf(items), key.apply(items.get(limit - 1)));
+    }
+
+    private KeysetPage<BookSummary, Integer> bookPage(List<BookRow> rows, int limit) {
+        KeysetPage<BookRow, Integer> page = page(rows, limit, BookRow::id);
+        return new KeysetPage<>(withLanguages(new SliceImpl<>(page.items())).getContent(), page.next());
+    }
+
+    /**
+     * Completa una página de filas con los idiomas de sus libros usando una sola consulta.
+     */
+    private Slice<BookSummary> withLanguages(Slice<BookRow> rows) {
+        if (!rows.hasContent()) {
+            return rows.map(row -> new BookSummary(row.id(), row.title(), row.authorName(), List.of(), row.downloadCount()));
+        }
+        Map<Integer, List<String>> languages = new HashMap<>();
+        for (BookLanguage pair : bookRepository.findLanguagesByBookIds(rows.map(BookRow::id).getContent())) {
+            languages.computeIfAbsent(pair.bookId(), id -> new ArrayList<>(2)).add(pair.language());
+        }
+        return rows.map(row -> new BookSummary(row.id(), row.title(), row.authorName(),
+                languages.getOrDefault(row.id(), List.of()), row.downloadCount()));
+    }
+}
@@ -0,0 +1,239 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.client.GutendexClient;
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.SyncCheckpoint;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.repository.SyncCheckpointRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Actualiza el número de descargas de los libros guardados, que sólo se captura al guardarlos.
+ * <p>
+ * Recorre la tabla {@code books} por ID en bloques de {@code literalura.refresh.chunk-size} libros.
+ * Por cada bloque pide los datos actuales a Gutendex con el filtro {@code ids=} (varias peticiones
+ * en paralelo, de {@link GutendexClient#PAGE_SIZE} IDs cada una), compara con lo guardado y escribe
+ * sólo los libros que cambiaron con un único {@code UPDATE} por lotes. En la misma transacción avanza
+ * la marca {@link SyncCheckpoint} {@value #CHECKPOINT}: si la ejecución se interrumpe (error de red,
+ * cortocircuito abierto, cierre de la aplicación), la siguiente continúa desde el último bloque confirmado.
+ * <p>
+ * Se ejecuta bajo demanda (menú, {@code --refresh-downloads}) y, si {@code literalura.refresh.interval}
+ * es mayor que cero, también periódicamente en un hilo daemon propio. Nunca corren dos ejecuciones a la vez.
+ */
+@Service
+public class DownloadCountRefreshJob {
+
+    /** Nombre de la marca de avance en {@code sync_checkpoints}. */
+    public static final String CHECKPOINT = "download-counts";
+
+    private static final String UPDATE = "UPDATE books SET download_count = ? WHERE id = ?";
+
+    private final BookRepository bookRepository;
+    private final SyncCheckpointRepository checkpointRepository;
+    private final GutendexClient gutendexClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogMetrics metrics;
+    private final int chunkSize;
+    private final Duration interval;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public DownloadCountRefreshJob(BookRepository bookRepository, SyncCheckpointRepository checkpointRepository,
+                                   GutendexClient gutendexClient, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher, CatalogMetrics metrics,
+                                   @Value("${literalura.refresh.chunk-size:320}") int chunkSize,
+                                   @Value("${literalura.refresh.interval:0s}") Duration interval) {
+        this.bookRepository = bookRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.gutendexClient = gutendexClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.interval = interval;
+    }
+
+    /**
+     * Resumen de una ejecución.
+     * @param resumedFrom ID a partir del cual se reanudó (0 si empezó desde el principio).
+     * @param checked Libros comparados.
+     * @param changed Libros cuyas descargas cambiaron y se actualizaron.
+     * @param missing Libros que Gutendex ya no devuelve (se dejan como están).
+     */
+    public record RefreshReport(int resumedFrom, int checked, int changed, int missing, long elapsedMillis) {
+        @Override
+        public String toString() {
+            double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+            return (resumedFrom > 0 ? "Reanudada desde el ID " + resumedFrom + " | " : "")
+                    + "Libros revisados: " + checked + " | Actualizados: " + changed
+                    + " | No encontrados en Gutendex: " + missing
+                    + " | Tiempo: " + String.format("%.1f s", seconds);
+        }
+    }
+
+    @PostConstruct
+    void startSchedule() {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "download-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runScheduled, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopSchedule() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            System.out.println("Actualización periódica de descargas: " + run());
+        } catch (IllegalStateException e) {
+            // Ya hay una ejecución en curso (p. ej. lanzada desde el menú).
+        } catch (IOException e) {
+            System.err.println("Actualización periódica de descargas interrumpida: " + e.getMessage()
+                    + ". Se reanudará en la próxima ejecución.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ejecuta la actualización completa (o la termina, si había una a medias) y bloquea hasta acabar.
+     * @return El resumen de la ejecución.
+     * @throws IOException Si Gutendex falla; lo ya confirmado se conserva y la marca queda en el último bloque.
+     * @throws IllegalStateException Si ya hay una ejecución en curso.
+     */
+    public RefreshReport run() throws IOException, InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una actualización de descargas en curso.");
+        }
+        try {
+            long start = System.nanoTime();
+            int resumedFrom = checkpointRepository.findById(CHECKPOINT).map(SyncCheckpoint::getLastId).orElse(0);
+            int afterId = resumedFrom;
+            int checked = 0;
+            int changed = 0;
+            int missing = 0;
+            while (true) {
+                List<BookFacetRow> stored = bookRepository.findFacetRowsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (stored.isEmpty()) {
+                    break;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                int[] counts = refreshChunk(stored);
+                checked += stored.size();
+                changed += counts[0];
+                missing += counts[1];
+                afterId = stored.get(stored.size() - 1).id();
+            }
+            // Recorrido completo: la próxima ejecución empieza de nuevo.
+            saveCheckpoint(0);
+            return new RefreshReport(resumedFrom, checked, changed, missing,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Compara un bloque con Gutendex y confirma los cambios junto con la marca de avance.
+     * @return Libros cambiados y libros no encontrados.
+     */
+    private int[] refreshChunk(List<BookFacetRow> stored) throws IOException, InterruptedException {
+        Timer.Sample sample = metrics.start();
+        List<Integer> ids = new ArrayList<>(stored.size());
+        stored.forEach(row -> ids.add(row.id()));
+        Map<Integer, Integer> current = new HashMap<>();
+        for (Book book : gutendexClient.fetchByIds(ids)) {
+            if (book.getId() != null) {
+                current.put(book.getId(), book.getDownloadCount());
+            }
+        }
+
+        List<BookFacetRow> changed = changedRows(stored, current);
+        int lastId = stored.get(stored.size() - 1).id();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!changed.isEmpty()) {
+                List<Object[]> arguments = new ArrayList<>(changed.size());
+                for (BookFacetRow row : changed) {
+                    arguments.add(new Object[]{row.downloadCount(), row.id()});
+                }
+                jdbcTemplate.batchUpdate(UPDATE, arguments);
+                eventPublisher.publishEvent(new DownloadCountsChangedEvent(changed));
+            }
+            saveCheckpoint(lastId);
+        });
+        metrics.downloadsRefreshed(sample, stored.size(), changed.size());
+        return new int[]{changed.size(), stored.size() - countFound(stored, current)};
+    }
+
+    /**
+     * Libros del bloque cuyas descargas en Gutendex difieren de las guardadas, con el valor nuevo.
+     * Los que Gutendex no devuelve, o devuelve sin descargas, no se tocan.
+     */
+    static List<BookFacetRow> changedRows(List<BookFacetRow> stored, Map<Integer, Integer> current) {
+        List<BookFacetRow> changed = new ArrayList<>();
+        for (BookFacetRow row : stored) {
+            Integer downloads = current.get(row.id());
+            if (downloads != null && !Objects.equals(downloads, row.downloadCount())) {
+                changed.add(new BookFacetRow(row.id(), row.authorId(), downloads));
+            }
+        }
+        return changed;
+    }
+
+    private static int countFound(List<BookFacetRow> stored, Map<Integer, Integer> current) {
+        int found = 0;
+        for (BookFacetRow row : stored) {
+            if (current.containsKey(row.id())) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private void saveCheckpoint(int lastId) {
+        SyncCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> new SyncCheckpoint(CHECKPOINT, lastId));
+        checkpoint.advanceTo(lastId);
+        checkpointRepository.save(checkpoint);
+    }
+}
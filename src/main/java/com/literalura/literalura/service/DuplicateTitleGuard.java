@@ -0,0 +1,224 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.dto.BookRow;
+import com.literalura.literalura.dto.TitleFingerprintRow;
+import com.literalura.literalura.event.BookSavedEvent;
+import com.literalura.literalura.event.CatalogBulkLoadedEvent;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.TitleFingerprint;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.repository.CatalogCache;
+import com.literalura.literalura.search.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comprobación de títulos duplicados ("¿este libro es nuevo?") sin ir a la base de datos en la mayoría de casos.
+ * <p>
+ * Al arrancar, un hilo daemon rellena las huellas que falten (filas anteriores a la columna) y carga
+ * todas las huellas de {@code books.title_fingerprint} en un {@link BloomFilter}. Después, una huella
+ * que el filtro no contiene es seguro nueva y no se consulta; sólo los posibles duplicados (los que sí
+ * lo son y los falsos positivos, en torno al {@code literalura.dedup.false-positive-rate}) llegan a la
+ * base de datos. Hasta que termina la carga, todas las comprobaciones van a la base de datos.
+ * <p>
+ * El filtro se crea antes de recorrer la tabla y recibe desde ese momento las huellas de cada
+ * {@link BookSavedEvent} y {@link CatalogBulkLoadedEvent} confirmados, así que no se pierde lo que
+ * se guarde durante la carga. Lo que escriba otro proceso no llega al filtro: la respuesta "es nuevo"
+ * es una optimización, no una garantía, y el índice único de la huella es quien rechaza el duplicado
+ * cuando dos escritores compiten por el mismo título.
+ */
+@Service
+public class DuplicateTitleGuard {
+
+    private static final String BACKFILL = "UPDATE books SET title_fingerprint = ? WHERE id = ? "
+            + "AND NOT EXISTS (SELECT 1 FROM books WHERE title_fingerprint = ?)";
+
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogCache catalogCache;
+    private final CatalogMetrics metrics;
+    private final boolean enabled;
+    private final long expectedTitles;
+    private final double falsePositiveRate;
+    private final int warmupPageSize;
+    private volatile BloomFilter filter;
+    private volatile boolean warmed;
+
+    public DuplicateTitleGuard(BookRepository bookRepository, JdbcTemplate jdbcTemplate, CatalogCache catalogCache,
+                               CatalogMetrics metrics,
+                               @Value("${literalura.dedup.bloom-enabled:true}") boolean enabled,
+                               @Value("${literalura.dedup.expected-titles:100000}") long expectedTitles,
+                               @Value("${literalura.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${literalura.search.warmup-page-size:1000}") int warmupPageSize) {
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogCache = catalogCache;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.expectedTitles = expectedTitles;
+        this.falsePositiveRate = falsePositiveRate;
+        this.warmupPageSize = warmupPageSize;
+    }
+
+    /**
+     * Indica si ya hay un libro registrado con el mismo título (sin distinguir mayúsculas, tildes ni signos).
+     */
+    public boolean exists(String title) {
+        String fingerprint = TitleFingerprint.of(title);
+        if (fingerprint == null) {
+            return false;
+        }
+        if (!mightExist(fingerprint)) {
+            metrics.titleChecks("bloom-negative", 1);
+            return false;
+        }
+        boolean found = bookRepository.existsByTitleFingerprint(fingerprint);
+        metrics.titleChecks(found ? "db-found" : "db-absent", 1);
+        return found;
+    }
+
+    /**
+     * Devuelve, de las huellas indicadas, las que ya están registradas. Sólo consulta la base de datos
+     * (una consulta) por las que el filtro no descarta.
+     * @param fingerprints Huellas de título, calculadas con {@link TitleFingerprint#of}.
+     */
+    public Set<String> existingFingerprints(Collection<String> fingerprints) {
+        List<String> candidates = new ArrayList<>();
+        for (String fingerprint : fingerprints) {
+            if (mightExist(fingerprint)) {
+                candidates.add(fingerprint);
+            }
+        }
+        metrics.titleChecks("bloom-negative", fingerprints.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>(bookRepository.findExistingFingerprints(candidates));
+        metrics.titleChecks("db-found", existing.size());
+        metrics.titleChecks("db-absent", candidates.size() - existing.size());
+        return existing;
+    }
+
+    /** Si el filtro ya está cargado y en uso. */
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    private boolean mightExist(String fingerprint) {
+        return !warmed || filter.mightContain(fingerprint);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        BloomFilter current = filter;
+        if (current != null && event.title() != null) {
+            current.put(TitleFingerprint.of(event.title()));
+        }
+    }
+
+    /**
+     * Añade las huellas de una carga masiva. Incluye las de los libros descartados como duplicados,
+     * que como mucho añaden algún falso positivo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkLoaded(CatalogBulkLoadedEvent event) {
+        BloomFilter current = filter;
+        if (current != null) {
+            event.titleFingerprints().forEach(current::put);
+        }
+    }
+
+    /**
+     * Lanza la carga del filtro en segundo plano cuando el contexto está listo (antes de que
+     * arranquen el menú o los modos sin menú, que no esperan a que termine).
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (!enabled || filter != null) {
+            return;
+        }
+        Thread thread = new Thread(this::warm, "title-bloom-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rellena las huellas que falten y carga el filtro. Bloquea hasta terminar.
+     */
+    public synchronized void warm() {
+        if (warmed) {
+            return;
+        }
+        try {
+            backfill();
+            long stored = bookRepository.count();
+            // Margen para lo que se guarde después sin que crezca la tasa de falsos positivos.
+            BloomFilter loading = BloomFilter.create(Math.max(expectedTitles, stored * 2), falsePositiveRate);
+            filter = loading;
+            int afterId = 0;
+            while (true) {
+                List<TitleFingerprintRow> rows = bookRepository.findFingerprintsAfter(afterId, PageRequest.of(0, warmupPageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                rows.forEach(row -> loading.put(row.fingerprint()));
+                afterId = rows.get(rows.size() - 1).id();
+            }
+            warmed = true;
+            metrics.gauge("literalura.dedup.bloom.insertions", loading::insertions);
+        } catch (RuntimeException e) {
+            // Sin filtro la comprobación sigue siendo correcta: simplemente consulta siempre la base de datos.
+            System.err.println("Advertencia: No se pudo cargar el filtro de títulos duplicados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula la huella de los libros guardados antes de existir la columna. Si dos libros antiguos
+     * comparten huella, sólo el primero la recibe y el resto se avisa y queda sin huella.
+     */
+    private void backfill() {
+        int afterId = 0;
+        int filled = 0;
+        int clashes = 0;
+        while (true) {
+            List<BookRow> rows = bookRepository.findRowsWithoutFingerprintAfter(afterId, PageRequest.of(0, warmupPageSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> arguments = new ArrayList<>(rows.size());
+            for (BookRow row : rows) {
+                String fingerprint = TitleFingerprint.of(row.title());
+                arguments.add(new Object[]{fingerprint, row.id(), fingerprint});
+            }
+            int[] updated = jdbcTemplate.batchUpdate(BACKFILL, arguments);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    clashes++;
+                    System.err.println("Advertencia: El libro " + rows.get(i).id() + " ('" + rows.get(i).title()
+                            + "') tiene el mismo título que otro ya registrado; se deja sin huella.");
+                } else {
+                    filled++;
+                }
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+        if (filled > 0) {
+            // El UPDATE no pasa por Hibernate: los libros en caché aún no tienen la huella.
+            catalogCache.evictBooks();
+        }
+        if (filled > 0 || clashes > 0) {
+            System.out.println("Huellas de título calculadas para " + filled + " libros existentes.");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Subject;
+import com.literalura.literalura.repository.SubjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diccionario de materias: traduce los textos de materia que llegan de la API a IDs de la tabla {@code subjects}.
+ * <p>
+ * Funciona como {@link AuthorResolver}: las materias de un lote completo se resuelven con, como mucho,
+ * tres sentencias (una consulta {@code IN}, un único {@code INSERT ... ON CONFLICT (name) DO NOTHING RETURNING}
+ * para las que faltan y, si otro proceso insertó alguna a la vez, una segunda consulta {@code IN}),
+ * detrás de una caché LRU acotada. Las materias se comparan por su texto exacto, sin espacios en los extremos.
+ */
+@Service
+public class SubjectDictionary {
+
+    // Separador de materias en la tabla de carga de CatalogBulkWriter; una materia que lo contenga se descarta.
+    public static final char SEPARATOR = '\u001f';
+
+    private final SubjectRepository subjectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogMetrics metrics;
+    private final LinkedHashMap<String, Integer> cache;
+
+    public SubjectDictionary(SubjectRepository subjectRepository, JdbcTemplate jdbcTemplate, CatalogMetrics metrics,
+                             @Value("${literalura.subjects.cache-size:20000}") int cacheSize) {
+        this.subjectRepository = subjectRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Materias válidas de un libro, sin espacios en los extremos y sin repetir: se descartan las vacías,
+     * las de más de {@value Subject#MAX_NAME_LENGTH} caracteres y las que contienen {@link #SEPARATOR}.
+     * @param subjects Materias tal como llegan de la API (puede ser {@code null}).
+     */
+    public static List<String> clean(List<String> subjects) {
+        if (subjects == null || subjects.isEmpty()) {
+            return List.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String subject : subjects) {
+            if (subject == null) {
+                continue;
+            }
+            String name = subject.trim();
+            if (!name.isEmpty() && name.length() <= Subject.MAX_NAME_LENGTH && name.indexOf(SEPARATOR) < 0) {
+                names.add(name);
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Resuelve un lote de materias, insertando las que no existen.
+     * @param subjects Materias (se limpian con {@link #clean}).
+     * @return Un mapa de nombre limpio a ID.
+     */
+    @Transactional
+    public Map<String, Integer> resolveAll(Collection<String> subjects) {
+        List<String> requested = clean(new ArrayList<>(subjects));
+        Map<String, Integer> resolved = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (String name : requested) {
+                Integer cached = cache.get(name);
+                if (cached != null) {
+                    resolved.put(name, cached);
+                } else {
+                    missing.add(name);
+                }
+            }
+        }
+        metrics.subjectCache(resolved.size(), missing.size());
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        Map<String, Integer> found = new HashMap<>();
+        addAll(found, subjectRepository.findByNameIn(missing));
+        List<String> toInsert = missing.stream().filter(name -> !found.containsKey(name)).toList();
+        if (!toInsert.isEmpty()) {
+            addAll(found, insertMissing(toInsert));
+            // Lo que no devolvió RETURNING lo insertó otra transacción en paralelo.
+            List<String> conflicted = toInsert.stream().filter(name -> !found.containsKey(name)).toList();
+            if (!conflicted.isEmpty()) {
+                addAll(found, subjectRepository.findByNameIn(conflicted));
+            }
+        }
+
+        resolved.putAll(found);
+        cacheAfterCommit(found);
+        return resolved;
+    }
+
+    /**
+     * Inserta varias materias en una sola sentencia multi-fila.
+     * @return Las materias efectivamente insertadas (las que ya existían no se devuelven).
+     */
+    private List<Subject> insertMissing(List<String> names) {
+        StringBuilder sql = new StringBuilder("INSERT INTO subjects (name) VALUES ");
+        for (int i = 0; i < names.size(); i++) {
+            sql.append(i == 0 ? "(?)" : ", (?)");
+        }
+        sql.append(" ON CONFLICT (name) DO NOTHING RETURNING id, name");
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new Subject(rs.getInt("id"), rs.getString("name")), names.toArray());
+    }
+
+    private static void addAll(Map<String, Integer> target, List<Subject> subjects) {
+        for (Subject subject : subjects) {
+            target.put(subject.getName(), subject.getId());
+        }
+    }
+
+    /**
+     * Las entradas nuevas sólo pasan a la caché cuando la transacción confirma; así un rollback
+     * no deja en la caché IDs de materias que no llegaron a existir.
+     */
+    private void cacheAfterCommit(Map<String, Integer> subjects) {
+        if (subjects.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putInCache(subjects);
+                }
+            });
+        } else {
+            putInCache(subjects);
+        }
+    }
+
+    private void putInCache(Map<String, Integer> subjects) {
+        synchronized (cache) {
+            cache.putAll(subjects);
+        }
+    }
+}
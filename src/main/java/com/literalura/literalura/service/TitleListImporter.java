@@ -0,0 +1,221 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.client.GutendexApiException;
+import com.literalura.literalura.client.GutendexClient;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.search.TitleSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación sin interacción de una lista de títulos (un título por línea, opcionalmente
+ * con idiomas: {@code título;es,en}). Cada título se busca en Gutendex, se elige el mejor
+ * resultado automáticamente con {@link #bestMatch} y los libros elegidos se guardan por lotes
+ * con {@link BookBatchWriter}.
+ * <p>
+ * Las búsquedas se hacen en paralelo, con como mucho {@code parallelism} títulos en vuelo:
+ * la lista se lee en flujo, así que puede tener miles de líneas o venir de la entrada estándar.
+ */
+@Service
+public class TitleListImporter {
+
+    private final GutendexClient gutendexClient;
+    private final BookBatchWriter bookBatchWriter;
+    private final int commitSize;
+
+    public TitleListImporter(GutendexClient gutendexClient, BookBatchWriter bookBatchWriter,
+                             @Value("${literalura.ingestion.commit-size:256}") int commitSize) {
+        this.gutendexClient = gutendexClient;
+        this.bookBatchWriter = bookBatchWriter;
+        this.commitSize = commitSize;
+    }
+
+    /**
+     * Una línea de la lista.
+     * @param title Título a buscar.
+     * @param languages Códigos de idioma separados por coma, o {@code null} para todos.
+     */
+    public record TitleQuery(String title, String languages) {
+    }
+
+    /**
+     * Resumen de una importación terminada.
+     */
+    public record ImportReport(int titles, int notFound, int failed, int saved, int duplicates, int rejected,
+                               long elapsedMillis) {
+        @Override
+        public String toString() {
+            double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+            return "Títulos: " + titles + " | Guardados: " + saved + " | Duplicados: " + duplicates
+                    + " | Sin resultados: " + notFound + " | Fallidos: " + failed + " | Rechazados: " + rejected
+                    + " | Tiempo: " + String.format("%.1f s", seconds)
+                    + " | Ritmo: " + String.format("%.1f títulos/s", titles / seconds);
+        }
+    }
+
+    /** Resultado de buscar un título: el libro elegido, o null si no hubo resultados o falló. */
+    private record Resolution(TitleQuery query, Book book, boolean failed) {
+    }
+
+    /**
+     * Interpreta una línea de la lista.
+     * @return La consulta, o null si la línea está vacía o es un comentario ({@code #}).
+     */
+    public static TitleQuery parseLine(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        int separator = trimmed.lastIndexOf(';');
+        if (separator < 0) {
+            return new TitleQuery(trimmed, null);
+        }
+        String title = trimmed.substring(0, separator).strip();
+        String languages = trimmed.substring(separator + 1).replace(" ", "").toLowerCase(Locale.ROOT);
+        if (title.isEmpty()) {
+            return null;
+        }
+        return new TitleQuery(title, languages.isEmpty() ? null : languages);
+    }
+
+    /**
+     * Elige el libro que mejor corresponde a un título entre los resultados de la búsqueda:
+     * primero los de título idéntico (sin tildes, mayúsculas ni puntuación), luego los que
+     * empiezan por el título buscado, luego los que lo contienen y por último el resto; dentro
+     * de cada grupo, el de más descargas.
+     * @return El libro elegido, o null si no hay resultados.
+     */
+    public static Book bestMatch(String title, List<Book> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        String wanted = TitleSearchIndex.normalize(title);
+        Comparator<Book> byRelevance = Comparator.<Book>comparingInt(book -> titleRank(wanted, book.getTitle()))
+                .thenComparing(book -> book.getDownloadCount() != null ? book.getDownloadCount() : 0,
+                        Comparator.reverseOrder());
+        return candidates.stream()
+                .filter(book -> book.getTitle() != null)
+                .min(byRelevance)
+                .orElse(null);
+    }
+
+    private static int titleRank(String wanted, String title) {
+        String candidate = TitleSearchIndex.normalize(title);
+        if (candidate.equals(wanted)) {
+            return 0;
+        }
+        if (candidate.startsWith(wanted)) {
+            return 1;
+        }
+        return candidate.contains(wanted) ? 2 : 3;
+    }
+
+    /**
+     * Importa todos los títulos de la lista y bloquea hasta terminar.
+     * @param titles Lista de títulos, leída línea a línea. No se cierra.
+     * @param parallelism Número máximo de búsquedas simultáneas.
+     * @return El resumen de la importación.
+     */
+    public ImportReport importTitles(BufferedReader titles, int parallelism) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int limit = Math.max(1, parallelism);
+        ExecutorService searches = Executors.newFixedThreadPool(limit, runnable -> {
+            Thread thread = new Thread(runnable, "title-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Resolution> completed = new ExecutorCompletionService<>(searches);
+        Progress progress = new Progress();
+        try {
+            int inFlight = 0;
+            for (String line; (line = titles.readLine()) != null; ) {
+                TitleQuery query = parseLine(line);
+                if (query == null) {
+                    continue;
+                }
+                // Contrapresión: no se lee la siguiente línea hasta que haya hueco.
+                if (inFlight == limit) {
+                    progress.accept(completed.take());
+                    inFlight--;
+                }
+                completed.submit(() -> resolve(query));
+                inFlight++;
+            }
+            for (; inFlight > 0; inFlight--) {
+                progress.accept(completed.take());
+            }
+            progress.flush();
+        } finally {
+            searches.shutdownNow();
+        }
+        return new ImportReport(progress.titles, progress.notFound, progress.failed, progress.result.saved(),
+                progress.result.duplicates(), progress.result.rejected(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Resolution resolve(TitleQuery query) throws InterruptedException {
+        try {
+            List<Book> results = gutendexClient.fetchPage(gutendexClient.searchUri(query.title(), query.languages())).getBooks();
+            return new Resolution(query, bestMatch(query.title(), results), false);
+        } catch (GutendexApiException e) {
+            System.err.println("Error al buscar '" + query.title() + "'. Código de estado: " + e.getStatusCode());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al buscar '" + query.title() + "': " + e.getMessage());
+        }
+        return new Resolution(query, null, true);
+    }
+
+    /**
+     * Acumula los resultados en el hilo que lee la lista y los guarda por lotes de {@code commitSize}.
+     */
+    private final class Progress {
+        private final List<Book> buffer = new ArrayList<>();
+        private BookBatchWriter.BatchResult result = BookBatchWriter.BatchResult.EMPTY;
+        private int titles;
+        private int notFound;
+        private int failed;
+
+        void accept(Future<Resolution> future) throws InterruptedException {
+            Resolution resolution;
+            try {
+                resolution = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("La importación terminó con un error inesperado", e.getCause());
+            }
+            titles++;
+            if (resolution.failed()) {
+                failed++;
+            } else if (resolution.book() == null) {
+                notFound++;
+                System.out.println("Sin resultados para '" + resolution.query().title() + "'.");
+            } else {
+                buffer.add(resolution.book());
+                if (buffer.size() >= commitSize) {
+                    flush();
+                }
+            }
+            if (titles % 100 == 0) {
+                System.out.println("Importación: " + titles + " títulos procesados.");
+            }
+        }
+
+        void flush() {
+            result = result.plus(bookBatchWriter.write(new ArrayList<>(buffer)));
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.literalura.literalura.snapshot;
+
+import com.literalura.literalura.dto.LanguageStatistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Instantánea columnar del catálogo (libros, autores e idiomas) abierta con {@code mmap}, para
+ * consultas analíticas sin base de datos ni entidades JPA.
+ * <p>
+ * Cada columna es un array de primitivos en el archivo: abrirlo sólo mapea el archivo y lee la
+ * cabecera y el diccionario de idiomas, y las consultas recorren las columnas en paralelo con
+ * lecturas absolutas, sin crear objetos por fila. La escribe {@link CatalogSnapshotWriter}.
+ * <p>
+ * Formato (little-endian; los libros ordenados por ID, los autores también):
+ * <pre>
+ * cabecera (64 bytes): magia "LSNP", versión, fecha de creación (ms), nº de libros, de autores,
+ *                      de idiomas y de pares libro-idioma, bytes de nombres de autores y de idiomas
+ * long authorIds[autores]
+ * int  bookIds[libros], downloads[libros], bookAuthors[libros]   (índice del autor, -1 sin autor)
+ * int  languageOffsets[libros + 1], languageCodes[pares]         (idiomas de la fila i: códigos
+ *                                                                 de offsets[i] a offsets[i + 1])
+ * int  birthYears[autores], deathYears[autores]                  ({@link #UNKNOWN_YEAR} si falta)
+ * int  authorNameOffsets[autores + 1], languageNameOffsets[idiomas + 1]
+ * byte authorNames[], languageNames[]                            (UTF-8; diccionarios)
+ * </pre>
+ * Como {@link MappedByteBuffer}, el archivo no puede superar 2 GB. Es inmutable y seguro entre hilos.
+ */
+public final class CatalogSnapshot {
+
+    /** Año de nacimiento o fallecimiento desconocido. */
+    public static final int UNKNOWN_YEAR = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x4C534E50; // "LSNP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    /** Intervalos de {@link #downloadDistribution()}: 0 descargas y luego uno por cada potencia de 10. */
+    static final int DOWNLOAD_BUCKETS = 11;
+
+    /**
+     * Posición de cada sección en el archivo, a partir de los tamaños de la cabecera.
+     */
+    record Layout(int books, int authors, int languages, int languageRefs, int authorNameBytes, int languageNameBytes) {
+
+        int authorIds() {
+            return HEADER_SIZE;
+        }
+
+        int bookIds() {
+            return authorIds() + Long.BYTES * authors;
+        }
+
+        int downloads() {
+            return bookIds() + Integer.BYTES * books;
+        }
+
+        int bookAuthors() {
+            return downloads() + Integer.BYTES * books;
+        }
+
+        int languageOffsets() {
+            return bookAuthors() + Integer.BYTES * books;
+        }
+
+        int languageCodes() {
+            return languageOffsets() + Integer.BYTES * (books + 1);
+        }
+
+        int birthYears() {
+            return languageCodes() + Integer.BYTES * languageRefs;
+        }
+
+        int deathYears() {
+            return birthYears() + Integer.BYTES * authors;
+        }
+
+        int authorNameOffsets() {
+            return deathYears() + Integer.BYTES * authors;
+        }
+
+        int languageNameOffsets() {
+            return authorNameOffsets() + Integer.BYTES * (authors + 1);
+        }
+
+        int authorNames() {
+            return languageNameOffsets() + Integer.BYTES * (languages + 1);
+        }
+
+        int languageNames() {
+            return authorNames() + authorNameBytes;
+        }
+
+        int size() {
+            return languageNames() + languageNameBytes;
+        }
+    }
+
+    /** Descargas del catálogo: total, máximo y número de libros por orden de magnitud. */
+    public record DownloadDistribution(long books, long total, int max, long[] buckets) {
+
+        /**
+         * Límite inferior del intervalo {@code bucket}: 0, 1, 10, 100...
+         */
+        public static long lowerBound(int bucket) {
+            return bucket == 0 ? 0 : (long) Math.pow(10, bucket - 1);
+        }
+
+        public double average() {
+            return books == 0 ? 0 : (double) total / books;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("Libros: %d | Descargas: %d | Media: %.1f | Máximo: %d",
+                    books, total, average(), max));
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                if (buckets[bucket] > 0) {
+                    text.append(String.format("%n  %s: %d libros", bucket == 0 ? "0"
+                            : lowerBound(bucket) + "-" + (lowerBound(bucket + 1) - 1), buckets[bucket]));
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    /** Años de vida de los autores con nacimiento y fallecimiento conocidos. */
+    public record Lifespans(int authors, double averageYears, int maxYears) {
+        @Override
+        public String toString() {
+            return String.format("Autores con fechas: %d | Vida media: %.1f años | Máxima: %d años", authors, averageYears, maxYears);
+        }
+    }
+
+    private final Path file;
+    private final long createdAt;
+    private final Layout layout;
+    private final ByteBuffer buffer;
+    private final LongBuffer authorIds;
+    private final IntBuffer bookIds;
+    private final IntBuffer downloads;
+    private final IntBuffer bookAuthors;
+    private final IntBuffer languageOffsets;
+    private final IntBuffer languageCodes;
+    private final IntBuffer birthYears;
+    private final IntBuffer deathYears;
+    private final IntBuffer authorNameOffsets;
+    private final List<String> languages;
+
+    private CatalogSnapshot(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("'" + file + "' no es una instantánea del catálogo");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versión de instantánea no soportada en '" + file + "': " + buffer.getInt(4));
+        }
+        this.createdAt = buffer.getLong(8);
+        this.layout = new Layout(buffer.getInt(16), buffer.getInt(20), buffer.getInt(24), buffer.getInt(28),
+                buffer.getInt(32), buffer.getInt(36));
+        if (layout.size() != buffer.capacity()) {
+            throw new IOException("Instantánea incompleta o dañada: '" + file + "' ocupa " + buffer.capacity()
+                    + " bytes y su cabecera indica " + layout.size());
+        }
+
+        this.authorIds = section(layout.authorIds(), Long.BYTES * layout.authors()).asLongBuffer();
+        this.bookIds = ints(layout.bookIds(), layout.books());
+        this.downloads = ints(layout.downloads(), layout.books());
+        this.bookAuthors = ints(layout.bookAuthors(), layout.books());
+        this.languageOffsets = ints(layout.languageOffsets(), layout.books() + 1);
+        this.languageCodes = ints(layout.languageCodes(), layout.languageRefs());
+        this.birthYears = ints(layout.birthYears(), layout.authors());
+        this.deathYears = ints(layout.deathYears(), layout.authors());
+        this.authorNameOffsets = ints(layout.authorNameOffsets(), layout.authors() + 1);
+
+        // El diccionario de idiomas es pequeño (decenas de códigos): se decodifica una vez.
+        IntBuffer languageNameOffsets = ints(layout.languageNameOffsets(), layout.languages() + 1);
+        List<String> names = new ArrayList<>(layout.languages());
+        for (int code = 0; code < layout.languages(); code++) {
+            names.add(text(layout.languageNames(), languageNameOffsets.get(code), languageNameOffsets.get(code + 1)));
+        }
+        this.languages = List.copyOf(names);
+    }
+
+    /**
+     * Mapea una instantánea en memoria. El archivo se puede cerrar (o sustituir) después: el mapeo
+     * sigue siendo válido hasta que la instantánea deja de usarse.
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea demasiado grande para mapearla: '" + file + "'");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(file, buffer.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    private ByteBuffer section(int offset, int length) {
+        return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private IntBuffer ints(int offset, int count) {
+        return section(offset, Integer.BYTES * count).asIntBuffer();
+    }
+
+    private String text(int base, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(base + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public Instant createdAt() {
+        return Instant.ofEpochMilli(createdAt);
+    }
+
+    /** Tamaño del archivo en bytes. */
+    public long sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    public int bookCount() {
+        return layout.books();
+    }
+
+    public int authorCount() {
+        return layout.authors();
+    }
+
+    /** Diccionario de idiomas: el código de un idioma es su posición en esta lista. */
+    public List<String> languages() {
+        return languages;
+    }
+
+    public int bookId(int row) {
+        return bookIds.get(row);
+    }
+
+    public int downloads(int row) {
+        return downloads.get(row);
+    }
+
+    /** Índice del autor del libro, o -1 si no tiene. */
+    public int authorOf(int row) {
+        return bookAuthors.get(row);
+    }
+
+    /** Idiomas del libro, como códigos del diccionario {@link #languages()}. */
+    public int[] languageCodesOf(int row) {
+        int from = languageOffsets.get(row);
+        int[] codes = new int[languageOffsets.get(row + 1) - from];
+        languageCodes.get(from, codes);
+        return codes;
+    }
+
+    /**
+     * Fila de un libro por su ID (búsqueda binaria sobre la columna de IDs), o -1 si no está.
+     */
+    public int findBook(int bookId) {
+        int low = 0;
+        int high = layout.books() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int id = bookIds.get(middle);
+            if (id < bookId) {
+                low = middle + 1;
+            } else if (id > bookId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    public long authorId(int author) {
+        return authorIds.get(author);
+    }
+
+    public String authorName(int author) {
+        return text(layout.authorNames(), authorNameOffsets.get(author), authorNameOffsets.get(author + 1));
+    }
+
+    /** Año de nacimiento, o {@link #UNKNOWN_YEAR}. */
+    public int birthYear(int author) {
+        return birthYears.get(author);
+    }
+
+    /** Año de fallecimiento, o {@link #UNKNOWN_YEAR}. */
+    public int deathYear(int author) {
+        return deathYears.get(author);
+    }
+
+    /**
+     * Descargas de todo el catálogo.
+     */
+    public long totalDownloads() {
+        return IntStream.range(0, layout.books()).parallel().mapToLong(downloads::get).sum();
+    }
+
+    /**
+     * Libros y descargas (total y media) por idioma, de más a menos libros, como
+     * {@code CatalogStatisticsService.byLanguage()}.
+     */
+    public List<LanguageStatistics> languageTotals() {
+        int languageCount = layout.languages();
+        // Por idioma: [2 * código] libros, [2 * código + 1] descargas. Un acumulador por tarea paralela.
+        long[] totals = IntStream.range(0, layout.books()).parallel().collect(
+                () -> new long[2 * languageCount],
+                (acc, row) -> {
+                    int bookDownloads = downloads.get(row);
+                    for (int ref = languageOffsets.get(row), end = languageOffsets.get(row + 1); ref < end; ref++) {
+                        int code = languageCodes.get(ref);
+                        acc[2 * code]++;
+                        acc[2 * code + 1] += bookDownloads;
+                    }
+                },
+                CatalogSnapshot::add);
+
+        List<LanguageStatistics> result = new ArrayList<>(languageCount);
+        for (int code = 0; code < languageCount; code++) {
+            int books = (int) totals[2 * code];
+            if (books > 0) {
+                long total = totals[2 * code + 1];
+                result.add(new LanguageStatistics(languages.get(code), books, total, (double) total / books));
+            }
+        }
+        result.sort(Comparator.comparingInt(LanguageStatistics::books).reversed().thenComparing(LanguageStatistics::language));
+        return result;
+    }
+
+    /**
+     * Distribución de las descargas por orden de magnitud (0, 1-9, 10-99...).
+     */
+    public DownloadDistribution downloadDistribution() {
+        long[] buckets = IntStream.range(0, layout.books()).parallel().collect(
+                () -> new long[DOWNLOAD_BUCKETS],
+                (acc, row) -> acc[bucketOf(downloads.get(row))]++,
+                CatalogSnapshot::add);
+        int max = IntStream.range(0, layout.books()).parallel().map(downloads::get).max().orElse(0);
+        return new DownloadDistribution(layout.books(), totalDownloads(), max, buckets);
+    }
+
+    static int bucketOf(int downloads) {
+        int bucket = 0;
+        for (long bound = 1; downloads >= bound && bucket < DOWNLOAD_BUCKETS - 1; bound *= 10) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Autores vivos en un año: {@code nacimiento <= año} y ({@code fallecimiento >= año} o sin
+     * fallecimiento), como {@code AuthorRepository.findAuthorsAliveInYear}.
+     */
+    public int authorsAliveIn(int year) {
+        return (int) IntStream.range(0, layout.authors()).parallel()
+                .filter(author -> {
+                    int birth = birthYears.get(author);
+                    int death = deathYears.get(author);
+                    return birth != UNKNOWN_YEAR && birth <= year && (death == UNKNOWN_YEAR || death >= year);
+                })
+                .count();
+    }
+
+    /**
+     * Años de vida de los autores con ambas fechas (los intervalos negativos, datos erróneos, no cuentan).
+     */
+    public Lifespans lifespans() {
+        // [0] autores, [1] suma de años, [2] máximo.
+        long[] totals = IntStream.range(0, layout.authors()).parallel().collect(
+                () -> new long[3],
+                (acc, author) -> {
+                    int birth = birthYears.get(author);
+                    int death = deathYears.get(author);
+                    if (birth != UNKNOWN_YEAR && death != UNKNOWN_YEAR && death >= birth) {
+                        acc[0]++;
+                        acc[1] += death - birth;
+                        acc[2] = Math.max(acc[2], death - birth);
+                    }
+                },
+                (a, b) -> {
+                    a[0] += b[0];
+                    a[1] += b[1];
+                    a[2] = Math.max(a[2], b[2]);
+                });
+        return new Lifespans((int) totals[0], totals[0] == 0 ? 0 : (double) totals[1] / totals[0], (int) totals[2]);
+    }
+
+    private static void add(long[] into, long[] other) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += other[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Instantánea '" + file + "' (" + createdAt() + "): " + bookCount() + " libros, " + authorCount()
+                + " autores, " + languages.size() + " idiomas, " + String.format("%.1f MB", sizeInBytes() / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,239 @@
+package com.literalura.literalura.snapshot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exporta el catálogo de la base de datos a una {@link CatalogSnapshot}.
+ * <p>
+ * Lee autores, libros e idiomas con tres recorridos JDBC ordenados por ID, en una transacción de
+ * sólo lectura {@code REPEATABLE READ} para que las tres tablas sean coherentes entre sí, y con
+ * {@code literalura.snapshot.fetch-size} filas por ida y vuelta (sin cargar el resultado entero en el
+ * driver). Las columnas se dimensionan con un {@code count(*)} previo. El archivo se escribe junto al
+ * destino y se renombra al final, así que un lector nunca ve una instantánea a medias.
+ */
+@Component
+public class CatalogSnapshotWriter {
+
+    /**
+     * Columnas de una instantánea, en memoria. Los libros y los autores van ordenados por ID.
+     * @param bookAuthors Índice en {@code authorIds} del autor de cada libro, o -1.
+     * @param languageOffsets Los idiomas del libro i son {@code languageCodes[offsets[i]..offsets[i + 1])}.
+     * @param languages Diccionario: el código de un idioma es su posición.
+     */
+    record Columns(long[] authorIds, String[] authorNames, int[] birthYears, int[] deathYears,
+                   int[] bookIds, int[] downloads, int[] bookAuthors,
+                   int[] languageOffsets, int[] languageCodes, List<String> languages) {
+    }
+
+    /** Resultado de una exportación. */
+    public record ExportReport(Path file, int books, int authors, int languages, long bytes, long elapsedMillis) {
+        @Override
+        public String toString() {
+            return String.format("Instantánea: %s | Libros: %d | Autores: %d | Idiomas: %d | Tamaño: %.1f MB | Tiempo: %d ms",
+                    file, books, authors, languages, bytes / (1024.0 * 1024.0), elapsedMillis);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public CatalogSnapshotWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 @Value("${literalura.snapshot.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Exporta el catálogo completo a {@code file} (lo reemplaza si existe).
+     */
+    public ExportReport export(Path file) throws IOException {
+        long start = System.nanoTime();
+        Columns columns = transactionTemplate.execute(status -> readColumns());
+        long bytes = write(file, columns);
+        return new ExportReport(file, columns.bookIds().length, columns.authorIds().length, columns.languages().size(),
+                bytes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Columns readColumns() {
+        int authorCount = count("SELECT count(*) FROM authors");
+        int bookCount = count("SELECT count(*) FROM books");
+        int languageRows = count("SELECT count(*) FROM book_languages");
+
+        long[] authorIds = new long[authorCount];
+        String[] authorNames = new String[authorCount];
+        int[] birthYears = new int[authorCount];
+        int[] deathYears = new int[authorCount];
+        int[] position = {0};
+        scan("SELECT id, name, birth_year, death_year FROM authors ORDER BY id", rs -> {
+            int i = position[0]++;
+            authorIds[i] = rs.getLong(1);
+            authorNames[i] = rs.getString(2);
+            birthYears[i] = rs.getInt(3);
+            if (rs.wasNull()) {
+                birthYears[i] = CatalogSnapshot.UNKNOWN_YEAR;
+            }
+            deathYears[i] = rs.getInt(4);
+            if (rs.wasNull()) {
+                deathYears[i] = CatalogSnapshot.UNKNOWN_YEAR;
+            }
+        });
+
+        int[] bookIds = new int[bookCount];
+        int[] downloads = new int[bookCount];
+        int[] bookAuthors = new int[bookCount];
+        position[0] = 0;
+        scan("SELECT id, author_id, download_count FROM books ORDER BY id", rs -> {
+            int i = position[0]++;
+            bookIds[i] = rs.getInt(1);
+            long authorId = rs.getLong(2);
+            int author = rs.wasNull() ? -1 : Arrays.binarySearch(authorIds, authorId);
+            bookAuthors[i] = Math.max(author, -1);
+            downloads[i] = rs.getInt(3);
+        });
+
+        // Los idiomas llegan ordenados por libro, como las filas: basta avanzar la fila a la par.
+        int[] languageOffsets = new int[bookCount + 1];
+        int[] languageCodes = new int[languageRows];
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> languages = new ArrayList<>();
+        int[] refs = {0};
+        position[0] = 0;
+        scan("SELECT book_id, language FROM book_languages ORDER BY book_id", rs -> {
+            int bookId = rs.getInt(1);
+            while (position[0] < bookCount && bookIds[position[0]] < bookId) {
+                languageOffsets[++position[0]] = refs[0];
+            }
+            String language = rs.getString(2);
+            if (position[0] == bookCount || bookIds[position[0]] != bookId || language == null || language.isBlank()) {
+                return;
+            }
+            int code = dictionary.computeIfAbsent(language.trim().toLowerCase(Locale.ROOT), key -> {
+                languages.add(key);
+                return languages.size() - 1;
+            });
+            for (int ref = languageOffsets[position[0]]; ref < refs[0]; ref++) {
+                if (languageCodes[ref] == code) {
+                    return; // Idioma repetido en el mismo libro.
+                }
+            }
+            languageCodes[refs[0]++] = code;
+        });
+        while (position[0] < bookCount) {
+            languageOffsets[++position[0]] = refs[0];
+        }
+
+        return new Columns(authorIds, authorNames, birthYears, deathYears, bookIds, downloads, bookAuthors,
+                languageOffsets, Arrays.copyOf(languageCodes, refs[0]), List.copyOf(languages));
+    }
+
+    private int count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return Math.toIntExact(count != null ? count : 0);
+    }
+
+    private void scan(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Escribe las columnas en el formato de {@link CatalogSnapshot}: primero en un archivo temporal
+     * junto al destino y después lo renombra.
+     * @return Tamaño del archivo en bytes.
+     */
+    static long write(Path file, Columns columns) throws IOException {
+        byte[][] authorNames = new byte[columns.authorNames().length][];
+        int authorNameBytes = 0;
+        for (int i = 0; i < authorNames.length; i++) {
+            authorNames[i] = columns.authorNames()[i] == null ? new byte[0]
+                    : columns.authorNames()[i].getBytes(StandardCharsets.UTF_8);
+            authorNameBytes += authorNames[i].length;
+        }
+        byte[][] languageNames = new byte[columns.languages().size()][];
+        int languageNameBytes = 0;
+        for (int i = 0; i < languageNames.length; i++) {
+            languageNames[i] = columns.languages().get(i).getBytes(StandardCharsets.UTF_8);
+            languageNameBytes += languageNames[i].length;
+        }
+
+        CatalogSnapshot.Layout layout = new CatalogSnapshot.Layout(columns.bookIds().length, columns.authorIds().length,
+                languageNames.length, columns.languageCodes().length, authorNameBytes, languageNameBytes);
+        ByteBuffer buffer = ByteBuffer.allocate(layout.size()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(CatalogSnapshot.MAGIC)
+                .putInt(CatalogSnapshot.VERSION)
+                .putLong(System.currentTimeMillis())
+                .putInt(layout.books())
+                .putInt(layout.authors())
+                .putInt(layout.languages())
+                .putInt(layout.languageRefs())
+                .putInt(layout.authorNameBytes())
+                .putInt(layout.languageNameBytes())
+                .position(layout.authorIds());
+        buffer.asLongBuffer().put(columns.authorIds());
+        putInts(buffer, layout.bookIds(), columns.bookIds());
+        putInts(buffer, layout.downloads(), columns.downloads());
+        putInts(buffer, layout.bookAuthors(), columns.bookAuthors());
+        putInts(buffer, layout.languageOffsets(), columns.languageOffsets());
+        putInts(buffer, layout.languageCodes(), columns.languageCodes());
+        putInts(buffer, layout.birthYears(), columns.birthYears());
+        putInts(buffer, layout.deathYears(), columns.deathYears());
+        putInts(buffer, layout.authorNameOffsets(), offsets(authorNames));
+        putInts(buffer, layout.languageNameOffsets(), offsets(languageNames));
+        buffer.position(layout.authorNames());
+        for (byte[] name : authorNames) {
+            buffer.put(name);
+        }
+        for (byte[] name : languageNames) {
+            buffer.put(name);
+        }
+
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temporary, buffer.array());
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return layout.size();
+    }
+
+    private static void putInts(ByteBuffer buffer, int offset, int[] values) {
+        buffer.position(offset);
+        buffer.asIntBuffer().put(values);
+    }
+
+    private static int[] offsets(byte[][] values) {
+        int[] offsets = new int[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            offsets[i + 1] = offsets[i] + values[i].length;
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,59 @@
+-- Esquema del catálogo tal como lo dejaba ddl-auto=update con las entidades de la última versión sin Flyway
+-- (huella de título y puntos de control incluidos), más los índices que usan las consultas.
+-- Es idempotente (IF NOT EXISTS) para poder aplicarse también sobre una base de datos creada por
+-- Hibernate antes de usar Flyway (spring.flyway.baseline-on-migrate con baseline-version=0), sea de esa
+-- versión o de una anterior: a las más antiguas les faltan books.title_fingerprint y sync_checkpoints,
+-- que se añaden aquí.
+
+CREATE TABLE IF NOT EXISTS authors (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       varchar(255) NOT NULL UNIQUE,
+    birth_year integer,
+    death_year integer
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id                integer PRIMARY KEY,
+    title             varchar(255) NOT NULL UNIQUE,
+    title_fingerprint varchar(255) UNIQUE,
+    author_id         bigint NOT NULL CONSTRAINT fk_books_author REFERENCES authors,
+    download_count    integer
+);
+
+-- CREATE TABLE no toca una tabla books ya existente: la huella se añade aparte. Su índice único sólo se crea
+-- si la columna no tiene ya uno (el de la tabla recién creada o el que generó Hibernate con otro nombre).
+ALTER TABLE books ADD COLUMN IF NOT EXISTS title_fingerprint varchar(255);
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+        WHERE i.indrelid = 'books'::regclass AND i.indisunique AND i.indnatts = 1
+          AND a.attname = 'title_fingerprint') THEN
+        CREATE UNIQUE INDEX uk_books_title_fingerprint ON books (title_fingerprint);
+    END IF;
+END $$;
+
+CREATE TABLE IF NOT EXISTS book_languages (
+    book_id  integer NOT NULL CONSTRAINT fk_book_languages_book REFERENCES books,
+    language varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS sync_checkpoints (
+    name       varchar(255) PRIMARY KEY,
+    last_id    integer NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL
+);
+
+-- Idiomas de cada libro (carga de la colección) y libros de un idioma en orden de ID (opción 5, facetas).
+CREATE INDEX IF NOT EXISTS idx_book_languages_book_id ON book_languages (book_id);
+CREATE INDEX IF NOT EXISTS idx_book_languages_language ON book_languages (language, book_id);
+
+-- Libros de un autor: JOIN de los listados y borrado/actualización de autores (clave foránea).
+CREATE INDEX IF NOT EXISTS idx_books_author_id ON books (author_id);
+
+-- Búsquedas sin distinguir mayúsculas: Spring Data genera upper(columna) = upper(?)
+-- (findByTitleIgnoreCase, findByNameIgnoreCase) y AuthorResolver compara lower(trim(name)).
+CREATE INDEX IF NOT EXISTS idx_books_title_upper ON books (upper(title));
+CREATE INDEX IF NOT EXISTS idx_authors_name_upper ON authors (upper(name));
+CREATE INDEX IF NOT EXISTS idx_authors_name_normalized ON authors (lower(trim(name)));
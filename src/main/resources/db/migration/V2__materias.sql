@@ -0,0 +1,18 @@
+-- Materias (subjects) de los libros, con diccionario: cada texto se guarda una sola vez en subjects y
+-- book_subjects sólo relaciona dos enteros, en lugar de repetir la cadena en cada libro.
+
+CREATE TABLE IF NOT EXISTS subjects (
+    id   integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(1000) NOT NULL UNIQUE
+);
+
+-- La clave primaria (book_id, subject_id) sirve también para leer las materias de un libro.
+CREATE TABLE IF NOT EXISTS book_subjects (
+    book_id    integer NOT NULL CONSTRAINT fk_book_subjects_book REFERENCES books,
+    subject_id integer NOT NULL CONSTRAINT fk_book_subjects_subject REFERENCES subjects,
+    PRIMARY KEY (book_id, subject_id)
+);
+
+-- Libros de una materia en orden de ID (facetas por materia).
+CREATE INDEX IF NOT EXISTS idx_book_subjects_subject ON book_subjects (subject_id, book_id);
+
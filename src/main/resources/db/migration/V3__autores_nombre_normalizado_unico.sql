@@ -0,0 +1,17 @@
+-- Un autor por nombre normalizado (sin espacios en los extremos y en minúsculas), la misma clave con la que
+-- AuthorResolver y CatalogBulkWriter buscan los autores. Con la restricción sólo en el nombre exacto, dos
+-- escritores a la vez con "Twain, Mark" y "twain, mark " insertaban dos autores.
+
+-- Las bases de datos anteriores pueden tener ya esos duplicados: sus libros pasan al autor de menor ID.
+UPDATE books b
+SET author_id = d.keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY lower(trim(name))) AS keep_id FROM authors) d
+WHERE b.author_id = d.id AND d.id <> d.keep_id;
+
+DELETE FROM authors a
+USING authors k
+WHERE lower(trim(k.name)) = lower(trim(a.name)) AND k.id < a.id;
+
+-- El índice único sustituye al índice normal con la misma expresión que usan las búsquedas.
+DROP INDEX IF EXISTS idx_authors_name_normalized;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_authors_name_normalized ON authors (lower(trim(name)));
@@ -0,0 +1,140 @@
+package com.literalura.literalura.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.service.BookBatchWriter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.Environment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogApiControllerTest {
+
+    private static EmbeddedCatalog catalog;
+    private static HttpClient http;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void start() throws Exception {
+        catalog = EmbeddedCatalog.start("--spring.profiles.active=api", "--server.port=0");
+        catalog.seed(250);
+        http = HttpClient.newHttpClient();
+        baseUrl = "http://127.0.0.1:" + catalog.bean(Environment.class).getProperty("local.server.port") + "/api";
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        catalog.close();
+    }
+
+    private static HttpResponse<String> get(String path, String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void pagesThroughAllBooksByKey() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String next = "0";
+        while (next != null) {
+            JsonObject page = JsonParser.parseString(get("/books?limit=40&after=" + next).body()).getAsJsonObject();
+            for (JsonElement book : page.getAsJsonArray("items")) {
+                ids.add(book.getAsJsonObject().get("id").getAsInt());
+            }
+            next = page.get("next").isJsonNull() ? null : page.get("next").getAsString();
+        }
+
+        assertEquals(250, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+    }
+
+    @Test
+    void answersNotModifiedUntilTheCatalogChanges() throws Exception {
+        HttpResponse<String> first = get("/books?limit=5");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertTrue(first.headers().firstValue("Cache-Control").orElseThrow().contains("max-age"));
+
+        assertEquals(304, get("/books?limit=5", "If-None-Match", etag).statusCode());
+
+        catalog.bean(BookBatchWriter.class).write(List.of(
+                new Book(990001, "A brand new title", List.of(new Author("New, Author", 1900, 1980)), null, List.of("en"), 1)));
+        HttpResponse<String> changed = get("/books?limit=5", "If-None-Match", etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void compressesLargeResponsesWithTheirOwnEtag() throws Exception {
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/books?limit=100"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(""));
+        assertTrue(response.headers().firstValue("ETag").orElseThrow().endsWith("-gzip\""));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            JsonObject page = JsonParser.parseString(new String(body.readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+            assertEquals(100, page.getAsJsonArray("items").size());
+        }
+        assertFalse(CatalogApiController.acceptsGzip("gzip;q=0, identity"));
+        assertTrue(CatalogApiController.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+    }
+
+    @Test
+    void filtersAuthorsAliveInAYear() throws Exception {
+        JsonObject page = JsonParser.parseString(get("/authors/alive?year=1850&limit=500").body()).getAsJsonObject();
+
+        assertTrue(page.getAsJsonArray("items").size() > 0);
+        for (JsonElement element : page.getAsJsonArray("items")) {
+            JsonObject author = element.getAsJsonObject();
+            assertTrue(author.get("birthYear").getAsInt() <= 1850);
+            assertTrue(author.get("deathYear").isJsonNull() || author.get("deathYear").getAsInt() >= 1850);
+        }
+    }
+
+    @Test
+    void servesStatisticsAndRankings() throws Exception {
+        JsonObject stats = JsonParser.parseString(get("/stats").body()).getAsJsonObject();
+        assertTrue(stats.getAsJsonObject("total").get("books").getAsInt() >= 250);
+        assertTrue(stats.getAsJsonArray("languages").size() > 0);
+
+        List<Integer> downloads = new ArrayList<>();
+        for (JsonElement book : JsonParser.parseString(get("/stats/top-books?limit=5").body()).getAsJsonArray()) {
+            downloads.add(book.getAsJsonObject().get("downloadCount").getAsInt());
+        }
+        assertEquals(5, downloads.size());
+        for (int i = 1; i < downloads.size(); i++) {
+            assertTrue(downloads.get(i - 1) >= downloads.get(i));
+        }
+
+        JsonObject author = JsonParser.parseString(get("/stats/top-authors?limit=1").body()).getAsJsonArray()
+                .get(0).getAsJsonObject();
+        long authorId = author.getAsJsonObject("author").get("id").getAsLong();
+        JsonObject count = JsonParser.parseString(get("/authors/" + authorId + "/book-count").body()).getAsJsonObject();
+        assertEquals(author.get("books").getAsInt(), count.get("books").getAsInt());
+    }
+}
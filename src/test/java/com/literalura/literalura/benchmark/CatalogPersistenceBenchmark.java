@@ -0,0 +1,88 @@
+package com.literalura.literalura.benchmark;
+
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.service.AuthorResolver;
+import com.literalura.literalura.service.BookBatchWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas de escritura contra PostgreSQL embebido:
+ * <ul>
+ *     <li>{@code resolveAuthorAndSave}: la opción 1 del menú (resolver el autor y {@code bookRepository.save}).</li>
+ *     <li>{@code writePage}: una página de 32 libros con {@link BookBatchWriter}, como la ingesta masiva.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogPersistenceBenchmark {
+
+    @Param({"5000"})
+    public int catalogSize;
+
+    private EmbeddedCatalog catalog;
+    private AuthorResolver authorResolver;
+    private BookRepository bookRepository;
+    private BookBatchWriter bookBatchWriter;
+    private List<Book> templates;
+    private int nextId;
+
+    @Setup
+    public void startDatabase() throws IOException {
+        catalog = EmbeddedCatalog.start();
+        catalog.seed(catalogSize);
+        authorResolver = catalog.bean(AuthorResolver.class);
+        bookRepository = catalog.bean(BookRepository.class);
+        bookBatchWriter = catalog.bean(BookBatchWriter.class);
+        templates = EmbeddedCatalog.fixtureBooks();
+        nextId = 1_000_000;
+    }
+
+    @TearDown
+    public void stopDatabase() throws IOException {
+        catalog.close();
+    }
+
+    private Book nextBook() {
+        int id = nextId++;
+        return EmbeddedCatalog.copyOf(templates.get(id % templates.size()), id);
+    }
+
+    @Benchmark
+    public Book resolveAuthorAndSave() {
+        Book book = nextBook();
+        Author author = authorResolver.resolve(AuthorResolver.primaryAuthorOf(book));
+        book.setAuthor(author);
+        return bookRepository.save(book);
+    }
+
+    @Benchmark
+    public BookBatchWriter.BatchResult writePage() {
+        List<Book> page = new ArrayList<>(32);
+        for (int i = 0; i < 32; i++) {
+            page.add(nextBook());
+        }
+        return bookBatchWriter.write(page);
+    }
+}
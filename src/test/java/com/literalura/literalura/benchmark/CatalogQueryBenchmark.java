@@ -0,0 +1,111 @@
+package com.literalura.literalura.benchmark;
+
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.dto.BookSummary;
+import com.literalura.literalura.search.AuthorLifespanService;
+import com.literalura.literalura.search.BookFilter;
+import com.literalura.literalura.search.CatalogFacetService;
+import com.literalura.literalura.service.CatalogQueryService;
+import com.literalura.literalura.service.CatalogQueryService.KeysetPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas detrás de las opciones 2 a 5 del menú contra PostgreSQL embebido, con un catálogo
+ * sintético generado a partir de las páginas de ejemplo. Para las opciones 4 y 5 se mide tanto
+ * la consulta SQL como el índice en memoria que la sustituye. Las dos últimas comparan la última
+ * página del listado con OFFSET (menú) y por clave (API).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogQueryBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 50);
+
+    @Param({"20000"})
+    public int catalogSize;
+
+    private EmbeddedCatalog catalog;
+    private CatalogQueryService queries;
+    private AuthorLifespanService lifespans;
+    private CatalogFacetService facets;
+
+    @Setup
+    public void startDatabase() throws IOException {
+        catalog = EmbeddedCatalog.start();
+        catalog.seed(catalogSize);
+        queries = catalog.bean(CatalogQueryService.class);
+        lifespans = catalog.bean(AuthorLifespanService.class);
+        facets = catalog.bean(CatalogFacetService.class);
+        // Los índices se cargan en la primera consulta; no es lo que se quiere medir.
+        lifespans.countAlive(1850);
+        facets.languageBreakdown();
+    }
+
+    @TearDown
+    public void stopDatabase() throws IOException {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Slice<BookSummary> option2ListBooks() {
+        return queries.listBooks(FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<AuthorSummary> option3ListAuthors() {
+        return queries.listAuthors(FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<AuthorSummary> option4AliveInYearSql() {
+        return queries.listAuthorsAliveInYear(1850, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<AuthorSummary> option4AliveInYearIndex() {
+        return lifespans.aliveIn(1850);
+    }
+
+    @Benchmark
+    public Slice<BookSummary> option5BooksByLanguageSql() {
+        return queries.listBooksByLanguage("en", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public int option5CountByLanguageIndex() {
+        return facets.count(BookFilter.ANY.withLanguages(Set.of("en"), false));
+    }
+
+    @Benchmark
+    public Slice<BookSummary> lastPageOffset() {
+        return queries.listBooks(PageRequest.of(catalogSize / 50 - 1, 50));
+    }
+
+    @Benchmark
+    public KeysetPage<BookSummary, Integer> lastPageKeyset() {
+        return queries.listBooksAfter(catalogSize - 50, 50);
+    }
+}
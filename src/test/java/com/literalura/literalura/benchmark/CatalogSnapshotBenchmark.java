@@ -0,0 +1,102 @@
+package com.literalura.literalura.benchmark;
+
+import com.literalura.literalura.dto.LanguageStatistics;
+import com.literalura.literalura.repository.AuthorRepository;
+import com.literalura.literalura.snapshot.CatalogSnapshot;
+import com.literalura.literalura.snapshot.CatalogSnapshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas sobre todo el catálogo con la instantánea columnar frente a la base de datos: descargas
+ * por idioma ({@code GROUP BY} en SQL) y autores vivos en un año (la consulta JPQL del menú), además
+ * del tiempo de abrir la instantánea. Con {@code -prof gc} se ve la memoria que reserva cada camino.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    private static final String LANGUAGE_TOTALS_SQL = """
+            SELECT lower(trim(l.language)) AS language, count(*) AS books, sum(coalesce(b.download_count, 0)) AS downloads
+            FROM (SELECT DISTINCT book_id, lower(trim(language)) AS language FROM book_languages) l
+            JOIN books b ON b.id = l.book_id
+            GROUP BY 1 ORDER BY books DESC, language""";
+
+    @Param({"20000"})
+    public int catalogSize;
+
+    private EmbeddedCatalog catalog;
+    private JdbcTemplate jdbcTemplate;
+    private AuthorRepository authorRepository;
+    private Path file;
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void exportSnapshot() throws IOException {
+        catalog = EmbeddedCatalog.start();
+        catalog.seed(catalogSize);
+        jdbcTemplate = catalog.bean(JdbcTemplate.class);
+        authorRepository = catalog.bean(AuthorRepository.class);
+        file = Files.createTempFile("literalura", ".snapshot");
+        catalog.bean(CatalogSnapshotWriter.class).export(file);
+        snapshot = CatalogSnapshot.open(file);
+    }
+
+    @TearDown
+    public void stopDatabase() throws IOException {
+        catalog.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public CatalogSnapshot openSnapshot() throws IOException {
+        return CatalogSnapshot.open(file);
+    }
+
+    @Benchmark
+    public List<LanguageStatistics> languageTotalsSnapshot() {
+        return snapshot.languageTotals();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> languageTotalsSql() {
+        return jdbcTemplate.queryForList(LANGUAGE_TOTALS_SQL);
+    }
+
+    @Benchmark
+    public CatalogSnapshot.DownloadDistribution downloadDistributionSnapshot() {
+        return snapshot.downloadDistribution();
+    }
+
+    @Benchmark
+    public int authorsAliveSnapshot() {
+        return snapshot.authorsAliveIn(1850);
+    }
+
+    @Benchmark
+    public int authorsAliveJpa() {
+        return authorRepository.findAuthorsAliveInYear(1850).size();
+    }
+}
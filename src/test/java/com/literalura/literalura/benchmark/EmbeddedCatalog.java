@@ -0,0 +1,131 @@
+package com.literalura.literalura.benchmark;
+
+import com.literalura.literalura.LiterAluraApplication;
+import com.literalura.literalura.client.GutendexJsonParser;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.service.BookBatchWriter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL embebido más el contexto de Spring de la aplicación (sin menú), para medir
+ * la persistencia y las consultas contra una base de datos real sin depender de la instalación local.
+ * También lo usan los tests que necesitan SQL específico de PostgreSQL.
+ */
+public final class EmbeddedCatalog implements AutoCloseable {
+
+    private static final String[] FIXTURES = {"page-1.json", "page-2.json", "page-3.json"};
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedCatalog(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * Arranca PostgreSQL embebido y el contexto de la aplicación (sin menú).
+     * @param extraArgs Propiedades adicionales como argumentos ({@code --clave=valor}), p. ej. la URL de un servidor de prueba.
+     */
+    public static EmbeddedCatalog start(String... extraArgs) throws IOException {
+        return start(EmbeddedPostgres.builder().start(), extraArgs);
+    }
+
+    /**
+     * Arranca el contexto de la aplicación sobre un PostgreSQL embebido ya preparado (p. ej. con un esquema
+     * antiguo para probar las migraciones). El catálogo se queda con él y lo cierra en {@link #close()}.
+     */
+    public static EmbeddedCatalog start(EmbeddedPostgres postgres, String... extraArgs) {
+        // Como argumentos de línea de comandos para que prevalezcan sobre application.properties.
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                // El esquema lo crea Flyway; Hibernate sólo comprueba que coincide con las entidades.
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--literalura.console.enabled=false",
+                "--gutendex.cache.enabled=false"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LiterAluraApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+        return new EmbeddedCatalog(postgres, context);
+    }
+
+    /**
+     * URL JDBC de la base de datos embebida, para arrancar otros procesos contra ella.
+     */
+    public String jdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Libros de las páginas de ejemplo de Gutendex (96 libros, tal como los devuelve la API).
+     */
+    public static List<Book> fixtureBooks() throws IOException {
+        GutendexJsonParser parser = new GutendexJsonParser();
+        List<Book> books = new ArrayList<>();
+        for (String fixture : FIXTURES) {
+            try (InputStream in = EmbeddedCatalog.class.getResourceAsStream("/gutendex/" + fixture)) {
+                parser.stream(in, books::add);
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Copia de un libro de ejemplo con otro ID y título, para poder insertarlo de nuevo.
+     */
+    public static Book copyOf(Book template, int id) {
+        List<Author> authors = new ArrayList<>();
+        if (template.getApiAuthors() != null) {
+            for (Author author : template.getApiAuthors()) {
+                authors.add(new Author(author.getName(), author.getBirthYear(), author.getDeathYear()));
+            }
+        }
+        return new Book(id, template.getTitle() + " (" + id + ")", authors, null,
+                new ArrayList<>(template.getLanguages()), template.getDownloadCount());
+    }
+
+    /**
+     * Llena la base de datos con {@code count} libros generados a partir de los de ejemplo,
+     * por lotes con {@link BookBatchWriter} (como la ingesta masiva).
+     */
+    public void seed(int count) throws IOException {
+        List<Book> templates = fixtureBooks();
+        BookBatchWriter writer = bean(BookBatchWriter.class);
+        List<Book> batch = new ArrayList<>(256);
+        for (int id = 1; id <= count; id++) {
+            batch.add(copyOf(templates.get(id % templates.size()), id));
+            if (batch.size() == 256 || id == count) {
+                writer.write(batch);
+                batch = new ArrayList<>(256);
+            }
+        }
+        // Estadísticas al día, como tendría una base de datos en uso tras el autovacuum.
+        bean(JdbcTemplate.class).execute("ANALYZE");
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
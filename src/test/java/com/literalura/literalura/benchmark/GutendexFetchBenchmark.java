@@ -0,0 +1,73 @@
+package com.literalura.literalura.benchmark;
+
+import com.literalura.literalura.client.GutendexClient;
+import com.literalura.literalura.client.GutendexJsonParser;
+import com.literalura.literalura.client.GutendexResponseCache;
+import com.literalura.literalura.client.GutendexStubServer;
+import com.literalura.literalura.model.GutendexResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Descarga y parseo de páginas de Gutendex contra el servidor local de ejemplo
+ * ({@link GutendexStubServer}), sin red externa ni límites de la API real.
+ * Mide la ruta completa HTTP → JSON en flujo → {@link GutendexResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GutendexFetchBenchmark {
+
+    private GutendexStubServer stub;
+    private GutendexClient client;
+    private URI firstPage;
+
+    @Setup
+    public void startStub() {
+        stub = new GutendexStubServer();
+        client = new GutendexClient(new GutendexJsonParser(), GutendexResponseCache.disabled(), stub.baseUrl(),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 4);
+        firstPage = client.searchUri(null, null);
+    }
+
+    @TearDown
+    public void stopStub() {
+        client.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public GutendexResponse fetchPage() throws IOException, InterruptedException {
+        return client.fetchPage(firstPage);
+    }
+
+    @Benchmark
+    public GutendexResponse streamPage(Blackhole blackhole) throws IOException, InterruptedException {
+        return client.streamPage(firstPage, blackhole::consume);
+    }
+
+    @Benchmark
+    public Object fetchThreePagesConcurrently() throws IOException, InterruptedException {
+        return GutendexClient.join(client.fetchPageAsync(firstPage)
+                .thenCombine(client.fetchPageAsync(GutendexClient.pageUri(firstPage, 2)), (a, b) -> b)
+                .thenCombine(client.fetchPageAsync(GutendexClient.pageUri(firstPage, 3)), (a, b) -> b));
+    }
+}
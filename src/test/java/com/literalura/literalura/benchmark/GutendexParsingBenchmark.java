@@ -0,0 +1,76 @@
+package com.literalura.literalura.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.literalura.literalura.client.GutendexJsonParser;
+import com.literalura.literalura.model.GutendexResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el parseo anterior (cuerpo completo en un String + Gson reflexivo con pretty printing)
+ * con el parser en flujo de {@link GutendexJsonParser} sobre una página real de 32 resultados.
+ * Ejecutar con el perfilador de GC ({@code -prof gc}) para ver los bytes asignados por página
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GutendexParsingBenchmark {
+
+    private final Gson reflectiveGson = new GsonBuilder().setPrettyPrinting().create();
+    private final GutendexJsonParser parser = new GutendexJsonParser();
+    private byte[] page;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        try (InputStream in = GutendexParsingBenchmark.class.getResourceAsStream("/gutendex/page-1.json")) {
+            page = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public GutendexResponse reflectiveGsonFromString() {
+        String body = new String(page, StandardCharsets.UTF_8);
+        return reflectiveGson.fromJson(body, GutendexResponse.class);
+    }
+
+    @Benchmark
+    public GutendexResponse streamingParser() throws IOException {
+        return parser.parse(new ByteArrayInputStream(page));
+    }
+
+    @Benchmark
+    public GutendexResponse streamingParserOneByOne(Blackhole blackhole) throws IOException {
+        return parser.stream(new ByteArrayInputStream(page), blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GutendexParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,197 @@
+package com.literalura.literalura.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tiempo de arranque de la aplicación empaquetada, de principio a fin: cada ejecución es un proceso
+ * {@code java -jar} nuevo contra PostgreSQL embebido que lista los libros (opción 2) y sale.
+ * Se mide el tiempo hasta el primer menú (reloj de pared desde que se lanza el proceso, y el tiempo de
+ * la JVM que imprime {@code literalura.startup.report}) y hasta que termina la primera consulta.
+ * <p>
+ * Lo ejecuta el perfil Maven "startup", que además genera lo que se compara (ver README):
+ * <ul>
+ *     <li>{@code train <jar extraído>}: ejecución de entrenamiento que escribe el archivo CDS
+ *     ({@code application.jsa}) junto al jar extraído.</li>
+ *     <li>{@code measure <jar> <jar extraído> <ejecuciones> <csv>}: mide cada modo de arranque, imprime
+ *     la mediana y el mínimo y guarda todas las muestras en un CSV para comparar entre versiones.</li>
+ * </ul>
+ */
+public final class StartupBenchmark {
+
+    /** Libros del catálogo de prueba: la primera consulta lista todos. */
+    private static final int CATALOG_SIZE = 500;
+    /** Ejecuciones descartadas por modo (caché de disco del sistema operativo). */
+    private static final int WARMUP_RUNS = 1;
+    // Sólo ASCII: la salida del proceso hijo depende de la codificación de la consola.
+    private static final String STARTUP_LINE = "Tiempo hasta el men";
+    private static final String MENU_LINE = "--- MEN";
+
+    /** Un modo de arranque: opciones de la JVM, jar y argumentos de la aplicación. */
+    private record Mode(String name, List<String> jvmOptions, Path jar, List<String> appArgs) {
+    }
+
+    /** Una ejecución, en milisegundos. */
+    private record Sample(long wallToMenu, long jvmToMenu, long wallToFirstAnswer) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Desde el hilo main, DevTools reiniciaría este main con los argumentos de EmbeddedCatalog.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        if (args.length == 2 && args[0].equals("train")) {
+            train(Path.of(args[1]));
+        } else if (args.length == 5 && args[0].equals("measure")) {
+            measure(Path.of(args[1]), Path.of(args[2]), Integer.parseInt(args[3]), Path.of(args[4]));
+        } else {
+            System.err.println("Uso: StartupBenchmark train <jar extraído> | measure <jar> <jar extraído> <ejecuciones> <csv>");
+            System.exit(2);
+        }
+    }
+
+    private static Path archiveOf(Path extractedJar) {
+        return extractedJar.resolveSibling("application.jsa");
+    }
+
+    /**
+     * Arranca el contexto completo (sin menú) una vez, con AOT, y guarda al salir las clases cargadas
+     * en el archivo CDS. Necesita la base de datos: Flyway e Hibernate se conectan al arrancar.
+     */
+    private static void train(Path extractedJar) throws Exception {
+        Path archive = archiveOf(extractedJar);
+        Files.deleteIfExists(archive);
+        try (EmbeddedCatalog catalog = EmbeddedCatalog.start()) {
+            List<String> command = new ArrayList<>(List.of(java(),
+                    "-XX:ArchiveClassesAtExit=" + archive,
+                    "-Dspring.aot.enabled=true",
+                    "-Dspring.context.exit=onRefresh",
+                    "-jar", extractedJar.toString()));
+            command.addAll(databaseArgs(catalog.jdbcUrl()));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            if (!process.waitFor(5, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+            }
+            if (!Files.exists(archive)) {
+                throw new IllegalStateException("La ejecución de entrenamiento no generó " + archive
+                        + " (código de salida " + process.exitValue() + ")");
+            }
+        }
+        System.out.println("Archivo CDS: " + archive + " (" + Files.size(archive) / (1024 * 1024) + " MB)");
+    }
+
+    private static void measure(Path jar, Path extractedJar, int runs, Path csv) throws Exception {
+        List<String> aotAndCds = List.of("-XX:SharedArchiveFile=" + archiveOf(extractedJar), "-Dspring.aot.enabled=true");
+        List<Mode> modes = List.of(
+                new Mode("jar", List.of(), jar, List.of()),
+                new Mode("jar + fast", List.of(), jar, List.of("--spring.profiles.active=fast")),
+                new Mode("aot + cds", aotAndCds, extractedJar, List.of()),
+                new Mode("aot + cds + fast", aotAndCds, extractedJar, List.of("--spring.profiles.active=fast")));
+
+        try (EmbeddedCatalog catalog = EmbeddedCatalog.start();
+             PrintWriter samples = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+            catalog.seed(CATALOG_SIZE);
+            samples.println("mode,run,wall_to_menu_ms,jvm_to_menu_ms,wall_to_first_answer_ms");
+
+            List<String> report = new ArrayList<>();
+            report.add(String.format("%-18s %22s %22s %22s", "Modo", "Menú (pared)", "Menú (JVM)", "1ª consulta (pared)"));
+            for (Mode mode : modes) {
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    run(mode, catalog.jdbcUrl());
+                }
+                List<Sample> results = new ArrayList<>(runs);
+                for (int i = 1; i <= runs; i++) {
+                    Sample sample = run(mode, catalog.jdbcUrl());
+                    results.add(sample);
+                    samples.printf("%s,%d,%d,%d,%d%n", mode.name(), i, sample.wallToMenu(), sample.jvmToMenu(), sample.wallToFirstAnswer());
+                    System.out.printf("%s #%d: menú en %d ms (JVM %d ms), primera consulta en %d ms%n",
+                            mode.name(), i, sample.wallToMenu(), sample.jvmToMenu(), sample.wallToFirstAnswer());
+                }
+                report.add(String.format("%-18s %22s %22s %22s", mode.name(),
+                        summary(results, Sample::wallToMenu), summary(results, Sample::jvmToMenu),
+                        summary(results, Sample::wallToFirstAnswer)));
+            }
+
+            System.out.println("\n--- ARRANQUE (mediana / mínimo de " + runs + " ejecuciones) ---");
+            report.forEach(System.out::println);
+            System.out.println("Muestras: " + csv);
+        }
+    }
+
+    private static String summary(List<Sample> samples, ToLongFunction<Sample> metric) {
+        long[] values = samples.stream().mapToLong(metric).sorted().toArray();
+        return values[values.length / 2] + " / " + values[0] + " ms";
+    }
+
+    /**
+     * Lanza la aplicación, elige la opción 2 y luego 0, y toma los tiempos de su salida.
+     */
+    private static Sample run(Mode mode, String jdbcUrl) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(mode.jvmOptions());
+        command.add("-jar");
+        command.add(mode.jar().toString());
+        command.addAll(databaseArgs(jdbcUrl));
+        command.add("--literalura.startup.report=true");
+        command.addAll(mode.appArgs());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (OutputStream in = process.getOutputStream()) {
+            in.write("2\n0\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        long wallToMenu = -1;
+        long jvmToMenu = -1;
+        long wallToFirstAnswer = -1;
+        int menus = 0;
+        Deque<String> tail = new ArrayDeque<>();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.ISO_8859_1))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (line.startsWith(STARTUP_LINE)) {
+                    wallToMenu = elapsed;
+                    jvmToMenu = Long.parseLong(line.replaceAll("\\D", ""));
+                } else if (line.startsWith(MENU_LINE) && ++menus == 2) {
+                    // El menú vuelve a aparecer cuando la opción 2 ha terminado.
+                    wallToFirstAnswer = elapsed;
+                }
+                tail.addLast(line);
+                if (tail.size() > 20) {
+                    tail.removeFirst();
+                }
+            }
+        }
+        if (!process.waitFor(2, TimeUnit.MINUTES) || process.exitValue() != 0 || wallToFirstAnswer < 0) {
+            process.destroyForcibly();
+            throw new IllegalStateException("El modo '" + mode.name() + "' no llegó a responder:\n" + String.join("\n", tail));
+        }
+        return new Sample(wallToMenu, jvmToMenu, wallToFirstAnswer);
+    }
+
+    private static List<String> databaseArgs(String jdbcUrl) {
+        return List.of(
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=");
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
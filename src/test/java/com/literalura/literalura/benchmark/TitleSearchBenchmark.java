@@ -0,0 +1,94 @@
+package com.literalura.literalura.benchmark;
+
+import com.literalura.literalura.search.TitleSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la búsqueda con el índice de trigramas contra el recorrido completo que hace
+ * {@code lower(title) LIKE '%x%'} (aquí, {@code toLowerCase().contains()} sobre todos los títulos),
+ * con un catálogo sintético del tamaño de Gutendex (~70 000 libros).
+ * El recorrido en la base de datos es además más lento: lee cada fila de la tabla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TitleSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mer", "ti", "an", "dro", "sel", "vu", "pra", "ne",
+            "or", "qui", "jo", "te", "ble", "fin", "gar", "ho", "li", "sta"};
+
+    @Param({"70000"})
+    public int books;
+
+    @Param({"merti anvu", "quijote"})
+    public String query;
+
+    private final TitleSearchIndex index = new TitleSearchIndex();
+    private List<String> titles;
+
+    @Setup
+    public void buildCatalog() {
+        Random random = new Random(42);
+        titles = new ArrayList<>(books);
+        for (int id = 0; id < books; id++) {
+            StringBuilder title = new StringBuilder();
+            int words = 2 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                int syllables = 2 + random.nextInt(2);
+                for (int s = 0; s < syllables; s++) {
+                    title.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+            }
+            titles.add(title.toString());
+            index.index(id, title.toString(), random.nextInt(100_000));
+        }
+    }
+
+    @Benchmark
+    public List<TitleSearchIndex.Hit> trigramIndex() {
+        return index.search(query, 10);
+    }
+
+    @Benchmark
+    public List<String> likeScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>();
+        for (String title : titles) {
+            if (title.toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(title);
+            }
+        }
+        return matches;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TitleSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
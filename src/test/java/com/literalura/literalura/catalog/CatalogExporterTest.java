@@ -0,0 +1,64 @@
+package com.literalura.literalura.catalog;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.repository.CatalogBulkWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportsCsvAndJsonLines() throws Exception {
+        try (EmbeddedCatalog catalog = EmbeddedCatalog.start()) {
+            catalog.bean(CatalogBulkWriter.class).write(List.of(
+                    new Book(84, "Frankenstein; Or, The \"Modern\" Prometheus",
+                            List.of(new Author("Shelley, Mary Wollstonecraft", 1797, 1851)), null, List.of("fr", "en"), 120),
+                    new Book(2000, "Don Quijote", List.of(new Author("Cervantes Saavedra, Miguel de", 1547, 1616)),
+                            null, List.of("es"), null)));
+            CatalogExporter exporter = catalog.bean(CatalogExporter.class);
+
+            Path csv = directory.resolve("catalogo.csv.gz");
+            CatalogExporter.ExportReport report = exporter.export(csv, null, false);
+            assertEquals(CatalogExporter.Format.CSV, report.format());
+            assertTrue(report.gzip());
+            assertEquals(2, report.books());
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(csv)), StandardCharsets.UTF_8))) {
+                assertEquals(List.of(CatalogExporter.CSV_HEADER,
+                        "84,\"Frankenstein; Or, The \"\"Modern\"\" Prometheus\",\"Shelley, Mary Wollstonecraft\",1797,1851,\"en,fr\",120",
+                        "2000,Don Quijote,\"Cervantes Saavedra, Miguel de\",1547,1616,es,"), lines.lines().toList());
+            }
+
+            // Reemplaza una exportación anterior sin dejar el archivo temporal.
+            Path jsonl = directory.resolve("catalogo.jsonl");
+            Files.writeString(jsonl, "exportación anterior\n");
+            assertEquals(2, exporter.export(jsonl, null, false).books());
+            List<String> lines = Files.readAllLines(jsonl);
+            assertEquals(2, lines.size());
+            assertFalse(Files.exists(directory.resolve("catalogo.jsonl.tmp")));
+            JsonObject first = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+            assertEquals("Frankenstein; Or, The \"Modern\" Prometheus", first.get("title").getAsString());
+            assertEquals(2, first.getAsJsonArray("languages").size());
+            assertTrue(JsonParser.parseString(lines.get(1)).getAsJsonObject().get("downloadCount").isJsonNull());
+        }
+    }
+}
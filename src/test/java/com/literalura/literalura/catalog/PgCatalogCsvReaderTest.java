@@ -0,0 +1,70 @@
+package com.literalura.literalura.catalog;
+
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PgCatalogCsvReaderTest {
+
+    private static final String CATALOG = "\uFEFFText#,Type,Issued,Title,Language,Authors,Subjects,LoCC,Bookshelves\r\n"
+            + "84,Text,1993-10-01,\"Frankenstein; Or, The Modern Prometheus\",en,"
+            + "\"Shelley, Mary Wollstonecraft, 1797-1851\",\"Horror tales; Science fiction\",PR,Gothic Fiction\r\n"
+            + "10001,Sound,2003-01-01,Some Audio Book,en,,,,\r\n"
+            + "2000,Text,1999-12-01,\"Don Quijote\",es,\"Cervantes Saavedra, Miguel de, 1547-1616\",,,\r\n"
+            + "996,Text,1997-08-01,\"Don Quixote\nVolume \"\"I\"\"\",en; fr,"
+            + "\"Jarvis, Charles, 1675?-1739 [Translator]; Cervantes Saavedra, Miguel de, 1547-1616\",,,";
+
+    @Test
+    void readsQuotedMultiLineRecordsAndSkipsNonText() throws Exception {
+        try (PgCatalogCsvReader reader = new PgCatalogCsvReader(new StringReader(CATALOG))) {
+            Book frankenstein = reader.next();
+            assertEquals(84, frankenstein.getId());
+            assertEquals("Frankenstein; Or, The Modern Prometheus", frankenstein.getTitle());
+            assertEquals(List.of("en"), frankenstein.getLanguages());
+            assertEquals("Shelley, Mary Wollstonecraft", frankenstein.getApiAuthors().get(0).getName());
+            assertEquals(List.of("Horror tales", "Science fiction"), frankenstein.getSubjects());
+
+            Book quijote = reader.next();
+            assertEquals(2000, quijote.getId());
+            assertEquals(List.of(), quijote.getSubjects());
+
+            Book quixote = reader.next();
+            assertEquals("Don Quixote\nVolume \"I\"", quixote.getTitle());
+            assertEquals(List.of("en", "fr"), quixote.getLanguages());
+            // El traductor pasa detrás del autor.
+            assertEquals("Cervantes Saavedra, Miguel de", quixote.getApiAuthors().get(0).getName());
+            assertEquals("Jarvis, Charles", quixote.getApiAuthors().get(1).getName());
+
+            assertNull(reader.next());
+            assertEquals(1, reader.skipped());
+        }
+    }
+
+    @Test
+    void parsesLifespansIncludingUncertainAndBceYears() {
+        Author homer = PgCatalogCsvReader.parseAuthor("Homer, 751? BCE-651? BCE");
+        assertEquals("Homer", homer.getName());
+        assertEquals(-751, homer.getBirthYear());
+        assertEquals(-651, homer.getDeathYear());
+
+        Author jarvis = PgCatalogCsvReader.parseAuthor("Jarvis, Charles, 1675?-1739");
+        assertEquals(1675, jarvis.getBirthYear());
+        assertEquals(1739, jarvis.getDeathYear());
+
+        Author living = PgCatalogCsvReader.parseAuthor("Doe, Jane, 1950-");
+        assertEquals(1950, living.getBirthYear());
+        assertNull(living.getDeathYear());
+
+        Author active = PgCatalogCsvReader.parseAuthor("Marie, de France, active 12th century");
+        assertEquals("Marie, de France", active.getName());
+        assertNull(active.getBirthYear());
+
+        assertEquals("Saint-Exupéry, Antoine de", PgCatalogCsvReader.parseAuthor("Saint-Exupéry, Antoine de").getName());
+    }
+}
@@ -0,0 +1,81 @@
+package com.literalura.literalura.catalog;
+
+import com.literalura.literalura.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PgRdfReaderTest {
+
+    private static String rdf(String type) {
+        return """
+                <?xml version="1.0" encoding="utf-8"?>
+                <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#"
+                         xmlns:dcterms="http://purl.org/dc/terms/"
+                         xmlns:pgterms="http://www.gutenberg.org/2009/pgterms/"
+                         xmlns:marcrel="http://id.loc.gov/vocabulary/relators/"
+                         xmlns:dcam="http://purl.org/dc/dcam/">
+                  <pgterms:ebook rdf:about="ebooks/84">
+                    <dcterms:title>Frankenstein; Or, The Modern Prometheus</dcterms:title>
+                    <dcterms:creator>
+                      <pgterms:agent rdf:about="2009/agents/61">
+                        <pgterms:name>Shelley, Mary Wollstonecraft</pgterms:name>
+                        <pgterms:birthdate rdf:datatype="http://www.w3.org/2001/XMLSchema#integer">1797</pgterms:birthdate>
+                        <pgterms:deathdate rdf:datatype="http://www.w3.org/2001/XMLSchema#integer">1851</pgterms:deathdate>
+                      </pgterms:agent>
+                    </dcterms:creator>
+                    <marcrel:ill>
+                      <pgterms:agent rdf:about="2009/agents/999"><pgterms:name>Illustrator, Some</pgterms:name></pgterms:agent>
+                    </marcrel:ill>
+                    <dcterms:subject>
+                      <rdf:Description><dcam:memberOf rdf:resource="http://purl.org/dc/terms/LCSH"/><rdf:value>Science fiction</rdf:value></rdf:Description>
+                    </dcterms:subject>
+                    <dcterms:subject>
+                      <rdf:Description><dcam:memberOf rdf:resource="http://purl.org/dc/terms/LCC"/><rdf:value>PR</rdf:value></rdf:Description>
+                    </dcterms:subject>
+                    <dcterms:subject>
+                      <rdf:Description><rdf:value>Monsters -- Fiction</rdf:value></rdf:Description>
+                    </dcterms:subject>
+                    <dcterms:language>
+                      <rdf:Description><rdf:value rdf:datatype="http://purl.org/dc/terms/RFC4646">en</rdf:value></rdf:Description>
+                    </dcterms:language>
+                    <pgterms:downloads rdf:datatype="http://www.w3.org/2001/XMLSchema#integer">76543</pgterms:downloads>
+                    <dcterms:type>
+                      <rdf:Description><dcam:memberOf rdf:resource="http://purl.org/dc/terms/DCMIType"/><rdf:value>%s</rdf:value></rdf:Description>
+                    </dcterms:type>
+                  </pgterms:ebook>
+                </rdf:RDF>
+                """.formatted(type);
+    }
+
+    private static Book read(String xml) throws Exception {
+        return new PgRdfReader().read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readsTitleCreatorSubjectsLanguagesAndDownloads() throws Exception {
+        Book book = read(rdf("Text"));
+
+        assertEquals(84, book.getId());
+        assertEquals("Frankenstein; Or, The Modern Prometheus", book.getTitle());
+        assertEquals(List.of("en"), book.getLanguages());
+        assertEquals(76543, book.getDownloadCount());
+        // De las materias, la clase LCC se ignora.
+        assertEquals(List.of("Science fiction", "Monsters -- Fiction"), book.getSubjects());
+        // Sólo dcterms:creator cuenta como autor; el ilustrador se ignora.
+        assertEquals(1, book.getApiAuthors().size());
+        assertEquals("Shelley, Mary Wollstonecraft", book.getApiAuthors().get(0).getName());
+        assertEquals(1797, book.getApiAuthors().get(0).getBirthYear());
+        assertEquals(1851, book.getApiAuthors().get(0).getDeathYear());
+    }
+
+    @Test
+    void skipsNonTextEbooks() throws Exception {
+        assertNull(read(rdf("Sound")));
+    }
+}
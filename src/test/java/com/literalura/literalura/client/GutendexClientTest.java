@@ -0,0 +1,170 @@
+package com.literalura.literalura.client;
+
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.GutendexResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GutendexClientTest {
+
+    private GutendexStubServer stub;
+    private GutendexClient client;
+
+    @BeforeEach
+    void setUp() {
+        stub = new GutendexStubServer();
+        client = new GutendexClient(new GutendexJsonParser(), GutendexResponseCache.disabled(), stub.baseUrl(),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void buildsSearchUrisAgainstTheConfiguredBaseUrl() {
+        URI uri = client.searchUri("don quijote", "es");
+        assertEquals(stub.baseUrl() + "?search=don+quijote&languages=es", uri.toString());
+        assertEquals(stub.baseUrl() + "?search=don+quijote&languages=es&page=3",
+                GutendexClient.pageUri(uri, 3).toString());
+    }
+
+    @Test
+    void fetchesIndependentPagesConcurrently() throws Exception {
+        URI first = client.searchUri("anything", null);
+        List<CompletableFuture<GutendexResponse>> pages = List.of(
+                client.fetchPageAsync(GutendexClient.pageUri(first, 1)),
+                client.fetchPageAsync(GutendexClient.pageUri(first, 2)),
+                client.fetchPageAsync(GutendexClient.pageUri(first, 3)));
+
+        int books = 0;
+        for (CompletableFuture<GutendexResponse> page : pages) {
+            books += GutendexClient.join(page).getBooks().size();
+        }
+        assertEquals(96, books);
+        assertEquals(3, stub.requestCount());
+    }
+
+    @Test
+    void fetchesByIdsInChunksOfOnePage() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1000; id < 1050; id++) {
+            ids.add(id);
+        }
+        List<Book> books = client.fetchByIds(ids);
+
+        assertEquals(50, books.size());
+        assertEquals(2, stub.requestCount());
+        assertTrue(books.stream().allMatch(book -> book.getId() >= 1000 && book.getId() < 1050));
+    }
+
+    @Test
+    void streamedBodiesHoldTheirConcurrencySlotUntilClosed() throws Exception {
+        GutendexClient single = new GutendexClient(new GutendexJsonParser(), GutendexResponseCache.disabled(),
+                stub.baseUrl(), Duration.ofSeconds(2), Duration.ofSeconds(5), 1);
+        try {
+            URI uri = single.searchUri("x", null);
+            InputStream first = single.open(uri);
+            CompletableFuture<InputStream> second = single.openAsync(GutendexClient.pageUri(uri, 2));
+            // Con un solo hueco, la segunda petición espera a que se cierre el primer cuerpo.
+            Thread.sleep(300);
+            assertFalse(second.isDone());
+            assertEquals(1, stub.requestCount());
+
+            first.close();
+            second.get(5, TimeUnit.SECONDS).close();
+            assertEquals(2, stub.requestCount());
+        } finally {
+            single.close();
+        }
+    }
+
+    private GutendexClient resilientClient(int maxAttempts, int failureThreshold) {
+        GutendexResilience resilience = new GutendexResilience(new AdaptiveRateLimiter(50, 1, 100, 4),
+                new CircuitBreaker(failureThreshold, Duration.ofMinutes(1)), maxAttempts,
+                Duration.ofMillis(10), Duration.ofSeconds(2), CatalogMetrics.standalone());
+        return new GutendexClient(new GutendexJsonParser(), GutendexResponseCache.disabled(), stub.baseUrl(),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 4, CatalogMetrics.standalone(), resilience);
+    }
+
+    @Test
+    void retriesServerErrorsAndHonoursRetryAfter() throws Exception {
+        GutendexClient resilient = resilientClient(4, 10);
+        try {
+            stub.failNext(2, 503, null);
+            assertEquals(32, resilient.fetchPage(resilient.searchUri("x", null)).getBooks().size());
+            assertEquals(3, stub.requestCount());
+
+            stub.failNext(1, 429, "1");
+            long start = System.nanoTime();
+            assertEquals(32, resilient.fetchPage(resilient.searchUri("y", null)).getBooks().size());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+            assertEquals(5, stub.requestCount());
+        } finally {
+            resilient.close();
+        }
+    }
+
+    @Test
+    void opensTheCircuitAfterRepeatedFailures() throws Exception {
+        GutendexClient resilient = resilientClient(2, 3);
+        try {
+            stub.forceStatus(500);
+            // Dos intentos por llamada: la segunda llamada alcanza el umbral de tres fallos.
+            assertThrows(GutendexApiException.class, () -> resilient.fetchPage(resilient.searchUri("x", null)));
+            assertThrows(GutendexUnavailableException.class, () -> resilient.fetchPage(resilient.searchUri("x", null)));
+            int sent = stub.requestCount();
+            assertEquals(3, sent);
+
+            stub.forceStatus(0);
+            assertThrows(GutendexUnavailableException.class, () -> resilient.open(resilient.searchUri("x", null)));
+            assertEquals(sent, stub.requestCount());
+        } finally {
+            resilient.close();
+        }
+    }
+
+    @Test
+    void throttledTrialRequestDoesNotKeepTheCircuitHalfOpen() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ofMillis(300));
+        GutendexResilience resilience = new GutendexResilience(new AdaptiveRateLimiter(50, 1, 100, 4),
+                circuitBreaker, 3, Duration.ofMillis(10), Duration.ofMillis(50), CatalogMetrics.standalone());
+        resilience.beforeRequest();
+        resilience.afterResponse(500, null, 1);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+
+        Thread.sleep(350);
+        // La petición de prueba recibe un 429: el reintento debe poder enviarse sin esperar otro periodo.
+        resilience.beforeRequest();
+        resilience.afterResponse(429, null, 1);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        resilience.beforeRequest();
+        resilience.afterResponse(200, null, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void reportsNonOkStatusAsApiException() {
+        stub.forceStatus(503);
+        GutendexApiException error = assertThrows(GutendexApiException.class,
+                () -> client.fetchPage(client.searchUri("x", null)));
+        assertEquals(503, error.getStatusCode());
+    }
+}
@@ -0,0 +1,78 @@
+package com.literalura.literalura.client;
+
+import com.google.gson.Gson;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.GutendexResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GutendexJsonParserTest {
+
+    private final GutendexJsonParser parser = new GutendexJsonParser();
+
+    private static InputStream fixture(String name) {
+        return GutendexJsonParserTest.class.getResourceAsStream("/gutendex/" + name);
+    }
+
+    @Test
+    void parsesTheSameFieldsAsReflectiveGson() throws IOException {
+        GutendexResponse reflective;
+        try (InputStream in = fixture("page-1.json")) {
+            reflective = new Gson().fromJson(new String(in.readAllBytes(), StandardCharsets.UTF_8), GutendexResponse.class);
+        }
+        GutendexResponse streamed = parser.parse(fixture("page-1.json"));
+
+        assertEquals(reflective.getCount(), streamed.getCount());
+        assertEquals(reflective.getNext(), streamed.getNext());
+        assertEquals(reflective.getPrevious(), streamed.getPrevious());
+        assertEquals(reflective.getBooks().size(), streamed.getBooks().size());
+        for (int i = 0; i < reflective.getBooks().size(); i++) {
+            Book expected = reflective.getBooks().get(i);
+            Book actual = streamed.getBooks().get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getLanguages(), actual.getLanguages());
+            assertEquals(expected.getSubjects(), actual.getSubjects());
+            assertEquals(expected.getDownloadCount(), actual.getDownloadCount());
+            assertEquals(expected.getApiAuthors().size(), actual.getApiAuthors().size());
+            assertEquals(expected.getApiAuthors().get(0).getName(), actual.getApiAuthors().get(0).getName());
+            assertEquals(expected.getApiAuthors().get(0).getBirthYear(), actual.getApiAuthors().get(0).getBirthYear());
+            assertEquals(expected.getApiAuthors().get(0).getDeathYear(), actual.getApiAuthors().get(0).getDeathYear());
+        }
+    }
+
+    @Test
+    void streamsBooksOneByOneAndReturnsPageMetadata() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        GutendexResponse page = parser.stream(fixture("page-3.json"), book -> ids.add(book.getId()));
+
+        assertEquals(32, ids.size());
+        assertEquals(1064, ids.get(0));
+        assertNull(page.getNext());
+        assertEquals(96, page.getCount());
+    }
+
+    @Test
+    void toleratesNullsAndUnknownFields() throws IOException {
+        String json = "{\"count\":1,\"next\":null,\"previous\":null,\"extra\":{\"a\":[1,2]},"
+                + "\"results\":[{\"id\":7,\"title\":null,\"authors\":null,\"languages\":null,"
+                + "\"download_count\":null,\"formats\":{\"text/html\":\"x\"}}]}";
+        GutendexResponse page = parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        Book book = page.getBooks().get(0);
+        assertEquals(7, book.getId());
+        assertNull(book.getTitle());
+        assertNull(book.getApiAuthors());
+        assertNull(book.getLanguages());
+        assertNull(book.getDownloadCount());
+    }
+}
@@ -0,0 +1,121 @@
+package com.literalura.literalura.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GutendexResponseCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private GutendexStubServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = new GutendexStubServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private GutendexClient clientWith(GutendexResponseCache cache) {
+        return new GutendexClient(new GutendexJsonParser(), cache, stub.baseUrl(),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 2);
+    }
+
+    @Test
+    void normalizesEquivalentQueriesToTheSameKey() {
+        assertEquals(
+                GutendexResponseCache.normalizeKey(URI.create("https://GUTENDEX.com/books/?search=Don%20%20Quijote&languages=es,en")),
+                GutendexResponseCache.normalizeKey(URI.create("https://gutendex.com/books/?languages=en,es&search=don+quijote&page=1")));
+    }
+
+    @Test
+    void servesRepeatedSearchesFromMemoryAndThenFromDiskAfterRestart() throws Exception {
+        GutendexResponseCache cache = new GutendexResponseCache(true, 8, Duration.ofMinutes(5), cacheDir, Clock.systemUTC());
+        GutendexClient client = clientWith(cache);
+        URI uri = client.searchUri("quijote", "es");
+
+        client.fetchPage(uri);
+        client.fetchPage(client.searchUri("  QUIJOTE ", "es"));
+        assertEquals(1, stub.requestCount());
+        assertEquals(1, cache.getMemoryHits());
+        client.close();
+
+        // Una nueva instancia (como tras reiniciar la aplicación) encuentra la respuesta en disco.
+        GutendexResponseCache restarted = new GutendexResponseCache(true, 8, Duration.ofMinutes(5), cacheDir, Clock.systemUTC());
+        GutendexClient afterRestart = clientWith(restarted);
+        assertEquals(32, afterRestart.fetchPage(uri).getBooks().size());
+        assertEquals(1, stub.requestCount());
+        assertEquals(1, restarted.getDiskHits());
+        afterRestart.close();
+    }
+
+    @Test
+    void revalidatesExpiredEntriesWithEtag() throws Exception {
+        MutableClock clock = new MutableClock();
+        GutendexResponseCache cache = new GutendexResponseCache(true, 8, Duration.ofMinutes(1), null, clock);
+        GutendexClient client = clientWith(cache);
+        stub.useEtag("\"v1\"");
+        URI uri = client.searchUri("dickens", null);
+
+        client.fetchPage(uri);
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals(32, client.fetchPage(uri).getBooks().size());
+
+        assertEquals(2, stub.requestCount());
+        assertEquals(1, cache.getRevalidations());
+        client.close();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesFromMemory() throws Exception {
+        GutendexResponseCache cache = new GutendexResponseCache(true, 2, Duration.ofMinutes(5), null, Clock.systemUTC());
+        GutendexClient client = clientWith(cache);
+
+        client.fetchPage(client.searchUri("a", null));
+        client.fetchPage(client.searchUri("b", null));
+        client.fetchPage(client.searchUri("c", null));
+
+        assertEquals(2, cache.getMemorySize());
+        assertEquals(1, cache.getEvictions());
+        client.close();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
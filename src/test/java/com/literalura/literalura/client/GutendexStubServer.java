@@ -0,0 +1,175 @@
+package com.literalura.literalura.client;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que imita {@code https://gutendex.com/books/} a partir de las páginas
+ * grabadas en {@code src/test/resources/gutendex}. Responde a {@code ?page=N} (con cualquier
+ * {@code search}/{@code languages}) y a {@code ?ids=1,2,3}, y reescribe los enlaces
+ * {@code next}/{@code previous} para que apunten al propio servidor.
+ */
+public class GutendexStubServer implements AutoCloseable {
+
+    private static final String[] FIXTURES = {"page-1.json", "page-2.json", "page-3.json"};
+
+    private final HttpServer server;
+    private final String[] pages;
+    private final Map<Integer, JsonObject> booksById = new HashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int forcedStatus = 0;
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private volatile int failureStatus = 0;
+    private volatile String retryAfter = null;
+    private volatile String etag = null;
+
+    public GutendexStubServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/books/";
+        pages = new String[FIXTURES.length];
+        for (int i = 0; i < FIXTURES.length; i++) {
+            String json = read(FIXTURES[i]).replace("https://gutendex.com/books/", baseUrl);
+            pages[i] = json;
+            for (JsonElement book : JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("results")) {
+                booksById.put(book.getAsJsonObject().get("id").getAsInt(), book.getAsJsonObject());
+            }
+        }
+        server.createContext("/books/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/books/";
+    }
+
+    /** Número de peticiones recibidas desde el arranque. */
+    public int requestCount() {
+        return requests.get();
+    }
+
+    /** Obliga a responder con el estado indicado (0 para volver al comportamiento normal). */
+    public void forceStatus(int status) {
+        this.forcedStatus = status;
+    }
+
+    /**
+     * Responde a las próximas {@code count} peticiones con el estado indicado y después vuelve
+     * al comportamiento normal.
+     * @param retryAfter Valor de la cabecera {@code Retry-After} de esas respuestas (puede ser null).
+     */
+    public void failNext(int count, int status, String retryAfter) {
+        this.failureStatus = status;
+        this.retryAfter = retryAfter;
+        this.failuresLeft.set(count);
+    }
+
+    /** Hace que las respuestas lleven esta cabecera {@code ETag} y respeten {@code If-None-Match}. */
+    public void useEtag(String etag) {
+        this.etag = etag;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int status = 200;
+        String body;
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            status = failureStatus;
+            body = "{\"detail\":\"stub error\"}";
+            if (retryAfter != null) {
+                exchange.getResponseHeaders().set("Retry-After", retryAfter);
+            }
+        } else if (forcedStatus != 0) {
+            status = forcedStatus;
+            body = "{\"detail\":\"stub error\"}";
+        } else if (query.containsKey("ids")) {
+            body = idsPage(query.get("ids"));
+        } else {
+            int page = Integer.parseInt(query.getOrDefault("page", "1"));
+            if (page < 1 || page > pages.length) {
+                status = 404;
+                body = "{\"detail\":\"Invalid page.\"}";
+            } else {
+                body = pages[page - 1];
+            }
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String idsPage(String ids) {
+        JsonArray results = new JsonArray();
+        Set<Integer> seen = new HashSet<>();
+        for (String id : ids.split(",")) {
+            int value = Integer.parseInt(id.trim());
+            if (seen.add(value) && booksById.containsKey(value)) {
+                results.add(booksById.get(value));
+            }
+        }
+        JsonObject page = new JsonObject();
+        page.addProperty("count", results.size());
+        page.add("next", null);
+        page.add("previous", null);
+        page.add("results", results);
+        return page.toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0) {
+                    params.put(param.substring(0, eq), URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static String read(String fixture) {
+        try (InputStream in = GutendexStubServer.class.getResourceAsStream("/gutendex/" + fixture)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
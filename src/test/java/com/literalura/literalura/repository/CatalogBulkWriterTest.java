@@ -0,0 +1,144 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.dto.SubjectCount;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.Subject;
+import com.literalura.literalura.search.BookFilter;
+import com.literalura.literalura.search.CatalogFacetService;
+import com.literalura.literalura.service.BookBatchWriter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogBulkWriterTest {
+
+    private static EmbeddedCatalog catalog;
+
+    @BeforeAll
+    static void start() throws Exception {
+        catalog = EmbeddedCatalog.start();
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        catalog.close();
+    }
+
+    private static Book book(int id, String title, String author, List<String> languages) {
+        return new Book(id, title, List.of(new Author(author, 1800, 1870)), null, languages, id % 1000);
+    }
+
+    @Test
+    void mergesBooksAuthorsAndLanguagesSkippingDuplicates() {
+        CatalogBulkWriter writer = catalog.bean(CatalogBulkWriter.class);
+        JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+
+        BookBatchWriter.BatchResult first = writer.write(List.of(
+                book(900001, "Bulk\tTitle\nWith \\ escapes", "Bulk, Author", List.of("en", "fr")),
+                book(900002, "Second bulk title", "BULK, AUTHOR", List.of("es")),
+                // Duplicados dentro del lote: mismo ID y mismo título con otras mayúsculas.
+                book(900001, "Another title", "Other, Author", List.of("en")),
+                book(900003, "SECOND BULK TITLE", "Other, Author", List.of("en")),
+                book(900004, "x".repeat(300), "Other, Author", List.of("en"))));
+
+        assertEquals(new BookBatchWriter.BatchResult(2, 2, 1), first);
+        assertEquals("Bulk\tTitle\nWith \\ escapes",
+                jdbc.queryForObject("SELECT title FROM books WHERE id = 900001", String.class));
+        // Un solo autor para las dos variantes del nombre.
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT count(DISTINCT author_id) FROM books WHERE id IN (900001, 900002)", Integer.class));
+        assertEquals(3, jdbc.queryForObject(
+                "SELECT count(*) FROM book_languages WHERE book_id IN (900001, 900002)", Integer.class));
+
+        // Un segundo lote no inserta lo que ya existe por ID o por título (mayúsculas, tildes y signos aparte).
+        assertEquals(new BookBatchWriter.BatchResult(0, 3, 0), writer.write(List.of(
+                book(900002, "Other", "X", List.of()),
+                book(900005, "second bulk title", "X", List.of()),
+                book(900006, "Sécond bulk title!", "X", List.of()))));
+    }
+
+    @Test
+    void reusesLegacyAuthorsWithSurroundingSpaces() {
+        CatalogBulkWriter writer = catalog.bean(CatalogBulkWriter.class);
+        JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+        // Nombre guardado por una versión anterior, sin normalizar.
+        jdbc.update("INSERT INTO authors (name, birth_year, death_year) VALUES ('  Legacy, Author ', 1800, 1870)");
+
+        assertEquals(new BookBatchWriter.BatchResult(1, 0, 0),
+                writer.write(List.of(book(920001, "Legacy author book", "legacy, author", List.of("en")))));
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT count(*) FROM authors WHERE lower(trim(name)) = 'legacy, author'", Integer.class));
+        assertEquals("  Legacy, Author ", jdbc.queryForObject(
+                "SELECT a.name FROM books b JOIN authors a ON a.id = b.author_id WHERE b.id = 920001", String.class));
+    }
+
+    @Test
+    void linksAuthorsAndSubjectsInsertedConcurrently() throws Exception {
+        JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+        try (Connection other = catalog.bean(DataSource.class).getConnection()) {
+            // Otra transacción inserta el mismo autor y la misma materia y todavía no confirma.
+            other.setAutoCommit(false);
+            try (Statement statement = other.createStatement()) {
+                statement.executeUpdate("INSERT INTO authors (name) VALUES ('Racing, Author')");
+                statement.executeUpdate("INSERT INTO subjects (name) VALUES ('Racing subject')");
+            }
+            CompletableFuture<BookBatchWriter.BatchResult> write = CompletableFuture.supplyAsync(() ->
+                    catalog.bean(CatalogBulkWriter.class).write(List.of(new Book(930001, "Racing book",
+                            List.of(new Author("Racing, Author", 1800, 1870)), List.of("Racing subject"),
+                            List.of("en"), 1))));
+            // El lote espera en ON CONFLICT hasta que la otra transacción confirma.
+            Thread.sleep(500);
+            other.commit();
+
+            assertEquals(new BookBatchWriter.BatchResult(1, 0, 0), write.get(30, TimeUnit.SECONDS));
+        }
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM book_subjects bs "
+                + "JOIN subjects s ON s.id = bs.subject_id WHERE bs.book_id = 930001 AND s.name = 'Racing subject'",
+                Integer.class));
+    }
+
+    @Test
+    void storesEachSubjectOnceAndFacetsByIt() {
+        JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+        CatalogFacetService facets = catalog.bean(CatalogFacetService.class);
+        catalog.bean(CatalogBulkWriter.class).write(List.of(
+                new Book(910001, "Subject bulk one", List.of(new Author("Subject, Author", 1800, 1870)),
+                        List.of("Horror tales", " Science fiction ", "Horror tales", ""), List.of("la"), 10),
+                new Book(910002, "Subject bulk two", List.of(new Author("Subject, Author", 1800, 1870)),
+                        List.of("Science fiction"), List.of("la", "en"), 20)));
+        // La escritura por lotes (JPA) usa el mismo diccionario.
+        assertEquals(new BookBatchWriter.BatchResult(1, 0, 0), catalog.bean(BookBatchWriter.class).write(List.of(
+                new Book(910003, "Subject batch three", List.of(new Author("Subject, Author", 1800, 1870)),
+                        List.of("Science fiction", "Utopias"), List.of("la"), 30))));
+
+        assertEquals(3, jdbc.queryForObject("SELECT count(*) FROM subjects WHERE name IN "
+                + "('Horror tales', 'Science fiction', 'Utopias')", Integer.class));
+        assertEquals(5, jdbc.queryForObject(
+                "SELECT count(*) FROM book_subjects WHERE book_id BETWEEN 910001 AND 910003", Integer.class));
+
+        BookFilter latin = BookFilter.ANY.withLanguages(Set.of("la"), false);
+        List<SubjectCount> subjects = facets.subjectBreakdown(latin, 10);
+        assertEquals(List.of("Science fiction", "Horror tales", "Utopias"), subjects.stream().map(SubjectCount::name).toList());
+        assertEquals(List.of(3, 1, 1), subjects.stream().map(SubjectCount::books).toList());
+
+        // Materia + idioma: los libros de ciencia ficción en inglés.
+        Integer scienceFiction = subjects.get(0).id();
+        assertEquals(1, facets.count(BookFilter.ANY.withLanguages(Set.of("en"), false)
+                .withSubjectIds(Set.of(scienceFiction))));
+        assertEquals(List.of("Science fiction"), facets.findSubjects("science").stream()
+                .map(Subject::getName).toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.dto.AuthorSummary;
+import com.literalura.literalura.dto.BookFacetRow;
+import com.literalura.literalura.event.DownloadCountsChangedEvent;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.service.CatalogQueryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogCacheTest {
+
+    private static EmbeddedCatalog catalog;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void start() throws Exception {
+        catalog = EmbeddedCatalog.start();
+        catalog.seed(120);
+        statistics = catalog.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        catalog.close();
+    }
+
+    @Test
+    void answersRepeatedLookupsFromMemory() {
+        CatalogQueryService queries = catalog.bean(CatalogQueryService.class);
+        BookRepository books = catalog.bean(BookRepository.class);
+        queries.listBooks(PageRequest.of(1, 20));
+        books.findById(3);
+        statistics.clear();
+
+        queries.listBooks(PageRequest.of(1, 20));
+        books.findById(3);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() >= 2); // filas de la página e idiomas
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+    }
+
+    @Test
+    void evictsAfterJdbcWrites() {
+        CatalogQueryService queries = catalog.bean(CatalogQueryService.class);
+        BookRepository books = catalog.bean(BookRepository.class);
+        JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+
+        assertFalse(authorNames(queries).contains("Cache, Bulk"));
+        catalog.bean(CatalogBulkWriter.class).write(List.of(
+                new Book(700001, "Loaded with COPY", List.of(new Author("Cache, Bulk", 1900, 1950)), null, List.of("en"), 1)));
+        assertTrue(authorNames(queries).contains("Cache, Bulk"));
+
+        int before = books.findById(7).orElseThrow().getDownloadCount();
+        jdbc.update("UPDATE books SET download_count = ? WHERE id = 7", before + 1000);
+        // Sin aviso, Hibernate sigue sirviendo la copia en caché.
+        assertEquals(before, books.findById(7).orElseThrow().getDownloadCount());
+
+        catalog.bean(CatalogCache.class).onDownloadCountsChanged(
+                new DownloadCountsChangedEvent(List.of(new BookFacetRow(7, null, before + 1000))));
+        assertEquals(before + 1000, books.findById(7).orElseThrow().getDownloadCount());
+    }
+
+    private static List<String> authorNames(CatalogQueryService queries) {
+        return queries.listAuthors(PageRequest.of(0, 500)).map(AuthorSummary::name).getContent();
+    }
+}
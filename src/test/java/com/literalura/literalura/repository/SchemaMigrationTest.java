@@ -0,0 +1,91 @@
+package com.literalura.literalura.repository;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.service.BookBatchWriter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigrationTest {
+
+    // Lo que creaba ddl-auto=update con las primeras versiones, antes de la huella de título y de los puntos
+    // de control (nombres de claves foráneas generados por Hibernate).
+    private static final String[] LEGACY_SCHEMA = {
+            "create table authors (birth_year integer, death_year integer, id bigint generated by default as identity, "
+                    + "name varchar(255) not null unique, primary key (id))",
+            "create table books (download_count integer, id integer not null, author_id bigint not null, "
+                    + "title varchar(255) not null unique, primary key (id))",
+            "create table book_languages (book_id integer not null, language varchar(255))",
+            "alter table if exists book_languages add constraint FKgr6ud52x49thpl5x1bba239r2 foreign key (book_id) references books",
+            "alter table if exists books add constraint FKfjixh2vym2cvfj3ufxj91jem7 foreign key (author_id) references authors"
+    };
+
+    private static Flyway flyway(DataSource dataSource) {
+        // La misma configuración que application.properties.
+        return Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load();
+    }
+
+    @Test
+    void createsTheSchemaOnAnEmptyDatabase() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            DataSource dataSource = postgres.getPostgresDatabase();
+
+            assertEquals(3, flyway(dataSource).migrate().migrationsExecuted);
+
+            assertTrue(indexes(new JdbcTemplate(dataSource)).containsAll(List.of(
+                    "idx_book_languages_language", "idx_books_author_id", "uk_authors_name_normalized",
+                    "idx_book_subjects_subject")));
+        }
+    }
+
+    @Test
+    void adoptsADatabaseCreatedByHibernate() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            DataSource dataSource = postgres.getPostgresDatabase();
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.batchUpdate(LEGACY_SCHEMA);
+            jdbc.update("INSERT INTO authors (name) VALUES ('Austen, Jane')");
+            jdbc.update("INSERT INTO books (id, title, author_id, download_count) VALUES (1342, 'Pride and Prejudice', 1, 100)");
+            // El mismo autor escrito de otra forma, que las versiones anteriores podían duplicar.
+            jdbc.update("INSERT INTO authors (name) VALUES ('austen, jane ')");
+            jdbc.update("INSERT INTO books (id, title, author_id, download_count) VALUES (161, 'Sense and Sensibility', 2, 50)");
+
+            flyway(dataSource).migrate();
+
+            assertEquals(MigrationVersion.fromVersion("3"), flyway(dataSource).info().current().getVersion());
+            assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM books", Integer.class));
+            assertEquals(List.of(1L), jdbc.queryForList("SELECT id FROM authors", Long.class));
+            assertEquals(List.of(1L), jdbc.queryForList("SELECT DISTINCT author_id FROM books", Long.class));
+            assertTrue(indexes(jdbc).containsAll(List.of("idx_books_author_id", "idx_books_title_upper")));
+            assertTrue(indexes(jdbc).contains("uk_books_title_fingerprint"));
+            assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM information_schema.columns "
+                    + "WHERE table_name = 'books' AND column_name = 'title_fingerprint'", Integer.class));
+            assertEquals(1, jdbc.queryForObject(
+                    "SELECT count(*) FROM information_schema.tables WHERE table_name = 'sync_checkpoints'", Integer.class));
+
+            // La aplicación arranca sobre el esquema migrado (Hibernate lo valida) y guarda libros con JPA.
+            try (EmbeddedCatalog catalog = EmbeddedCatalog.start(postgres)) {
+                assertEquals(new BookBatchWriter.BatchResult(1, 0, 0), catalog.bean(BookBatchWriter.class).write(List.of(
+                        new Book(84, "Frankenstein", List.of(new Author("Shelley, Mary", 1797, 1851)), null, List.of("en"), 10))));
+                assertEquals("frankenstein", jdbc.queryForObject(
+                        "SELECT title_fingerprint FROM books WHERE id = 84", String.class));
+                // La identidad de authors sigue funcionando tras la migración.
+                assertEquals(3L, jdbc.queryForObject("SELECT max(id) FROM authors", Long.class));
+            }
+        }
+    }
+
+    private static List<String> indexes(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT indexname FROM pg_indexes WHERE schemaname = 'public'", String.class);
+    }
+}
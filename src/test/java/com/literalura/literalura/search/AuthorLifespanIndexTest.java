@@ -0,0 +1,88 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.dto.AuthorSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorLifespanIndexTest {
+
+    /** Misma condición que la consulta JPQL findAuthorsAliveInYear, extendida a un rango. */
+    private static boolean alive(AuthorSummary author, int from, int to) {
+        return author.birthYear() != null && author.birthYear() <= to
+                && (author.deathYear() == null || author.deathYear() >= from);
+    }
+
+    private static List<AuthorSummary> randomAuthors(int count) {
+        Random random = new Random(7);
+        List<AuthorSummary> authors = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Integer birth = random.nextInt(20) == 0 ? null : -500 + random.nextInt(2500);
+            Integer death = birth == null || random.nextInt(10) == 0 ? null : birth + random.nextInt(100);
+            if (birth != null && random.nextInt(200) == 0) {
+                death = birth + 300 + random.nextInt(500); // Datos erróneos: periodo demasiado largo.
+            }
+            authors.add(new AuthorSummary(id, "Autor " + id, birth, death));
+        }
+        return authors;
+    }
+
+    @Test
+    void matchesTheSqlPredicateForPointsAndRanges() {
+        List<AuthorSummary> authors = randomAuthors(5000);
+        AuthorLifespanIndex index = new AuthorLifespanIndex();
+        authors.forEach(index::index);
+
+        Comparator<AuthorSummary> byName = Comparator.comparing(AuthorSummary::name).thenComparing(AuthorSummary::id);
+        for (int[] range : new int[][]{{1600, 1600}, {-300, -300}, {1850, 1900}, {2010, 2030}, {-3000, -2000}}) {
+            List<AuthorSummary> expected = authors.stream()
+                    .filter(author -> alive(author, range[0], range[1]))
+                    .sorted(byName)
+                    .toList();
+            assertEquals(expected, index.aliveBetween(range[0], range[1]));
+            assertEquals(expected.size(), index.countAliveBetween(range[0], range[1]));
+        }
+    }
+
+    @Test
+    void buildsDecadeHistograms() {
+        AuthorLifespanIndex index = new AuthorLifespanIndex();
+        index.index(new AuthorSummary(1L, "Cervantes", 1547, 1616));
+        index.index(new AuthorSummary(2L, "Shakespeare", 1564, 1616));
+        index.index(new AuthorSummary(3L, "Austen", 1775, 1817));
+
+        Map<Integer, Integer> histogram = index.decadeHistogram(1545, 1625);
+        assertEquals(1, histogram.get(1540));
+        assertEquals(2, histogram.get(1610));
+        assertEquals(0, histogram.get(1620));
+        assertEquals(9, histogram.size());
+    }
+
+    @Test
+    void updatesAndRemovalsAreIdempotent() {
+        AuthorLifespanIndex index = new AuthorLifespanIndex();
+        assertTrue(index.index(new AuthorSummary(1L, "Twain", 1835, 1910)));
+        assertTrue(index.index(new AuthorSummary(1L, "Twain", 1835, 1910)));
+        assertEquals(1, index.countAlive(1900));
+
+        // Fallecimiento anterior al nacimiento o sin nacimiento: no puede estar vivo nunca.
+        assertFalse(index.index(new AuthorSummary(1L, "Twain", 1910, 1835)));
+        assertEquals(0, index.countAlive(1900));
+        assertFalse(index.index(new AuthorSummary(2L, "Anónimo", null, 1900)));
+
+        index.index(new AuthorSummary(3L, "Le Guin", 1929, null));
+        assertEquals(1, index.aliveIn(2020).size());
+        assertTrue(index.remove(3L));
+        assertFalse(index.remove(3L));
+        assertEquals(0, index.size());
+        assertTrue(index.aliveIn(2020).isEmpty());
+    }
+}
@@ -0,0 +1,37 @@
+package com.literalura.literalura.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnAddedValueAsAbsent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("title " + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("title " + i));
+        }
+        assertFalse(BloomFilter.create(100, 0.01).mightContain("anything"));
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheRequestedRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("title " + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other " + i)) {
+                falsePositives++;
+            }
+        }
+        // 1 % esperado; margen amplio para no depender del reparto concreto de los hashes.
+        assertTrue(falsePositives < 2_000, "Falsos positivos: " + falsePositives);
+    }
+}
@@ -0,0 +1,97 @@
+package com.literalura.literalura.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogBitmapIndexTest {
+
+    private static CatalogBitmapIndex sampleIndex() {
+        CatalogBitmapIndex index = new CatalogBitmapIndex();
+        index.index(1, 10L, List.of("en"), 500);
+        index.index(2, 10L, List.of("en", "fr"), 1500);
+        index.index(3, 20L, List.of("es"), 90);
+        index.index(4, 30L, List.of("fi"), 3000);
+        index.index(5, 20L, List.of("es", "EN"), 700);
+        return index;
+    }
+
+    @Test
+    void combinesLanguagesAuthorsAndDownloads() {
+        CatalogBitmapIndex index = sampleIndex();
+
+        assertArrayEquals(new int[]{1, 2, 5}, index.matching(BookFilter.ANY.withLanguages(Set.of("en"), false)).toArray());
+        assertArrayEquals(new int[]{2, 3, 5}, index.matching(BookFilter.ANY.withLanguages(Set.of("fr", "es"), false)).toArray());
+        assertArrayEquals(new int[]{5}, index.matching(BookFilter.ANY.withLanguages(Set.of("en", "es"), true)).toArray());
+        assertEquals(0, index.count(BookFilter.ANY.withLanguages(Set.of("en", "xx"), true)));
+
+        BookFilter popularEnglish = BookFilter.ANY.withLanguages(Set.of("en"), false).withDownloads(600, null);
+        assertArrayEquals(new int[]{2, 5}, index.matching(popularEnglish).toArray());
+        assertArrayEquals(new int[]{5}, index.matching(popularEnglish.withAuthorIds(Set.of(20L, 99L))).toArray());
+        assertEquals(0, index.count(BookFilter.ANY.withDownloads(100, 50)));
+        assertEquals(5, index.count(BookFilter.ANY));
+    }
+
+    @Test
+    void breaksDownByAnyLanguagePresent() {
+        CatalogBitmapIndex index = sampleIndex();
+
+        Map<String, Integer> breakdown = index.languageBreakdown();
+        assertEquals(List.of("en", "es", "fi", "fr"), List.copyOf(breakdown.keySet()));
+        assertEquals(3, breakdown.get("en"));
+        BookFilter author20Or30 = BookFilter.ANY.withAuthorIds(Set.of(20L, 30L));
+        assertEquals(Map.of("es", 2, "en", 1, "fi", 1), index.languageBreakdown(index.matching(author20Or30)));
+    }
+
+    @Test
+    void replacingABookMovesItBetweenBitmaps() {
+        CatalogBitmapIndex index = sampleIndex();
+        index.index(4, 10L, List.of("de"), 10);
+        index.index(4, 10L, List.of("de"), 10);
+
+        assertEquals(5, index.size());
+        assertTrue(index.languageBreakdown().containsKey("de"));
+        assertNull(index.languageBreakdown().get("fi"));
+        assertArrayEquals(new int[]{1, 2, 4}, index.matching(BookFilter.ANY.withAuthorIds(Set.of(10L))).toArray());
+        assertArrayEquals(new int[]{4}, index.matching(BookFilter.ANY.withDownloads(null, 50)).toArray());
+
+        assertTrue(index.remove(4));
+        assertEquals(4, index.count(BookFilter.ANY));
+    }
+
+    @Test
+    void facetsBySubjectWithinOtherFilters() {
+        CatalogBitmapIndex index = sampleIndex();
+        index.index(1, 10L, List.of("en"), Set.of(100, 200), 500);
+        index.index(2, 10L, List.of("en", "fr"), Set.of(100), 1500);
+        index.index(3, 20L, List.of("es"), Set.of(100, 300), 90);
+        index.index(5, 20L, List.of("es", "EN"), Set.of(200, 300), 700);
+
+        assertArrayEquals(new int[]{1, 2, 3}, index.matching(BookFilter.ANY.withSubjectIds(Set.of(100))).toArray());
+        // Varias materias se exigen todas; una que no existe no deja ningún libro.
+        assertArrayEquals(new int[]{1}, index.matching(BookFilter.ANY.withSubjectIds(Set.of(100, 200))).toArray());
+        assertEquals(0, index.count(BookFilter.ANY.withSubjectIds(Set.of(999))));
+
+        BookFilter englishScience = BookFilter.ANY.withLanguages(Set.of("en"), false).withSubjectIds(Set.of(100));
+        assertArrayEquals(new int[]{1, 2}, index.matching(englishScience).toArray());
+        // Conteos por materia de mayor a menor (a igualdad, por ID) y limitados.
+        assertEquals(List.of(Map.entry(100, 3), Map.entry(200, 2), Map.entry(300, 2)),
+                List.copyOf(index.subjectBreakdown(null, 10).entrySet()));
+        assertEquals(Map.of(100, 3), index.subjectBreakdown(null, 1));
+        assertEquals(Map.of(200, 2, 100, 2, 300, 1), index.subjectBreakdown(
+                index.matching(BookFilter.ANY.withLanguages(Set.of("en"), false)), 10));
+
+        // Reindexar sin materias (o borrar) quita el libro de sus materias.
+        index.index(3, 20L, List.of("es"), 90);
+        assertTrue(index.remove(5));
+        assertEquals(Map.of(100, 2, 200, 1), index.subjectBreakdown(null, 10));
+        assertEquals(Set.of(100, 200), index.subjectsOf(1));
+    }
+}
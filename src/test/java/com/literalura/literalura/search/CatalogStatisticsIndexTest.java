@@ -0,0 +1,94 @@
+package com.literalura.literalura.search;
+
+import com.literalura.literalura.search.CatalogStatisticsIndex.LanguageTotals;
+import com.literalura.literalura.search.CatalogStatisticsIndex.Ranked;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogStatisticsIndexTest {
+
+    private static CatalogStatisticsIndex sampleIndex() {
+        CatalogStatisticsIndex index = new CatalogStatisticsIndex(3);
+        index.index(1, 10L, List.of("en"), 500);
+        index.index(2, 10L, List.of("en", "fr"), 1500);
+        index.index(3, 20L, List.of("es"), 90);
+        index.index(4, 30L, List.of("fi"), 3000);
+        index.index(5, 20L, List.of("es", "EN"), 700);
+        return index;
+    }
+
+    @Test
+    void keepsTotalsAndRankingsPerLanguage() {
+        CatalogStatisticsIndex index = sampleIndex();
+
+        assertEquals(new LanguageTotals(null, 5, 5790), index.totals());
+        assertEquals(new LanguageTotals("en", 3, 2700), index.languageTotals().get(0));
+        assertEquals(900.0, index.languageTotals().get(0).averageDownloads());
+        assertEquals(List.of(new Ranked(4, 3000), new Ranked(2, 1500), new Ranked(5, 700)), index.topBooks(null, 10));
+        assertEquals(List.of(new Ranked(5, 700), new Ranked(3, 90)), index.topBooks("ES", 10));
+        assertEquals(List.of(), index.topBooks("xx", 10));
+
+        assertEquals(2, index.booksBy(20));
+        assertEquals(List.of(new Ranked(10, 2), new Ranked(20, 2)), index.topAuthors(2));
+    }
+
+    @Test
+    void reindexingReplacesTheBookContribution() {
+        CatalogStatisticsIndex index = sampleIndex();
+
+        // El libro 2 baja de descargas, deja el inglés y el francés y cambia de autor.
+        index.index(2, 30L, List.of("es"), 10);
+
+        assertEquals(new LanguageTotals(null, 5, 4300), index.totals());
+        assertEquals(List.of(new Ranked(4, 3000), new Ranked(5, 700), new Ranked(1, 500)), index.topBooks(null, 3));
+        assertEquals(List.of(new Ranked(5, 700), new Ranked(1, 500)), index.topBooks("en", 3));
+        assertEquals(List.of(), index.topBooks("fr", 3));
+        assertEquals(1, index.booksBy(10));
+        assertEquals(List.of(new Ranked(20, 2), new Ranked(30, 2), new Ranked(10, 1)), index.topAuthors(3));
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFreshIndex() {
+        Random random = new Random(42);
+        List<String> languages = List.of("en", "es", "fr", "de");
+        CatalogStatisticsIndex incremental = new CatalogStatisticsIndex(5);
+        Map<Integer, Object[]> latest = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            int id = 1 + random.nextInt(200);
+            long author = 1 + random.nextInt(30);
+            List<String> bookLanguages = random.nextInt(5) == 0
+                    ? List.of(languages.get(random.nextInt(4)), languages.get(random.nextInt(4)))
+                    : List.of(languages.get(random.nextInt(4)));
+            int downloads = random.nextInt(10_000);
+            incremental.index(id, author, bookLanguages, downloads);
+            latest.put(id, new Object[]{author, bookLanguages, downloads});
+            if (step % 500 == 0) {
+                // Leer a mitad obliga a reconstruir los rankings que quedaron obsoletos.
+                incremental.topBooks("en", 5);
+                incremental.topAuthors(5);
+            }
+        }
+
+        CatalogStatisticsIndex fresh = new CatalogStatisticsIndex(5);
+        latest.forEach((id, book) -> {
+            @SuppressWarnings("unchecked")
+            List<String> bookLanguages = (List<String>) book[1];
+            fresh.index(id, (Long) book[0], bookLanguages, (Integer) book[2]);
+        });
+
+        assertEquals(fresh.totals(), incremental.totals());
+        assertEquals(fresh.languageTotals(), incremental.languageTotals());
+        assertEquals(fresh.topBooks(null, 5), incremental.topBooks(null, 5));
+        for (String language : languages) {
+            assertEquals(fresh.topBooks(language, 5), incremental.topBooks(language, 5), language);
+        }
+        assertEquals(fresh.topAuthors(5), incremental.topAuthors(5));
+    }
+}
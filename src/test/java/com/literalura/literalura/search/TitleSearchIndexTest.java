@@ -0,0 +1,73 @@
+package com.literalura.literalura.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleSearchIndexTest {
+
+    private static TitleSearchIndex sampleIndex() {
+        TitleSearchIndex index = new TitleSearchIndex();
+        index.index(2000, "Don Quijote", 3000);
+        index.index(996, "Don Quixote", 12000);
+        index.index(1342, "Pride and Prejudice", 50000);
+        index.index(84, "Frankenstein; Or, The Modern Prometheus", 40000);
+        index.index(5200, "Metamorphosis", 20000);
+        index.index(15115, "La Metamorfosis", 900);
+        return index;
+    }
+
+    @Test
+    void ranksExactMatchesFirstAndToleratesTypos() {
+        List<TitleSearchIndex.Hit> hits = sampleIndex().search("don quijote", 5);
+
+        assertEquals(2000, hits.get(0).bookId());
+        // "quixote" sólo difiere en una letra: aparece detrás del acierto exacto.
+        assertEquals(996, hits.get(1).bookId());
+        assertEquals(2, hits.size());
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        TitleSearchIndex index = sampleIndex();
+
+        assertEquals(15115, index.search("METAMÓRFOSIS", 1).get(0).bookId());
+        assertEquals(84, index.search("frankenstein, or the modern", 1).get(0).bookId());
+        assertTrue(index.search("zzzz", 5).isEmpty());
+    }
+
+    @Test
+    void updatesAreIdempotentAndReplaceOldTitles() {
+        TitleSearchIndex index = sampleIndex();
+        index.index(1342, "Pride and Prejudice", 51000);
+        assertEquals(6, index.size());
+        assertEquals(51000, index.search("prejudice", 1).get(0).downloadCount());
+
+        index.index(1342, "Sense and Sensibility", 51000);
+        assertTrue(index.search("prejudice", 5).isEmpty());
+        assertEquals(1342, index.search("sensibility", 1).get(0).bookId());
+
+        assertTrue(index.remove(1342));
+        assertFalse(index.remove(1342));
+        assertTrue(index.search("sensibility", 5).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void compactsAfterManyReplacements() {
+        TitleSearchIndex index = new TitleSearchIndex();
+        for (int round = 0; round < 3; round++) {
+            for (int id = 0; id < 2000; id++) {
+                index.index(id, "Libro " + id + " edición " + round, id);
+            }
+        }
+        assertEquals(2000, index.size());
+        List<TitleSearchIndex.Hit> hits = index.search("libro 1999 edicion 2", 1);
+        assertEquals(1999, hits.get(0).bookId());
+        assertTrue(index.search("edicion 0", 3).stream().noneMatch(hit -> hit.title().endsWith(" 0")));
+    }
+}
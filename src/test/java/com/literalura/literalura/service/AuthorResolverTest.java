@@ -0,0 +1,40 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.model.Author;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthorResolverTest {
+
+    @Test
+    void concurrentWritersWithDifferentlyWrittenNamesShareOneAuthor() throws Exception {
+        try (EmbeddedCatalog catalog = EmbeddedCatalog.start()) {
+            JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+            try (Connection other = catalog.bean(DataSource.class).getConnection()) {
+                // Otro escritor inserta el autor con otras mayúsculas y todavía no confirma.
+                other.setAutoCommit(false);
+                try (Statement statement = other.createStatement()) {
+                    statement.executeUpdate("INSERT INTO authors (name) VALUES ('Twain, Mark')");
+                }
+                CompletableFuture<Author> resolved = CompletableFuture.supplyAsync(() ->
+                        catalog.bean(AuthorResolver.class).resolve(new Author("twain, mark ", 1835, 1910)));
+                // La inserción espera en el índice único del nombre normalizado hasta que el otro confirma.
+                Thread.sleep(500);
+                other.commit();
+
+                assertEquals("Twain, Mark", resolved.get(30, TimeUnit.SECONDS).getName());
+            }
+            assertEquals(1, jdbc.queryForObject(
+                    "SELECT count(*) FROM authors WHERE lower(trim(name)) = 'twain, mark'", Integer.class));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookWriteBehindQueueTest {
+
+    private static Book book(int id, String title) {
+        return new Book(id, title, List.of(new Author("Shelley, Mary Wollstonecraft", 1797, 1851)), null, List.of("en"), 10);
+    }
+
+    @Test
+    void savesQueuedBooksAndReportsEachOne() throws Exception {
+        try (EmbeddedCatalog catalog = EmbeddedCatalog.start()) {
+            catalog.bean(BookBatchWriter.class).write(List.of(book(900001, "Frankenstein")));
+            // Capacidad 2: el resto de envíos espera a que el hilo de escritura vacíe la cola.
+            BookWriteBehindQueue queue = new BookWriteBehindQueue(catalog.bean(BookBatchWriter.class),
+                    catalog.bean(CatalogMetrics.class), 2, 2);
+
+            List<CompletableFuture<BookWriteBehindQueue.WriteResult>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(queue.submit(book(900100 + i, "The Last Man, volume " + i)));
+            }
+            CompletableFuture<BookWriteBehindQueue.WriteResult> existing = queue.submit(book(900002, "FRANKENSTEIN"));
+            CompletableFuture<BookWriteBehindQueue.WriteResult> invalid = queue.submit(book(900003, " "));
+            // Un resultado ya mostrado por su futuro no se repite en los pendientes.
+            queue.acknowledge(results.get(0).join());
+            List<BookWriteBehindQueue.WriteResult> remaining = queue.close();
+
+            assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+            for (CompletableFuture<BookWriteBehindQueue.WriteResult> result : results) {
+                assertEquals(BookBatchWriter.Outcome.SAVED, result.join().outcome());
+                assertEquals("Shelley, Mary Wollstonecraft", result.join().book().getAuthor().getName());
+            }
+            assertEquals(BookBatchWriter.Outcome.DUPLICATE, existing.join().outcome());
+            assertEquals(BookBatchWriter.Outcome.REJECTED, invalid.join().outcome());
+            // El libro rechazado al validarlo no pasa por la cola: sólo informa su futuro.
+            assertEquals(6, remaining.size());
+            assertTrue(remaining.stream().noneMatch(result -> result == results.get(0).join()));
+            assertEquals(0, queue.pending());
+            assertEquals(6, catalog.bean(JdbcTemplate.class).queryForObject(
+                    "SELECT count(*) FROM books WHERE id BETWEEN 900100 AND 900199", Integer.class));
+            assertThrows(IllegalStateException.class, () -> queue.submit(book(900004, "Mathilda")));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.client.GutendexStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogIngestionServiceTest {
+
+    private static GutendexStubServer gutendex;
+    private static EmbeddedCatalog catalog;
+
+    @BeforeAll
+    static void start() throws Exception {
+        gutendex = new GutendexStubServer();
+        // Sin reintentos: un 5xx es definitivo.
+        catalog = EmbeddedCatalog.start("--gutendex.base-url=" + gutendex.baseUrl(),
+                "--gutendex.retry.max-attempts=1");
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        catalog.close();
+        gutendex.close();
+    }
+
+    @AfterEach
+    void resetStub() {
+        gutendex.forceStatus(0);
+    }
+
+    @Test
+    void ingestsEveryPage() throws Exception {
+        CatalogIngestionService.IngestionReport report = catalog.bean(CatalogIngestionService.class)
+                .ingest(new CatalogIngestionService.IngestionRequest(null, null, 3));
+
+        assertTrue(report.completed());
+        assertEquals(3, report.pages());
+        assertEquals(96, report.saved() + report.duplicates() + report.rejected());
+    }
+
+    @Test
+    void stopsAndReportsTheErrorWhenAPageFails() {
+        gutendex.forceStatus(500);
+        // Antes se quedaba esperando para siempre una URI que no iba a llegar.
+        CatalogIngestionService.IngestionReport report = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> catalog.bean(CatalogIngestionService.class)
+                        .ingest(new CatalogIngestionService.IngestionRequest("x", null, 0)));
+
+        assertFalse(report.completed());
+        assertEquals(0, report.pages());
+        assertEquals(0, report.saved());
+    }
+}
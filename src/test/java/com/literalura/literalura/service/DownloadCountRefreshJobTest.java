@@ -0,0 +1,88 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.client.GutendexStubServer;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.SyncCheckpoint;
+import com.literalura.literalura.repository.CatalogBulkWriter;
+import com.literalura.literalura.repository.SyncCheckpointRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DownloadCountRefreshJobTest {
+
+    /** Libro guardado que el servidor de prueba no conoce. */
+    private static final int UNKNOWN_ID = 999_999;
+
+    private static GutendexStubServer gutendex;
+    private static EmbeddedCatalog catalog;
+    private static JdbcTemplate jdbc;
+    private static int stored;
+
+    @BeforeAll
+    static void start() throws Exception {
+        gutendex = new GutendexStubServer();
+        catalog = EmbeddedCatalog.start("--gutendex.base-url=" + gutendex.baseUrl(),
+                "--literalura.refresh.chunk-size=40");
+        jdbc = catalog.bean(JdbcTemplate.class);
+
+        List<Book> books = new ArrayList<>(EmbeddedCatalog.fixtureBooks());
+        books.add(new Book(UNKNOWN_ID, "Not in Gutendex", List.of(new Author("Nobody", null, null)), null, List.of("en"), 7));
+        catalog.bean(CatalogBulkWriter.class).write(books);
+        stored = jdbc.queryForObject("SELECT count(*) FROM books", Integer.class);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        catalog.close();
+        gutendex.close();
+    }
+
+    private static int staleBooks() {
+        return jdbc.update("UPDATE books SET download_count = -1 WHERE id % 2 = 0");
+    }
+
+    @Test
+    void updatesOnlyChangedBooksAndResetsCheckpoint() throws Exception {
+        int stale = staleBooks();
+        DownloadCountRefreshJob job = catalog.bean(DownloadCountRefreshJob.class);
+
+        DownloadCountRefreshJob.RefreshReport report = job.run();
+
+        assertEquals(0, report.resumedFrom());
+        assertEquals(stored, report.checked());
+        assertEquals(stale, report.changed());
+        assertEquals(1, report.missing());
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM books WHERE download_count = -1", Integer.class));
+        assertEquals(7, jdbc.queryForObject("SELECT download_count FROM books WHERE id = " + UNKNOWN_ID, Integer.class));
+        assertEquals(0, catalog.bean(SyncCheckpointRepository.class)
+                .findById(DownloadCountRefreshJob.CHECKPOINT).orElseThrow().getLastId());
+
+        // Sin cambios en Gutendex, una segunda ejecución no escribe nada.
+        assertEquals(0, job.run().changed());
+    }
+
+    @Test
+    void resumesAfterCheckpoint() throws Exception {
+        staleBooks();
+        int resumeAfter = jdbc.queryForObject("SELECT id FROM books ORDER BY id OFFSET 49 LIMIT 1", Integer.class);
+        catalog.bean(SyncCheckpointRepository.class).save(new SyncCheckpoint(DownloadCountRefreshJob.CHECKPOINT, resumeAfter));
+
+        DownloadCountRefreshJob.RefreshReport report = catalog.bean(DownloadCountRefreshJob.class).run();
+
+        assertEquals(resumeAfter, report.resumedFrom());
+        assertEquals(stored - 50, report.checked());
+        // Lo anterior a la marca ya se había procesado en la ejecución interrumpida: no se vuelve a pedir.
+        assertEquals(jdbc.queryForObject(
+                        "SELECT count(*) FROM books WHERE id <= ? AND id % 2 = 0", Integer.class, resumeAfter),
+                jdbc.queryForObject("SELECT count(*) FROM books WHERE download_count = -1", Integer.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.metrics.CatalogMetrics;
+import com.literalura.literalura.model.Author;
+import com.literalura.literalura.model.Book;
+import com.literalura.literalura.model.TitleFingerprint;
+import com.literalura.literalura.repository.BookRepository;
+import com.literalura.literalura.repository.CatalogCache;
+import com.literalura.literalura.repository.CatalogBulkWriter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateTitleGuardTest {
+
+    private static EmbeddedCatalog catalog;
+
+    @BeforeAll
+    static void start() throws Exception {
+        catalog = EmbeddedCatalog.start();
+        catalog.bean(CatalogBulkWriter.class).write(List.of(
+                new Book(800001, "Don Quijote de la Mancha", List.of(new Author("Cervantes, Miguel de", 1547, 1616)),
+                        null, List.of("es"), 100)));
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        catalog.close();
+    }
+
+    @Test
+    void detectsTitlesDifferingOnlyInCaseAccentsAndPunctuation() {
+        DuplicateTitleGuard guard = catalog.bean(DuplicateTitleGuard.class);
+        guard.warm();
+
+        assertTrue(guard.isWarmed());
+        assertTrue(guard.exists("DON QUIJOTE DE LA MANCHA."));
+        assertTrue(guard.exists("Don  Quíjote de la Mancha"));
+        assertFalse(guard.exists("Don Quijote de la Mancha, segunda parte"));
+        assertTrue(catalog.bean(CatalogMetrics.class).registry()
+                .counter("literalura.dedup.checks", "outcome", "bloom-negative").count() >= 1);
+
+        // Aunque alguien se salte la comprobación, el índice único de la huella rechaza el duplicado.
+        Book duplicate = new Book(800002, "don quijote de la mancha!", null, null, List.of("es"), 1);
+        duplicate.setAuthor(catalog.bean(AuthorResolver.class).resolve(new Author("Cervantes, Miguel de", 1547, 1616)));
+        assertThrows(DataIntegrityViolationException.class, () -> catalog.bean(BookRepository.class).save(duplicate));
+    }
+
+    @Test
+    void longTitlesDifferingAfterTheColumnLengthHaveDifferentFingerprints() {
+        String prefix = "a long title ".repeat(25);
+        String first = TitleFingerprint.of(prefix + "volume one");
+        String second = TitleFingerprint.of(prefix + "volume two");
+
+        assertTrue(prefix.length() > TitleFingerprint.MAX_LENGTH);
+        assertNotEquals(first, second);
+        assertTrue(first.length() <= TitleFingerprint.MAX_LENGTH);
+        assertEquals(first, TitleFingerprint.of(prefix.toUpperCase() + "Volume One."));
+        // Las huellas que caben en la columna no cambian.
+        assertEquals("don quijote", TitleFingerprint.of("Don Quíjote."));
+    }
+
+    @Test
+    void backfillsFingerprintsOfOlderRows() {
+        JdbcTemplate jdbc = catalog.bean(JdbcTemplate.class);
+        Long authorId = jdbc.queryForObject("SELECT id FROM authors LIMIT 1", Long.class);
+        // Filas guardadas antes de existir la columna: la segunda repite el título de la primera.
+        jdbc.update("INSERT INTO books (id, title, author_id) VALUES (800010, 'Old  Title', ?), (800011, 'OLD TITLE', ?)",
+                authorId, authorId);
+
+        DuplicateTitleGuard guard = new DuplicateTitleGuard(catalog.bean(BookRepository.class), jdbc,
+                catalog.bean(CatalogCache.class), catalog.bean(CatalogMetrics.class), true, 1000, 0.01, 100);
+        guard.warm();
+
+        assertEquals("old title", jdbc.queryForObject("SELECT title_fingerprint FROM books WHERE id = 800010", String.class));
+        assertNull(jdbc.queryForObject("SELECT title_fingerprint FROM books WHERE id = 800011", String.class));
+        assertTrue(guard.exists("old title"));
+    }
+}
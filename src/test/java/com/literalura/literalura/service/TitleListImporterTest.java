@@ -0,0 +1,53 @@
+package com.literalura.literalura.service;
+
+import com.literalura.literalura.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TitleListImporterTest {
+
+    private static Book book(int id, String title, int downloads) {
+        return new Book(id, title, List.of(), null, List.of("en"), downloads);
+    }
+
+    @Test
+    void parsesTitlesWithOptionalLanguages() {
+        assertEquals(new TitleListImporter.TitleQuery("Pride and Prejudice", null),
+                TitleListImporter.parseLine("  Pride and Prejudice "));
+        assertEquals(new TitleListImporter.TitleQuery("Don Quijote", "es"),
+                TitleListImporter.parseLine("Don Quijote;ES"));
+        // Sólo el último ';' separa los idiomas: el título puede contener otros.
+        assertEquals(new TitleListImporter.TitleQuery("Frankenstein; Or, The Modern Prometheus", "en,fr"),
+                TitleListImporter.parseLine("Frankenstein; Or, The Modern Prometheus; en, fr"));
+        assertEquals(new TitleListImporter.TitleQuery("Dracula", null), TitleListImporter.parseLine("Dracula;"));
+        assertNull(TitleListImporter.parseLine("   "));
+        assertNull(TitleListImporter.parseLine("# comentario"));
+    }
+
+    @Test
+    void prefersExactTitleThenMostDownloads() {
+        List<Book> results = List.of(
+                book(1, "Pride and Prejudice: A Study Guide", 90000),
+                book(2, "Pride and Prejudice", 100),
+                book(3, "PRIDE AND PREJUDICE!", 5000));
+
+        assertEquals(3, TitleListImporter.bestMatch("pride and prejudice", results).getId());
+    }
+
+    @Test
+    void fallsBackToMostDownloadedResult() {
+        List<Book> results = List.of(
+                book(1, "Essays on Dickens", 10),
+                book(2, "A Tale of Two Cities", 3000),
+                book(3, "Great Expectations", 8000));
+
+        assertEquals(3, TitleListImporter.bestMatch("dickens", List.of(results.get(1), results.get(2))).getId());
+        // Un título que contiene la búsqueda gana aunque tenga menos descargas.
+        assertEquals(1, TitleListImporter.bestMatch("dickens", results).getId());
+        assertNull(TitleListImporter.bestMatch("dickens", List.of()));
+    }
+}
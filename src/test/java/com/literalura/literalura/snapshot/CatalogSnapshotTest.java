@@ -0,0 +1,105 @@
+package com.literalura.literalura.snapshot;
+
+import com.literalura.literalura.benchmark.EmbeddedCatalog;
+import com.literalura.literalura.dto.LanguageStatistics;
+import com.literalura.literalura.repository.AuthorRepository;
+import com.literalura.literalura.search.CatalogStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.literalura.literalura.snapshot.CatalogSnapshot.UNKNOWN_YEAR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private static CatalogSnapshotWriter.Columns sampleColumns() {
+        return new CatalogSnapshotWriter.Columns(
+                new long[]{3, 8, 12},
+                new String[]{"Austen, Jane", "Cervantes Saavedra, Miguel de", "Anónimo"},
+                new int[]{1775, 1547, UNKNOWN_YEAR},
+                new int[]{1817, 1616, UNKNOWN_YEAR},
+                new int[]{11, 1342, 2000, 5000},
+                new int[]{0, 9_000, 150, 15},
+                new int[]{0, 0, 1, -1},
+                new int[]{0, 1, 2, 4, 5},
+                new int[]{0, 0, 0, 1, 1},
+                List.of("en", "es"));
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        long bytes = CatalogSnapshotWriter.write(file, sampleColumns());
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(Files.size(file), bytes);
+        assertEquals(4, snapshot.bookCount());
+        assertEquals(3, snapshot.authorCount());
+        assertEquals(List.of("en", "es"), snapshot.languages());
+        assertEquals(2, snapshot.findBook(2000));
+        assertEquals(-1, snapshot.findBook(1999));
+        assertEquals(-1, snapshot.authorOf(3));
+        assertEquals("Anónimo", snapshot.authorName(2));
+        assertEquals("Cervantes Saavedra, Miguel de", snapshot.authorName(snapshot.authorOf(2)));
+        assertArrayEquals(new int[]{0, 1}, snapshot.languageCodesOf(2));
+        assertEquals(12L, snapshot.authorId(2));
+
+        assertEquals(9_165, snapshot.totalDownloads());
+        assertEquals(List.of(
+                new LanguageStatistics("en", 3, 9_150, 3_050.0),
+                new LanguageStatistics("es", 2, 165, 82.5)), snapshot.languageTotals());
+        CatalogSnapshot.DownloadDistribution distribution = snapshot.downloadDistribution();
+        assertEquals(9_000, distribution.max());
+        assertArrayEquals(new long[]{1, 0, 1, 1, 1, 0, 0, 0, 0, 0, 0}, distribution.buckets());
+        assertEquals(1, snapshot.authorsAliveIn(1600));
+        assertEquals(0, snapshot.authorsAliveIn(1700));
+        assertEquals(new CatalogSnapshot.Lifespans(2, 55.5, 69), snapshot.lifespans());
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotWriter.write(file, sampleColumns());
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 4));
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    void answersLikeTheDatabase() throws Exception {
+        try (EmbeddedCatalog catalog = EmbeddedCatalog.start()) {
+            catalog.seed(300);
+            // Un idioma en mayúsculas y repetido: la instantánea lo normaliza como el índice de estadísticas.
+            catalog.bean(JdbcTemplate.class).update("INSERT INTO book_languages (book_id, language) VALUES (5, 'EN'), (5, 'en')");
+            Path file = directory.resolve("catalog.snapshot");
+
+            CatalogSnapshotWriter.ExportReport report = catalog.bean(CatalogSnapshotWriter.class).export(file);
+            CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+            assertEquals(300, report.books());
+            assertEquals(300, snapshot.bookCount());
+            assertEquals(catalog.bean(CatalogStatisticsService.class).byLanguage(), snapshot.languageTotals());
+            assertEquals(catalog.bean(CatalogStatisticsService.class).totals().downloads(), snapshot.totalDownloads());
+            AuthorRepository authors = catalog.bean(AuthorRepository.class);
+            for (int year : new int[]{1600, 1800, 1850, 1900}) {
+                assertEquals(authors.findAuthorsAliveInYear(year).size(), snapshot.authorsAliveIn(year), "año " + year);
+            }
+        }
+    }
+}